@@ -0,0 +1,43 @@
+package br.com.mini.erp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+
+/**
+ * Acertos, faltas e inserções de cada região do cache de segundo nível do Hibernate (cache.gets{result=hit|miss},
+ * cache.puts, cache.removals). Os valores vêm das estatísticas JCache de cada cache Caffeine
+ * (monitoring.statistics em application.conf), restritas às regiões: hibernate.generate_statistics, que conta
+ * todas as consultas e entidades da aplicação, fica desligado.
+ */
+@Component
+public class CacheSegundoNivelMetricas implements MeterBinder {
+
+    private static final String GERENCIADOR = "hibernate";
+
+    private final CacheManager cacheManager;
+
+    public CacheSegundoNivelMetricas(EntityManagerFactory entityManagerFactory) {
+        // o mesmo CacheManager em que o Hibernate criou as regiões
+        JCacheRegionFactory regionFactory = (JCacheRegionFactory) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache().getRegionFactory();
+        this.cacheManager = regionFactory.getCacheManager();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String regiao : cacheManager.getCacheNames()) {
+            Cache<Object, Object> cache = cacheManager.getCache(regiao);
+            new JCacheMetrics<>(cache, Tags.of("cache.manager", GERENCIADOR)).bindTo(registry);
+        }
+    }
+
+}
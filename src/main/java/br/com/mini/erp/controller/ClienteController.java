@@ -2,7 +2,10 @@ package br.com.mini.erp.controller;
 
 import br.com.mini.erp.dto.request.ClienteRequest;
 import br.com.mini.erp.dto.response.ClienteResponse;
+import br.com.mini.erp.dto.response.PaginaCursorResponse;
+import br.com.mini.erp.enuns.PrioridadeAdmissao;
 import br.com.mini.erp.service.ClienteService;
+import br.com.mini.erp.service.admissao.LimiteConcorrencia;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,6 +16,7 @@ import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,6 +24,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -27,6 +32,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/api/v1/customers")
 @Tag(name = "Clientes", description = "Gerenciamento de clientes (CRUD e busca)")
+@LimiteConcorrencia
 public class ClienteController {
 
     private final ClienteService service;
@@ -45,6 +51,7 @@ public class ClienteController {
                     @ApiResponse(responseCode = "409", description = "E-mail ou CPF já cadastrado", content = @Content)
             }
     )
+    @LimiteConcorrencia(PrioridadeAdmissao.ESCRITA)
     @PostMapping
     public ResponseEntity<ClienteResponse> create(@Valid @RequestBody ClienteRequest req) {
         return ResponseEntity.ok(service.create(req));
@@ -61,6 +68,7 @@ public class ClienteController {
                     @ApiResponse(responseCode = "409", description = "E-mail ou CPF já cadastrado", content = @Content)
             }
     )
+    @LimiteConcorrencia(PrioridadeAdmissao.ESCRITA)
     @PutMapping("/{id}")
     public ResponseEntity<ClienteResponse> update(
             @Parameter(description = "ID do cliente a ser atualizado", example = "1")
@@ -71,17 +79,21 @@ public class ClienteController {
 
     @Operation(
             summary = "Busca cliente por ID",
+            description = "Responde com ETag. Com If-None-Match igual à versão atual, a resposta é 304 a partir de uma consulta só da versão.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Cliente encontrado",
                             content = @Content(schema = @Schema(implementation = ClienteResponse.class))),
+                    @ApiResponse(responseCode = "304", description = "Cliente não mudou desde o ETag informado", content = @Content),
                     @ApiResponse(responseCode = "404", description = "Cliente não encontrado", content = @Content)
             }
     )
     @GetMapping("/{id}")
     public ResponseEntity<ClienteResponse> get(
             @Parameter(description = "ID do cliente", example = "1")
-            @PathVariable Long id) {
-        return ResponseEntity.ok(service.get(id));
+            @PathVariable Long id,
+            @Parameter(description = "ETag de uma resposta anterior: se o cliente não mudou, a resposta é 304 sem corpo")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ETags.responder(ifNoneMatch, service.versao(id), () -> service.get(id));
     }
 
     @Operation(
@@ -91,6 +103,7 @@ public class ClienteController {
                     @ApiResponse(responseCode = "404", description = "Cliente não encontrado", content = @Content)
             }
     )
+    @LimiteConcorrencia(PrioridadeAdmissao.ESCRITA)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(
             @Parameter(description = "ID do cliente a ser removido", example = "1")
@@ -101,17 +114,40 @@ public class ClienteController {
 
     @Operation(
             summary = "Pesquisa clientes por nome ou e-mail",
-            description = "Retorna lista paginada de clientes filtrados pelo parâmetro `q`. Caso `q` seja nulo, retorna todos os clientes.",
+            description = "Retorna lista paginada de clientes filtrados pelo parâmetro `q`. Caso `q` seja nulo, retorna todos os clientes. " +
+                    "Responde com ETag; com If-None-Match igual, a resposta é 304 a partir de uma projeção (id, versão) da página.",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "Lista de clientes retornada com sucesso")
+                    @ApiResponse(responseCode = "200", description = "Lista de clientes retornada com sucesso"),
+                    @ApiResponse(responseCode = "304", description = "Página não mudou desde o ETag informado", content = @Content)
             }
     )
     @GetMapping
     public ResponseEntity<Page<ClienteResponse>> search(
             @Parameter(description = "Filtro de pesquisa por nome ou e-mail", example = "joao")
             @RequestParam(required = false) String q,
-            @PageableDefault(size = 20) Pageable pageable) {
-        return ResponseEntity.ok(service.search(q, pageable));
+            @PageableDefault(size = 20) Pageable pageable,
+            @Parameter(description = "ETag de uma resposta anterior: se a página não mudou, a resposta é 304 sem corpo")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ETags.responderPagina(ifNoneMatch, () -> service.versaoSearch(q, pageable), () -> service.search(q, pageable));
+    }
+
+    @Operation(
+            summary = "Pesquisa clientes por cursor",
+            description = "Paginação por cursor ordenada por id, sem contagem total: o custo de cada página é constante, inclusive nas páginas profundas. Use `proximoCursor` da resposta para buscar a página seguinte.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Página de clientes retornada com sucesso"),
+                    @ApiResponse(responseCode = "422", description = "Cursor inválido", content = @Content)
+            }
+    )
+    @GetMapping("/cursor")
+    public ResponseEntity<PaginaCursorResponse<ClienteResponse>> searchCursor(
+            @Parameter(description = "Filtro de pesquisa por nome ou e-mail", example = "joao")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Cursor devolvido pela página anterior (omitir na primeira página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máximo 1000)", example = "100")
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(service.searchCursor(q, cursor, size));
     }
 
 }
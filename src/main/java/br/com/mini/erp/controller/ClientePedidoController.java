@@ -0,0 +1,55 @@
+package br.com.mini.erp.controller;
+
+import br.com.mini.erp.dto.response.PaginaCursorResponse;
+import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.service.PedidoService;
+import br.com.mini.erp.service.admissao.LimiteConcorrencia;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/customers/{clienteId}/orders")
+@Tag(name = "Pedidos", description = "Gerenciamento de pedidos (criação, consulta, pagamento e cancelamento)")
+@LimiteConcorrencia
+public class ClientePedidoController {
+
+    private final PedidoService service;
+
+    public ClientePedidoController(PedidoService service) {
+        this.service = service;
+    }
+
+    @Operation(
+            summary = "Histórico de pedidos do cliente",
+            description = "Pedidos do cliente, mais recentes primeiro, paginados por cursor sobre (criadoEm, id) e lidos do read model pedido_resumo " +
+                    "pelo índice (cliente_id, criado_em desc, id desc): o custo de cada página não depende do tamanho do histórico. " +
+                    "Os itens só são carregados (uma consulta para a página inteira) com itens=true. Pedidos do arquivo frio não aparecem.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Página do histórico retornada com sucesso"),
+                    @ApiResponse(responseCode = "404", description = "Cliente não encontrado", content = @Content),
+                    @ApiResponse(responseCode = "422", description = "Cursor inválido", content = @Content)
+            }
+    )
+    @GetMapping
+    public ResponseEntity<PaginaCursorResponse<PedidoResponse>> list(
+            @Parameter(description = "ID do cliente", example = "1")
+            @PathVariable Long clienteId,
+            @Parameter(description = "Cursor devolvido pela página anterior (omitir na primeira página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máximo 1000)", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Inclui os itens de cada pedido", example = "false")
+            @RequestParam(defaultValue = "false") boolean itens) {
+        return ResponseEntity.ok(service.listByCliente(clienteId, cursor, size, itens));
+    }
+
+}
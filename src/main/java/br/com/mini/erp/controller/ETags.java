@@ -0,0 +1,73 @@
+package br.com.mini.erp.controller;
+
+import br.com.mini.erp.service.paginacao.PaginaVersionada;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * GET condicional: a versão vem de uma consulta barata (só a coluna de versão, ou uma projeção da página) e,
+ * se bate com o If-None-Match, a resposta é 304 sem carregar nem serializar o recurso.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    /**
+     * A versão é lida antes do corpo: se o recurso mudar no meio, o ETag fica mais antigo que o corpo e a
+     * próxima requisição condicional recebe 200, nunca um 304 indevido.
+     * Sem versão (recurso inexistente, pedido no arquivo frio) a resposta é a do corpo, sem ETag.
+     */
+    static <T> ResponseEntity<T> responder(String ifNoneMatch, Optional<String> versao, Supplier<T> corpo) {
+        if (versao.isEmpty()) {
+            return ResponseEntity.ok(corpo.get());
+        }
+        String etag = "\"" + versao.get() + "\"";
+        if (corresponde(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(corpo.get());
+    }
+
+    /**
+     * Listagens: a projeção de versões da página (página + count) só é consultada quando a requisição traz
+     * If-None-Match. Sem ele, ou sem correspondência, a página é carregada uma vez e o ETag sai das linhas carregadas,
+     * no mesmo formato da projeção.
+     */
+    static <T> ResponseEntity<Page<T>> responderPagina(String ifNoneMatch, Supplier<String> versao, Supplier<PaginaVersionada<T>> pagina) {
+        if (ifNoneMatch != null && !ifNoneMatch.isBlank()) {
+            String etag = "\"" + versao.get() + "\"";
+            if (corresponde(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+            }
+        }
+        PaginaVersionada<T> p = pagina.get();
+        return ResponseEntity.ok().eTag("\"" + p.versao() + "\"").cacheControl(CacheControl.noCache()).body(p.pagina());
+    }
+
+    // If-None-Match usa comparação fraca: W/"x" corresponde a "x"
+    static boolean corresponde(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidato : ifNoneMatch.split(",")) {
+            candidato = candidato.trim();
+            if (candidato.equals("*")) {
+                return true;
+            }
+            if (candidato.startsWith("W/")) {
+                candidato = candidato.substring(2);
+            }
+            if (candidato.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,68 @@
+package br.com.mini.erp.controller;
+
+import br.com.mini.erp.dto.request.PedidoRequest;
+import br.com.mini.erp.dto.response.PedidoAssincronoResponse;
+import br.com.mini.erp.service.PedidoAssincronoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/v1/orders/async")
+@Tag(name = "Pedidos assíncronos", description = "Recebimento de pedidos com processamento em fila")
+public class PedidoAssincronoController {
+
+    private final PedidoAssincronoService service;
+
+    public PedidoAssincronoController(PedidoAssincronoService service) {
+        this.service = service;
+    }
+
+    @Operation(
+            summary = "Recebe um pedido para criação assíncrona",
+            description = "Valida e enfileira o pedido, respondendo imediatamente com um id de acompanhamento. " +
+                    "A criação (preço e estoque) segue as mesmas regras do POST /api/v1/orders e o resultado é consultado em GET /api/v1/orders/async/{id}.",
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Pedido aceito para processamento",
+                            content = @Content(schema = @Schema(implementation = PedidoAssincronoResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Dados inválidos", content = @Content),
+                    @ApiResponse(responseCode = "503", description = "Fila cheia (ver header Retry-After)", content = @Content)
+            }
+    )
+    @PostMapping
+    public ResponseEntity<PedidoAssincronoResponse> aceitar(@Valid @RequestBody PedidoRequest req) {
+        PedidoAssincronoResponse resp = service.aceitar(req);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/orders/async/" + resp.id()))
+                .body(resp);
+    }
+
+    @Operation(
+            summary = "Consulta a situação de um pedido assíncrono",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Situação da solicitação",
+                            content = @Content(schema = @Schema(implementation = PedidoAssincronoResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "Solicitação não encontrada", content = @Content)
+            }
+    )
+    @GetMapping("/{id}")
+    public ResponseEntity<PedidoAssincronoResponse> get(
+            @Parameter(description = "Id de acompanhamento", example = "b7e4c1a2-9f3d-4c8e-a1b2-3c4d5e6f7a8b")
+            @PathVariable String id) {
+        return ResponseEntity.ok(service.get(id));
+    }
+
+}
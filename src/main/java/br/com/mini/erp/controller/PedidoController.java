@@ -1,9 +1,18 @@
 package br.com.mini.erp.controller;
 
+import br.com.mini.erp.dto.request.PedidoLoteRequest;
 import br.com.mini.erp.dto.request.PedidoRequest;
+import br.com.mini.erp.dto.request.PedidoTransicaoLoteRequest;
+import br.com.mini.erp.dto.response.PaginaCursorResponse;
+import br.com.mini.erp.dto.response.PedidoLoteResponse;
 import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.dto.response.PedidoResumoResponse;
+import br.com.mini.erp.dto.response.PedidoTransicaoLoteResponse;
 import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.enuns.PrioridadeAdmissao;
 import br.com.mini.erp.service.PedidoService;
+import br.com.mini.erp.service.admissao.LimiteConcorrencia;
+import br.com.mini.erp.service.idempotencia.IdempotenciaExecutor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,11 +24,13 @@ import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -27,12 +38,17 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/api/v1/orders")
 @Tag(name = "Pedidos", description = "Gerenciamento de pedidos (criação, consulta, pagamento e cancelamento)")
+@LimiteConcorrencia
 public class PedidoController {
 
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final PedidoService service;
+    private final IdempotenciaExecutor idempotencia;
 
-    public PedidoController(PedidoService service) {
+    public PedidoController(PedidoService service, IdempotenciaExecutor idempotencia) {
         this.service = service;
+        this.idempotencia = idempotencia;
     }
 
     @Operation(
@@ -57,39 +73,92 @@ public class PedidoController {
                     @ApiResponse(responseCode = "409", description = "Estoque insuficiente", content = @Content)
             }
     )
+    @LimiteConcorrencia(PrioridadeAdmissao.ESCRITA)
     @PostMapping
-    public ResponseEntity<PedidoResponse> create(@Valid @RequestBody PedidoRequest req) {
-        return ResponseEntity.ok(service.create(req));
+    public ResponseEntity<PedidoResponse> create(
+            @Valid @RequestBody PedidoRequest req,
+            @Parameter(description = "Chave de idempotência: repetições com o mesmo corpo devolvem a resposta da primeira execução " +
+                    "(outro corpo: 422; primeira execução ainda em andamento: 409)", example = "3f1c2b9e-5d7a-4e21-9c0f-8a6b4d2e1f00")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(service.create(req));
+        }
+        return ResponseEntity.ok(idempotencia.executar(idempotencyKey, "create", req, () -> service.create(req)));
+    }
+
+    @Operation(
+            summary = "Cria pedidos em lote",
+            description = "Ingestão em massa: cada pedido é validado, precificado e gravado com INSERTs em lote. " +
+                    "Pedidos inválidos são rejeitados individualmente sem afetar os demais; a resposta traz o resultado de cada um e a vazão medida.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lote processado (ver resultado por pedido)",
+                            content = @Content(schema = @Schema(implementation = PedidoLoteResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Lote vazio ou malformado", content = @Content)
+            }
+    )
+    @LimiteConcorrencia(PrioridadeAdmissao.ESCRITA)
+    @PostMapping("/batch")
+    public ResponseEntity<PedidoLoteResponse> createBatch(@Valid @RequestBody PedidoLoteRequest req) {
+        return ResponseEntity.ok(service.createBatch(req.pedidos()));
     }
 
     @Operation(
             summary = "Busca pedido por ID",
+            description = "Responde com ETag. Com If-None-Match igual à versão atual, a resposta é 304 a partir de uma consulta só das versões " +
+                    "do pedido e dos produtos dos itens, sem carregar o pedido. Pedidos do arquivo frio não têm ETag.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Pedido encontrado",
                             content = @Content(schema = @Schema(implementation = PedidoResponse.class))),
+                    @ApiResponse(responseCode = "304", description = "Pedido não mudou desde o ETag informado", content = @Content),
                     @ApiResponse(responseCode = "404", description = "Pedido não encontrado", content = @Content)
             }
     )
     @GetMapping("/{id}")
     public ResponseEntity<PedidoResponse> get(
             @Parameter(description = "ID do pedido", example = "1001")
-            @PathVariable Long id) {
-        return ResponseEntity.ok(service.get(id));
+            @PathVariable Long id,
+            @Parameter(description = "ETag de uma resposta anterior: se o pedido não mudou, a resposta é 304 sem corpo")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ETags.responder(ifNoneMatch, service.versao(id), () -> service.get(id));
     }
 
     @Operation(
             summary = "Lista pedidos com paginação",
-            description = "Retorna lista paginada de pedidos. Pode ser filtrado por status.",
+            description = "Retorna lista paginada de resumos de pedidos (totais, quantidade de itens e SKUs), lida do read model pedido_resumo. " +
+                    "Pode ser filtrado por status. Os itens completos estão em GET /api/v1/orders/{id}. " +
+                    "Responde com ETag; com If-None-Match igual, a resposta é 304 a partir de uma projeção (id, status) da página.",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "Lista de pedidos retornada com sucesso")
+                    @ApiResponse(responseCode = "200", description = "Lista de pedidos retornada com sucesso"),
+                    @ApiResponse(responseCode = "304", description = "Página não mudou desde o ETag informado", content = @Content)
             }
     )
     @GetMapping
-    public ResponseEntity<Page<PedidoResponse>> list(
+    public ResponseEntity<Page<PedidoResumoResponse>> list(
             @Parameter(description = "Filtro de status do pedido", example = "CRIADO")
             @RequestParam(required = false) PedidoStatus status,
-            @PageableDefault(size = 20) Pageable pageable) {
-        return ResponseEntity.ok(service.list(status, pageable));
+            @PageableDefault(size = 20) Pageable pageable,
+            @Parameter(description = "ETag de uma resposta anterior: se a página não mudou, a resposta é 304 sem corpo")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ETags.responderPagina(ifNoneMatch, () -> service.versaoLista(status, pageable), () -> service.list(status, pageable));
+    }
+
+    @Operation(
+            summary = "Lista pedidos por cursor",
+            description = "Paginação por cursor ordenada por (criadoEm, id), sem contagem total: o custo de cada página é constante, inclusive nas páginas profundas. Use `proximoCursor` da resposta para buscar a página seguinte.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Página de pedidos retornada com sucesso"),
+                    @ApiResponse(responseCode = "422", description = "Cursor inválido", content = @Content)
+            }
+    )
+    @GetMapping("/cursor")
+    public ResponseEntity<PaginaCursorResponse<PedidoResponse>> listCursor(
+            @Parameter(description = "Filtro de status do pedido", example = "CRIADO")
+            @RequestParam(required = false) PedidoStatus status,
+            @Parameter(description = "Cursor devolvido pela página anterior (omitir na primeira página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máximo 1000)", example = "100")
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(service.listCursor(status, cursor, size));
     }
 
     @Operation(
@@ -102,11 +171,17 @@ public class PedidoController {
                     @ApiResponse(responseCode = "404", description = "Pedido não encontrado", content = @Content)
             }
     )
+    @LimiteConcorrencia(PrioridadeAdmissao.ESCRITA)
     @PostMapping("/{id}/pay")
     public ResponseEntity<PedidoResponse> pay(
             @Parameter(description = "ID do pedido a ser pago", example = "1001")
-            @PathVariable Long id) {
-        return ResponseEntity.ok(service.pay(id));
+            @PathVariable Long id,
+            @Parameter(description = "Chave de idempotência: repetições devolvem a resposta da primeira execução (ainda em andamento: 409)", example = "pay-1001-01")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(service.pay(id));
+        }
+        return ResponseEntity.ok(idempotencia.executar(idempotencyKey, "pay:" + id, null, () -> service.pay(id)));
     }
 
     @Operation(
@@ -119,11 +194,49 @@ public class PedidoController {
                     @ApiResponse(responseCode = "404", description = "Pedido não encontrado", content = @Content)
             }
     )
+    @LimiteConcorrencia(PrioridadeAdmissao.ESCRITA)
     @PostMapping("/{id}/cancel")
     public ResponseEntity<PedidoResponse> cancel(
             @Parameter(description = "ID do pedido a ser cancelado", example = "1001")
-            @PathVariable Long id) {
-        return ResponseEntity.ok(service.cancel(id));
+            @PathVariable Long id,
+            @Parameter(description = "Chave de idempotência: repetições devolvem a resposta da primeira execução (ainda em andamento: 409)", example = "cancel-1001-01")
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.ok(service.cancel(id));
+        }
+        return ResponseEntity.ok(idempotencia.executar(idempotencyKey, "cancel:" + id, null, () -> service.cancel(id)));
+    }
+
+    @Operation(
+            summary = "Paga pedidos em lote",
+            description = "Conciliação em massa: os pedidos são pagos com UPDATEs em conjunto, por chunk de ids. " +
+                    "Pedidos inexistentes, cancelados ou já pagos são rejeitados individualmente; a resposta traz o resultado de cada id.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lote processado (ver resultado por pedido)",
+                            content = @Content(schema = @Schema(implementation = PedidoTransicaoLoteResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Lote vazio ou malformado", content = @Content)
+            }
+    )
+    @LimiteConcorrencia(PrioridadeAdmissao.ESCRITA)
+    @PostMapping("/batch/pay")
+    public ResponseEntity<PedidoTransicaoLoteResponse> payBatch(@Valid @RequestBody PedidoTransicaoLoteRequest req) {
+        return ResponseEntity.ok(service.payBatch(req.ids()));
+    }
+
+    @Operation(
+            summary = "Cancela pedidos em lote",
+            description = "Cancela os pedidos com UPDATEs em conjunto, por chunk de ids. O estoque dos pedidos cancelados é somado por produto " +
+                    "e devolvido com um único UPDATE por chunk. Pedidos pagos ou inexistentes são rejeitados individualmente; já cancelados não são alterados.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Lote processado (ver resultado por pedido)",
+                            content = @Content(schema = @Schema(implementation = PedidoTransicaoLoteResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Lote vazio ou malformado", content = @Content)
+            }
+    )
+    @LimiteConcorrencia(PrioridadeAdmissao.ESCRITA)
+    @PostMapping("/batch/cancel")
+    public ResponseEntity<PedidoTransicaoLoteResponse> cancelBatch(@Valid @RequestBody PedidoTransicaoLoteRequest req) {
+        return ResponseEntity.ok(service.cancelBatch(req.ids()));
     }
 
 }
@@ -0,0 +1,72 @@
+package br.com.mini.erp.controller;
+
+import br.com.mini.erp.enuns.FormatoExportacao;
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.exception.BusinessException;
+import br.com.mini.erp.service.PedidoExportacaoService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+
+@RestController
+@RequestMapping("/api/v1/orders/export")
+@Tag(name = "Exportação de pedidos", description = "Exportação em streaming de pedidos com itens (CSV ou NDJSON)")
+public class PedidoExportacaoController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final PedidoExportacaoService service;
+
+    public PedidoExportacaoController(PedidoExportacaoService service) {
+        this.service = service;
+    }
+
+    @Operation(
+            summary = "Exporta pedidos com itens em streaming",
+            description = "Lê os pedidos com um cursor no banco e escreve direto na resposta, sem paginação: a memória do servidor não cresce com o volume. " +
+                    "CSV traz uma linha por item (dados do pedido repetidos); NDJSON traz um pedido por linha, no formato de GET /api/v1/orders/{id}. " +
+                    "Ordenado por (criadoEm, id).",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Arquivo de exportação (streaming)"),
+                    @ApiResponse(responseCode = "422", description = "Intervalo de datas inválido", content = @Content)
+            }
+    )
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @Parameter(description = "Formato do arquivo", example = "CSV")
+            @RequestParam(defaultValue = "CSV") FormatoExportacao formato,
+            @Parameter(description = "Filtro de status do pedido", example = "PAGO")
+            @RequestParam(required = false) PedidoStatus status,
+            @Parameter(description = "Criados a partir de (inclusivo, ISO-8601)", example = "2025-09-01T00:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime de,
+            @Parameter(description = "Criados antes de (exclusivo, ISO-8601)", example = "2025-10-01T00:00:00Z")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime ate) {
+
+        if (de != null && ate != null && !de.isBefore(ate)) {
+            throw new BusinessException("Intervalo inválido: 'de' deve ser anterior a 'ate'");
+        }
+
+        String arquivo = "pedidos." + formato.name().toLowerCase();
+        StreamingResponseBody corpo = out -> service.exportar(formato, status, de, ate, out);
+        return ResponseEntity.ok()
+                .contentType(formato == FormatoExportacao.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(arquivo).build().toString())
+                .body(corpo);
+    }
+
+}
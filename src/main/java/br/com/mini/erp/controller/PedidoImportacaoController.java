@@ -0,0 +1,110 @@
+package br.com.mini.erp.controller;
+
+import br.com.mini.erp.dto.response.PedidoImportacaoResponse;
+import br.com.mini.erp.enuns.PrioridadeAdmissao;
+import br.com.mini.erp.service.PedidoImportacaoService;
+import br.com.mini.erp.service.admissao.LimiteConcorrencia;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/orders/import")
+@Tag(name = "Importação de pedidos", description = "Importação em streaming de dumps de pedidos (NDJSON)")
+public class PedidoImportacaoController {
+
+    private final PedidoImportacaoService service;
+
+    public PedidoImportacaoController(PedidoImportacaoService service) {
+        this.service = service;
+    }
+
+    @Operation(
+            summary = "Importa pedidos a partir de um corpo NDJSON",
+            description = "Um PedidoRequest por linha. O corpo é lido em streaming e gravado em chunks, com as mesmas regras de preço e estoque do POST /api/v1/orders. " +
+                    "O progresso pode ser acompanhado em GET /api/v1/orders/import/{id} enquanto o upload é processado.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Importação finalizada",
+                            content = @Content(schema = @Schema(implementation = PedidoImportacaoResponse.class))),
+                    @ApiResponse(responseCode = "422", description = "Já existe importação com o id informado", content = @Content),
+                    @ApiResponse(responseCode = "503", description = "Limite de concorrência atingido (Retry-After)", content = @Content)
+            }
+    )
+    // uma importação dura minutos e ocupa até mini-erp.pedidos.importacao.workers conexões: limite fixo em grupo
+    // próprio (o RTT dela derrubaria o limite adaptativo do grupo "banco"), compartilhado com o upload multipart
+    @LimiteConcorrencia(value = PrioridadeAdmissao.ESCRITA, grupo = "importacao", limiteFixo = 2)
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<PedidoImportacaoResponse> importar(
+            @Parameter(description = "Id da importação para acompanhar o progresso (gerado se omitido)", example = "migracao-2025-09")
+            @RequestParam(required = false) String id,
+            HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(service.importar(id, request.getInputStream()));
+    }
+
+    @Operation(
+            summary = "Importa pedidos a partir de um arquivo NDJSON (multipart)",
+            description = "O arquivo é gravado em disco pelo container antes do processamento; tamanho máximo em " +
+                    "spring.servlet.multipart.max-file-size (IMPORTACAO_MAX_ARQUIVO). Para dumps maiores, use o corpo NDJSON.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Importação finalizada",
+                            content = @Content(schema = @Schema(implementation = PedidoImportacaoResponse.class))),
+                    @ApiResponse(responseCode = "413", description = "Arquivo acima do tamanho máximo", content = @Content),
+                    @ApiResponse(responseCode = "503", description = "Limite de concorrência atingido (Retry-After)", content = @Content)
+            }
+    )
+    @LimiteConcorrencia(value = PrioridadeAdmissao.ESCRITA, grupo = "importacao", limiteFixo = 2)
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<PedidoImportacaoResponse> importarArquivo(
+            @Parameter(description = "Id da importação para acompanhar o progresso (gerado se omitido)", example = "migracao-2025-09")
+            @RequestParam(required = false) String id,
+            @RequestPart("arquivo") MultipartFile arquivo) throws IOException {
+        try (InputStream in = arquivo.getInputStream()) {
+            return ResponseEntity.ok(service.importar(id, in));
+        }
+    }
+
+    @Operation(
+            summary = "Consulta o progresso de uma importação",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Progresso da importação",
+                            content = @Content(schema = @Schema(implementation = PedidoImportacaoResponse.class))),
+                    @ApiResponse(responseCode = "404", description = "Importação não encontrada", content = @Content)
+            }
+    )
+    @GetMapping("/{id}")
+    public ResponseEntity<PedidoImportacaoResponse> get(
+            @Parameter(description = "Id da importação", example = "migracao-2025-09")
+            @PathVariable String id) {
+        return ResponseEntity.ok(service.get(id));
+    }
+
+    @Operation(
+            summary = "Lista as importações recentes",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Importações em andamento e finalizadas recentemente")
+            }
+    )
+    @GetMapping
+    public ResponseEntity<List<PedidoImportacaoResponse>> list() {
+        return ResponseEntity.ok(service.list());
+    }
+
+}
@@ -1,8 +1,11 @@
 package br.com.mini.erp.controller;
 
 import br.com.mini.erp.dto.request.ProdutoRequest;
+import br.com.mini.erp.dto.response.PaginaCursorResponse;
 import br.com.mini.erp.dto.response.ProdutoResponse;
+import br.com.mini.erp.enuns.PrioridadeAdmissao;
 import br.com.mini.erp.service.ProdutoService;
+import br.com.mini.erp.service.admissao.LimiteConcorrencia;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,6 +16,7 @@ import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -20,6 +24,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -27,6 +32,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/api/v1/products")
 @Tag(name = "Produtos", description = "Gerenciamento de produtos (CRUD e listagem)")
+@LimiteConcorrencia
 public class ProdutoController {
 
     private final ProdutoService service;
@@ -45,6 +51,7 @@ public class ProdutoController {
                     @ApiResponse(responseCode = "409", description = "SKU já cadastrado", content = @Content)
             }
     )
+    @LimiteConcorrencia(PrioridadeAdmissao.ESCRITA)
     @PostMapping
     public ResponseEntity<ProdutoResponse> create(@Valid @RequestBody ProdutoRequest req) {
         return ResponseEntity.ok(service.create(req));
@@ -61,6 +68,7 @@ public class ProdutoController {
                     @ApiResponse(responseCode = "409", description = "SKU já cadastrado", content = @Content)
             }
     )
+    @LimiteConcorrencia(PrioridadeAdmissao.ESCRITA)
     @PutMapping("/{id}")
     public ResponseEntity<ProdutoResponse> update(
             @Parameter(description = "ID do produto a ser atualizado", example = "1")
@@ -71,17 +79,21 @@ public class ProdutoController {
 
     @Operation(
             summary = "Busca produto por ID",
+            description = "Responde com ETag. Com If-None-Match igual à versão atual, a resposta é 304 a partir de uma consulta só da versão e do estoque.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Produto encontrado",
                             content = @Content(schema = @Schema(implementation = ProdutoResponse.class))),
+                    @ApiResponse(responseCode = "304", description = "Produto não mudou desde o ETag informado", content = @Content),
                     @ApiResponse(responseCode = "404", description = "Produto não encontrado", content = @Content)
             }
     )
     @GetMapping("/{id}")
     public ResponseEntity<ProdutoResponse> get(
             @Parameter(description = "ID do produto", example = "1")
-            @PathVariable Long id) {
-        return ResponseEntity.ok(service.get(id));
+            @PathVariable Long id,
+            @Parameter(description = "ETag de uma resposta anterior: se o produto não mudou, a resposta é 304 sem corpo")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ETags.responder(ifNoneMatch, service.versao(id), () -> service.get(id));
     }
 
     @Operation(
@@ -91,6 +103,7 @@ public class ProdutoController {
                     @ApiResponse(responseCode = "404", description = "Produto não encontrado", content = @Content)
             }
     )
+    @LimiteConcorrencia(PrioridadeAdmissao.ESCRITA)
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(
             @Parameter(description = "ID do produto a ser removido", example = "1")
@@ -101,17 +114,40 @@ public class ProdutoController {
 
     @Operation(
             summary = "Lista produtos com paginação",
-            description = "Retorna lista paginada de produtos. É possível filtrar pelo status `ativo`.",
+            description = "Retorna lista paginada de produtos. É possível filtrar pelo status `ativo`. " +
+                    "Responde com ETag; com If-None-Match igual, a resposta é 304 a partir de uma projeção (id, versão, estoque) da página.",
             responses = {
-                    @ApiResponse(responseCode = "200", description = "Lista de produtos retornada com sucesso")
+                    @ApiResponse(responseCode = "200", description = "Lista de produtos retornada com sucesso"),
+                    @ApiResponse(responseCode = "304", description = "Página não mudou desde o ETag informado", content = @Content)
             }
     )
     @GetMapping
     public ResponseEntity<Page<ProdutoResponse>> list(
             @Parameter(description = "Filtro de status ativo do produto", example = "true")
             @RequestParam(required = false) Boolean ativo,
-            @PageableDefault(size = 20) Pageable pageable) {
-        return ResponseEntity.ok(service.list(ativo, pageable));
+            @PageableDefault(size = 20) Pageable pageable,
+            @Parameter(description = "ETag de uma resposta anterior: se a página não mudou, a resposta é 304 sem corpo")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ETags.responderPagina(ifNoneMatch, () -> service.versaoLista(ativo, pageable), () -> service.list(ativo, pageable));
+    }
+
+    @Operation(
+            summary = "Lista produtos por cursor",
+            description = "Paginação por cursor ordenada por id, sem contagem total: o custo de cada página é constante, inclusive nas páginas profundas. Use `proximoCursor` da resposta para buscar a página seguinte.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Página de produtos retornada com sucesso"),
+                    @ApiResponse(responseCode = "422", description = "Cursor inválido", content = @Content)
+            }
+    )
+    @GetMapping("/cursor")
+    public ResponseEntity<PaginaCursorResponse<ProdutoResponse>> listCursor(
+            @Parameter(description = "Filtro de status ativo do produto", example = "true")
+            @RequestParam(required = false) Boolean ativo,
+            @Parameter(description = "Cursor devolvido pela página anterior (omitir na primeira página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máximo 1000)", example = "100")
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(service.listCursor(ativo, cursor, size));
     }
 
 }
@@ -0,0 +1,46 @@
+package br.com.mini.erp.controller;
+
+import br.com.mini.erp.dto.response.TendenciaSkuResponse;
+import br.com.mini.erp.enuns.JanelaTendencia;
+import br.com.mini.erp.service.tendencia.TendenciaSkus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/sales/trending")
+@Tag(name = "Tendência", description = "SKUs mais vendidos agora, em janelas deslizantes")
+public class TendenciaController {
+
+    private final TendenciaSkus tendencia;
+
+    public TendenciaController(TendenciaSkus tendencia) {
+        this.tendencia = tendencia;
+    }
+
+    @Operation(
+            summary = "Top-K SKUs por unidades vendidas na janela",
+            description = "Calculado em memória (Count-Min + Space-Saving por bucket de tempo) a partir dos pedidos criados nesta instância, " +
+                    "sem consultar o banco. Unidades são estimativas que nunca ficam abaixo do valor real. k é limitado a mini-erp.tendencia.capacidade.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "SKUs em ordem decrescente de unidades")
+            }
+    )
+    @GetMapping
+    public ResponseEntity<List<TendenciaSkuResponse>> top(
+            @Parameter(description = "Janela deslizante", example = "UMA_HORA")
+            @RequestParam(defaultValue = "UMA_HORA") JanelaTendencia janela,
+            @Parameter(description = "Quantidade de SKUs", example = "10")
+            @RequestParam(defaultValue = "10") int k) {
+        return ResponseEntity.ok(tendencia.top(janela, k));
+    }
+
+}
@@ -0,0 +1,96 @@
+package br.com.mini.erp.controller;
+
+import br.com.mini.erp.dto.response.VendaDiariaResponse;
+import br.com.mini.erp.dto.response.VendaSkuResponse;
+import br.com.mini.erp.dto.response.VendasReconstrucaoResponse;
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.enuns.PrioridadeAdmissao;
+import br.com.mini.erp.service.VendasService;
+import br.com.mini.erp.service.admissao.LimiteConcorrencia;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/sales")
+@Tag(name = "Vendas", description = "Receita, unidades e pedidos por dia, SKU e status (rollups incrementais)")
+@LimiteConcorrencia
+public class VendasController {
+
+    private final VendasService service;
+
+    public VendasController(VendasService service) {
+        this.service = service;
+    }
+
+    @Operation(
+            summary = "Vendas por dia e status",
+            description = "Lê só o rollup vendas_diarias (custo proporcional ao número de linhas devolvidas). " +
+                    "Dia = data de criação do pedido em UTC; o status é o atual. Reflete os pedidos até a última consolidação (alguns segundos). " +
+                    "Sem 'de', os últimos 30 dias até 'ate' (padrão: hoje).",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Vendas por dia"),
+                    @ApiResponse(responseCode = "422", description = "Intervalo de datas inválido", content = @Content)
+            }
+    )
+    @GetMapping("/daily")
+    public ResponseEntity<List<VendaDiariaResponse>> porDia(
+            @Parameter(description = "Primeiro dia (inclusivo)", example = "2025-09-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @Parameter(description = "Último dia (inclusivo)", example = "2025-09-30")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @Parameter(description = "Filtro de status do pedido", example = "PAGO")
+            @RequestParam(required = false) PedidoStatus status) {
+        return ResponseEntity.ok(service.porDia(de, ate, status));
+    }
+
+    @Operation(
+            summary = "Vendas por dia, SKU e status",
+            description = "Lê só o rollup vendas_diarias_sku. Receita = soma dos totais das linhas do produto (após descontos). " +
+                    "Mesmos critérios de dia, status e defasagem de /daily.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Vendas por SKU"),
+                    @ApiResponse(responseCode = "422", description = "Intervalo de datas inválido", content = @Content)
+            }
+    )
+    @GetMapping("/skus")
+    public ResponseEntity<List<VendaSkuResponse>> porSku(
+            @Parameter(description = "Primeiro dia (inclusivo)", example = "2025-09-01")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @Parameter(description = "Último dia (inclusivo)", example = "2025-09-30")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+            @Parameter(description = "Filtro de produto", example = "10")
+            @RequestParam(required = false) Long produtoId,
+            @Parameter(description = "Filtro de status do pedido", example = "PAGO")
+            @RequestParam(required = false) PedidoStatus status) {
+        return ResponseEntity.ok(service.porSku(de, ate, produtoId, status));
+    }
+
+    @Operation(
+            summary = "Reconstrói os rollups de vendas",
+            description = "Recalcula vendas_diarias e vendas_diarias_sku do zero, lendo todos os pedidos vivos em um único snapshot. " +
+                    "Serve para verificar os rollups incrementais e para contar pedidos anteriores ao módulo. Pedidos já arquivados " +
+                    "(arquivo frio) não entram. Custo proporcional ao histórico: usar fora do horário de pico.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Rollups reconstruídos")
+            }
+    )
+    @LimiteConcorrencia(PrioridadeAdmissao.ESCRITA)
+    @PostMapping("/rebuild")
+    public ResponseEntity<VendasReconstrucaoResponse> reconstruir() {
+        return ResponseEntity.ok(service.reconstruir());
+    }
+
+}
@@ -18,7 +18,7 @@ public record PedidoItemRequest(
         @Min(1)
         Integer quantidade,
 
-        @Schema(description = "Valor de desconto aplicado ao item (opcional)", example = "5.00")
+        @Schema(description = "Valor de desconto aplicado ao item (opcional, até 2 casas decimais)", example = "5.00")
         BigDecimal desconto
 ) { }
 
@@ -0,0 +1,21 @@
+package br.com.mini.erp.dto.request;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(name = "PedidoLoteRequest", description = "Lote de pedidos para ingestão em massa. Cada pedido é validado individualmente")
+public record PedidoLoteRequest(
+
+        @ArraySchema(
+                schema = @Schema(implementation = PedidoRequest.class),
+                minItems = 1,
+                arraySchema = @Schema(description = "Pedidos do lote (mínimo 1)")
+        )
+        @NotNull
+        @Size(min = 1)
+        List<PedidoRequest> pedidos
+) { }
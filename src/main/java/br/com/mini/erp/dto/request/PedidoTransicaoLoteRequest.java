@@ -0,0 +1,21 @@
+package br.com.mini.erp.dto.request;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(name = "PedidoTransicaoLoteRequest", description = "Pedidos a pagar ou cancelar em lote. Cada pedido tem seu próprio resultado")
+public record PedidoTransicaoLoteRequest(
+
+        @ArraySchema(
+                schema = @Schema(description = "ID do pedido", example = "1001"),
+                minItems = 1,
+                arraySchema = @Schema(description = "IDs dos pedidos (mínimo 1)")
+        )
+        @NotNull
+        @Size(min = 1)
+        List<@NotNull Long> ids
+) { }
@@ -55,7 +55,11 @@ public record ProdutoRequest(
                 example = "true",
                 requiredMode = Schema.RequiredMode.REQUIRED)
         @NotNull
-        Boolean ativo
+        Boolean ativo,
+
+        @Schema(description = "Marca o produto como SKU de alta demanda (estoque reservado em memória). Opcional, padrão false",
+                example = "false")
+        Boolean altaDemanda
 ) {
 }
 
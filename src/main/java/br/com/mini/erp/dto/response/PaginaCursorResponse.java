@@ -0,0 +1,21 @@
+package br.com.mini.erp.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "PaginaCursorResponse", description = "Página de resultados com cursor de continuação (sem contagem total)")
+public record PaginaCursorResponse<T>(
+
+        @Schema(description = "Registros da página")
+        List<T> itens,
+
+        @Schema(description = "Cursor para a próxima página (null quando não há mais registros)",
+                example = "MjAyNS0wOC0zMVQxMjozMDowMFp8MTAwMQ")
+        String proximoCursor,
+
+        @Schema(description = "Indica se existem mais registros após esta página",
+                example = "true")
+        Boolean temMais
+) {
+}
@@ -0,0 +1,38 @@
+package br.com.mini.erp.dto.response;
+
+import br.com.mini.erp.enuns.PedidoAssincronoStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.OffsetDateTime;
+
+@Schema(name = "PedidoAssincronoResponse", description = "Situação de um pedido recebido no modo assíncrono")
+public record PedidoAssincronoResponse(
+
+        @Schema(description = "Identificador de acompanhamento da solicitação",
+                example = "b7e4c1a2-9f3d-4c8e-a1b2-3c4d5e6f7a8b")
+        String id,
+
+        @Schema(description = "Situação da solicitação",
+                example = "PENDENTE")
+        PedidoAssincronoStatus status,
+
+        @Schema(description = "Data/hora em que a solicitação foi aceita (ISO-8601 UTC)",
+                example = "2025-08-31T12:30:00Z")
+        OffsetDateTime recebidoEm,
+
+        @Schema(description = "Data/hora em que o processamento terminou (null enquanto pendente)",
+                example = "2025-08-31T12:30:01Z")
+        OffsetDateTime concluidoEm,
+
+        @Schema(description = "Tempo em fila até um worker iniciar o processamento, em milissegundos",
+                example = "35")
+        Long esperaMs,
+
+        @Schema(description = "Pedido criado (preenchido quando status = CONCLUIDO)")
+        PedidoResponse pedido,
+
+        @Schema(description = "Motivo da rejeição/falha (preenchido quando status = REJEITADO ou FALHOU)",
+                example = "Estoque insuficiente para SKU SKU-001")
+        String erro
+) {
+}
@@ -0,0 +1,42 @@
+package br.com.mini.erp.dto.response;
+
+import br.com.mini.erp.enuns.ImportacaoStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "PedidoImportacaoResponse", description = "Progresso/resultado de uma importação de pedidos via NDJSON")
+public record PedidoImportacaoResponse(
+
+        @Schema(description = "Identificador da importação",
+                example = "migracao-2025-09")
+        String id,
+
+        @Schema(description = "Situação da importação",
+                example = "EM_ANDAMENTO")
+        ImportacaoStatus status,
+
+        @Schema(description = "Linhas de pedido lidas até o momento",
+                example = "150000")
+        Long lidos,
+
+        @Schema(description = "Pedidos criados até o momento",
+                example = "149990")
+        Long criados,
+
+        @Schema(description = "Pedidos rejeitados (JSON inválido ou regra de negócio) até o momento",
+                example = "10")
+        Long rejeitados,
+
+        @Schema(description = "Tempo decorrido em milissegundos",
+                example = "120000")
+        Long duracaoMs,
+
+        @Schema(description = "Vazão média (pedidos lidos por segundo)",
+                example = "1250.0")
+        Double pedidosPorSegundo,
+
+        @Schema(description = "Primeiros erros encontrados, no formato \"linha N: motivo\" (limitado)")
+        List<String> erros
+) {
+}
@@ -0,0 +1,31 @@
+package br.com.mini.erp.dto.response;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+
+@Schema(name = "PedidoLoteItemResponse", description = "Resultado de um pedido dentro de um lote")
+public record PedidoLoteItemResponse(
+
+        @Schema(description = "Posição do pedido no lote enviado (base 0)",
+                example = "0")
+        Integer indice,
+
+        @Schema(description = "Identificador do pedido criado (null se rejeitado)",
+                example = "1001")
+        Long pedidoId,
+
+        @Schema(description = "Status do pedido criado",
+                example = "CRIADO")
+        PedidoStatus status,
+
+        @Schema(description = "Valor final do pedido criado",
+                example = "114.80")
+        BigDecimal total,
+
+        @Schema(description = "Motivo da rejeição (null se criado)",
+                example = "Estoque insuficiente para SKU SKU-001")
+        String erro
+) {
+}
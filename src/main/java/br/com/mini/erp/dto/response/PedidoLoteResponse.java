@@ -0,0 +1,33 @@
+package br.com.mini.erp.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "PedidoLoteResponse", description = "Resultado da ingestão de um lote de pedidos")
+public record PedidoLoteResponse(
+
+        @Schema(description = "Quantidade de pedidos recebidos no lote",
+                example = "1000")
+        Integer total,
+
+        @Schema(description = "Quantidade de pedidos criados",
+                example = "998")
+        Integer criados,
+
+        @Schema(description = "Quantidade de pedidos rejeitados",
+                example = "2")
+        Integer rejeitados,
+
+        @Schema(description = "Tempo total de processamento do lote em milissegundos",
+                example = "850")
+        Long duracaoMs,
+
+        @Schema(description = "Vazão medida no processamento do lote (pedidos por segundo)",
+                example = "1176.5")
+        Double pedidosPorSegundo,
+
+        @Schema(description = "Resultado de cada pedido, na ordem do lote")
+        List<PedidoLoteItemResponse> resultados
+) {
+}
@@ -46,7 +46,7 @@ public record PedidoResponse(
                 example = "2025-09-01T18:00:00Z")
         OffsetDateTime canceladoEm,
 
-        @Schema(description = "Lista de itens que compõem o pedido")
+        @Schema(description = "Lista de itens que compõem o pedido (omitida no histórico do cliente sem itens=true)")
         List<PedidoItemResponse> itens
 ) {
 }
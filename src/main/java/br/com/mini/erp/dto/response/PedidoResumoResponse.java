@@ -0,0 +1,61 @@
+package br.com.mini.erp.dto.response;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Schema(name = "PedidoResumoResponse", description = "Resumo de um pedido para listagens (sem os itens; detalhes em GET /api/v1/orders/{id})")
+public record PedidoResumoResponse(
+
+        @Schema(description = "Identificador único do pedido",
+                example = "1001")
+        Long id,
+
+        @Schema(description = "Identificador do cliente que realizou o pedido",
+                example = "1")
+        Long clienteId,
+
+        @Schema(description = "Status atual do pedido",
+                example = "CRIADO")
+        PedidoStatus status,
+
+        @Schema(description = "Subtotal do pedido (soma dos itens antes de descontos)",
+                example = "119.80")
+        BigDecimal subtotal,
+
+        @Schema(description = "Valor total de descontos aplicados ao pedido",
+                example = "5.00")
+        BigDecimal descontos,
+
+        @Schema(description = "Valor final do pedido após descontos",
+                example = "114.80")
+        BigDecimal total,
+
+        @Schema(description = "Quantidade de linhas de item",
+                example = "2")
+        Integer quantidadeItens,
+
+        @Schema(description = "Soma das quantidades de todos os itens",
+                example = "3")
+        Integer quantidadeUnidades,
+
+        @Schema(description = "SKUs distintos do pedido",
+                example = "[\"SKU-001\", \"SKU-002\"]")
+        List<String> skus,
+
+        @Schema(description = "Data/hora em que o pedido foi criado (ISO-8601 UTC)",
+                example = "2025-08-31T12:30:00Z")
+        OffsetDateTime criadoEm,
+
+        @Schema(description = "Data/hora em que o pedido foi pago (null se ainda não pago)",
+                example = "2025-09-01T10:15:00Z")
+        OffsetDateTime pagoEm,
+
+        @Schema(description = "Data/hora em que o pedido foi cancelado (null se não cancelado)",
+                example = "2025-09-01T18:00:00Z")
+        OffsetDateTime canceladoEm
+) {
+}
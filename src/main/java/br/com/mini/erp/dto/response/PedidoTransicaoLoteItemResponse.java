@@ -0,0 +1,21 @@
+package br.com.mini.erp.dto.response;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "PedidoTransicaoLoteItemResponse", description = "Resultado de um pedido dentro de um pagamento/cancelamento em lote")
+public record PedidoTransicaoLoteItemResponse(
+
+        @Schema(description = "Identificador do pedido",
+                example = "1001")
+        Long pedidoId,
+
+        @Schema(description = "Status do pedido após a operação (null se não encontrado)",
+                example = "PAGO")
+        PedidoStatus status,
+
+        @Schema(description = "Motivo da rejeição (null se a operação foi aplicada)",
+                example = "Pedido cancelado")
+        String erro
+) {
+}
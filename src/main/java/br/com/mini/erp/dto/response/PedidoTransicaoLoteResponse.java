@@ -0,0 +1,29 @@
+package br.com.mini.erp.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "PedidoTransicaoLoteResponse", description = "Resultado de um pagamento/cancelamento em lote")
+public record PedidoTransicaoLoteResponse(
+
+        @Schema(description = "Quantidade de pedidos recebidos no lote",
+                example = "10000")
+        Integer total,
+
+        @Schema(description = "Quantidade de pedidos processados com sucesso (inclui cancelamentos já aplicados antes)",
+                example = "9990")
+        Integer concluidos,
+
+        @Schema(description = "Quantidade de pedidos rejeitados",
+                example = "10")
+        Integer rejeitados,
+
+        @Schema(description = "Tempo total de processamento do lote em milissegundos",
+                example = "1200")
+        Long duracaoMs,
+
+        @Schema(description = "Resultado de cada pedido, na ordem do lote")
+        List<PedidoTransicaoLoteItemResponse> resultados
+) {
+}
@@ -33,6 +33,10 @@ public record ProdutoResponse(
 
         @Schema(description = "Indica se o produto está ativo para venda",
                 example = "true")
-        Boolean ativo
+        Boolean ativo,
+
+        @Schema(description = "Indica se o produto é um SKU de alta demanda",
+                example = "false")
+        Boolean altaDemanda
 ) {
 }
@@ -0,0 +1,20 @@
+package br.com.mini.erp.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "TendenciaSkuResponse", description = "SKU entre os mais vendidos de uma janela de tempo")
+public record TendenciaSkuResponse(
+
+        @Schema(description = "Identificador do produto",
+                example = "10")
+        Long produtoId,
+
+        @Schema(description = "SKU do produto",
+                example = "SKU-001")
+        String sku,
+
+        @Schema(description = "Unidades vendidas na janela (estimativa: nunca abaixo do valor real)",
+                example = "342")
+        Long unidades
+) {
+}
@@ -0,0 +1,32 @@
+package br.com.mini.erp.dto.response;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(name = "VendaDiariaResponse", description = "Vendas de um dia (data de criação dos pedidos, UTC) em um status")
+public record VendaDiariaResponse(
+
+        @Schema(description = "Dia de criação dos pedidos (UTC)",
+                example = "2025-09-01")
+        LocalDate dia,
+
+        @Schema(description = "Status atual dos pedidos",
+                example = "PAGO")
+        PedidoStatus status,
+
+        @Schema(description = "Soma dos totais dos pedidos",
+                example = "15230.50")
+        BigDecimal receita,
+
+        @Schema(description = "Soma das quantidades dos itens",
+                example = "412")
+        Long unidades,
+
+        @Schema(description = "Quantidade de pedidos",
+                example = "87")
+        Long pedidos
+) {
+}
@@ -0,0 +1,40 @@
+package br.com.mini.erp.dto.response;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Schema(name = "VendaSkuResponse", description = "Vendas de um produto em um dia (data de criação dos pedidos, UTC) e status")
+public record VendaSkuResponse(
+
+        @Schema(description = "Dia de criação dos pedidos (UTC)",
+                example = "2025-09-01")
+        LocalDate dia,
+
+        @Schema(description = "Identificador do produto",
+                example = "10")
+        Long produtoId,
+
+        @Schema(description = "SKU do produto",
+                example = "SKU-001")
+        String sku,
+
+        @Schema(description = "Status atual dos pedidos",
+                example = "PAGO")
+        PedidoStatus status,
+
+        @Schema(description = "Soma dos totais das linhas do produto (após descontos)",
+                example = "1198.00")
+        BigDecimal receita,
+
+        @Schema(description = "Soma das quantidades do produto",
+                example = "20")
+        Long unidades,
+
+        @Schema(description = "Pedidos com ao menos uma linha do produto",
+                example = "12")
+        Long pedidos
+) {
+}
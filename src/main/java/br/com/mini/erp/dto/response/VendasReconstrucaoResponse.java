@@ -0,0 +1,24 @@
+package br.com.mini.erp.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "VendasReconstrucaoResponse", description = "Resultado da reconstrução dos rollups de vendas")
+public record VendasReconstrucaoResponse(
+
+        @Schema(description = "Pedidos lidos",
+                example = "125000")
+        long pedidos,
+
+        @Schema(description = "Linhas gravadas no rollup por dia e status",
+                example = "1460")
+        int linhasDiarias,
+
+        @Schema(description = "Linhas gravadas no rollup por dia, SKU e status",
+                example = "58210")
+        int linhasSku,
+
+        @Schema(description = "Duração da reconstrução em milissegundos",
+                example = "8421")
+        long duracaoMs
+) {
+}
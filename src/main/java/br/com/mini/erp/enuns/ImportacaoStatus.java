@@ -0,0 +1,5 @@
+package br.com.mini.erp.enuns;
+
+public enum ImportacaoStatus {
+    EM_ANDAMENTO, CONCLUIDA, FALHOU
+}
@@ -0,0 +1,28 @@
+package br.com.mini.erp.enuns;
+
+import java.time.Duration;
+
+// Janelas deslizantes do GET /api/v1/sales/trending: duração e quantidade de buckets (resolução do deslizamento)
+public enum JanelaTendencia {
+
+    CINCO_MINUTOS(Duration.ofMinutes(5), 10),
+    UMA_HORA(Duration.ofHours(1), 12),
+    UM_DIA(Duration.ofHours(24), 24);
+
+    private final Duration duracao;
+    private final int buckets;
+
+    JanelaTendencia(Duration duracao, int buckets) {
+        this.duracao = duracao;
+        this.buckets = buckets;
+    }
+
+    public Duration duracao() {
+        return duracao;
+    }
+
+    public int buckets() {
+        return buckets;
+    }
+
+}
@@ -0,0 +1,5 @@
+package br.com.mini.erp.enuns;
+
+public enum PedidoAssincronoStatus {
+    PENDENTE, PROCESSANDO, CONCLUIDO, REJEITADO, FALHOU
+}
@@ -0,0 +1,6 @@
+package br.com.mini.erp.enuns;
+
+// Prioridade no limite de concorrência (@LimiteConcorrencia): sob carga as escritas são recusadas antes das leituras
+public enum PrioridadeAdmissao {
+    LEITURA, ESCRITA
+}
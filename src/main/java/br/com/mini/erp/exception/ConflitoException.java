@@ -0,0 +1,9 @@
+package br.com.mini.erp.exception;
+
+public class ConflitoException extends RuntimeException {
+
+    public ConflitoException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,16 @@
+package br.com.mini.erp.exception;
+
+public class SobrecargaException extends RuntimeException {
+
+    private final long retryAfterSegundos;
+
+    public SobrecargaException(String message, long retryAfterSegundos) {
+        super(message);
+        this.retryAfterSegundos = retryAfterSegundos;
+    }
+
+    public long getRetryAfterSegundos() {
+        return retryAfterSegundos;
+    }
+
+}
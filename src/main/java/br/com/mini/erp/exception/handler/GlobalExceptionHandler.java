@@ -2,12 +2,18 @@ package br.com.mini.erp.exception.handler;
 
 
 import br.com.mini.erp.exception.BusinessException;
+import br.com.mini.erp.exception.ConflitoException;
 import br.com.mini.erp.exception.NotFoundException;
+import br.com.mini.erp.exception.SobrecargaException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -41,6 +47,40 @@ public class GlobalExceptionHandler {
         return pd;
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ProblemDetail handleConflito(OptimisticLockingFailureException ex) {
+        ProblemDetail pd = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+        pd.setTitle("Conflito de concorrência");
+        pd.setDetail("O recurso foi alterado por outra requisição; tente novamente");
+        return pd;
+    }
+
+    @ExceptionHandler(ConflitoException.class)
+    public ProblemDetail handleConflitoRequisicao(ConflitoException ex) {
+        ProblemDetail pd = ProblemDetail.forStatus(HttpStatus.CONFLICT);
+        pd.setTitle("Requisição em conflito");
+        pd.setDetail(ex.getMessage());
+        return pd;
+    }
+
+    @ExceptionHandler(SobrecargaException.class)
+    public ResponseEntity<ProblemDetail> handleSobrecarga(SobrecargaException ex) {
+        ProblemDetail pd = ProblemDetail.forStatus(HttpStatus.SERVICE_UNAVAILABLE);
+        pd.setTitle("Serviço sobrecarregado");
+        pd.setDetail(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSegundos()))
+                .body(pd);
+    }
+
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ProblemDetail handleUploadGrande(MaxUploadSizeExceededException ex) {
+        ProblemDetail pd = ProblemDetail.forStatus(HttpStatus.PAYLOAD_TOO_LARGE);
+        pd.setTitle("Arquivo acima do limite");
+        pd.setDetail("O arquivo excede o tamanho máximo aceito no upload multipart");
+        return pd;
+    }
+
     @ExceptionHandler(Exception.class)
     public ProblemDetail handleGeneric(Exception ex) {
         ProblemDetail pd = ProblemDetail.forStatus(HttpStatus.INTERNAL_SERVER_ERROR);
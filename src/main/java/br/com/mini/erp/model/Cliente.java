@@ -1,5 +1,6 @@
 package br.com.mini.erp.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
@@ -8,8 +9,12 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.OffsetDateTime;
 
@@ -23,10 +28,14 @@ import java.time.OffsetDateTime;
                 @Index(name = "ix_clientes_nome", columnList = "nome"),
                 @Index(name = "ix_clientes_email", columnList = "email")
         })
+// região "clientes" do cache de segundo nível (ver application.conf)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "clientes")
 public class Cliente {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "clientes_seq")
+    @SequenceGenerator(name = "clientes_seq", sequenceName = "clientes_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 150)
@@ -44,6 +53,9 @@ public class Cliente {
     @Column(nullable = false, updatable = false)
     private OffsetDateTime criadoEm;
 
+    @Version
+    private Long versao;
+
     @PrePersist
     void prePersist() {
         this.criadoEm = OffsetDateTime.now();
@@ -93,5 +105,9 @@ public class Cliente {
         return criadoEm;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
 }
 
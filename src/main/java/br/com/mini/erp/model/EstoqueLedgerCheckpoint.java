@@ -0,0 +1,50 @@
+package br.com.mini.erp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.OffsetDateTime;
+
+// Última sequência do journal do ledger já aplicada em produto_estoque
+@Entity
+@Table(name = "estoque_ledger_checkpoint")
+public class EstoqueLedgerCheckpoint {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long ultimaSequencia = 0L;
+
+    private OffsetDateTime atualizadoEm;
+
+    protected EstoqueLedgerCheckpoint() {
+    }
+
+    public EstoqueLedgerCheckpoint(Long id) {
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUltimaSequencia() {
+        return ultimaSequencia;
+    }
+
+    public void setUltimaSequencia(Long ultimaSequencia) {
+        this.ultimaSequencia = ultimaSequencia;
+    }
+
+    public OffsetDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+
+    public void setAtualizadoEm(OffsetDateTime atualizadoEm) {
+        this.atualizadoEm = atualizadoEm;
+    }
+
+}
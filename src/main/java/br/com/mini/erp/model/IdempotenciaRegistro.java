@@ -0,0 +1,87 @@
+package br.com.mini.erp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.OffsetDateTime;
+
+@Entity
+@Table(name = "idempotencia_chaves",
+        indexes = {
+                @Index(name = "ix_idempotencia_chaves_expira_em", columnList = "expira_em")
+        })
+public class IdempotenciaRegistro {
+
+    @Id
+    @Column(length = 300)
+    private String chave;
+
+    // SHA-256 da requisição: a mesma chave com outro conteúdo é rejeitada
+    @Column(length = 64)
+    private String hashRequisicao;
+
+    // PedidoResponse serializado (null enquanto a execução está em andamento)
+    @Column(columnDefinition = "text")
+    private String resposta;
+
+    @Column(nullable = false)
+    private Boolean concluido = false;
+
+    @Column(nullable = false)
+    private OffsetDateTime criadoEm;
+
+    @Column(nullable = false)
+    private OffsetDateTime expiraEm;
+
+    public String getChave() {
+        return chave;
+    }
+
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+
+    public String getHashRequisicao() {
+        return hashRequisicao;
+    }
+
+    public void setHashRequisicao(String hashRequisicao) {
+        this.hashRequisicao = hashRequisicao;
+    }
+
+    public String getResposta() {
+        return resposta;
+    }
+
+    public void setResposta(String resposta) {
+        this.resposta = resposta;
+    }
+
+    public Boolean getConcluido() {
+        return concluido;
+    }
+
+    public void setConcluido(Boolean concluido) {
+        this.concluido = concluido;
+    }
+
+    public OffsetDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(OffsetDateTime criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+
+    public OffsetDateTime getExpiraEm() {
+        return expiraEm;
+    }
+
+    public void setExpiraEm(OffsetDateTime expiraEm) {
+        this.expiraEm = expiraEm;
+    }
+
+}
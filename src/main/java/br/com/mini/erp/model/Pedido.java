@@ -15,7 +15,9 @@ import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -26,12 +28,15 @@ import java.util.List;
 @Table(name = "pedidos",
         indexes = {
                 @Index(name = "ix_pedidos_status", columnList = "status"),
-                @Index(name = "ix_pedidos_criado_em", columnList = "criado_em")
+                @Index(name = "ix_pedidos_criado_em", columnList = "criado_em"),
+                @Index(name = "ix_pedidos_criado_em_id", columnList = "criado_em, id"),
+                @Index(name = "ix_pedidos_status_criado_em_id", columnList = "status, criado_em, id")
         })
 public class Pedido {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedidos_seq")
+    @SequenceGenerator(name = "pedidos_seq", sequenceName = "pedidos_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -59,6 +64,10 @@ public class Pedido {
     private OffsetDateTime pagoEm;
     private OffsetDateTime canceladoEm;
 
+    // incrementada também pelos UPDATEs condicionais do repositório (pagar/cancelar/atrasar)
+    @Version
+    private Long versao;
+
     @PrePersist
     void prePersist() {
         this.criadoEm = OffsetDateTime.now();
@@ -145,4 +154,8 @@ public class Pedido {
         this.canceladoEm = canceladoEm;
     }
 
+    public Long getVersao() {
+        return versao;
+    }
+
 }
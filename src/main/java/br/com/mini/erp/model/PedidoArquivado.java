@@ -0,0 +1,98 @@
+package br.com.mini.erp.model;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.OffsetDateTime;
+
+// Índice do arquivo frio: em qual segmento (e linha) está cada pedido removido das tabelas vivas
+@Entity
+@Table(name = "pedidos_arquivados",
+        indexes = @Index(name = "ix_pedidos_arquivados_cliente_id", columnList = "cliente_id"))
+public class PedidoArquivado implements Persistable<Long> {
+
+    // id do pedido
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long clienteId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 12)
+    private PedidoStatus status;
+
+    // nome do arquivo no diretório de arquivo (mini-erp.pedidos.arquivo.diretorio)
+    @Column(nullable = false, length = 100)
+    private String segmento;
+
+    // posição (0-based) da linha NDJSON do pedido dentro do segmento descomprimido
+    @Column(nullable = false)
+    private Integer linha;
+
+    @Column(nullable = false)
+    private OffsetDateTime arquivadoEm;
+
+    // id é atribuído (o do pedido): sem isso o save faria SELECT + INSERT
+    @Transient
+    private boolean novo = true;
+
+    protected PedidoArquivado() {
+    }
+
+    public PedidoArquivado(Long id, Long clienteId, PedidoStatus status, String segmento, Integer linha, OffsetDateTime arquivadoEm) {
+        this.id = id;
+        this.clienteId = clienteId;
+        this.status = status;
+        this.segmento = segmento;
+        this.linha = linha;
+        this.arquivadoEm = arquivadoEm;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        this.novo = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public PedidoStatus getStatus() {
+        return status;
+    }
+
+    public String getSegmento() {
+        return segmento;
+    }
+
+    public Integer getLinha() {
+        return linha;
+    }
+
+    public OffsetDateTime getArquivadoEm() {
+        return arquivadoEm;
+    }
+
+}
@@ -3,23 +3,33 @@ package br.com.mini.erp.model;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "pedido_itens")
+@Table(name = "pedido_itens",
+        indexes = @Index(name = "ix_pedido_itens_pedido_id", columnList = "pedido_id"))
 public class PedidoItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pedido_itens_seq")
+    @SequenceGenerator(name = "pedido_itens_seq", sequenceName = "pedido_itens_seq", allocationSize = 50)
     private Long id;
 
+    // nome fixo: com o particionamento a FK passa a ser (pedido_id, criado_em) e o ddl-auto a reconhece pelo nome
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(foreignKey = @ForeignKey(name = "fk_pedido_itens_pedido"))
     private Pedido pedido;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -37,6 +47,17 @@ public class PedidoItem {
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal totalLinha;
 
+    // cópia de pedidos.criado_em: chave de partição de pedido_itens (ParticionamentoPedidos)
+    @Column(updatable = false)
+    private OffsetDateTime criadoEm;
+
+    @PrePersist
+    void prePersist() {
+        if (criadoEm == null && pedido != null) {
+            criadoEm = pedido.getCriadoEm();
+        }
+    }
+
     public Long getId() {
         return id;
     }
@@ -89,4 +110,8 @@ public class PedidoItem {
         this.totalLinha = totalLinha;
     }
 
+    public OffsetDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
 }
@@ -0,0 +1,180 @@
+package br.com.mini.erp.model;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+// Read model desnormalizado de pedidos (uma linha por pedido, mesmo id), mantido na mesma transação da escrita
+@Entity
+@Table(name = "pedido_resumo",
+        indexes = {
+                @Index(name = "ix_pedido_resumo_status_criado_em", columnList = "status, criado_em, id"),
+                @Index(name = "ix_pedido_resumo_criado_em", columnList = "criado_em, id"),
+                // histórico do cliente: igualdade em cliente_id e a mesma ordem do keyset, sem sort nem leitura fora da página
+                @Index(name = "ix_pedido_resumo_cliente_criado_em_id", columnList = "cliente_id, criado_em desc, id desc")
+        })
+public class PedidoResumo implements Persistable<Long> {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long clienteId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 12)
+    private PedidoStatus status;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal subtotal;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal descontos;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal total;
+
+    // linhas de item
+    @Column(nullable = false)
+    private Integer quantidadeItens;
+
+    // soma das quantidades
+    @Column(nullable = false)
+    private Integer quantidadeUnidades;
+
+    // SKUs distintos, separados por vírgula
+    @Column(nullable = false, columnDefinition = "text")
+    private String skus;
+
+    @Column(nullable = false, updatable = false)
+    private OffsetDateTime criadoEm;
+
+    private OffsetDateTime pagoEm;
+
+    private OffsetDateTime canceladoEm;
+
+    // id é atribuído (o do pedido): sem isso o save faria SELECT + INSERT
+    @Transient
+    private boolean novo = true;
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        this.novo = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public PedidoStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PedidoStatus status) {
+        this.status = status;
+    }
+
+    public BigDecimal getSubtotal() {
+        return subtotal;
+    }
+
+    public void setSubtotal(BigDecimal subtotal) {
+        this.subtotal = subtotal;
+    }
+
+    public BigDecimal getDescontos() {
+        return descontos;
+    }
+
+    public void setDescontos(BigDecimal descontos) {
+        this.descontos = descontos;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public Integer getQuantidadeItens() {
+        return quantidadeItens;
+    }
+
+    public void setQuantidadeItens(Integer quantidadeItens) {
+        this.quantidadeItens = quantidadeItens;
+    }
+
+    public Integer getQuantidadeUnidades() {
+        return quantidadeUnidades;
+    }
+
+    public void setQuantidadeUnidades(Integer quantidadeUnidades) {
+        this.quantidadeUnidades = quantidadeUnidades;
+    }
+
+    public String getSkus() {
+        return skus;
+    }
+
+    public void setSkus(String skus) {
+        this.skus = skus;
+    }
+
+    public OffsetDateTime getCriadoEm() {
+        return criadoEm;
+    }
+
+    public void setCriadoEm(OffsetDateTime criadoEm) {
+        this.criadoEm = criadoEm;
+    }
+
+    public OffsetDateTime getPagoEm() {
+        return pagoEm;
+    }
+
+    public void setPagoEm(OffsetDateTime pagoEm) {
+        this.pagoEm = pagoEm;
+    }
+
+    public OffsetDateTime getCanceladoEm() {
+        return canceladoEm;
+    }
+
+    public void setCanceladoEm(OffsetDateTime canceladoEm) {
+        this.canceladoEm = canceladoEm;
+    }
+
+}
@@ -1,13 +1,18 @@
 package br.com.mini.erp.model;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
+import jakarta.persistence.Version;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
@@ -20,10 +25,15 @@ import java.math.BigDecimal;
                 @Index(name = "ix_produtos_nome", columnList = "nome"),
                 @Index(name = "ix_produtos_ativo", columnList = "ativo")
         })
+// Cadastro no cache de segundo nível (região "produtos", ver application.conf). O saldo fica em ProdutoEstoque:
+// cada baixa é um UPDATE em massa, e um UPDATE em massa sobre produtos esvaziaria a região inteira.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "produtos")
 public class Produto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "produtos_seq")
+    @SequenceGenerator(name = "produtos_seq", sequenceName = "produtos_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 64)
@@ -35,15 +45,19 @@ public class Produto {
     @Column(nullable = false, precision = 15, scale = 2)
     private BigDecimal precoBruto;
 
-    @Column(nullable = false)
-    private Integer estoque;
-
     @Column(nullable = false)
     private Integer estoqueMinimo;
 
     @Column(nullable = false)
     private Boolean ativo = true;
 
+    // SKU de alta demanda: estoque reservado no ledger em memória (EstoqueLedger)
+    private Boolean altaDemanda = false;
+
+    // muda só com a edição do cadastro: o estoque está em produto_estoque
+    @Version
+    private Long versao;
+
     public Long getId() {
         return id;
     }
@@ -76,14 +90,6 @@ public class Produto {
         this.precoBruto = precoBruto;
     }
 
-    public Integer getEstoque() {
-        return estoque;
-    }
-
-    public void setEstoque(Integer estoque) {
-        this.estoque = estoque;
-    }
-
     public Integer getEstoqueMinimo() {
         return estoqueMinimo;
     }
@@ -100,4 +106,16 @@ public class Produto {
         this.ativo = ativo;
     }
 
+    public Boolean getAltaDemanda() {
+        return altaDemanda;
+    }
+
+    public void setAltaDemanda(Boolean altaDemanda) {
+        this.altaDemanda = altaDemanda;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
 }
@@ -0,0 +1,53 @@
+package br.com.mini.erp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.MapsId;
+import jakarta.persistence.OneToOne;
+import jakarta.persistence.Table;
+
+// Saldo de estoque do produto (mesmo id), fora do cache: baixas e devoluções são UPDATEs em massa nesta tabela,
+// que não tocam a região de cache de Produto
+@Entity
+@Table(name = "produto_estoque")
+public class ProdutoEstoque {
+
+    @Id
+    private Long id;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "produto_id")
+    private Produto produto;
+
+    @Column(nullable = false)
+    private Integer quantidade;
+
+    protected ProdutoEstoque() {
+    }
+
+    public ProdutoEstoque(Produto produto, Integer quantidade) {
+        this.produto = produto;
+        this.quantidade = quantidade;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Produto getProduto() {
+        return produto;
+    }
+
+    public Integer getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(Integer quantidade) {
+        this.quantidade = quantidade;
+    }
+
+}
@@ -0,0 +1,93 @@
+package br.com.mini.erp.model;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Rollup de vendas por dia de criação (UTC) e status atual do pedido, mantido por deltas (VendasServiceImpl)
+@Entity
+@Table(name = "vendas_diarias")
+public class VendaDiaria implements Persistable<VendaDiaria.Chave> {
+
+    @Embeddable
+    public record Chave(
+            @Column(nullable = false)
+            LocalDate dia,
+
+            @Enumerated(EnumType.STRING)
+            @Column(nullable = false, length = 12)
+            PedidoStatus status
+    ) {
+    }
+
+    @EmbeddedId
+    private Chave id;
+
+    // soma de pedidos.total
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal receita = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private Long unidades = 0L;
+
+    @Column(nullable = false)
+    private Long pedidos = 0L;
+
+    // chave atribuída: sem isso o save faria SELECT + INSERT
+    @Transient
+    private boolean novo = true;
+
+    protected VendaDiaria() {
+    }
+
+    public VendaDiaria(Chave id) {
+        this.id = id;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        this.novo = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    public void somar(BigDecimal receita, long unidades, long pedidos) {
+        this.receita = this.receita.add(receita);
+        this.unidades += unidades;
+        this.pedidos += pedidos;
+    }
+
+    @Override
+    public Chave getId() {
+        return id;
+    }
+
+    public BigDecimal getReceita() {
+        return receita;
+    }
+
+    public Long getUnidades() {
+        return unidades;
+    }
+
+    public Long getPedidos() {
+        return pedidos;
+    }
+
+}
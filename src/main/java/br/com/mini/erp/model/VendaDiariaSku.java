@@ -0,0 +1,99 @@
+package br.com.mini.erp.model;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Rollup de vendas por dia de criação (UTC), produto e status atual do pedido, mantido por deltas (VendasServiceImpl)
+@Entity
+@Table(name = "vendas_diarias_sku",
+        indexes = @Index(name = "ix_vendas_diarias_sku_produto_id_dia", columnList = "produto_id, dia"))
+public class VendaDiariaSku implements Persistable<VendaDiariaSku.Chave> {
+
+    @Embeddable
+    public record Chave(
+            @Column(nullable = false)
+            LocalDate dia,
+
+            @Column(nullable = false)
+            Long produtoId,
+
+            @Enumerated(EnumType.STRING)
+            @Column(nullable = false, length = 12)
+            PedidoStatus status
+    ) {
+    }
+
+    @EmbeddedId
+    private Chave id;
+
+    // soma de pedido_itens.total_linha
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal receita = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private Long unidades = 0L;
+
+    // pedidos com ao menos uma linha do produto
+    @Column(nullable = false)
+    private Long pedidos = 0L;
+
+    // chave atribuída: sem isso o save faria SELECT + INSERT
+    @Transient
+    private boolean novo = true;
+
+    protected VendaDiariaSku() {
+    }
+
+    public VendaDiariaSku(Chave id) {
+        this.id = id;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        this.novo = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    public void somar(BigDecimal receita, long unidades, long pedidos) {
+        this.receita = this.receita.add(receita);
+        this.unidades += unidades;
+        this.pedidos += pedidos;
+    }
+
+    @Override
+    public Chave getId() {
+        return id;
+    }
+
+    public BigDecimal getReceita() {
+        return receita;
+    }
+
+    public Long getUnidades() {
+        return unidades;
+    }
+
+    public Long getPedidos() {
+        return pedidos;
+    }
+
+}
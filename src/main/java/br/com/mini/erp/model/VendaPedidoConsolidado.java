@@ -0,0 +1,65 @@
+package br.com.mini.erp.model;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+// Status com que cada pedido está contado nos rollups de vendas: o delta de uma alteração é
+// "sai do status consolidado, entra no status atual", o que torna a consolidação idempotente
+@Entity
+@Table(name = "vendas_pedidos_consolidados")
+public class VendaPedidoConsolidado implements Persistable<Long> {
+
+    // id do pedido
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 12)
+    private PedidoStatus status;
+
+    // id é atribuído (o do pedido): sem isso o save faria SELECT + INSERT
+    @Transient
+    private boolean novo = true;
+
+    protected VendaPedidoConsolidado() {
+    }
+
+    public VendaPedidoConsolidado(Long id, PedidoStatus status) {
+        this.id = id;
+        this.status = status;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistido() {
+        this.novo = false;
+    }
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    public PedidoStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(PedidoStatus status) {
+        this.status = status;
+    }
+
+}
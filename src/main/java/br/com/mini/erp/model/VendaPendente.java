@@ -0,0 +1,39 @@
+package br.com.mini.erp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+// Pedido criado ou alterado ainda não consolidado nos rollups de vendas; gravado na mesma transação da alteração
+@Entity
+@Table(name = "vendas_pendentes")
+public class VendaPendente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vendas_pendentes_seq")
+    @SequenceGenerator(name = "vendas_pendentes_seq", sequenceName = "vendas_pendentes_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long pedidoId;
+
+    protected VendaPendente() {
+    }
+
+    public VendaPendente(Long pedidoId) {
+        this.pedidoId = pedidoId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getPedidoId() {
+        return pedidoId;
+    }
+
+}
@@ -2,9 +2,15 @@ package br.com.mini.erp.repository;
 
 
 import br.com.mini.erp.model.Cliente;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
 
@@ -14,4 +20,18 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
 
     Page<Cliente> findByNomeContainingIgnoreCaseOrEmailContainingIgnoreCase(String nome, String email, Pageable pageable);
 
+    // ETag das páginas: mesma consulta da pesquisa, projetada em (id, versao)
+    <T> Page<T> findByNomeContainingIgnoreCaseOrEmailContainingIgnoreCase(String nome, String email, Pageable pageable, Class<T> tipo);
+
+    @Query("select c.versao from Cliente c where c.id = :id")
+    Optional<Long> buscarVersao(@Param("id") Long id);
+
+    // Paginação por cursor: seek na chave primária
+    List<Cliente> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    @Query("select c from Cliente c where c.id > :id " +
+            "and (lower(c.nome) like lower(concat('%', :q, '%')) or lower(c.email) like lower(concat('%', :q, '%'))) " +
+            "order by c.id")
+    List<Cliente> buscarAposCursor(@Param("q") String q, @Param("id") Long id, Limit limit);
+
 }
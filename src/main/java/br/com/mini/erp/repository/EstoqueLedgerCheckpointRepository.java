@@ -0,0 +1,8 @@
+package br.com.mini.erp.repository;
+
+import br.com.mini.erp.model.EstoqueLedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EstoqueLedgerCheckpointRepository extends JpaRepository<EstoqueLedgerCheckpoint, Long> {
+
+}
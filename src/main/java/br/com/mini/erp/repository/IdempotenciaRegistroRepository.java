@@ -0,0 +1,32 @@
+package br.com.mini.erp.repository;
+
+import br.com.mini.erp.model.IdempotenciaRegistro;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+
+public interface IdempotenciaRegistroRepository extends JpaRepository<IdempotenciaRegistro, String> {
+
+    // 0 linhas = chave já reservada por outra execução (de qualquer nó)
+    @Modifying
+    @Query(value = "insert into idempotencia_chaves (chave, hash_requisicao, concluido, criado_em, expira_em) " +
+            "values (:chave, :hash, false, :agora, :expiraEm) on conflict (chave) do nothing", nativeQuery = true)
+    int reservar(@Param("chave") String chave, @Param("hash") String hashRequisicao,
+                 @Param("agora") OffsetDateTime agora, @Param("expiraEm") OffsetDateTime expiraEm);
+
+    @Modifying
+    @Query("update IdempotenciaRegistro r set r.resposta = :resposta, r.concluido = true where r.chave = :chave")
+    int concluir(@Param("chave") String chave, @Param("resposta") String resposta);
+
+    @Modifying
+    @Query("delete from IdempotenciaRegistro r where r.chave = :chave and r.expiraEm < :agora")
+    int removerSeExpirado(@Param("chave") String chave, @Param("agora") OffsetDateTime agora);
+
+    @Modifying
+    @Query("delete from IdempotenciaRegistro r where r.expiraEm < :agora")
+    int removerExpirados(@Param("agora") OffsetDateTime agora);
+
+}
@@ -0,0 +1,15 @@
+package br.com.mini.erp.repository;
+
+import br.com.mini.erp.model.PedidoArquivado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface PedidoArquivadoRepository extends JpaRepository<PedidoArquivado, Long> {
+
+    // segmentos com índice gravado: órfãos de uma transação que falhou não aparecem
+    @Query("select distinct a.segmento from PedidoArquivado a order by a.segmento")
+    List<String> listarSegmentos();
+
+}
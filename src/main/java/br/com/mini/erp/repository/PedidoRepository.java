@@ -2,17 +2,142 @@ package br.com.mini.erp.repository;
 
 import br.com.mini.erp.enuns.PedidoStatus;
 import br.com.mini.erp.model.Pedido;
+import br.com.mini.erp.repository.projection.PedidoExportacaoLinha;
+import br.com.mini.erp.repository.projection.PedidoItemProjecao;
+import br.com.mini.erp.repository.projection.PedidoStatusProjecao;
+import br.com.mini.erp.repository.projection.ProdutoQuantidadeProjecao;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface PedidoRepository extends JpaRepository<Pedido, Long> {
 
+    String EXPORTACAO = "select new br.com.mini.erp.repository.projection.PedidoExportacaoLinha(" +
+            "p.id, p.cliente.id, p.status, p.subtotal, p.descontos, p.total, p.criadoEm, p.pagoEm, p.canceladoEm, " +
+            "pr.id, pr.sku, pr.nome, i.quantidade, i.precoUnitario, i.desconto, i.totalLinha) " +
+            "from Pedido p left join p.itens i left join i.produto pr ";
+
     Page<Pedido> findByStatus(PedidoStatus status, Pageable pageable);
 
-    List<Pedido> findByStatusAndCriadoEmBefore(PedidoStatus status, OffsetDateTime cutoff);
+    // pedido, itens e produtos em um único SELECT (get/pay/cancel)
+    @EntityGraph(attributePaths = {"itens", "itens.produto"})
+    Optional<Pedido> findComItensById(Long id);
+
+    // ETag do GET por id: a resposta traz sku e nome dos produtos, então a versão do pedido soma a dos produtos dos itens
+    // (as duas só crescem, logo a soma muda a cada alteração)
+    @Query("select p.versao + coalesce(sum(pr.versao), 0) from Pedido p left join p.itens i left join i.produto pr " +
+            "where p.id = :id group by p.id, p.versao")
+    Optional<Long> buscarVersao(@Param("id") Long id);
+
+    // itens de vários pedidos em um único SELECT, para montar páginas de listagem
+    @Query("select new br.com.mini.erp.repository.projection.PedidoItemProjecao(" +
+            "i.pedido.id, pr.id, pr.sku, pr.nome, i.quantidade, i.precoUnitario, i.desconto, i.totalLinha) " +
+            "from PedidoItem i join i.produto pr where i.pedido.id in :pedidoIds order by i.id")
+    List<PedidoItemProjecao> buscarItensPorPedidos(@Param("pedidoIds") Collection<Long> pedidoIds);
+
+    // lote de ids para markLateOrders; com status = CRIADO usa o índice parcial ix_pedidos_criado_em_criado
+    @Query("select p.id from Pedido p where p.status = :status and p.criadoEm < :cutoff order by p.criadoEm")
+    List<Long> findIdsByStatusAndCriadoEmBefore(@Param("status") PedidoStatus status, @Param("cutoff") OffsetDateTime cutoff, Limit limit);
+
+    // Transições condicionais: o status de origem vai no WHERE, então entre UPDATEs concorrentes só um encontra a linha
+    @Modifying
+    @Query("update Pedido p set p.status = :status, p.pagoEm = :pagoEm, p.versao = p.versao + 1 " +
+            "where p.id = :id and p.status in :origens")
+    int marcarPago(@Param("id") Long id, @Param("status") PedidoStatus status, @Param("pagoEm") OffsetDateTime pagoEm,
+                   @Param("origens") Collection<PedidoStatus> origens);
+
+    @Modifying
+    @Query("update Pedido p set p.status = :status, p.canceladoEm = :canceladoEm, p.versao = p.versao + 1 " +
+            "where p.id = :id and p.status in :origens")
+    int marcarCancelado(@Param("id") Long id, @Param("status") PedidoStatus status, @Param("canceladoEm") OffsetDateTime canceladoEm,
+                        @Param("origens") Collection<PedidoStatus> origens);
+
+    // Mesmas transições em lote (payBatch/cancelBatch): um UPDATE por chunk de ids
+    @Modifying
+    @Query("update Pedido p set p.status = :status, p.pagoEm = :pagoEm, p.versao = p.versao + 1 " +
+            "where p.id in :ids and p.status in :origens")
+    int marcarPagos(@Param("ids") Collection<Long> ids, @Param("status") PedidoStatus status, @Param("pagoEm") OffsetDateTime pagoEm,
+                    @Param("origens") Collection<PedidoStatus> origens);
+
+    @Modifying
+    @Query("update Pedido p set p.status = :status, p.canceladoEm = :canceladoEm, p.versao = p.versao + 1 " +
+            "where p.id in :ids and p.status in :origens")
+    int marcarCancelados(@Param("ids") Collection<Long> ids, @Param("status") PedidoStatus status,
+                         @Param("canceladoEm") OffsetDateTime canceladoEm, @Param("origens") Collection<PedidoStatus> origens);
+
+    // Quando o UPDATE em lote altera menos linhas que o esperado: quais pedidos foram alterados por este lote (mesmo instante)
+    @Query("select p.id from Pedido p where p.id in :ids and p.status = :status and p.pagoEm = :pagoEm")
+    List<Long> findIdsPagosEm(@Param("ids") Collection<Long> ids, @Param("status") PedidoStatus status, @Param("pagoEm") OffsetDateTime pagoEm);
+
+    @Query("select p.id from Pedido p where p.id in :ids and p.status = :status and p.canceladoEm = :canceladoEm")
+    List<Long> findIdsCanceladosEm(@Param("ids") Collection<Long> ids, @Param("status") PedidoStatus status,
+                                   @Param("canceladoEm") OffsetDateTime canceladoEm);
+
+    @Query("select new br.com.mini.erp.repository.projection.PedidoStatusProjecao(p.id, p.status) from Pedido p where p.id in :ids")
+    List<PedidoStatusProjecao> buscarStatus(@Param("ids") Collection<Long> ids);
+
+    // quantidade a devolver por produto, somada sobre vários pedidos; ordenada por produto para travar as linhas sempre na mesma ordem
+    @Query("select new br.com.mini.erp.repository.projection.ProdutoQuantidadeProjecao(i.produto.id, sum(i.quantidade)) " +
+            "from PedidoItem i where i.pedido.id in :pedidoIds group by i.produto.id order by i.produto.id")
+    List<ProdutoQuantidadeProjecao> somarQuantidadesPorProduto(@Param("pedidoIds") Collection<Long> pedidoIds);
+
+    @Modifying
+    @Query("update Pedido p set p.status = :novo, p.versao = p.versao + 1 where p.id in :ids and p.status = :atual")
+    int atualizarStatus(@Param("ids") Collection<Long> ids, @Param("atual") PedidoStatus atual, @Param("novo") PedidoStatus novo);
+
+    // Exportação em streaming: cursor no servidor (fetch size; no Postgres exige transação aberta) em ordem de (criado_em, id),
+    // com os itens de cada pedido em linhas consecutivas
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(EXPORTACAO + "where p.criadoEm >= :de and p.criadoEm < :ate order by p.criadoEm, p.id, i.id")
+    Stream<PedidoExportacaoLinha> exportar(@Param("de") OffsetDateTime de, @Param("ate") OffsetDateTime ate);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(EXPORTACAO + "where p.status = :status and p.criadoEm >= :de and p.criadoEm < :ate order by p.criadoEm, p.id, i.id")
+    Stream<PedidoExportacaoLinha> exportarPorStatus(@Param("status") PedidoStatus status, @Param("de") OffsetDateTime de,
+                                                    @Param("ate") OffsetDateTime ate);
+
+    // Arquivo frio: pedidos fechados (PAGO/CANCELADO) antes do cutoff; criado_em < cutoff também limita as partições lidas
+    @Query("select p.id from Pedido p where p.criadoEm < :cutoff " +
+            "and ((p.status = :pago and p.pagoEm < :cutoff) or (p.status = :cancelado and p.canceladoEm < :cutoff)) order by p.id")
+    List<Long> findIdsArquivaveis(@Param("cutoff") OffsetDateTime cutoff, @Param("pago") PedidoStatus pago,
+                                  @Param("cancelado") PedidoStatus cancelado, Limit limit);
+
+    // pedidos com itens por id (arquivo frio, consolidação de vendas), linhas de um pedido consecutivas
+    @Query(EXPORTACAO + "where p.id in :ids order by p.id, i.id")
+    List<PedidoExportacaoLinha> buscarLinhasPorIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from PedidoItem i where i.pedido.id in :pedidoIds")
+    int removerItens(@Param("pedidoIds") Collection<Long> pedidoIds);
+
+    @Modifying
+    @Query("delete from Pedido p where p.id in :ids")
+    int remover(@Param("ids") Collection<Long> ids);
+
+    // Paginação por cursor em (criado_em, id): seek nos índices ix_pedidos_criado_em_id / ix_pedidos_status_criado_em_id
+    List<Pedido> findAllByOrderByCriadoEmAscIdAsc(Limit limit);
+
+    List<Pedido> findByStatusOrderByCriadoEmAscIdAsc(PedidoStatus status, Limit limit);
+
+    @Query("select p from Pedido p where (p.criadoEm, p.id) > (:criadoEm, :id) order by p.criadoEm, p.id")
+    List<Pedido> buscarAposCursor(@Param("criadoEm") OffsetDateTime criadoEm, @Param("id") Long id, Limit limit);
+
+    @Query("select p from Pedido p where p.status = :status and (p.criadoEm, p.id) > (:criadoEm, :id) order by p.criadoEm, p.id")
+    List<Pedido> buscarAposCursorPorStatus(@Param("status") PedidoStatus status, @Param("criadoEm") OffsetDateTime criadoEm,
+                                           @Param("id") Long id, Limit limit);
 
 }
@@ -0,0 +1,55 @@
+package br.com.mini.erp.repository;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.model.PedidoResumo;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface PedidoResumoRepository extends JpaRepository<PedidoResumo, Long> {
+
+    Page<PedidoResumo> findByStatus(PedidoStatus status, Pageable pageable);
+
+    // ETag das páginas: mesmas consultas da listagem, projetadas em (id, status)
+    <T> Page<T> findAllBy(Pageable pageable, Class<T> tipo);
+
+    <T> Page<T> findByStatus(PedidoStatus status, Pageable pageable, Class<T> tipo);
+
+    // histórico do cliente por cursor, mais recentes primeiro (índice ix_pedido_resumo_cliente_criado_em_id)
+    List<PedidoResumo> findByClienteIdOrderByCriadoEmDescIdDesc(Long clienteId, Limit limit);
+
+    @Query("select r from PedidoResumo r where r.clienteId = :clienteId and (r.criadoEm, r.id) < (:criadoEm, :id) " +
+            "order by r.criadoEm desc, r.id desc")
+    List<PedidoResumo> buscarDoClienteAntesDoCursor(@Param("clienteId") Long clienteId, @Param("criadoEm") OffsetDateTime criadoEm,
+                                                    @Param("id") Long id, Limit limit);
+
+    @Modifying
+    @Query("update PedidoResumo r set r.status = :status, r.pagoEm = :pagoEm where r.id = :id")
+    int marcarPago(@Param("id") Long id, @Param("status") PedidoStatus status, @Param("pagoEm") OffsetDateTime pagoEm);
+
+    @Modifying
+    @Query("update PedidoResumo r set r.status = :status, r.canceladoEm = :canceladoEm where r.id = :id")
+    int marcarCancelado(@Param("id") Long id, @Param("status") PedidoStatus status, @Param("canceladoEm") OffsetDateTime canceladoEm);
+
+    @Modifying
+    @Query("update PedidoResumo r set r.status = :status, r.pagoEm = :pagoEm where r.id in :ids")
+    int marcarPagos(@Param("ids") Collection<Long> ids, @Param("status") PedidoStatus status, @Param("pagoEm") OffsetDateTime pagoEm);
+
+    @Modifying
+    @Query("update PedidoResumo r set r.status = :status, r.canceladoEm = :canceladoEm where r.id in :ids")
+    int marcarCancelados(@Param("ids") Collection<Long> ids, @Param("status") PedidoStatus status,
+                         @Param("canceladoEm") OffsetDateTime canceladoEm);
+
+    @Modifying
+    @Query("update PedidoResumo r set r.status = :novo where r.id in :ids and r.status = :atual")
+    int atualizarStatus(@Param("ids") Collection<Long> ids, @Param("atual") PedidoStatus atual, @Param("novo") PedidoStatus novo);
+
+}
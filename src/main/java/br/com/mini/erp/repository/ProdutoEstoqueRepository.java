@@ -0,0 +1,8 @@
+package br.com.mini.erp.repository;
+
+import br.com.mini.erp.model.ProdutoEstoque;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+// baixas, devoluções e ajustes do saldo são UPDATEs condicionais em ProdutoRepository
+public interface ProdutoEstoqueRepository extends JpaRepository<ProdutoEstoque, Long> {
+}
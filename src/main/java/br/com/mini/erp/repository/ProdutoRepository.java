@@ -1,14 +1,78 @@
 package br.com.mini.erp.repository;
 
 import br.com.mini.erp.model.Produto;
+import br.com.mini.erp.repository.projection.ProdutoReposicaoProjecao;
+import br.com.mini.erp.repository.projection.ProdutoVersaoProjecao;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface ProdutoRepository extends JpaRepository<Produto, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ProdutoRepository extends JpaRepository<Produto, Long>, ProdutoRepositoryCustom {
 
     boolean existsBySku(String sku);
 
     Page<Produto> findByAtivo(Boolean ativo, Pageable pageable);
 
+    // ETag das páginas: mesmas consultas da listagem, projetadas em (id, versao, estoque)
+    @Query(value = "select new br.com.mini.erp.repository.projection.ProdutoVersaoProjecao(p.id, p.versao, e.quantidade) " +
+            "from Produto p join ProdutoEstoque e on e.id = p.id",
+            countQuery = "select count(p) from Produto p")
+    Page<ProdutoVersaoProjecao> buscarVersoes(Pageable pageable);
+
+    @Query(value = "select new br.com.mini.erp.repository.projection.ProdutoVersaoProjecao(p.id, p.versao, e.quantidade) " +
+            "from Produto p join ProdutoEstoque e on e.id = p.id where p.ativo = :ativo",
+            countQuery = "select count(p) from Produto p where p.ativo = :ativo")
+    Page<ProdutoVersaoProjecao> buscarVersoesPorAtivo(@Param("ativo") Boolean ativo, Pageable pageable);
+
+    // Paginação por cursor: seek na chave primária
+    List<Produto> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    List<Produto> findByAtivoAndIdGreaterThanOrderByIdAsc(Boolean ativo, Long id, Limit limit);
+
+    @Query("select new br.com.mini.erp.repository.projection.ProdutoReposicaoProjecao(p.sku, e.quantidade, p.estoqueMinimo) " +
+            "from Produto p join ProdutoEstoque e on e.id = p.id where e.quantidade < p.estoqueMinimo order by p.sku")
+    List<ProdutoReposicaoProjecao> buscarAbaixoDoMinimo();
+
+    // Estoque: as consultas abaixo operam em produto_estoque (ProdutoEstoque), não em produtos, para que os
+    // UPDATEs em massa não invalidem a região de cache de Produto
+
+    @Query("select e.quantidade from ProdutoEstoque e where e.id = :id")
+    Optional<Integer> findEstoqueById(@Param("id") Long id);
+
+    @Query("select new br.com.mini.erp.repository.projection.ProdutoVersaoProjecao(p.id, p.versao, e.quantidade) " +
+            "from Produto p join ProdutoEstoque e on e.id = p.id where p.id = :id")
+    Optional<ProdutoVersaoProjecao> buscarVersao(@Param("id") Long id);
+
+    // baixa condicional: 0 linhas afetadas = estoque insuficiente
+    @Modifying
+    @Query("update ProdutoEstoque e set e.quantidade = e.quantidade - :quantidade where e.id = :id and e.quantidade >= :quantidade")
+    int baixarEstoque(@Param("id") Long id, @Param("quantidade") int quantidade);
+
+    @Modifying
+    @Query("update ProdutoEstoque e set e.quantidade = e.quantidade + :quantidade where e.id = :id")
+    int devolverEstoque(@Param("id") Long id, @Param("quantidade") int quantidade);
+
+    // devolução dos pedidos cancelados: um UPDATE para todos os SKUs, com a quantidade somada por produto na subconsulta
+    @Modifying
+    @Query("update ProdutoEstoque e set e.quantidade = e.quantidade + " +
+            "(select sum(i.quantidade) from PedidoItem i where i.pedido.id in :pedidoIds and i.produto.id = e.id) " +
+            "where e.id in :produtoIds")
+    int devolverEstoqueDosPedidos(@Param("pedidoIds") Collection<Long> pedidoIds, @Param("produtoIds") Collection<Long> produtoIds);
+
+    @Modifying
+    @Query("update ProdutoEstoque e set e.quantidade = e.quantidade + :delta where e.id = :id")
+    int ajustarEstoque(@Param("id") Long id, @Param("delta") int delta);
+
+    @Modifying
+    @Query("update ProdutoEstoque e set e.quantidade = :quantidade where e.id = :id")
+    int definirEstoque(@Param("id") Long id, @Param("quantidade") int quantidade);
+
 }
@@ -0,0 +1,13 @@
+package br.com.mini.erp.repository;
+
+import br.com.mini.erp.model.Produto;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ProdutoRepositoryCustom {
+
+    // ordenado por id; ids inexistentes ficam fora da lista
+    List<Produto> buscarPorIds(Collection<Long> ids);
+
+}
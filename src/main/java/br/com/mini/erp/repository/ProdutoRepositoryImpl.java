@@ -0,0 +1,34 @@
+package br.com.mini.erp.repository;
+
+import br.com.mini.erp.model.Produto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+public class ProdutoRepositoryImpl implements ProdutoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    // Ao contrário de findAllById (sempre um SELECT ... IN), o multiLoad resolve cada id pela sessão e pelo cache de
+    // segundo nível, e só os ausentes vão ao banco, num único SELECT
+    @Override
+    public List<Produto> buscarPorIds(Collection<Long> ids) {
+        return em.unwrap(Session.class)
+                .byMultipleIds(Produto.class)
+                .with(CacheMode.NORMAL)
+                .enableSessionCheck(true)
+                .multiLoad(new ArrayList<>(new TreeSet<>(ids)))
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+}
@@ -0,0 +1,22 @@
+package br.com.mini.erp.repository;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.model.VendaDiaria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface VendaDiariaRepository extends JpaRepository<VendaDiaria, VendaDiaria.Chave> {
+
+    // seek na PK (dia, status): custo proporcional ao número de linhas devolvidas
+    @Query("select v from VendaDiaria v where v.id.dia >= :de and v.id.dia <= :ate and v.pedidos > 0 order by v.id.dia, v.id.status")
+    List<VendaDiaria> buscar(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    @Query("select v from VendaDiaria v where v.id.dia >= :de and v.id.dia <= :ate and v.id.status = :status and v.pedidos > 0 " +
+            "order by v.id.dia")
+    List<VendaDiaria> buscarPorStatus(@Param("de") LocalDate de, @Param("ate") LocalDate ate, @Param("status") PedidoStatus status);
+
+}
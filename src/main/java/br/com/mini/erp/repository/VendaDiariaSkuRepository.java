@@ -0,0 +1,37 @@
+package br.com.mini.erp.repository;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.model.VendaDiariaSku;
+import br.com.mini.erp.repository.projection.VendaSkuProjecao;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface VendaDiariaSkuRepository extends JpaRepository<VendaDiariaSku, VendaDiariaSku.Chave> {
+
+    String PROJECAO = "select new br.com.mini.erp.repository.projection.VendaSkuProjecao(" +
+            "v.id.dia, v.id.produtoId, pr.sku, v.id.status, v.receita, v.unidades, v.pedidos) " +
+            "from VendaDiariaSku v join Produto pr on pr.id = v.id.produtoId ";
+
+    // todos os SKUs: seek na PK (dia, produto_id, status)
+    @Query(PROJECAO + "where v.id.dia >= :de and v.id.dia <= :ate and v.pedidos > 0 order by v.id.dia, v.id.produtoId, v.id.status")
+    List<VendaSkuProjecao> buscar(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    @Query(PROJECAO + "where v.id.dia >= :de and v.id.dia <= :ate and v.id.status = :status and v.pedidos > 0 " +
+            "order by v.id.dia, v.id.produtoId")
+    List<VendaSkuProjecao> buscarPorStatus(@Param("de") LocalDate de, @Param("ate") LocalDate ate, @Param("status") PedidoStatus status);
+
+    // um SKU: seek no índice ix_vendas_diarias_sku_produto_id_dia
+    @Query(PROJECAO + "where v.id.produtoId = :produtoId and v.id.dia >= :de and v.id.dia <= :ate and v.pedidos > 0 " +
+            "order by v.id.dia, v.id.status")
+    List<VendaSkuProjecao> buscarPorProduto(@Param("produtoId") Long produtoId, @Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    @Query(PROJECAO + "where v.id.produtoId = :produtoId and v.id.dia >= :de and v.id.dia <= :ate and v.id.status = :status " +
+            "and v.pedidos > 0 order by v.id.dia")
+    List<VendaSkuProjecao> buscarPorProdutoEStatus(@Param("produtoId") Long produtoId, @Param("de") LocalDate de,
+                                                   @Param("ate") LocalDate ate, @Param("status") PedidoStatus status);
+
+}
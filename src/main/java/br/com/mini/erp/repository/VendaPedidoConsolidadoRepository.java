@@ -0,0 +1,20 @@
+package br.com.mini.erp.repository;
+
+import br.com.mini.erp.model.VendaPedidoConsolidado;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface VendaPedidoConsolidadoRepository extends JpaRepository<VendaPedidoConsolidado, Long> {
+
+    // reconstrução: status atual de todos os pedidos vivos em um único INSERT ... SELECT
+    @Modifying
+    @Query("insert into VendaPedidoConsolidado (id, status) select p.id, p.status from Pedido p")
+    int consolidarTodos();
+
+    // reconstrução: pedidos no arquivo frio continuam contados no status em que foram arquivados
+    @Modifying
+    @Query("insert into VendaPedidoConsolidado (id, status) select a.id, a.status from PedidoArquivado a")
+    int consolidarArquivados();
+
+}
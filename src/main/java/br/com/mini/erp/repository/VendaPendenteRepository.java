@@ -0,0 +1,19 @@
+package br.com.mini.erp.repository;
+
+import br.com.mini.erp.model.VendaPendente;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface VendaPendenteRepository extends JpaRepository<VendaPendente, Long> {
+
+    // FOR UPDATE: duas consolidações concorrentes (várias instâncias) não aplicam o mesmo pendente duas vezes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v from VendaPendente v order by v.id")
+    List<VendaPendente> buscarParaConsolidar(Limit limit);
+
+}
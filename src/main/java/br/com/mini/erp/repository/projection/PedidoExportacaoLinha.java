@@ -0,0 +1,30 @@
+package br.com.mini.erp.repository.projection;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Uma linha da exportação de pedidos: dados do pedido repetidos em cada item. Lida por projeção,
+ * então nenhuma entidade entra no contexto de persistência durante o streaming.
+ */
+public record PedidoExportacaoLinha(
+        Long pedidoId,
+        Long clienteId,
+        PedidoStatus status,
+        BigDecimal subtotal,
+        BigDecimal descontos,
+        BigDecimal total,
+        OffsetDateTime criadoEm,
+        OffsetDateTime pagoEm,
+        OffsetDateTime canceladoEm,
+        Long produtoId,
+        String sku,
+        String nome,
+        Integer quantidade,
+        BigDecimal precoUnitario,
+        BigDecimal desconto,
+        BigDecimal totalLinha
+) {
+}
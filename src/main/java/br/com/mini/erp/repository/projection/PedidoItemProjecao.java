@@ -0,0 +1,19 @@
+package br.com.mini.erp.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Linha de item já com os dados do produto, lida por projeção para montar respostas de listagem
+ * sem inicializar as associações LAZY de cada pedido.
+ */
+public record PedidoItemProjecao(
+        Long pedidoId,
+        Long produtoId,
+        String sku,
+        String nome,
+        Integer quantidade,
+        BigDecimal precoUnitario,
+        BigDecimal desconto,
+        BigDecimal totalLinha
+) {
+}
@@ -0,0 +1,12 @@
+package br.com.mini.erp.repository.projection;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+
+/**
+ * Parte mutável de uma linha do read model pedido_resumo: só o status (com pagoEm/canceladoEm) muda depois da criação.
+ */
+public record PedidoResumoVersaoProjecao(
+        Long id,
+        PedidoStatus status
+) {
+}
@@ -0,0 +1,12 @@
+package br.com.mini.erp.repository.projection;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+
+/**
+ * Status atual de um pedido, lido por projeção nas transições em lote.
+ */
+public record PedidoStatusProjecao(
+        Long pedidoId,
+        PedidoStatus status
+) {
+}
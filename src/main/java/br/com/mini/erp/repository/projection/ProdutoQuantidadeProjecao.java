@@ -0,0 +1,10 @@
+package br.com.mini.erp.repository.projection;
+
+/**
+ * Quantidade somada por produto sobre vários pedidos (devolução de estoque em lote).
+ */
+public record ProdutoQuantidadeProjecao(
+        Long produtoId,
+        Long quantidade
+) {
+}
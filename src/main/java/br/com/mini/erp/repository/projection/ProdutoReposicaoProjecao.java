@@ -0,0 +1,11 @@
+package br.com.mini.erp.repository.projection;
+
+/**
+ * Produto com estoque abaixo do mínimo (relatório de reposição).
+ */
+public record ProdutoReposicaoProjecao(
+        String sku,
+        Integer estoque,
+        Integer estoqueMinimo
+) {
+}
@@ -0,0 +1,11 @@
+package br.com.mini.erp.repository.projection;
+
+/**
+ * Versão do cadastro e estoque de um produto: o estoque muda sem incrementar a versão, então o ETag usa os dois.
+ */
+public record ProdutoVersaoProjecao(
+        Long id,
+        Long versao,
+        Integer estoque
+) {
+}
@@ -0,0 +1,20 @@
+package br.com.mini.erp.repository.projection;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Linha do rollup vendas_diarias_sku com o SKU do produto, lida pelas consultas de vendas por SKU.
+ */
+public record VendaSkuProjecao(
+        LocalDate dia,
+        Long produtoId,
+        String sku,
+        PedidoStatus status,
+        BigDecimal receita,
+        Long unidades,
+        Long pedidos
+) {
+}
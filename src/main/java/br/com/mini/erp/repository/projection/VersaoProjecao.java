@@ -0,0 +1,10 @@
+package br.com.mini.erp.repository.projection;
+
+/**
+ * Id e versão de um registro, lidos sem carregar a entidade para montar o ETag de uma página.
+ */
+public record VersaoProjecao(
+        Long id,
+        Long versao
+) {
+}
@@ -0,0 +1,39 @@
+package br.com.mini.erp.schedule;
+
+import br.com.mini.erp.service.estoque.EstoqueLedger;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EstoqueLedgerScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(EstoqueLedgerScheduler.class);
+    private final EstoqueLedger ledger;
+
+    public EstoqueLedgerScheduler(EstoqueLedger ledger) {
+        this.ledger = ledger;
+    }
+
+    // Write-behind dos deltas do ledger (padrão: a cada segundo)
+    @Scheduled(fixedDelayString = "${mini-erp.estoque.ledger.flush-interval-ms:1000}")
+    public void run() {
+        try {
+            int count = ledger.descarregar();
+            if (count > 0) {
+                log.debug("Ledger de estoque: {} produtos atualizados", count);
+            }
+        } catch (RuntimeException e) {
+            // deltas continuam pendentes e no journal; a próxima execução tenta de novo
+            log.error("Falha ao descarregar ledger de estoque", e);
+        }
+    }
+
+    @PreDestroy
+    public void descarregarAoEncerrar() {
+        run();
+    }
+
+}
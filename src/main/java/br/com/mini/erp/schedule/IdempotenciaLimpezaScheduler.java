@@ -0,0 +1,28 @@
+package br.com.mini.erp.schedule;
+
+import br.com.mini.erp.service.idempotencia.IdempotenciaStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IdempotenciaLimpezaScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotenciaLimpezaScheduler.class);
+    private final IdempotenciaStore store;
+
+    public IdempotenciaLimpezaScheduler(IdempotenciaStore store) {
+        this.store = store;
+    }
+
+    // A cada 10 minutos remove chaves com TTL vencido
+    @Scheduled(cron = "0 */10 * * * *")
+    public void run() {
+        int count = store.removerExpirados();
+        if (count > 0) {
+            log.debug("Chaves de idempotência expiradas removidas: {}", count);
+        }
+    }
+
+}
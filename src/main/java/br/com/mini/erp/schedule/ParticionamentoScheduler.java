@@ -0,0 +1,46 @@
+package br.com.mini.erp.schedule;
+
+import br.com.mini.erp.service.particionamento.ParticionamentoPedidos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+@Component
+public class ParticionamentoScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticionamentoScheduler.class);
+    private final ParticionamentoPedidos particionamento;
+
+    // 0 = mantém todos os meses anexados
+    @Value("${mini-erp.pedidos.particionamento.retencao-meses:0}")
+    private int retencaoMeses = 0;
+
+    public ParticionamentoScheduler(ParticionamentoPedidos particionamento) {
+        this.particionamento = particionamento;
+    }
+
+    // Diariamente às 01:30 garante as partições dos próximos meses e desanexa as que passaram da retenção
+    @Scheduled(cron = "0 30 1 * * *")
+    public void run() {
+        if (!particionamento.habilitado()) {
+            return;
+        }
+        particionamento.criarParticoesFuturas();
+        if (retencaoMeses <= 0) {
+            return;
+        }
+        YearMonth limite = YearMonth.now(ZoneOffset.UTC).minusMonths(retencaoMeses);
+        for (YearMonth mes : particionamento.meses()) {
+            if (mes.isBefore(limite)) {
+                particionamento.desanexar(mes);
+                log.info("Partição de pedidos {} fora da retenção de {} meses desanexada", mes, retencaoMeses);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+package br.com.mini.erp.schedule;
+
+import br.com.mini.erp.service.PedidoArquivamentoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PedidoArquivamentoScheduler {
+
+    private final PedidoArquivamentoService pedidoArquivamentoService;
+    private final Counter arquivados;
+
+    @Value("${mini-erp.pedidos.arquivo.enabled:false}")
+    private boolean habilitado = false;
+
+    public PedidoArquivamentoScheduler(PedidoArquivamentoService pedidoArquivamentoService, MeterRegistry meterRegistry) {
+        this.pedidoArquivamentoService = pedidoArquivamentoService;
+        this.arquivados = Counter.builder("pedidos.arquivados")
+                .description("Pedidos fechados movidos para o arquivo frio")
+                .register(meterRegistry);
+    }
+
+    // Diariamente às 02:30, fora do horário de pico
+    @Scheduled(cron = "0 30 2 * * *")
+    public void run() {
+        if (habilitado) {
+            arquivados.increment(pedidoArquivamentoService.arquivar());
+        }
+    }
+
+}
@@ -1,29 +1,56 @@
 package br.com.mini.erp.schedule;
 
 import br.com.mini.erp.service.PedidoService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 @Component
 public class PedidoAtrasadoScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(PedidoAtrasadoScheduler.class);
     private final PedidoService pedidoService;
+    private final Timer latenciaLote;
+    private final Counter marcados;
+    // vazão da última execução (linhas/s), guardada como bits de double
+    private final AtomicLong linhasPorSegundo = new AtomicLong(Double.doubleToLongBits(0));
 
-    public PedidoAtrasadoScheduler(PedidoService pedidoService) {
+    public PedidoAtrasadoScheduler(PedidoService pedidoService, MeterRegistry meterRegistry) {
         this.pedidoService = pedidoService;
+        this.latenciaLote = Timer.builder("pedidos.atrasados.lote")
+                .description("Duração de cada lote (transação) de pedidos marcados como ATRASADO")
+                .register(meterRegistry);
+        this.marcados = Counter.builder("pedidos.atrasados.marcados")
+                .description("Pedidos marcados como ATRASADO")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.atrasados.linhas_por_segundo", linhasPorSegundo, v -> Double.longBitsToDouble(v.get()))
+                .description("Vazão da última execução da marcação de atrasados")
+                .register(meterRegistry);
     }
 
     // A cada hora
     @Scheduled(cron = "0 0 * * * *")
     public void run() {
-        int count = pedidoService.markLateOrders();
+        long inicio = System.nanoTime();
+        int count = pedidoService.markLateOrders((linhas, duracao) -> {
+            latenciaLote.record(duracao);
+            marcados.increment(linhas);
+        });
+        long duracaoNs = System.nanoTime() - inicio;
+        double porSegundo = duracaoNs == 0 ? 0 : count * 1_000_000_000.0 / duracaoNs;
+        linhasPorSegundo.set(Double.doubleToLongBits(porSegundo));
         if (count > 0) {
-            log.info("Pedidos marcados como LATE: {}", count);
+            log.info("Pedidos marcados como LATE: {} em {} ms ({} linhas/s)",
+                    count, TimeUnit.NANOSECONDS.toMillis(duracaoNs), String.format("%.1f", porSegundo));
         }
     }
 
 }
-
@@ -18,9 +18,8 @@ public class RelatorioInventarioScheduler {
     // Diariamente às 03:00
     @Scheduled(cron = "0 0 3 * * *")
     public void run() {
-        repository.findAll().stream()
-                .filter(p -> p.getEstoque() < p.getEstoqueMinimo())
-                .forEach(p -> log.warn("Reabastecimento necessário: SKU={}, estoque={}, min={}", p.getSku(), p.getEstoque(), p.getEstoqueMinimo()));
+        repository.buscarAbaixoDoMinimo()
+                .forEach(p -> log.warn("Reabastecimento necessário: SKU={}, estoque={}, min={}", p.sku(), p.estoque(), p.estoqueMinimo()));
     }
 
 }
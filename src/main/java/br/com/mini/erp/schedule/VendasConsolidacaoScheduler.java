@@ -0,0 +1,28 @@
+package br.com.mini.erp.schedule;
+
+import br.com.mini.erp.service.VendasService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class VendasConsolidacaoScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(VendasConsolidacaoScheduler.class);
+    private final VendasService vendasService;
+
+    public VendasConsolidacaoScheduler(VendasService vendasService) {
+        this.vendasService = vendasService;
+    }
+
+    // Aplica aos rollups de vendas os pedidos criados/alterados desde a última execução
+    @Scheduled(fixedDelayString = "${mini-erp.vendas.consolidacao.intervalo-ms:5000}")
+    public void run() {
+        int count = vendasService.consolidar();
+        if (count > 0) {
+            log.debug("Pedidos consolidados nos rollups de vendas: {}", count);
+        }
+    }
+
+}
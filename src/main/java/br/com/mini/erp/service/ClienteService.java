@@ -2,9 +2,12 @@ package br.com.mini.erp.service;
 
 import br.com.mini.erp.dto.request.ClienteRequest;
 import br.com.mini.erp.dto.response.ClienteResponse;
-import org.springframework.data.domain.Page;
+import br.com.mini.erp.dto.response.PaginaCursorResponse;
+import br.com.mini.erp.service.paginacao.PaginaVersionada;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Optional;
+
 public interface ClienteService {
 
     ClienteResponse create(ClienteRequest req);
@@ -15,6 +18,15 @@ public interface ClienteService {
 
     ClienteResponse get(Long id);
 
-    Page<ClienteResponse> search(String q, Pageable pageable);
+    // página e ETag calculado das linhas carregadas
+    PaginaVersionada<ClienteResponse> search(String q, Pageable pageable);
+
+    PaginaCursorResponse<ClienteResponse> searchCursor(String q, String cursor, int tamanho);
+
+    // ETag: versão atual lida sem carregar a entidade; vazio se o cliente não existe
+    Optional<String> versao(Long id);
+
+    // ETag: versão da página que search(q, pageable) devolveria, lida por projeção (só para If-None-Match)
+    String versaoSearch(String q, Pageable pageable);
 
 }
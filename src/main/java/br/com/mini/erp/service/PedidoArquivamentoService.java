@@ -0,0 +1,19 @@
+package br.com.mini.erp.service;
+
+import br.com.mini.erp.dto.response.PedidoResponse;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface PedidoArquivamentoService {
+
+    // move para o arquivo frio os pedidos PAGO/CANCELADO há mais de N dias; retorna a quantidade arquivada
+    int arquivar();
+
+    // pedido arquivado, no mesmo formato do GET /api/v1/orders/{id}
+    Optional<PedidoResponse> buscar(Long id);
+
+    // todos os pedidos arquivados, um segmento por vez (usado na reconstrução dos rollups de vendas)
+    void percorrer(Consumer<PedidoResponse> consumidor);
+
+}
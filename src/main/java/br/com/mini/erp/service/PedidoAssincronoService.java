@@ -0,0 +1,12 @@
+package br.com.mini.erp.service;
+
+import br.com.mini.erp.dto.request.PedidoRequest;
+import br.com.mini.erp.dto.response.PedidoAssincronoResponse;
+
+public interface PedidoAssincronoService {
+
+    PedidoAssincronoResponse aceitar(PedidoRequest req);
+
+    PedidoAssincronoResponse get(String id);
+
+}
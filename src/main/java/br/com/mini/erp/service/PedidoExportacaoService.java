@@ -0,0 +1,15 @@
+package br.com.mini.erp.service;
+
+import br.com.mini.erp.enuns.FormatoExportacao;
+import br.com.mini.erp.enuns.PedidoStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.OffsetDateTime;
+
+public interface PedidoExportacaoService {
+
+    // escreve os pedidos (com itens) em out à medida que são lidos; retorna a quantidade de pedidos exportados
+    long exportar(FormatoExportacao formato, PedidoStatus status, OffsetDateTime de, OffsetDateTime ate, OutputStream out) throws IOException;
+
+}
@@ -0,0 +1,16 @@
+package br.com.mini.erp.service;
+
+import br.com.mini.erp.dto.response.PedidoImportacaoResponse;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface PedidoImportacaoService {
+
+    PedidoImportacaoResponse importar(String id, InputStream ndjson);
+
+    PedidoImportacaoResponse get(String id);
+
+    List<PedidoImportacaoResponse> list();
+
+}
@@ -1,23 +1,53 @@
 package br.com.mini.erp.service;
 
 import br.com.mini.erp.dto.request.PedidoRequest;
+import br.com.mini.erp.dto.response.PaginaCursorResponse;
+import br.com.mini.erp.dto.response.PedidoLoteResponse;
 import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.dto.response.PedidoResumoResponse;
+import br.com.mini.erp.dto.response.PedidoTransicaoLoteResponse;
 import br.com.mini.erp.enuns.PedidoStatus;
-import org.springframework.data.domain.Page;
+import br.com.mini.erp.service.paginacao.PaginaVersionada;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+
 public interface PedidoService {
 
     PedidoResponse create(PedidoRequest req);
 
+    PedidoLoteResponse createBatch(List<PedidoRequest> reqs);
+
     PedidoResponse get(Long id);
 
-    Page<PedidoResponse> list(PedidoStatus status, Pageable pageable);
+    // página e ETag calculado das linhas carregadas
+    PaginaVersionada<PedidoResumoResponse> list(PedidoStatus status, Pageable pageable);
+
+    PaginaCursorResponse<PedidoResponse> listCursor(PedidoStatus status, String cursor, int tamanho);
+
+    // histórico do cliente, mais recentes primeiro; itens só são carregados com comItens
+    PaginaCursorResponse<PedidoResponse> listByCliente(Long clienteId, String cursor, int tamanho, boolean comItens);
+
+    // ETag: versão atual lida sem carregar pedido e itens; vazio se o pedido não está nas tabelas vivas
+    Optional<String> versao(Long id);
+
+    // ETag: versão da página que list(status, pageable) devolveria, lida por projeção (só para If-None-Match)
+    String versaoLista(PedidoStatus status, Pageable pageable);
 
     PedidoResponse pay(Long id);
 
     PedidoResponse cancel(Long id);
 
+    PedidoTransicaoLoteResponse payBatch(List<Long> ids);
+
+    PedidoTransicaoLoteResponse cancelBatch(List<Long> ids);
+
     int markLateOrders(); // agendamento
 
+    // mesma operação, notificando cada lote processado (linhas atualizadas, duração)
+    int markLateOrders(BiConsumer<Integer, Duration> aoProcessarLote);
+
 }
@@ -1,10 +1,13 @@
 package br.com.mini.erp.service;
 
 import br.com.mini.erp.dto.request.ProdutoRequest;
+import br.com.mini.erp.dto.response.PaginaCursorResponse;
 import br.com.mini.erp.dto.response.ProdutoResponse;
-import org.springframework.data.domain.Page;
+import br.com.mini.erp.service.paginacao.PaginaVersionada;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Optional;
+
 public interface ProdutoService {
 
     ProdutoResponse create(ProdutoRequest req);
@@ -15,6 +18,15 @@ public interface ProdutoService {
 
     ProdutoResponse get(Long id);
 
-    Page<ProdutoResponse> list(Boolean ativo, Pageable pageable);
+    // página e ETag calculado das linhas carregadas
+    PaginaVersionada<ProdutoResponse> list(Boolean ativo, Pageable pageable);
+
+    PaginaCursorResponse<ProdutoResponse> listCursor(Boolean ativo, String cursor, int tamanho);
+
+    // ETag: versão atual lida sem carregar a entidade; vazio se o produto não existe
+    Optional<String> versao(Long id);
+
+    // ETag: versão da página que list(ativo, pageable) devolveria, lida por projeção (só para If-None-Match)
+    String versaoLista(Boolean ativo, Pageable pageable);
 
 }
@@ -0,0 +1,24 @@
+package br.com.mini.erp.service;
+
+import br.com.mini.erp.dto.response.VendaDiariaResponse;
+import br.com.mini.erp.dto.response.VendaSkuResponse;
+import br.com.mini.erp.dto.response.VendasReconstrucaoResponse;
+import br.com.mini.erp.enuns.PedidoStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface VendasService {
+
+    // leituras só dos rollups; status e produtoId opcionais
+    List<VendaDiariaResponse> porDia(LocalDate de, LocalDate ate, PedidoStatus status);
+
+    List<VendaSkuResponse> porSku(LocalDate de, LocalDate ate, Long produtoId, PedidoStatus status);
+
+    // aplica aos rollups os deltas dos pedidos alterados desde a última consolidação; retorna os pendentes processados
+    int consolidar();
+
+    // recalcula os rollups do zero a partir de pedidos/pedido_itens (verificação)
+    VendasReconstrucaoResponse reconstruir();
+
+}
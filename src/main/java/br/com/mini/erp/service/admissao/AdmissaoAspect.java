@@ -0,0 +1,120 @@
+package br.com.mini.erp.service.admissao;
+
+import br.com.mini.erp.enuns.PrioridadeAdmissao;
+import br.com.mini.erp.exception.SobrecargaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Controle de admissão na frente da camada JPA: com o pool de conexões pequeno, uma rajada de requisições
+ * faria as threads do Tomcat esperarem em getConnection() até o timeout. Cada grupo de @LimiteConcorrencia
+ * tem um LimitadorVegas, com a latência mínima medida por operação (classe.método); a chamada acima do limite
+ * recebe 503 + Retry-After sem tocar no banco. Grupos com limiteFixo não entram na amostragem de latência.
+ * Métricas (actuator/metrics): admissao.limite, admissao.em_voo e admissao.rejeicoes, por grupo.
+ */
+@Aspect
+@Component
+public class AdmissaoAspect {
+
+    private static final long RETRY_AFTER_SEGUNDOS = 1;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, LimitadorVegas> limitadores = new ConcurrentHashMap<>();
+
+    @Value("${mini-erp.admissao.enabled:true}")
+    private boolean habilitado = true;
+
+    @Value("${mini-erp.admissao.limite-inicial:20}")
+    private int limiteInicial = 20;
+
+    @Value("${mini-erp.admissao.limite-minimo:4}")
+    private int limiteMinimo = 4;
+
+    @Value("${mini-erp.admissao.limite-maximo:200}")
+    private int limiteMaximo = 200;
+
+    @Value("${mini-erp.admissao.fracao-escrita:0.8}")
+    private double fracaoEscrita = 0.8;
+
+    @Value("${mini-erp.admissao.janela-sondagem:1000}")
+    private int janelaSondagem = 1000;
+
+    public AdmissaoAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@within(br.com.mini.erp.service.admissao.LimiteConcorrencia) || @annotation(br.com.mini.erp.service.admissao.LimiteConcorrencia)")
+    public Object limitar(ProceedingJoinPoint pjp) throws Throwable {
+        if (!habilitado) {
+            return pjp.proceed();
+        }
+        Class<?> alvo = AopUtils.getTargetClass(pjp.getTarget());
+        Method metodo = AopUtils.getMostSpecificMethod(((MethodSignature) pjp.getSignature()).getMethod(), alvo);
+        LimiteConcorrencia anotacao = anotacao(alvo, metodo);
+        LimitadorVegas limitador = limitadores.computeIfAbsent(anotacao.grupo(), grupo -> criar(grupo, anotacao.limiteFixo()));
+
+        int emVoo = limitador.adquirir(anotacao.value());
+        if (emVoo < 0) {
+            rejeicoes(anotacao.grupo(), anotacao.value()).increment();
+            throw new SobrecargaException("Limite de concorrência atingido, tente novamente", RETRY_AFTER_SEGUNDOS);
+        }
+
+        long inicio = System.nanoTime();
+        boolean sobrecarga = false;
+        try {
+            return pjp.proceed();
+        } catch (CannotCreateTransactionException | TransientDataAccessException e) {
+            // sem conexão no pool ou timeout de consulta: sinal de fila no banco, não de regra de negócio
+            sobrecarga = true;
+            throw e;
+        } finally {
+            // rtt 0: limite fixo, fora da amostragem
+            long rtt = anotacao.limiteFixo() > 0 ? 0 : System.nanoTime() - inicio;
+            limitador.liberar(alvo.getSimpleName() + "." + metodo.getName(), rtt, emVoo, sobrecarga);
+        }
+    }
+
+    private LimitadorVegas criar(String grupo, int limiteFixo) {
+        LimitadorVegas limitador = limiteFixo > 0
+                ? LimitadorVegas.fixo(limiteFixo)
+                : new LimitadorVegas(limiteInicial, limiteMinimo, limiteMaximo, fracaoEscrita, janelaSondagem);
+        Gauge.builder("admissao.limite", limitador, LimitadorVegas::limite)
+                .description("Limite de concorrência atual (ajustado pela latência)")
+                .tag("grupo", grupo)
+                .register(meterRegistry);
+        Gauge.builder("admissao.em_voo", limitador, LimitadorVegas::emVoo)
+                .description("Chamadas em andamento dentro do limite")
+                .tag("grupo", grupo)
+                .register(meterRegistry);
+        return limitador;
+    }
+
+    private Counter rejeicoes(String grupo, PrioridadeAdmissao prioridade) {
+        return Counter.builder("admissao.rejeicoes")
+                .description("Chamadas recusadas com 503 por excederem o limite")
+                .tag("grupo", grupo)
+                .tag("prioridade", prioridade.name())
+                .register(meterRegistry);
+    }
+
+    private static LimiteConcorrencia anotacao(Class<?> alvo, Method metodo) {
+        LimiteConcorrencia noMetodo = AnnotatedElementUtils.findMergedAnnotation(metodo, LimiteConcorrencia.class);
+        return noMetodo != null ? noMetodo : AnnotatedElementUtils.findMergedAnnotation(alvo, LimiteConcorrencia.class);
+    }
+
+}
@@ -0,0 +1,113 @@
+package br.com.mini.erp.service.admissao;
+
+import br.com.mini.erp.enuns.PrioridadeAdmissao;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de concorrência adaptativo no estilo TCP Vegas. A menor latência observada de cada operação (rttMinimo)
+ * é a dela sem fila; a fila estimada é limite x (1 - rttMinimo / rtt). Abaixo de ALFA o limite sobe 1,
+ * acima de BETA desce 1, e falta de conexão ou timeout do banco corta 10%. Quem passa do limite é recusado
+ * na hora, sem esperar conexão do pool.
+ * <p>
+ * A base é por operação porque o grupo mistura custos: com um rttMinimo só (o da leitura mais barata), o
+ * custo próprio de um relatório seria lido como fila e derrubaria o limite para todos.
+ */
+final class LimitadorVegas {
+
+    private static final double ALFA = 3;
+    private static final double BETA = 6;
+    private static final double CORTE = 0.9;
+
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final double fracaoEscrita;
+    private final int janelaSondagem;
+
+    private final AtomicInteger emVoo = new AtomicInteger();
+    private volatile double limite;
+
+    // protegido por this (ajustar); operações vêm das anotações, então o mapa não cresce com o tráfego
+    private final Map<String, Base> bases = new HashMap<>();
+
+    LimitadorVegas(int limiteInicial, int limiteMinimo, int limiteMaximo, double fracaoEscrita, int janelaSondagem) {
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.fracaoEscrita = fracaoEscrita;
+        this.janelaSondagem = janelaSondagem;
+        this.limite = Math.max(limiteMinimo, Math.min(limiteInicial, limiteMaximo));
+    }
+
+    // limite que não se ajusta (mínimo = máximo): para chamadas longas, cuja latência não diz nada sobre fila
+    static LimitadorVegas fixo(int limite) {
+        return new LimitadorVegas(limite, limite, limite, 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Escritas só ocupam fracaoEscrita do limite: a folga fica para as leituras, que são curtas.
+     *
+     * @return chamadas em andamento incluindo esta, ou -1 se recusada
+     */
+    int adquirir(PrioridadeAdmissao prioridade) {
+        int teto = teto(prioridade);
+        while (true) {
+            int atual = emVoo.get();
+            if (atual >= teto) {
+                return -1;
+            }
+            if (emVoo.compareAndSet(atual, atual + 1)) {
+                return atual + 1;
+            }
+        }
+    }
+
+    void liberar(String operacao, long rttNanos, int emVooNaEntrada, boolean sobrecarga) {
+        emVoo.decrementAndGet();
+        ajustar(operacao, rttNanos, emVooNaEntrada, sobrecarga);
+    }
+
+    synchronized void ajustar(String operacao, long rttNanos, int emVooNaEntrada, boolean sobrecarga) {
+        if (sobrecarga) {
+            limite = Math.max(limiteMinimo, limite * CORTE);
+            return;
+        }
+        if (rttNanos <= 0) {
+            return;
+        }
+        Base base = bases.computeIfAbsent(operacao, o -> new Base());
+        // reamostrado a cada janelaSondagem chamadas da operação: sem isso uma mudança de patamar (banco mais lento,
+        // tabela maior) deixaria o rttMinimo antigo derrubando o limite para sempre
+        if (base.rttMinimo == 0 || rttNanos < base.rttMinimo || ++base.amostras >= janelaSondagem) {
+            base.rttMinimo = rttNanos;
+            base.amostras = 0;
+        }
+        double fila = limite * (1 - (double) base.rttMinimo / rttNanos);
+        if (fila > BETA) {
+            limite = Math.max(limiteMinimo, limite - 1);
+        } else if (fila < ALFA && emVooNaEntrada * 2 >= limite) {
+            // só sobe um limite que está em uso: com folga, latência baixa não diz nada sobre a capacidade
+            limite = Math.min(limiteMaximo, limite + 1);
+        }
+    }
+
+    int teto(PrioridadeAdmissao prioridade) {
+        int atual = limite();
+        return prioridade == PrioridadeAdmissao.LEITURA ? atual : Math.max(1, (int) (atual * fracaoEscrita));
+    }
+
+    int limite() {
+        return (int) limite;
+    }
+
+    int emVoo() {
+        return emVoo.get();
+    }
+
+    private static final class Base {
+        private long rttMinimo;
+        private int amostras;
+    }
+
+}
@@ -0,0 +1,30 @@
+package br.com.mini.erp.service.admissao;
+
+import br.com.mini.erp.enuns.PrioridadeAdmissao;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Coloca o método (ou todos os métodos da classe) atrás do limite de concorrência adaptativo do grupo
+ * (AdmissaoAspect). A anotação do método prevalece sobre a da classe. Anotar uma camada só: controller e
+ * service anotados contariam a mesma chamada duas vezes.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface LimiteConcorrencia {
+
+    PrioridadeAdmissao value() default PrioridadeAdmissao.LEITURA;
+
+    // chamadas do mesmo grupo disputam o mesmo recurso (o pool de conexões, no padrão)
+    String grupo() default "banco";
+
+    // > 0: o grupo tem esse limite fixo, sem ajuste pela latência (chamadas de minutos, como importações,
+    // passariam por fila no Vegas). Usar em um grupo próprio; vale o valor da primeira chamada do grupo
+    int limiteFixo() default 0;
+
+}
@@ -0,0 +1,326 @@
+package br.com.mini.erp.service.estoque;
+
+import br.com.mini.erp.exception.NotFoundException;
+import br.com.mini.erp.model.Produto;
+import br.com.mini.erp.repository.ProdutoRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ledger de estoque em memória para SKUs de alta demanda (opt-in via mini-erp.estoque.ledger.enabled).
+ * <p>
+ * Reservas são CAS sobre o saldo do produto e ficam "em voo" até o commit do pedido; só então o lançamento
+ * vai para o journal local e acumula um delta pendente que o {@link br.com.mini.erp.schedule.EstoqueLedgerScheduler}
+ * aplica em produto_estoque em lote. Devoluções entram no saldo só depois do commit.
+ * Invariante: saldo = estoque no banco + delta pendente + reservas em voo.
+ * <p>
+ * O journal nunca tem lançamento de transação desfeita. Resta a janela entre o commit do pedido e a gravação do
+ * journal: um crash nesse intervalo perde a baixa (o banco fica com estoque a mais).
+ * <p>
+ * Vale para uma única instância da aplicação: o saldo em memória não é compartilhado entre nós.
+ */
+@Component
+public class EstoqueLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(EstoqueLedger.class);
+
+    private final ProdutoRepository produtoRepository;
+    private final EstoqueLedgerJournal journal;
+    private final EstoqueLedgerPersistencia persistencia;
+    private final boolean habilitado;
+
+    private final ReentrantReadWriteLock[] stripes;
+    // carga de saldo x descarga no banco: impede ler o estoque do banco no meio de um flush
+    private final ReentrantLock carga = new ReentrantLock();
+    private final Map<Long, AtomicInteger> saldos = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> pendentes = new ConcurrentHashMap<>();
+    // reservas de transações ainda abertas (negativas): fora do journal e do pendente até o commit
+    private final Map<Long, AtomicInteger> emVoo = new ConcurrentHashMap<>();
+
+    public EstoqueLedger(ProdutoRepository produtoRepository,
+                         EstoqueLedgerJournal journal,
+                         EstoqueLedgerPersistencia persistencia,
+                         @Value("${mini-erp.estoque.ledger.enabled:false}") boolean habilitado,
+                         @Value("${mini-erp.estoque.ledger.stripes:64}") int stripes) {
+        this.produtoRepository = produtoRepository;
+        this.journal = journal;
+        this.persistencia = persistencia;
+        this.habilitado = habilitado;
+        this.stripes = new ReentrantReadWriteLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    // Replay: lançamentos do journal posteriores ao checkpoint voltam a ser deltas pendentes
+    @PostConstruct
+    public void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        List<EstoqueLedgerJournal.Entrada> entradas = journal.abrir(persistencia.ultimaSequencia());
+        entradas.forEach(e -> pendente(e.produtoId()).addAndGet(e.delta()));
+        if (!entradas.isEmpty()) {
+            log.info("Ledger de estoque: {} lançamentos reaplicados do journal", entradas.size());
+        }
+    }
+
+    public boolean atende(Produto produto) {
+        return habilitado && (Boolean.TRUE.equals(produto.getAltaDemanda()) || saldos.containsKey(produto.getId()));
+    }
+
+    public boolean gerencia(Long produtoId) {
+        return habilitado && saldos.containsKey(produtoId);
+    }
+
+    public boolean reservar(Long produtoId, int quantidade) {
+        while (!reservarCarregado(produtoId, quantidade)) {
+            if (saldos.containsKey(produtoId)) {
+                return false;
+            }
+            carregar(produtoId);
+        }
+
+        aposConclusao(produtoId,
+                () -> {
+                    emVoo(produtoId).addAndGet(quantidade);
+                    lancar(produtoId, -quantidade);
+                },
+                () -> {
+                    emVoo(produtoId).addAndGet(quantidade);
+                    somarSaldo(produtoId, quantidade);
+                });
+        return true;
+    }
+
+    // Estoque devolvido só fica disponível depois do commit do cancelamento
+    public void devolver(Long produtoId, int quantidade) {
+        aposConclusao(produtoId,
+                () -> {
+                    somarSaldo(produtoId, quantidade);
+                    lancar(produtoId, quantidade);
+                },
+                () -> { });
+    }
+
+    /**
+     * Estoque absoluto vindo do cadastro. Depois do commit, com a descarga bloqueada e a stripe travada, o valor é
+     * regravado no banco, o delta pendente do produto é zerado (com lançamento compensatório no journal, para o
+     * replay) e o saldo volta a ser carregado do banco na próxima reserva. Sem isso uma descarga concorrente somaria
+     * o delta antigo em cima do valor novo. Vale também sem saldo carregado: o delta reaplicado do journal no
+     * {@link #iniciar()} existe antes da primeira reserva.
+     */
+    public void redefinir(Long produtoId, int quantidade) {
+        if (!habilitado) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aplicarRedefinicao(produtoId, quantidade);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    aplicarRedefinicao(produtoId, quantidade);
+                } catch (RuntimeException e) {
+                    log.error("Falha ao redefinir o estoque do produto {} no ledger", produtoId, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Aplica os deltas pendentes em produto_estoque e descarta do journal o que já foi gravado.
+     *
+     * @return quantidade de produtos atualizados
+     */
+    public int descarregar() {
+        if (!habilitado) {
+            return 0;
+        }
+
+        carga.lock();
+        try {
+            Map<Long, Integer> deltas = new TreeMap<>();
+            long ateSequencia;
+
+            travarTodos();
+            try {
+                pendentes.forEach((id, delta) -> {
+                    if (delta.get() != 0) {
+                        deltas.put(id, delta.get());
+                    }
+                });
+                // o segmento fechado aqui tem exatamente os lançamentos somados em deltas (e os anteriores)
+                ateSequencia = deltas.isEmpty() ? 0 : journal.rotacionar();
+            } finally {
+                destravarTodos();
+            }
+
+            if (deltas.isEmpty()) {
+                return 0;
+            }
+
+            persistencia.aplicar(deltas, ateSequencia);
+            // lançamentos novos continuam somando no pendente; só o que foi gravado é subtraído
+            deltas.forEach((id, delta) -> pendente(id).addAndGet(-delta));
+            journal.descartarAte(ateSequencia);
+            return deltas.size();
+        } finally {
+            carga.unlock();
+        }
+    }
+
+    // false sem saldo carregado ou com saldo insuficiente
+    private boolean reservarCarregado(Long produtoId, int quantidade) {
+        Lock lock = stripe(produtoId).readLock();
+        lock.lock();
+        try {
+            AtomicInteger saldo = saldos.get(produtoId);
+            if (saldo == null) {
+                return false;
+            }
+            int atual;
+            do {
+                atual = saldo.get();
+                if (atual < quantidade) {
+                    return false;
+                }
+            } while (!saldo.compareAndSet(atual, atual - quantidade));
+            emVoo(produtoId).addAndGet(-quantidade);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Lock de escrita da stripe: pendente e reservas em voo não mudam entre a leitura do banco e a publicação do saldo
+    private void carregar(Long produtoId) {
+        carga.lock();
+        Lock lock = stripe(produtoId).writeLock();
+        lock.lock();
+        try {
+            if (saldos.containsKey(produtoId)) {
+                return;
+            }
+            int estoque = produtoRepository.findEstoqueById(produtoId)
+                    .orElseThrow(() -> new NotFoundException("Produto " + produtoId + " não encontrado"));
+            saldos.put(produtoId, new AtomicInteger(estoque + pendente(produtoId).get() + emVoo(produtoId).get()));
+        } finally {
+            lock.unlock();
+            carga.unlock();
+        }
+    }
+
+    // Só para produtos que passaram pelo ledger (saldo carregado ou delta pendente, inclusive o do replay depois de
+    // um restart): os pedidos não travam a linha deles em produto_estoque
+    private void aplicarRedefinicao(Long produtoId, int quantidade) {
+        carga.lock();
+        Lock lock = stripe(produtoId).writeLock();
+        lock.lock();
+        try {
+            AtomicInteger atual = pendentes.get(produtoId);
+            if (!saldos.containsKey(produtoId) && (atual == null || atual.get() == 0)) {
+                return;
+            }
+            persistencia.definir(produtoId, quantidade);
+            int pendente = atual == null ? 0 : atual.getAndSet(0);
+            if (pendente != 0) {
+                journal.registrar(produtoId, -pendente);
+            }
+            saldos.remove(produtoId);
+        } finally {
+            lock.unlock();
+            carga.unlock();
+        }
+    }
+
+    private void somarSaldo(Long produtoId, int delta) {
+        AtomicInteger saldo = saldos.get(produtoId);
+        if (saldo != null) {
+            saldo.addAndGet(delta);
+        }
+    }
+
+    private void lancar(Long produtoId, int delta) {
+        pendente(produtoId).addAndGet(delta);
+        journal.registrar(produtoId, delta);
+    }
+
+    // Commit confirma o lançamento (journal + pendente); rollback devolve o que foi reservado em memória.
+    // Sem transação (jobs, testes) o lançamento é confirmado na hora.
+    private void aposConclusao(Long produtoId, Runnable confirmar, Runnable desfazer) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            naStripe(produtoId, confirmar);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    naStripe(produtoId, confirmar);
+                } catch (RuntimeException e) {
+                    // o pedido já está gravado: o delta segue pendente em memória e a próxima descarga o aplica
+                    log.error("Falha ao registrar lançamento do produto {} no journal do ledger", produtoId, e);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    naStripe(produtoId, desfazer);
+                }
+            }
+        });
+    }
+
+    private void naStripe(Long produtoId, Runnable acao) {
+        Lock lock = stripe(produtoId).readLock();
+        lock.lock();
+        try {
+            acao.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private AtomicInteger pendente(Long produtoId) {
+        return pendentes.computeIfAbsent(produtoId, id -> new AtomicInteger());
+    }
+
+    private AtomicInteger emVoo(Long produtoId) {
+        return emVoo.computeIfAbsent(produtoId, id -> new AtomicInteger());
+    }
+
+    private ReentrantReadWriteLock stripe(Long produtoId) {
+        return stripes[Math.floorMod(produtoId.hashCode(), stripes.length)];
+    }
+
+    private void travarTodos() {
+        for (ReentrantReadWriteLock s : stripes) {
+            s.writeLock().lock();
+        }
+    }
+
+    private void destravarTodos() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].writeLock().unlock();
+        }
+    }
+
+}
@@ -0,0 +1,47 @@
+package br.com.mini.erp.service.estoque;
+
+import br.com.mini.erp.model.EstoqueLedgerCheckpoint;
+import br.com.mini.erp.repository.EstoqueLedgerCheckpointRepository;
+import br.com.mini.erp.repository.ProdutoRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+
+@Component
+public class EstoqueLedgerPersistencia {
+
+    private static final Long CHECKPOINT_ID = 1L;
+
+    private final ProdutoRepository produtoRepository;
+    private final EstoqueLedgerCheckpointRepository checkpointRepository;
+
+    public EstoqueLedgerPersistencia(ProdutoRepository produtoRepository, EstoqueLedgerCheckpointRepository checkpointRepository) {
+        this.produtoRepository = produtoRepository;
+        this.checkpointRepository = checkpointRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public long ultimaSequencia() {
+        return checkpointRepository.findById(CHECKPOINT_ID).map(EstoqueLedgerCheckpoint::getUltimaSequencia).orElse(0L);
+    }
+
+    // Deltas e checkpoint na mesma transação: o replay nunca reaplica o que já foi gravado
+    @Transactional
+    public void aplicar(Map<Long, Integer> deltas, long ateSequencia) {
+        deltas.forEach(produtoRepository::ajustarEstoque);
+        EstoqueLedgerCheckpoint c = checkpointRepository.findById(CHECKPOINT_ID).orElseGet(() -> new EstoqueLedgerCheckpoint(CHECKPOINT_ID));
+        c.setUltimaSequencia(ateSequencia);
+        c.setAtualizadoEm(OffsetDateTime.now());
+        checkpointRepository.save(c);
+    }
+
+    // Chamado no afterCommit da alteração do cadastro: precisa de transação própria
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void definir(Long produtoId, int quantidade) {
+        produtoRepository.definirEstoque(produtoId, quantidade);
+    }
+
+}
@@ -0,0 +1,20 @@
+package br.com.mini.erp.service.evento;
+
+import java.util.List;
+
+/**
+ * Linhas dos pedidos criados, publicado pelo PedidoServiceImpl na transação da criação. Os listeners de
+ * tendência só o recebem depois do commit.
+ */
+public record ItensVendidos(
+        List<Item> itens
+) {
+
+    public record Item(
+            Long produtoId,
+            String sku,
+            int quantidade
+    ) {
+    }
+
+}
@@ -0,0 +1,18 @@
+package br.com.mini.erp.service.evento;
+
+import br.com.mini.erp.enuns.PedidoStatus;
+
+import java.util.List;
+
+/**
+ * Publicado pelo PedidoServiceImpl dentro da transação que criou pedidos ou mudou o status deles
+ * (listeners síncronos participam da mesma transação).
+ *
+ * @param pedidoIds pedidos criados ou alterados
+ * @param status    status para o qual os pedidos foram (CRIADO na criação)
+ */
+public record PedidosAlterados(
+        List<Long> pedidoIds,
+        PedidoStatus status
+) {
+}
@@ -0,0 +1,74 @@
+package br.com.mini.erp.service.idempotencia;
+
+import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.repository.IdempotenciaRegistroRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "mini-erp.idempotencia.store", havingValue = "banco")
+public class BancoIdempotenciaStore implements IdempotenciaStore {
+
+    private final IdempotenciaRegistroRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+
+    public BancoIdempotenciaStore(IdempotenciaRegistroRepository repository, ObjectMapper objectMapper,
+                                  @Value("${mini-erp.idempotencia.ttl:24h}") Duration ttl) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Registro> buscar(String chave) {
+        OffsetDateTime agora = OffsetDateTime.now();
+        return repository.findById(chave)
+                .filter(r -> r.getExpiraEm().isAfter(agora))
+                .map(r -> new Registro(r.getHashRequisicao(), Boolean.TRUE.equals(r.getConcluido()) ? ler(r.getResposta()) : null));
+    }
+
+    // Na transação da operação: uma reserva concorrente (de qualquer nó) espera o commit ou rollback desta no INSERT
+    @Override
+    @Transactional
+    public boolean reservar(String chave, String hashRequisicao) {
+        OffsetDateTime agora = OffsetDateTime.now();
+        repository.removerSeExpirado(chave, agora);
+        return repository.reservar(chave, hashRequisicao, agora, agora.plus(ttl)) > 0;
+    }
+
+    @Override
+    @Transactional
+    public void concluir(String chave, PedidoResponse resposta) {
+        try {
+            repository.concluir(chave, objectMapper.writeValueAsString(resposta));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int removerExpirados() {
+        return repository.removerExpirados(OffsetDateTime.now());
+    }
+
+    private PedidoResponse ler(String json) {
+        try {
+            return objectMapper.readValue(json, PedidoResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
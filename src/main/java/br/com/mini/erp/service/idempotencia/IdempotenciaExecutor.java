@@ -0,0 +1,157 @@
+package br.com.mini.erp.service.idempotencia;
+
+import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.exception.BusinessException;
+import br.com.mini.erp.exception.ConflitoException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executa uma operação no máximo uma vez por Idempotency-Key.
+ * Chave repetida devolve a resposta armazenada; duplicatas concorrentes no mesmo nó aguardam a execução em andamento,
+ * e em outro nó (store em banco) aguardam o commit dela na reserva da chave.
+ * <p>
+ * Reserva, operação e resposta gravada formam uma única transação: se o nó cai no meio, nada fica gravado e a chave
+ * fica livre para a repetição do cliente. A chave é amarrada ao hash da requisição; reutilizá-la com outro conteúdo
+ * é rejeitado.
+ */
+@Component
+public class IdempotenciaExecutor {
+
+    // a ação pode falhar dentro da transação e ser repetida pelo @Retryable do service (conflito de versão):
+    // a transação externa fica marcada para rollback e é refeita do início
+    private static final int MAX_TENTATIVAS = 3;
+
+    private final IdempotenciaStore store;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<String, EmAndamento> emAndamento = new ConcurrentHashMap<>();
+
+    @Value("${mini-erp.idempotencia.espera-max:30s}")
+    private Duration esperaMax = Duration.ofSeconds(30);
+
+    public IdempotenciaExecutor(IdempotenciaStore store, TransactionTemplate transactionTemplate, ObjectMapper objectMapper) {
+        this.store = store;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    // requisicao: corpo da chamada (null quando a operação não tem corpo; o id já faz parte da operação)
+    public PedidoResponse executar(String chave, String operacao, Object requisicao, Supplier<PedidoResponse> acao) {
+        if (chave.isBlank() || chave.length() > 255) {
+            throw new BusinessException("Idempotency-Key deve ter entre 1 e 255 caracteres");
+        }
+        String k = operacao + ":" + chave;
+        String hash = hash(requisicao);
+
+        Optional<PedidoResponse> salva = respostaSalva(k, hash);
+        if (salva.isPresent()) {
+            return salva.get();
+        }
+
+        EmAndamento nova = new EmAndamento(hash, new CompletableFuture<>());
+        EmAndamento existente = emAndamento.putIfAbsent(k, nova);
+        if (existente != null) {
+            conferirHash(existente.hashRequisicao(), hash);
+            return aguardar(existente.resposta());
+        }
+
+        try {
+            PedidoResponse resposta = executarUmaVez(k, hash, acao);
+            nova.resposta().complete(resposta);
+            return resposta;
+        } catch (RuntimeException e) {
+            nova.resposta().completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(k, nova);
+        }
+    }
+
+    // falhas não são memorizadas: o rollback libera a chave e o cliente pode repetir com ela
+    private PedidoResponse executarUmaVez(String k, String hash, Supplier<PedidoResponse> acao) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return transactionTemplate.execute(status -> {
+                    if (!store.reservar(k, hash)) {
+                        // concluída entre a primeira consulta e a reserva (de outro nó, depois de esperar o commit)
+                        return respostaSalva(k, hash).orElseThrow(IdempotenciaExecutor::emProcessamento);
+                    }
+                    PedidoResponse resposta = acao.get();
+                    store.concluir(k, resposta);
+                    return resposta;
+                });
+            } catch (UnexpectedRollbackException e) {
+                if (tentativa == MAX_TENTATIVAS) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private Optional<PedidoResponse> respostaSalva(String k, String hash) {
+        Optional<IdempotenciaStore.Registro> registro = store.buscar(k);
+        registro.ifPresent(r -> conferirHash(r.hashRequisicao(), hash));
+        return registro.map(IdempotenciaStore.Registro::resposta);
+    }
+
+    private PedidoResponse aguardar(CompletableFuture<PedidoResponse> execucao) {
+        try {
+            return execucao.get(esperaMax.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw emProcessamento();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw emProcessamento();
+        }
+    }
+
+    // registros anteriores ao hash (null) valem para qualquer requisição
+    private static void conferirHash(String gravado, String hash) {
+        if (gravado != null && !gravado.equals(hash)) {
+            throw new BusinessException("Idempotency-Key já utilizada com outra requisição");
+        }
+    }
+
+    private String hash(Object requisicao) {
+        try {
+            byte[] corpo = requisicao == null ? new byte[0] : objectMapper.writeValueAsBytes(requisicao);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(corpo));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ConflitoException emProcessamento() {
+        return new ConflitoException("Requisição com esta Idempotency-Key ainda em processamento");
+    }
+
+    private record EmAndamento(String hashRequisicao, CompletableFuture<PedidoResponse> resposta) {
+    }
+
+}
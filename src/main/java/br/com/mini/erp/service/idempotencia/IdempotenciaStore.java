@@ -0,0 +1,30 @@
+package br.com.mini.erp.service.idempotencia;
+
+import br.com.mini.erp.dto.response.PedidoResponse;
+
+import java.util.Optional;
+
+/**
+ * Armazena as respostas já produzidas por chave de idempotência.
+ * Implementações: {@link MemoriaIdempotenciaStore} (nó único) e {@link BancoIdempotenciaStore} (cluster),
+ * escolhidas por mini-erp.idempotencia.store.
+ * <p>
+ * Reserva e conclusão acontecem na transação da própria operação: o rollback libera a chave e a resposta fica
+ * visível junto com o commit do que ela descreve.
+ */
+public interface IdempotenciaStore {
+
+    // registro vigente da chave (resposta null enquanto a execução não terminou)
+    Optional<Registro> buscar(String chave);
+
+    // false se a chave já está reservada (em andamento ou concluída)
+    boolean reservar(String chave, String hashRequisicao);
+
+    void concluir(String chave, PedidoResponse resposta);
+
+    int removerExpirados();
+
+    record Registro(String hashRequisicao, PedidoResponse resposta) {
+    }
+
+}
@@ -0,0 +1,111 @@
+package br.com.mini.erp.service.idempotencia;
+
+import br.com.mini.erp.dto.response.PedidoResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "mini-erp.idempotencia.store", havingValue = "memoria", matchIfMissing = true)
+public class MemoriaIdempotenciaStore implements IdempotenciaStore {
+
+    private final Duration ttl;
+    private final Map<String, Entrada> registros;
+
+    public MemoriaIdempotenciaStore(@Value("${mini-erp.idempotencia.ttl:24h}") Duration ttl,
+                                    @Value("${mini-erp.idempotencia.max-chaves:100000}") int maxChaves) {
+        this.ttl = ttl;
+        // ordem de inserção: a chave mais antiga sai primeiro quando o limite é atingido
+        this.registros = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entrada> eldest) {
+                return size() > maxChaves;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<Registro> buscar(String chave) {
+        Entrada e = registros.get(chave);
+        if (e == null || e.expirado()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Registro(e.hashRequisicao, e.resposta));
+    }
+
+    // o rollback da transação da operação libera a chave
+    @Override
+    public synchronized boolean reservar(String chave, String hashRequisicao) {
+        Entrada e = registros.get(chave);
+        if (e != null && !e.expirado()) {
+            return false;
+        }
+        Entrada reserva = new Entrada(System.nanoTime() + ttl.toNanos(), hashRequisicao, null);
+        registros.remove(chave);
+        registros.put(chave, reserva);
+        aoConcluirTransacao(null, () -> liberar(chave, reserva));
+        return true;
+    }
+
+    // a resposta só aparece depois do commit da operação
+    @Override
+    public void concluir(String chave, PedidoResponse resposta) {
+        aoConcluirTransacao(() -> gravar(chave, resposta), null);
+    }
+
+    @Override
+    public synchronized int removerExpirados() {
+        int antes = registros.size();
+        registros.values().removeIf(Entrada::expirado);
+        return antes - registros.size();
+    }
+
+    private synchronized void gravar(String chave, PedidoResponse resposta) {
+        Entrada e = registros.get(chave);
+        registros.put(chave, new Entrada(System.nanoTime() + ttl.toNanos(), e == null ? null : e.hashRequisicao, resposta));
+    }
+
+    private synchronized void liberar(String chave, Entrada reserva) {
+        registros.remove(chave, reserva);
+    }
+
+    // sem transação ativa o efeito de commit é imediato
+    private static void aoConcluirTransacao(Runnable commit, Runnable rollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (commit != null) {
+                commit.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (commit != null) {
+                    commit.run();
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK && rollback != null) {
+                    rollback.run();
+                }
+            }
+        });
+    }
+
+    private record Entrada(long expiraEmNanos, String hashRequisicao, PedidoResponse resposta) {
+
+        boolean expirado() {
+            return System.nanoTime() - expiraEmNanos > 0;
+        }
+    }
+
+}
@@ -6,12 +6,18 @@ import br.com.mini.erp.dto.request.ClienteRequest;
 import br.com.mini.erp.dto.request.EnderecoRequest;
 import br.com.mini.erp.dto.response.ClienteResponse;
 import br.com.mini.erp.dto.response.EnderecoResponse;
+import br.com.mini.erp.dto.response.PaginaCursorResponse;
 import br.com.mini.erp.exception.BusinessException;
 import br.com.mini.erp.exception.NotFoundException;
 import br.com.mini.erp.model.Cliente;
 import br.com.mini.erp.model.Endereco;
 import br.com.mini.erp.repository.ClienteRepository;
+import br.com.mini.erp.repository.projection.VersaoProjecao;
 import br.com.mini.erp.service.ClienteService;
+import br.com.mini.erp.service.paginacao.Cursor;
+import br.com.mini.erp.service.paginacao.PaginaVersionada;
+import br.com.mini.erp.service.paginacao.VersaoPagina;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.retry.annotation.Backoff;
@@ -19,6 +25,9 @@ import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Optional;
+
 @Service
 public class ClienteServiceImpl implements ClienteService {
 
@@ -82,9 +91,35 @@ public class ClienteServiceImpl implements ClienteService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ClienteResponse> search(String q, Pageable pageable) {
+    public PaginaVersionada<ClienteResponse> search(String q, Pageable pageable) {
+        q = (q == null) ? "" : q;
+        Page<Cliente> pagina = repository.findByNomeContainingIgnoreCaseOrEmailContainingIgnoreCase(q, q, pageable);
+        String versao = VersaoPagina.de(pagina.map(c -> new VersaoProjecao(c.getId(), c.getVersao())));
+        return new PaginaVersionada<>(pagina.map(this::toResponse), versao);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorResponse<ClienteResponse> searchCursor(String q, String cursor, int tamanho) {
+        tamanho = Cursor.tamanho(tamanho);
+        Long aposId = (cursor == null || cursor.isBlank()) ? 0L : Cursor.lerId(cursor);
+        List<Cliente> clientes = (q == null || q.isBlank())
+                ? repository.findByIdGreaterThanOrderByIdAsc(aposId, Limit.of(tamanho + 1))
+                : repository.buscarAposCursor(q, aposId, Limit.of(tamanho + 1));
+        return Cursor.pagina(clientes, tamanho, this::toResponse, c -> Cursor.deId(c.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> versao(Long id) {
+        return repository.buscarVersao(id).map(String::valueOf);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String versaoSearch(String q, Pageable pageable) {
         q = (q == null) ? "" : q;
-        return repository.findByNomeContainingIgnoreCaseOrEmailContainingIgnoreCase(q, q, pageable).map(this::toResponse);
+        return VersaoPagina.de(repository.findByNomeContainingIgnoreCaseOrEmailContainingIgnoreCase(q, q, pageable, VersaoProjecao.class));
     }
 
     private void validarUnicidade(String email, String cpf) {
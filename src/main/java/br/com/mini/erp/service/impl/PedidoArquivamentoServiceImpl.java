@@ -0,0 +1,214 @@
+package br.com.mini.erp.service.impl;
+
+import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.model.PedidoArquivado;
+import br.com.mini.erp.repository.PedidoArquivadoRepository;
+import br.com.mini.erp.repository.PedidoRepository;
+import br.com.mini.erp.repository.PedidoResumoRepository;
+import br.com.mini.erp.repository.projection.PedidoExportacaoLinha;
+import br.com.mini.erp.service.PedidoArquivamentoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Arquivo frio de pedidos fechados: segmentos NDJSON comprimidos (gzip) em disco local, um por lote, com o índice
+ * (pedido, cliente, segmento, linha) na tabela pedidos_arquivados.
+ * <p>
+ * O segmento é gravado e sincronizado em disco antes da transação que grava o índice e remove o pedido das tabelas
+ * vivas; se a transação falhar, o segmento fica órfão e é regravado (mesmo nome) na próxima execução.
+ */
+@Service
+public class PedidoArquivamentoServiceImpl implements PedidoArquivamentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(PedidoArquivamentoServiceImpl.class);
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private final PedidoRepository pedidoRepository;
+    private final PedidoResumoRepository pedidoResumoRepository;
+    private final PedidoArquivadoRepository pedidoArquivadoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter escritorJson;
+    private final ObjectReader leitorJson;
+
+    @Value("${mini-erp.pedidos.arquivo.diretorio:./data/arquivo}")
+    private String diretorio = "./data/arquivo";
+
+    @Value("${mini-erp.pedidos.arquivo.dias-fechado:90}")
+    private int diasFechado = 90;
+
+    // pedidos por segmento (e por transação)
+    @Value("${mini-erp.pedidos.arquivo.tamanho-lote:1000}")
+    private int tamanhoLote = 1000;
+
+    public PedidoArquivamentoServiceImpl(PedidoRepository pedidoRepository, PedidoResumoRepository pedidoResumoRepository,
+                                         PedidoArquivadoRepository pedidoArquivadoRepository, TransactionTemplate transactionTemplate,
+                                         ObjectMapper objectMapper) {
+        this.pedidoRepository = pedidoRepository;
+        this.pedidoResumoRepository = pedidoResumoRepository;
+        this.pedidoArquivadoRepository = pedidoArquivadoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.escritorJson = objectMapper.writerFor(PedidoResponse.class);
+        this.leitorJson = objectMapper.readerFor(PedidoResponse.class);
+    }
+
+    @Override
+    public int arquivar() {
+
+        long inicio = System.nanoTime();
+        OffsetDateTime cutoff = OffsetDateTime.now().minus(Duration.ofDays(diasFechado));
+        int total = 0;
+        int segmentos = 0;
+
+        while (true) {
+            List<PedidoResponse> pedidos = transactionTemplate.execute(status -> lerLote(cutoff));
+            if (pedidos == null || pedidos.isEmpty()) {
+                break;
+            }
+            String segmento = gravarSegmento(pedidos);
+            OffsetDateTime agora = OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            total += transactionTemplate.execute(status -> removerDasTabelasVivas(pedidos, segmento, agora));
+            segmentos++;
+            if (pedidos.size() < tamanhoLote) {
+                break;
+            }
+        }
+
+        if (total > 0) {
+            log.info("Arquivo frio: {} pedidos fechados há mais de {} dias arquivados em {} segmentos ({} ms)",
+                    total, diasFechado, segmentos, (System.nanoTime() - inicio) / 1_000_000);
+        }
+        return total;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<PedidoResponse> buscar(Long id) {
+        return pedidoArquivadoRepository.findById(id).map(this::ler);
+    }
+
+    // segmentos lidos em streaming; só os com índice gravado, então um segmento órfão não é contado
+    @Override
+    @Transactional(readOnly = true)
+    public void percorrer(Consumer<PedidoResponse> consumidor) {
+        for (String segmento : pedidoArquivadoRepository.listarSegmentos()) {
+            try (BufferedReader reader = abrir(segmento)) {
+                String linha;
+                while ((linha = reader.readLine()) != null) {
+                    consumidor.accept(leitorJson.readValue(linha));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao ler o segmento " + segmento + " do arquivo de pedidos", e);
+            }
+        }
+    }
+
+    private List<PedidoResponse> lerLote(OffsetDateTime cutoff) {
+        List<Long> ids = pedidoRepository.findIdsArquivaveis(cutoff, PedidoStatus.PAGO, PedidoStatus.CANCELADO, Limit.of(tamanhoLote));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // linhas de um pedido chegam consecutivas (order by p.id, i.id)
+        Map<Long, List<PedidoExportacaoLinha>> porPedido = new LinkedHashMap<>();
+        for (PedidoExportacaoLinha linha : pedidoRepository.buscarLinhasPorIds(ids)) {
+            porPedido.computeIfAbsent(linha.pedidoId(), k -> new ArrayList<>()).add(linha);
+        }
+        return porPedido.values().stream().map(PedidoExportacaoServiceImpl::paraResponse).toList();
+    }
+
+    // nome determinístico pelo intervalo de ids: uma reexecução após falha sobrescreve o segmento órfão
+    private String gravarSegmento(List<PedidoResponse> pedidos) {
+        String nome = "pedidos-" + pedidos.get(0).id() + "-" + pedidos.get(pedidos.size() - 1).id() + ".ndjson.gz";
+        Path destino = Path.of(diretorio).resolve(nome);
+        Path tmp = destino.resolveSibling(nome + ".tmp");
+        try {
+            Files.createDirectories(destino.getParent());
+            try (FileChannel canal = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(canal), TAMANHO_BUFFER);
+                Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+                for (PedidoResponse p : pedidos) {
+                    writer.write(escritorJson.writeValueAsString(p));
+                    writer.write('\n');
+                }
+                writer.flush();
+                gzip.finish();
+                canal.force(true);
+            }
+            Files.move(tmp, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar segmento do arquivo de pedidos " + nome, e);
+        }
+        return nome;
+    }
+
+    private int removerDasTabelasVivas(List<PedidoResponse> pedidos, String segmento, OffsetDateTime agora) {
+        List<PedidoArquivado> indice = new ArrayList<>(pedidos.size());
+        for (int i = 0; i < pedidos.size(); i++) {
+            PedidoResponse p = pedidos.get(i);
+            indice.add(new PedidoArquivado(p.id(), p.clienteId(), p.status(), segmento, i, agora));
+        }
+        pedidoArquivadoRepository.saveAll(indice);
+
+        List<Long> ids = pedidos.stream().map(PedidoResponse::id).toList();
+        pedidoRepository.removerItens(ids);
+        pedidoResumoRepository.deleteAllByIdInBatch(ids);
+        return pedidoRepository.remover(ids);
+    }
+
+    private PedidoResponse ler(PedidoArquivado registro) {
+        try (BufferedReader reader = abrir(registro.getSegmento())) {
+            for (int i = 0; i < registro.getLinha(); i++) {
+                reader.readLine();
+            }
+            String linha = reader.readLine();
+            if (linha == null) {
+                throw new IOException("linha " + registro.getLinha() + " ausente");
+            }
+            return leitorJson.readValue(linha);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o pedido " + registro.getId() + " do segmento " + registro.getSegmento(), e);
+        }
+    }
+
+    private BufferedReader abrir(String segmento) throws IOException {
+        Path arquivo = Path.of(diretorio).resolve(segmento);
+        return new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(arquivo), TAMANHO_BUFFER), StandardCharsets.UTF_8), TAMANHO_BUFFER);
+    }
+
+}
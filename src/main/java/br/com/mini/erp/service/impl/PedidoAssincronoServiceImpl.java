@@ -0,0 +1,295 @@
+package br.com.mini.erp.service.impl;
+
+import br.com.mini.erp.dto.request.PedidoRequest;
+import br.com.mini.erp.dto.response.PedidoAssincronoResponse;
+import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.enuns.PedidoAssincronoStatus;
+import br.com.mini.erp.exception.BusinessException;
+import br.com.mini.erp.exception.NotFoundException;
+import br.com.mini.erp.exception.SobrecargaException;
+import br.com.mini.erp.service.PedidoAssincronoService;
+import br.com.mini.erp.service.PedidoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Modo assíncrono do POST /orders: a requisição é validada e enfileirada, e workers em virtual threads
+ * drenam a fila chamando {@link PedidoService#create}. O número de workers limita quantas conexões do
+ * pool a criação assíncrona ocupa ao mesmo tempo; fila cheia responde 503.
+ * <p>
+ * No encerramento a aceitação para (503), os workers drenam a fila até o prazo e o que sobrar é gravado em
+ * mini-erp.pedidos.assincrono.pendentes (NDJSON), reenfileirado com o mesmo id na próxima subida.
+ */
+@Service
+public class PedidoAssincronoServiceImpl implements PedidoAssincronoService {
+
+    private static final Logger log = LoggerFactory.getLogger(PedidoAssincronoServiceImpl.class);
+
+    private final PedidoService pedidoService;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger ocupados = new AtomicInteger();
+    private final List<Thread> trabalhadores = new ArrayList<>();
+
+    @Value("${mini-erp.pedidos.assincrono.workers:4}")
+    private int workers = 4;
+
+    @Value("${mini-erp.pedidos.assincrono.capacidade-fila:1000}")
+    private int capacidadeFila = 1000;
+
+    @Value("${mini-erp.pedidos.assincrono.max-rastreados:10000}")
+    private int maxRastreados = 10000;
+
+    @Value("${mini-erp.pedidos.assincrono.prazo-encerramento:20s}")
+    private Duration prazoEncerramento = Duration.ofSeconds(20);
+
+    @Value("${mini-erp.pedidos.assincrono.pendentes:./data/pedidos-assincronos-pendentes.ndjson}")
+    private String arquivoPendentes = "./data/pedidos-assincronos-pendentes.ndjson";
+
+    private volatile boolean encerrando;
+    private volatile boolean parar;
+
+    private BlockingQueue<Solicitacao> fila;
+    private Map<String, Solicitacao> solicitacoes;
+    private Timer espera;
+    private Timer processamento;
+
+    public PedidoAssincronoServiceImpl(PedidoService pedidoService, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.pedidoService = pedidoService;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        fila = new ArrayBlockingQueue<>(capacidadeFila);
+        // situação das solicitações mais recentes (em memória); as mais antigas saem primeiro
+        solicitacoes = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Solicitacao> eldest) {
+                return size() > maxRastreados;
+            }
+        });
+
+        Gauge.builder("pedidos.assincronos.fila", fila, BlockingQueue::size)
+                .description("Solicitações aguardando um worker")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.assincronos.workers.ocupados", ocupados, AtomicInteger::get)
+                .description("Workers processando uma solicitação")
+                .register(meterRegistry);
+        Gauge.builder("pedidos.assincronos.workers.utilizacao", ocupados, o -> workers == 0 ? 0 : (double) o.get() / workers)
+                .description("Fração dos workers ocupados (0 a 1)")
+                .register(meterRegistry);
+        espera = Timer.builder("pedidos.assincronos.espera")
+                .description("Tempo em fila até o início do processamento")
+                .register(meterRegistry);
+        processamento = Timer.builder("pedidos.assincronos.processamento")
+                .description("Tempo de criação do pedido pelo worker")
+                .register(meterRegistry);
+
+        recuperarPendentes();
+        for (int i = 0; i < workers; i++) {
+            trabalhadores.add(Thread.ofVirtual().name("pedido-assincrono-" + i).start(this::trabalhar));
+        }
+    }
+
+    // Solicitações já respondidas com 202 não se perdem no deploy: drena até o prazo e grava o restante
+    @PreDestroy
+    public void encerrar() {
+        encerrando = true;
+        long limite = System.nanoTime() + prazoEncerramento.toNanos();
+        try {
+            while (workers > 0 && !fila.isEmpty() && System.nanoTime() - limite < 0) {
+                Thread.sleep(50);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        parar = true;
+        // quem está no meio de um create termina o pedido (sem interrupt: cortaria a conexão com o banco)
+        for (Thread t : trabalhadores) {
+            try {
+                t.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        List<Solicitacao> restantes = new ArrayList<>();
+        fila.drainTo(restantes);
+        if (!restantes.isEmpty()) {
+            gravarPendentes(restantes);
+        }
+    }
+
+    @Override
+    public PedidoAssincronoResponse aceitar(PedidoRequest req) {
+        if (req.itens() == null || req.itens().isEmpty()) {
+            throw new BusinessException("Pedido deve ter ao menos 1 item");
+        }
+        if (encerrando) {
+            meterRegistry.counter("pedidos.assincronos.resultado", "status", "RECUSADO").increment();
+            throw new SobrecargaException("Instância em encerramento, tente novamente", 1);
+        }
+        Solicitacao s = new Solicitacao(UUID.randomUUID().toString(), OffsetDateTime.now(ZoneOffset.UTC), req);
+        solicitacoes.put(s.id, s);
+        if (!fila.offer(s)) {
+            solicitacoes.remove(s.id);
+            meterRegistry.counter("pedidos.assincronos.resultado", "status", "RECUSADO").increment();
+            throw new SobrecargaException("Fila de pedidos assíncronos cheia, tente novamente", 1);
+        }
+        return s.toResponse();
+    }
+
+    @Override
+    public PedidoAssincronoResponse get(String id) {
+        Solicitacao s = solicitacoes.get(id);
+        if (s == null) {
+            throw new NotFoundException("Solicitação não encontrada");
+        }
+        return s.toResponse();
+    }
+
+    private void trabalhar() {
+        try {
+            while (!parar) {
+                Solicitacao s = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (s != null) {
+                    processar(s);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void gravarPendentes(List<Solicitacao> restantes) {
+        Path arquivo = Path.of(arquivoPendentes);
+        try {
+            if (arquivo.getParent() != null) {
+                Files.createDirectories(arquivo.getParent());
+            }
+            List<String> linhas = new ArrayList<>();
+            for (Solicitacao s : restantes) {
+                linhas.add(objectMapper.writeValueAsString(new Pendente(s.id, s.recebidoEm, s.requisicao)));
+            }
+            Files.write(arquivo, linhas, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            log.warn("Encerrando com {} pedidos assíncronos não processados, gravados em {}", restantes.size(), arquivo);
+        } catch (IOException e) {
+            log.error("Falha ao gravar {} pedidos assíncronos pendentes: ids {}", restantes.size(),
+                    restantes.stream().map(s -> s.id).toList(), e);
+        }
+    }
+
+    // Reenfileira o que o encerramento anterior gravou; o arquivo só sai depois de tudo voltar para a fila
+    private void recuperarPendentes() {
+        Path arquivo = Path.of(arquivoPendentes);
+        if (!Files.exists(arquivo)) {
+            return;
+        }
+        try {
+            List<String> linhas = Files.readAllLines(arquivo, StandardCharsets.UTF_8).stream().filter(l -> !l.isBlank()).toList();
+            for (int i = 0; i < linhas.size(); i++) {
+                Pendente p = objectMapper.readValue(linhas.get(i), Pendente.class);
+                Solicitacao s = new Solicitacao(p.id(), p.recebidoEm(), p.requisicao());
+                if (!fila.offer(s)) {
+                    // fila menor que o que sobrou: o restante fica no arquivo para a próxima subida
+                    Files.write(arquivo, linhas.subList(i, linhas.size()), StandardCharsets.UTF_8);
+                    log.error("Fila cheia ao recuperar pedidos assíncronos; {} mantidos em {}", linhas.size() - i, arquivo);
+                    return;
+                }
+                solicitacoes.put(s.id, s);
+            }
+            Files.delete(arquivo);
+            log.info("{} pedidos assíncronos pendentes recuperados de {}", linhas.size(), arquivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao recuperar pedidos assíncronos pendentes de " + arquivo, e);
+        }
+    }
+
+    private void processar(Solicitacao s) {
+        long inicio = System.nanoTime();
+        s.esperaNs = inicio - s.recebidoNs;
+        espera.record(s.esperaNs, TimeUnit.NANOSECONDS);
+        s.status = PedidoAssincronoStatus.PROCESSANDO;
+        ocupados.incrementAndGet();
+        try {
+            s.concluir(PedidoAssincronoStatus.CONCLUIDO, pedidoService.create(s.requisicao), null);
+        } catch (BusinessException | NotFoundException e) {
+            s.concluir(PedidoAssincronoStatus.REJEITADO, null, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Falha ao processar pedido assíncrono {}", s.id, e);
+            s.concluir(PedidoAssincronoStatus.FALHOU, null, e.getMessage());
+        } finally {
+            ocupados.decrementAndGet();
+            processamento.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            meterRegistry.counter("pedidos.assincronos.resultado", "status", s.status.name()).increment();
+        }
+    }
+
+    private record Pendente(String id, OffsetDateTime recebidoEm, PedidoRequest requisicao) {
+    }
+
+    private static class Solicitacao {
+
+        private final String id;
+        private final long recebidoNs = System.nanoTime();
+        private final OffsetDateTime recebidoEm;
+        private volatile PedidoRequest requisicao;
+        private volatile PedidoAssincronoStatus status = PedidoAssincronoStatus.PENDENTE;
+        private volatile long esperaNs = -1;
+        private volatile OffsetDateTime concluidoEm;
+        private volatile PedidoResponse pedido;
+        private volatile String erro;
+
+        Solicitacao(String id, OffsetDateTime recebidoEm, PedidoRequest requisicao) {
+            this.id = id;
+            this.recebidoEm = recebidoEm;
+            this.requisicao = requisicao;
+        }
+
+        void concluir(PedidoAssincronoStatus status, PedidoResponse pedido, String erro) {
+            this.pedido = pedido;
+            this.erro = erro;
+            this.concluidoEm = OffsetDateTime.now(ZoneOffset.UTC);
+            // a requisição não é mais necessária; libera memória enquanto a situação fica rastreada
+            this.requisicao = null;
+            this.status = status;
+        }
+
+        PedidoAssincronoResponse toResponse() {
+            return new PedidoAssincronoResponse(id, status, recebidoEm, concluidoEm,
+                    esperaNs < 0 ? null : esperaNs / 1_000_000, pedido, erro);
+        }
+    }
+
+}
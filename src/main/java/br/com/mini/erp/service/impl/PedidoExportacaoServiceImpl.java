@@ -0,0 +1,158 @@
+package br.com.mini.erp.service.impl;
+
+import br.com.mini.erp.dto.response.PedidoItemResponse;
+import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.enuns.FormatoExportacao;
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.repository.PedidoRepository;
+import br.com.mini.erp.repository.projection.PedidoExportacaoLinha;
+import br.com.mini.erp.service.PedidoExportacaoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+public class PedidoExportacaoServiceImpl implements PedidoExportacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(PedidoExportacaoServiceImpl.class);
+
+    private static final OffsetDateTime INICIO = OffsetDateTime.parse("1970-01-01T00:00:00Z");
+    private static final OffsetDateTime FIM = OffsetDateTime.parse("9999-12-31T23:59:59Z");
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+    private static final String CABECALHO_CSV = "pedido_id,cliente_id,status,criado_em,pago_em,cancelado_em,subtotal,descontos,total," +
+            "produto_id,sku,nome,quantidade,preco_unitario,desconto,total_linha";
+
+    private final PedidoRepository pedidoRepository;
+    private final ObjectWriter escritorJson;
+
+    public PedidoExportacaoServiceImpl(PedidoRepository pedidoRepository, ObjectMapper objectMapper) {
+        this.pedidoRepository = pedidoRepository;
+        this.escritorJson = objectMapper.writerFor(PedidoResponse.class);
+    }
+
+    // Memória constante: as linhas vêm do cursor do banco e só os itens do pedido corrente ficam em memória.
+    // A transação mantém o cursor aberto (e uma conexão do pool) até o fim da exportação.
+    @Override
+    @Transactional(readOnly = true)
+    public long exportar(FormatoExportacao formato, PedidoStatus status, OffsetDateTime de, OffsetDateTime ate, OutputStream out) throws IOException {
+
+        long inicio = System.nanoTime();
+        OffsetDateTime desde = de == null ? INICIO : de;
+        OffsetDateTime limite = ate == null ? FIM : ate;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+        if (formato == FormatoExportacao.CSV) {
+            writer.write(CABECALHO_CSV);
+            writer.write('\n');
+        }
+
+        long pedidos = 0;
+        try (Stream<PedidoExportacaoLinha> linhas = status == null
+                ? pedidoRepository.exportar(desde, limite)
+                : pedidoRepository.exportarPorStatus(status, desde, limite)) {
+
+            // as linhas de um pedido chegam consecutivas (order by criado_em, id)
+            List<PedidoExportacaoLinha> pedido = new ArrayList<>();
+            Iterator<PedidoExportacaoLinha> it = linhas.iterator();
+            while (it.hasNext()) {
+                PedidoExportacaoLinha linha = it.next();
+                if (!pedido.isEmpty() && !pedido.get(0).pedidoId().equals(linha.pedidoId())) {
+                    escrever(formato, pedido, writer);
+                    pedidos++;
+                    pedido.clear();
+                }
+                pedido.add(linha);
+            }
+            if (!pedido.isEmpty()) {
+                escrever(formato, pedido, writer);
+                pedidos++;
+            }
+        }
+        writer.flush();
+
+        log.info("Exportação de pedidos ({}): {} pedidos em {} ms", formato, pedidos, (System.nanoTime() - inicio) / 1_000_000);
+        return pedidos;
+    }
+
+    private void escrever(FormatoExportacao formato, List<PedidoExportacaoLinha> pedido, Writer writer) throws IOException {
+        if (formato == FormatoExportacao.CSV) {
+            escreverCsv(pedido, writer);
+        } else {
+            writer.write(escritorJson.writeValueAsString(paraResponse(pedido)));
+            writer.write('\n');
+        }
+    }
+
+    // uma linha por item, com os dados do pedido repetidos
+    private static void escreverCsv(List<PedidoExportacaoLinha> pedido, Writer writer) throws IOException {
+        for (PedidoExportacaoLinha l : pedido) {
+            Object[] celulas = {l.pedidoId(), l.clienteId(), l.status(), l.criadoEm(), l.pagoEm(), l.canceladoEm(),
+                    l.subtotal(), l.descontos(), l.total(), l.produtoId(), l.sku(), l.nome(), l.quantidade(),
+                    l.precoUnitario(), l.desconto(), l.totalLinha()};
+            for (int i = 0; i < celulas.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(celulaCsv(celulas[i]));
+            }
+            writer.write('\n');
+        }
+    }
+
+    private static String celulaCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = switch (valor) {
+            case BigDecimal numero -> numero.toPlainString();
+            case OffsetDateTime data -> DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(data);
+            default -> valor.toString();
+        };
+        if (texto.indexOf(',') < 0 && texto.indexOf('"') < 0 && texto.indexOf('\n') < 0 && texto.indexOf('\r') < 0) {
+            return texto;
+        }
+        return '"' + texto.replace("\"", "\"\"") + '"';
+    }
+
+    // mesmo formato do GET /api/v1/orders/{id}, um pedido por linha (também usado pelo arquivo frio)
+    static PedidoResponse paraResponse(List<PedidoExportacaoLinha> pedido) {
+        PedidoExportacaoLinha p = pedido.get(0);
+        List<PedidoItemResponse> itens = pedido.stream()
+                .filter(l -> l.produtoId() != null)
+                .map(l -> new PedidoItemResponse(l.produtoId(), l.sku(), l.nome(), l.quantidade(), l.precoUnitario(), l.desconto(), l.totalLinha()))
+                .toList();
+        return new PedidoResponse(p.pedidoId(), p.clienteId(), p.status(), p.subtotal(), p.descontos(), p.total(),
+                p.criadoEm(), p.pagoEm(), p.canceladoEm(), itens);
+    }
+
+    // inverso de paraResponse: pedido sem itens vira uma linha com os campos de item nulos (como no left join)
+    static List<PedidoExportacaoLinha> paraLinhas(PedidoResponse p) {
+        if (p.itens() == null || p.itens().isEmpty()) {
+            return List.of(new PedidoExportacaoLinha(p.id(), p.clienteId(), p.status(), p.subtotal(), p.descontos(), p.total(),
+                    p.criadoEm(), p.pagoEm(), p.canceladoEm(), null, null, null, null, null, null, null));
+        }
+        return p.itens().stream()
+                .map(i -> new PedidoExportacaoLinha(p.id(), p.clienteId(), p.status(), p.subtotal(), p.descontos(), p.total(),
+                        p.criadoEm(), p.pagoEm(), p.canceladoEm(), i.produtoId(), i.sku(), i.nome(), i.quantidade(),
+                        i.precoUnitario(), i.desconto(), i.totalLinha()))
+                .toList();
+    }
+
+}
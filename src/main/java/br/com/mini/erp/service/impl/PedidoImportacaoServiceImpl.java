@@ -0,0 +1,207 @@
+package br.com.mini.erp.service.impl;
+
+import br.com.mini.erp.dto.request.PedidoRequest;
+import br.com.mini.erp.dto.response.PedidoImportacaoResponse;
+import br.com.mini.erp.dto.response.PedidoLoteResponse;
+import br.com.mini.erp.enuns.ImportacaoStatus;
+import br.com.mini.erp.exception.BusinessException;
+import br.com.mini.erp.exception.NotFoundException;
+import br.com.mini.erp.service.PedidoImportacaoService;
+import br.com.mini.erp.service.PedidoService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+@Service
+public class PedidoImportacaoServiceImpl implements PedidoImportacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(PedidoImportacaoServiceImpl.class);
+    private static final int MAX_ERROS = 100;
+    private static final int MAX_IMPORTACOES = 50;
+
+    private final PedidoService pedidoService;
+    private final ObjectReader leitor;
+
+    // progresso das últimas importações (em memória)
+    private final Map<String, Importacao> importacoes = Collections.synchronizedMap(new LinkedHashMap<String, Importacao>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Importacao> eldest) {
+            return size() > MAX_IMPORTACOES;
+        }
+    });
+
+    @Value("${mini-erp.pedidos.importacao.tamanho-chunk:500}")
+    private int tamanhoChunk = 500;
+
+    @Value("${mini-erp.pedidos.importacao.workers:4}")
+    private int workers = 4;
+
+    @Value("${mini-erp.pedidos.importacao.capacidade-fila:8}")
+    private int capacidadeFila = 8;
+
+    public PedidoImportacaoServiceImpl(PedidoService pedidoService, ObjectMapper objectMapper) {
+        this.pedidoService = pedidoService;
+        this.leitor = objectMapper.readerFor(PedidoRequest.class);
+    }
+
+    @Override
+    public PedidoImportacaoResponse importar(String id, InputStream ndjson) {
+
+        Importacao imp = new Importacao(id == null || id.isBlank() ? UUID.randomUUID().toString() : id);
+        if (importacoes.putIfAbsent(imp.id, imp) != null) {
+            throw new BusinessException("Importação " + imp.id + " já existe");
+        }
+
+        // fila limitada + CallerRunsPolicy: com os workers ocupados a própria leitura processa o chunk,
+        // então o upload só avança no ritmo do banco e a memória fica em (workers + fila + 1) chunks
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadeFila), new ThreadPoolExecutor.CallerRunsPolicy());
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(ndjson, StandardCharsets.UTF_8))) {
+
+            List<PedidoRequest> chunk = new ArrayList<>(tamanhoChunk);
+            List<Long> linhas = new ArrayList<>(tamanhoChunk);
+            long linha = 0;
+            String texto;
+
+            while ((texto = reader.readLine()) != null) {
+                linha++;
+                if (texto.isBlank()) {
+                    continue;
+                }
+                imp.lidos.increment();
+                try {
+                    chunk.add(leitor.readValue(texto));
+                    linhas.add(linha);
+                } catch (JsonProcessingException e) {
+                    imp.rejeitar(linha, "JSON inválido: " + e.getOriginalMessage());
+                    continue;
+                }
+                if (chunk.size() == tamanhoChunk) {
+                    enviar(executor, imp, chunk, linhas);
+                    chunk = new ArrayList<>(tamanhoChunk);
+                    linhas = new ArrayList<>(tamanhoChunk);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                enviar(executor, imp, chunk, linhas);
+            }
+
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            imp.finalizar(ImportacaoStatus.CONCLUIDA);
+
+        } catch (IOException e) {
+            imp.falhar("Falha na leitura do arquivo: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            imp.falhar("Importação interrompida");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        PedidoImportacaoResponse resp = imp.toResponse();
+        log.info("Importação {}: {} lidos, {} criados, {} rejeitados em {} ms", resp.id(), resp.lidos(), resp.criados(), resp.rejeitados(), resp.duracaoMs());
+        return resp;
+    }
+
+    @Override
+    public PedidoImportacaoResponse get(String id) {
+        Importacao imp = importacoes.get(id);
+        if (imp == null) {
+            throw new NotFoundException("Importação não encontrada");
+        }
+        return imp.toResponse();
+    }
+
+    @Override
+    public List<PedidoImportacaoResponse> list() {
+        synchronized (importacoes) {
+            return importacoes.values().stream().map(Importacao::toResponse).toList();
+        }
+    }
+
+    // mesma precificação/baixa de estoque do POST /orders, via createBatch (uma transação por chunk)
+    private void enviar(ThreadPoolExecutor executor, Importacao imp, List<PedidoRequest> chunk, List<Long> linhas) {
+        executor.execute(() -> {
+            try {
+                PedidoLoteResponse resultado = pedidoService.createBatch(chunk);
+                resultado.resultados().forEach(r -> {
+                    if (r.erro() == null) {
+                        imp.criados.increment();
+                    } else {
+                        imp.rejeitar(linhas.get(r.indice()), r.erro());
+                    }
+                });
+            } catch (RuntimeException e) {
+                linhas.forEach(l -> imp.rejeitar(l, e.getMessage()));
+            }
+        });
+    }
+
+    private static class Importacao {
+
+        private final String id;
+        private final long inicio = System.nanoTime();
+        private final LongAdder lidos = new LongAdder();
+        private final LongAdder criados = new LongAdder();
+        private final LongAdder rejeitados = new LongAdder();
+        private final AtomicInteger qtdErros = new AtomicInteger();
+        private final Queue<String> erros = new ConcurrentLinkedQueue<>();
+        private volatile ImportacaoStatus status = ImportacaoStatus.EM_ANDAMENTO;
+        private volatile long fim;
+
+        Importacao(String id) {
+            this.id = id;
+        }
+
+        void rejeitar(long linha, String motivo) {
+            rejeitados.increment();
+            if (qtdErros.getAndIncrement() < MAX_ERROS) {
+                erros.add("linha " + linha + ": " + motivo);
+            }
+        }
+
+        void falhar(String motivo) {
+            erros.add(motivo);
+            finalizar(ImportacaoStatus.FALHOU);
+        }
+
+        void finalizar(ImportacaoStatus status) {
+            this.fim = System.nanoTime();
+            this.status = status;
+        }
+
+        PedidoImportacaoResponse toResponse() {
+            long duracaoNs = (status == ImportacaoStatus.EM_ANDAMENTO ? System.nanoTime() : fim) - inicio;
+            long lidosAgora = lidos.sum();
+            double porSegundo = duracaoNs == 0 ? 0 : lidosAgora * 1_000_000_000.0 / duracaoNs;
+            return new PedidoImportacaoResponse(id, status, lidosAgora, criados.sum(), rejeitados.sum(),
+                    duracaoNs / 1_000_000, porSegundo, List.copyOf(erros));
+        }
+    }
+
+}
@@ -2,41 +2,110 @@ package br.com.mini.erp.service.impl;
 
 import br.com.mini.erp.dto.request.PedidoItemRequest;
 import br.com.mini.erp.dto.request.PedidoRequest;
+import br.com.mini.erp.dto.response.PaginaCursorResponse;
 import br.com.mini.erp.dto.response.PedidoItemResponse;
+import br.com.mini.erp.dto.response.PedidoLoteItemResponse;
+import br.com.mini.erp.dto.response.PedidoLoteResponse;
 import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.dto.response.PedidoResumoResponse;
+import br.com.mini.erp.dto.response.PedidoTransicaoLoteItemResponse;
+import br.com.mini.erp.dto.response.PedidoTransicaoLoteResponse;
 import br.com.mini.erp.enuns.PedidoStatus;
 import br.com.mini.erp.exception.BusinessException;
 import br.com.mini.erp.exception.NotFoundException;
 import br.com.mini.erp.model.Cliente;
 import br.com.mini.erp.model.Pedido;
 import br.com.mini.erp.model.PedidoItem;
+import br.com.mini.erp.model.PedidoResumo;
 import br.com.mini.erp.model.Produto;
 import br.com.mini.erp.repository.ClienteRepository;
 import br.com.mini.erp.repository.PedidoRepository;
+import br.com.mini.erp.repository.PedidoResumoRepository;
 import br.com.mini.erp.repository.ProdutoRepository;
+import br.com.mini.erp.repository.projection.PedidoItemProjecao;
+import br.com.mini.erp.repository.projection.PedidoResumoVersaoProjecao;
+import br.com.mini.erp.repository.projection.PedidoStatusProjecao;
+import br.com.mini.erp.repository.projection.ProdutoQuantidadeProjecao;
+import br.com.mini.erp.service.PedidoArquivamentoService;
 import br.com.mini.erp.service.PedidoService;
+import br.com.mini.erp.service.estoque.EstoqueLedger;
+import br.com.mini.erp.service.evento.ItensVendidos;
+import br.com.mini.erp.service.evento.PedidosAlterados;
+import br.com.mini.erp.service.paginacao.Cursor;
+import br.com.mini.erp.service.paginacao.PaginaVersionada;
+import br.com.mini.erp.service.paginacao.VersaoPagina;
+import br.com.mini.erp.service.preco.Dinheiro;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class PedidoServiceImpl implements PedidoService {
 
+    private static final Logger log = LoggerFactory.getLogger(PedidoServiceImpl.class);
+
+    // status a partir dos quais pay/cancel são permitidos
+    private static final Set<PedidoStatus> ORIGENS_TRANSICAO = Set.of(PedidoStatus.CRIADO, PedidoStatus.ATRASADO);
+
     private final ClienteRepository clienteRepository;
     private final ProdutoRepository produtoRepository;
     private final PedidoRepository pedidoRepository;
+    private final PedidoResumoRepository pedidoResumoRepository;
+    private final EstoqueLedger estoqueLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final PedidoArquivamentoService pedidoArquivamentoService;
+    private final ApplicationEventPublisher publicadorEventos;
+
+    @Value("${mini-erp.pedidos.lote.tamanho-chunk:500}")
+    private int tamanhoChunkLote = 500;
 
-    public PedidoServiceImpl(PedidoRepository pedidoRepository, ClienteRepository clienteRepository, ProdutoRepository produtoRepository) {
+    @Value("${mini-erp.pedidos.lote.tamanho-chunk-transicao:1000}")
+    private int tamanhoChunkTransicao = 1000;
+
+    @Value("${mini-erp.pedidos.atraso.tamanho-lote:1000}")
+    private int tamanhoLoteAtraso = 1000;
+
+    public PedidoServiceImpl(PedidoRepository pedidoRepository, ClienteRepository clienteRepository, ProdutoRepository produtoRepository,
+                             EstoqueLedger estoqueLedger, TransactionTemplate transactionTemplate,
+                             PedidoResumoRepository pedidoResumoRepository, PedidoArquivamentoService pedidoArquivamentoService,
+                             ApplicationEventPublisher publicadorEventos) {
         this.clienteRepository = clienteRepository;
         this.produtoRepository = produtoRepository;
         this.pedidoRepository = pedidoRepository;
+        this.pedidoResumoRepository = pedidoResumoRepository;
+        this.estoqueLedger = estoqueLedger;
+        this.transactionTemplate = transactionTemplate;
+        this.pedidoArquivamentoService = pedidoArquivamentoService;
+        this.publicadorEventos = publicadorEventos;
     }
 
     @Override
@@ -49,108 +118,610 @@ public class PedidoServiceImpl implements PedidoService {
             throw new BusinessException("Pedido deve conter ao menos um item");
         }
 
-        Pedido pedido = new Pedido();
-        pedido.setCliente(cliente);
-
-        BigDecimal subtotal = BigDecimal.ZERO;
-        BigDecimal descontos = BigDecimal.ZERO;
-
-        for (PedidoItemRequest it : req.itens()) {
+        Map<Long, Produto> produtos = carregarProdutos(quantidadesPorProduto(req.itens()).keySet());
+        validarProdutos(req.itens(), produtos);
+        reservarEstoque(req.itens(), produtos);
 
-            Produto prod = produtoRepository.findById(it.produtoId()).orElseThrow(() -> new NotFoundException("Produto " + it.produtoId() + " não encontrado"));
+        Pedido pedido = montarPedido(cliente, req.itens(), produtos);
+        pedidoRepository.saveAndFlush(pedido);
+        pedidoResumoRepository.save(resumoDe(pedido));
+        publicar(List.of(pedido.getId()), PedidoStatus.CRIADO);
+        publicarItensVendidos(List.of(pedido));
+        return toResponse(pedido);
+    }
 
-            if (prod.getEstoque() < it.quantidade()) {
-                throw new BusinessException("Estoque insuficiente para SKU " + prod.getSku());
+    @Override
+    public PedidoLoteResponse createBatch(List<PedidoRequest> reqs) {
+
+        long inicio = System.nanoTime();
+        List<PedidoLoteItemResponse> resultados = new ArrayList<>(reqs.size());
+
+        // uma transação por chunk; pedidos inválidos do chunk são rejeitados sem derrubar os demais
+        for (int i = 0; i < reqs.size(); i += tamanhoChunkLote) {
+            int base = i;
+            List<PedidoRequest> chunk = reqs.subList(i, Math.min(i + tamanhoChunkLote, reqs.size()));
+            try {
+                resultados.addAll(transactionTemplate.execute(status -> processarChunk(base, chunk)));
+            } catch (RuntimeException e) {
+                for (int j = 0; j < chunk.size(); j++) {
+                    resultados.add(new PedidoLoteItemResponse(base + j, null, null, null, "Falha ao gravar lote: " + e.getMessage()));
+                }
             }
+        }
 
-            prod.setEstoque(prod.getEstoque() - it.quantidade());
-
-            BigDecimal precoUnit = prod.getPrecoBruto();
-            BigDecimal desconto = it.desconto() == null ? BigDecimal.ZERO : it.desconto();
-            BigDecimal totalLinha = precoUnit.multiply(BigDecimal.valueOf(it.quantidade())).subtract(desconto);
+        long duracaoNs = System.nanoTime() - inicio;
+        int criados = (int) resultados.stream().filter(r -> r.erro() == null).count();
+        double pedidosPorSegundo = duracaoNs == 0 ? 0 : reqs.size() * 1_000_000_000.0 / duracaoNs;
+        log.info("Lote de pedidos: {} recebidos, {} criados em {} ms ({} pedidos/s)",
+                reqs.size(), criados, duracaoNs / 1_000_000, String.format("%.1f", pedidosPorSegundo));
 
-            totalLinha = totalLinha.setScale(2, RoundingMode.HALF_UP);
+        return new PedidoLoteResponse(reqs.size(), criados, reqs.size() - criados, duracaoNs / 1_000_000, pedidosPorSegundo, resultados);
+    }
 
-            PedidoItem item = new PedidoItem();
-            item.setProduto(prod);
-            item.setQuantidade(it.quantidade());
-            item.setPrecoUnitario(precoUnit.setScale(2, RoundingMode.HALF_UP));
-            item.setDesconto(desconto.setScale(2, RoundingMode.HALF_UP));
-            item.setTotalLinha(totalLinha);
+    @Override
+    @Transactional(readOnly = true)
+    public PedidoResponse get(Long id) {
+        // pedidos fechados antigos saem das tabelas vivas para o arquivo frio (PedidoArquivamentoService)
+        return pedidoRepository.findComItensById(id)
+                .map(this::toResponse)
+                .or(() -> pedidoArquivamentoService.buscar(id))
+                .orElseThrow(() -> new NotFoundException("Pedido não encontrado"));
+    }
 
-            pedido.addItem(item);
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaVersionada<PedidoResumoResponse> list(PedidoStatus status, Pageable pageable) {
+        // read model: uma tabela, sem join com itens/produtos
+        Page<PedidoResumo> pagina = status == null
+                ? pedidoResumoRepository.findAll(pageable)
+                : pedidoResumoRepository.findByStatus(status, pageable);
+        String versao = VersaoPagina.de(pagina.map(r -> new PedidoResumoVersaoProjecao(r.getId(), r.getStatus())));
+        return new PaginaVersionada<>(pagina.map(this::toResumoResponse), versao);
+    }
 
-            subtotal = subtotal.add(precoUnit.multiply(BigDecimal.valueOf(it.quantidade())));
-            descontos = descontos.add(desconto);
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorResponse<PedidoResponse> listCursor(PedidoStatus status, String cursor, int tamanho) {
+        tamanho = Cursor.tamanho(tamanho);
+        Limit limite = Limit.of(tamanho + 1);
+        List<Pedido> pedidos;
+        if (cursor == null || cursor.isBlank()) {
+            pedidos = status == null
+                    ? pedidoRepository.findAllByOrderByCriadoEmAscIdAsc(limite)
+                    : pedidoRepository.findByStatusOrderByCriadoEmAscIdAsc(status, limite);
+        } else {
+            Cursor.CriadoEmId ultimo = Cursor.lerCriadoEmId(cursor);
+            pedidos = status == null
+                    ? pedidoRepository.buscarAposCursor(ultimo.criadoEm(), ultimo.id(), limite)
+                    : pedidoRepository.buscarAposCursorPorStatus(status, ultimo.criadoEm(), ultimo.id(), limite);
         }
+        Map<Long, List<PedidoItemResponse>> itens = itensPorPedido(pedidos.stream().map(Pedido::getId).toList());
+        return Cursor.pagina(pedidos, tamanho, p -> toResponse(p, itens.getOrDefault(p.getId(), List.of())),
+                p -> Cursor.deCriadoEmId(p.getCriadoEm(), p.getId()));
+    }
 
-        subtotal = subtotal.setScale(2, RoundingMode.HALF_UP);
-        descontos = descontos.setScale(2, RoundingMode.HALF_UP);
-        BigDecimal total = subtotal.subtract(descontos).setScale(2, RoundingMode.HALF_UP);
-
-        pedido.setSubtotal(subtotal);
-        pedido.setDescontos(descontos);
-        pedido.setTotal(total);
-
-        pedidoRepository.saveAndFlush(pedido);
-        return toResponse(pedido);
+    // Lido do read model: a página custa um range scan no índice (cliente_id, criado_em desc, id desc),
+    // independente de quantos pedidos o cliente tem. Sem comItens, os itens não são lidos.
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorResponse<PedidoResponse> listByCliente(Long clienteId, String cursor, int tamanho, boolean comItens) {
+        tamanho = Cursor.tamanho(tamanho);
+        Limit limite = Limit.of(tamanho + 1);
+        List<PedidoResumo> resumos;
+        if (cursor == null || cursor.isBlank()) {
+            resumos = pedidoResumoRepository.findByClienteIdOrderByCriadoEmDescIdDesc(clienteId, limite);
+        } else {
+            Cursor.CriadoEmId ultimo = Cursor.lerCriadoEmId(cursor);
+            resumos = pedidoResumoRepository.buscarDoClienteAntesDoCursor(clienteId, ultimo.criadoEm(), ultimo.id(), limite);
+        }
+        // só a página vazia precisa distinguir cliente sem pedidos de cliente inexistente
+        if (resumos.isEmpty() && !clienteRepository.existsById(clienteId)) {
+            throw new NotFoundException("Cliente não encontrado");
+        }
+        Map<Long, List<PedidoItemResponse>> itens = comItens
+                ? itensPorPedido(resumos.stream().limit(tamanho).map(PedidoResumo::getId).toList())
+                : Map.of();
+        return Cursor.pagina(resumos, tamanho, r -> toResponse(r, comItens ? itens.getOrDefault(r.getId(), List.of()) : null),
+                r -> Cursor.deCriadoEmId(r.getCriadoEm(), r.getId()));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public PedidoResponse get(Long id) {
-        Pedido p = pedidoRepository.findById(id).orElseThrow(() -> new NotFoundException("Pedido não encontrado"));
-        return toResponse(p);
+    public Optional<String> versao(Long id) {
+        return pedidoRepository.buscarVersao(id).map(String::valueOf);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<PedidoResponse> list(PedidoStatus status, Pageable pageable) {
-        if (status == null) {
-            return pedidoRepository.findAll(pageable).map(this::toResponse);
-        }
-        return pedidoRepository.findByStatus(status, pageable).map(this::toResponse);
+    public String versaoLista(PedidoStatus status, Pageable pageable) {
+        Page<PedidoResumoVersaoProjecao> pagina = status == null
+                ? pedidoResumoRepository.findAllBy(pageable, PedidoResumoVersaoProjecao.class)
+                : pedidoResumoRepository.findByStatus(status, pageable, PedidoResumoVersaoProjecao.class);
+        return VersaoPagina.de(pagina);
     }
 
+    // A transição é um único UPDATE condicional (sem SELECT ... FOR UPDATE); o pedido só é lido para montar a resposta
+    // ou, quando nenhuma linha muda, para explicar o motivo. Conflitos são repetidos em uma nova transação.
     @Override
     @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 20, multiplier = 2.0))
     public PedidoResponse pay(Long id) {
-        Pedido p = pedidoRepository.findById(id).orElseThrow(() -> new NotFoundException("Pedido não encontrado"));
-        if (p.getStatus() == PedidoStatus.CANCELADO) throw new BusinessException("Pedido cancelado");
-        if (p.getStatus() == PedidoStatus.PAGO) throw new BusinessException("Pedido já pago");
-        p.setStatus(PedidoStatus.PAGO);
-        p.setPagoEm(OffsetDateTime.now());
-        return toResponse(p);
+        OffsetDateTime agora = OffsetDateTime.now();
+        if (pedidoRepository.marcarPago(id, PedidoStatus.PAGO, agora, ORIGENS_TRANSICAO) == 0) {
+            Pedido atual = pedidoRepository.findById(id).orElseThrow(() -> new NotFoundException("Pedido não encontrado"));
+            if (atual.getStatus() == PedidoStatus.CANCELADO) throw new BusinessException("Pedido cancelado");
+            if (atual.getStatus() == PedidoStatus.PAGO) throw new BusinessException("Pedido já pago");
+            throw conflito(id);
+        }
+        pedidoResumoRepository.marcarPago(id, PedidoStatus.PAGO, agora);
+        publicar(List.of(id), PedidoStatus.PAGO);
+        return toResponse(carregar(id));
     }
 
     @Override
     @Transactional
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 20, multiplier = 2.0))
     public PedidoResponse cancel(Long id) {
 
-        Pedido p = pedidoRepository.findById(id).orElseThrow(() -> new NotFoundException("Pedido não encontrado"));
-        if (p.getStatus() == PedidoStatus.PAGO) throw new BusinessException("Pedido já pago; não pode cancelar");
-        if (p.getStatus() == PedidoStatus.CANCELADO) return toResponse(p);
+        OffsetDateTime agora = OffsetDateTime.now();
+        if (pedidoRepository.marcarCancelado(id, PedidoStatus.CANCELADO, agora, ORIGENS_TRANSICAO) == 0) {
+            Pedido atual = carregar(id);
+            if (atual.getStatus() == PedidoStatus.PAGO) throw new BusinessException("Pedido já pago; não pode cancelar");
+            if (atual.getStatus() == PedidoStatus.CANCELADO) return toResponse(atual);
+            throw conflito(id);
+        }
+
+        // só a transação cujo UPDATE mudou a linha devolve o estoque: cancelamentos concorrentes não devolvem duas vezes
+        Pedido p = carregar(id);
+        devolverEstoque(List.of(id), quantidadesPorProduto(p));
+        pedidoResumoRepository.marcarCancelado(id, PedidoStatus.CANCELADO, agora);
+        publicar(List.of(id), PedidoStatus.CANCELADO);
 
-        p.getItens().forEach(it -> {
-            Produto prod = it.getProduto();
-            prod.setEstoque(prod.getEstoque() + it.getQuantidade());
+        return toResponse(p);
+    }
+
+    @Override
+    public PedidoTransicaoLoteResponse payBatch(List<Long> ids) {
+        return transicionarEmLote("Pagamento", ids, this::pagarChunk);
+    }
+
+    @Override
+    public PedidoTransicaoLoteResponse cancelBatch(List<Long> ids) {
+        return transicionarEmLote("Cancelamento", ids, this::cancelarChunk);
+    }
+
+    // uma transação por chunk; dentro dele o número de comandos não depende da quantidade de pedidos
+    private PedidoTransicaoLoteResponse transicionarEmLote(String operacao, List<Long> ids,
+                                                          Function<List<Long>, Map<Long, PedidoTransicaoLoteItemResponse>> processarChunk) {
+
+        long inicio = System.nanoTime();
+        List<Long> distintos = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, PedidoTransicaoLoteItemResponse> porId = new HashMap<>();
+
+        for (int i = 0; i < distintos.size(); i += tamanhoChunkTransicao) {
+            List<Long> chunk = distintos.subList(i, Math.min(i + tamanhoChunkTransicao, distintos.size()));
+            try {
+                porId.putAll(transactionTemplate.execute(status -> processarChunk.apply(chunk)));
+            } catch (RuntimeException e) {
+                chunk.forEach(id -> porId.put(id, new PedidoTransicaoLoteItemResponse(id, null, "Falha ao gravar lote: " + e.getMessage())));
+            }
+        }
+
+        List<PedidoTransicaoLoteItemResponse> resultados = ids.stream().map(porId::get).toList();
+        int rejeitados = (int) resultados.stream().filter(r -> r.erro() != null).count();
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("{} em lote: {} pedidos, {} rejeitados em {} ms", operacao, ids.size(), rejeitados, duracaoMs);
+
+        return new PedidoTransicaoLoteResponse(ids.size(), ids.size() - rejeitados, rejeitados, duracaoMs, resultados);
+    }
+
+    private Map<Long, PedidoTransicaoLoteItemResponse> pagarChunk(List<Long> ids) {
+
+        OffsetDateTime agora = instanteTransicao();
+        Map<Long, PedidoStatus> atuais = statusAtuais(ids);
+        List<Long> candidatos = candidatos(atuais);
+
+        Set<Long> alterados = Set.of();
+        if (!candidatos.isEmpty()) {
+            int linhas = pedidoRepository.marcarPagos(candidatos, PedidoStatus.PAGO, agora, ORIGENS_TRANSICAO);
+            alterados = linhas == candidatos.size()
+                    ? new HashSet<>(candidatos)
+                    : new HashSet<>(pedidoRepository.findIdsPagosEm(candidatos, PedidoStatus.PAGO, agora));
+            if (!alterados.isEmpty()) {
+                pedidoResumoRepository.marcarPagos(alterados, PedidoStatus.PAGO, agora);
+                publicar(List.copyOf(alterados), PedidoStatus.PAGO);
+            }
+        }
+
+        return resultadosChunk(ids, atuais, candidatos, alterados, PedidoStatus.PAGO, status -> switch (status) {
+            case CANCELADO -> "Pedido cancelado";
+            case PAGO -> "Pedido já pago";
+            default -> "Pedido alterado por outra requisição; tente novamente";
         });
+    }
 
-        p.setStatus(PedidoStatus.CANCELADO);
-        p.setCanceladoEm(OffsetDateTime.now());
+    private Map<Long, PedidoTransicaoLoteItemResponse> cancelarChunk(List<Long> ids) {
+
+        OffsetDateTime agora = instanteTransicao();
+        Map<Long, PedidoStatus> atuais = statusAtuais(ids);
+        List<Long> candidatos = candidatos(atuais);
+
+        Set<Long> alterados = Set.of();
+        if (!candidatos.isEmpty()) {
+            int linhas = pedidoRepository.marcarCancelados(candidatos, PedidoStatus.CANCELADO, agora, ORIGENS_TRANSICAO);
+            alterados = linhas == candidatos.size()
+                    ? new HashSet<>(candidatos)
+                    : new HashSet<>(pedidoRepository.findIdsCanceladosEm(candidatos, PedidoStatus.CANCELADO, agora));
+            if (!alterados.isEmpty()) {
+                // estoque somado por produto sobre todos os pedidos cancelados do chunk
+                Map<Long, Integer> quantidades = new TreeMap<>();
+                for (ProdutoQuantidadeProjecao q : pedidoRepository.somarQuantidadesPorProduto(alterados)) {
+                    quantidades.put(q.produtoId(), Math.toIntExact(q.quantidade()));
+                }
+                devolverEstoque(alterados, quantidades);
+                pedidoResumoRepository.marcarCancelados(alterados, PedidoStatus.CANCELADO, agora);
+                publicar(List.copyOf(alterados), PedidoStatus.CANCELADO);
+            }
+        }
 
-        return toResponse(p);
+        // já cancelado: mesmo resultado idempotente do cancelamento individual
+        return resultadosChunk(ids, atuais, candidatos, alterados, PedidoStatus.CANCELADO, status -> switch (status) {
+            case CANCELADO -> null;
+            case PAGO -> "Pedido já pago; não pode cancelar";
+            default -> "Pedido alterado por outra requisição; tente novamente";
+        });
+    }
+
+    // truncado em microssegundos (precisão da coluna) para reencontrar as linhas deste lote por pago_em/cancelado_em
+    private static OffsetDateTime instanteTransicao() {
+        return OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private Map<Long, PedidoStatus> statusAtuais(Collection<Long> ids) {
+        return pedidoRepository.buscarStatus(ids).stream()
+                .collect(Collectors.toMap(PedidoStatusProjecao::pedidoId, PedidoStatusProjecao::status));
+    }
+
+    private static List<Long> candidatos(Map<Long, PedidoStatus> atuais) {
+        return atuais.entrySet().stream()
+                .filter(e -> ORIGENS_TRANSICAO.contains(e.getValue()))
+                .map(Map.Entry::getKey)
+                .sorted()
+                .toList();
+    }
+
+    private Map<Long, PedidoTransicaoLoteItemResponse> resultadosChunk(List<Long> ids, Map<Long, PedidoStatus> atuais, List<Long> candidatos,
+                                                                       Set<Long> alterados, PedidoStatus destino,
+                                                                       Function<PedidoStatus, String> motivo) {
+
+        // candidatos que o UPDATE não alterou: outra transação chegou antes; relê o status para explicar
+        List<Long> perdidos = candidatos.stream().filter(id -> !alterados.contains(id)).toList();
+        Map<Long, PedidoStatus> status = new HashMap<>(atuais);
+        if (!perdidos.isEmpty()) {
+            status.putAll(statusAtuais(perdidos));
+        }
+
+        Map<Long, PedidoTransicaoLoteItemResponse> resultados = new HashMap<>();
+        for (Long id : ids) {
+            PedidoStatus atual = status.get(id);
+            if (alterados.contains(id)) {
+                resultados.put(id, new PedidoTransicaoLoteItemResponse(id, destino, null));
+            } else if (atual == null) {
+                resultados.put(id, new PedidoTransicaoLoteItemResponse(id, null, "Pedido não encontrado"));
+            } else {
+                resultados.put(id, new PedidoTransicaoLoteItemResponse(id, atual, motivo.apply(atual)));
+            }
+        }
+        return resultados;
+    }
+
+    // listeners síncronos (rollups de vendas) gravam na mesma transação
+    private void publicar(List<Long> pedidoIds, PedidoStatus status) {
+        publicadorEventos.publishEvent(new PedidosAlterados(pedidoIds, status));
+    }
+
+    // tendência de SKUs (TendenciaSkus), entregue só depois do commit
+    private void publicarItensVendidos(List<Pedido> pedidos) {
+        List<ItensVendidos.Item> itens = new ArrayList<>();
+        for (Pedido p : pedidos) {
+            for (PedidoItem it : p.getItens()) {
+                itens.add(new ItensVendidos.Item(it.getProduto().getId(), it.getProduto().getSku(), it.getQuantidade()));
+            }
+        }
+        publicadorEventos.publishEvent(new ItensVendidos(itens));
+    }
+
+    private Pedido carregar(Long id) {
+        return pedidoRepository.findComItensById(id).orElseThrow(() -> new NotFoundException("Pedido não encontrado"));
+    }
+
+    // nenhuma linha alterada, mas o pedido lido ainda está num status de origem: outra transação mexeu nele no meio
+    private static ObjectOptimisticLockingFailureException conflito(Long id) {
+        return new ObjectOptimisticLockingFailureException(Pedido.class, id);
     }
 
     @Override
-    @Transactional
     public int markLateOrders() {
+        return markLateOrders((linhas, duracao) -> {
+        });
+    }
+
+    // UPDATE em lotes de tamanhoLoteAtraso, cada um na sua transação: locks curtos mesmo com muitos pedidos vencidos.
+    // O fim é decidido pelos ids selecionados, não pelas linhas atualizadas: um lote em que parte dos pedidos foi paga
+    // ou cancelada entre o SELECT e o UPDATE não encerra a varredura com vencidos ainda pendentes.
+    @Override
+    public int markLateOrders(BiConsumer<Integer, Duration> aoProcessarLote) {
         OffsetDateTime cutoff = OffsetDateTime.now().minusHours(48);
-        List<Pedido> affected = new ArrayList<>(pedidoRepository.findByStatusAndCriadoEmBefore(PedidoStatus.CRIADO, cutoff));
-        affected.forEach(p -> p.setStatus(PedidoStatus.ATRASADO));
-        return affected.size();
+        int total = 0;
+        LoteAtraso lote;
+        do {
+            long inicio = System.nanoTime();
+            lote = transactionTemplate.execute(status -> marcarLoteAtrasado(cutoff));
+            aoProcessarLote.accept(lote.atualizados(), Duration.ofNanos(System.nanoTime() - inicio));
+            total += lote.atualizados();
+        } while (lote.selecionados() == tamanhoLoteAtraso);
+        return total;
+    }
+
+    private LoteAtraso marcarLoteAtrasado(OffsetDateTime cutoff) {
+        List<Long> ids = pedidoRepository.findIdsByStatusAndCriadoEmBefore(PedidoStatus.CRIADO, cutoff, Limit.of(tamanhoLoteAtraso));
+        if (ids.isEmpty()) {
+            return new LoteAtraso(0, 0);
+        }
+        // status = CRIADO no WHERE: pedidos pagos/cancelados entre o SELECT e o UPDATE ficam de fora
+        int linhas = pedidoRepository.atualizarStatus(ids, PedidoStatus.CRIADO, PedidoStatus.ATRASADO);
+        pedidoResumoRepository.atualizarStatus(ids, PedidoStatus.CRIADO, PedidoStatus.ATRASADO);
+        if (linhas > 0) {
+            // pode incluir pedidos que o UPDATE pulou; os rollups de vendas comparam com o status atual
+            publicar(ids, PedidoStatus.ATRASADO);
+        }
+        return new LoteAtraso(ids.size(), linhas);
+    }
+
+    private List<PedidoLoteItemResponse> processarChunk(int base, List<PedidoRequest> chunk) {
+
+        Set<Long> clienteIds = new HashSet<>();
+        Set<Long> produtoIds = new HashSet<>();
+        for (PedidoRequest req : chunk) {
+            if (req == null) {
+                continue;
+            }
+            if (req.clienteId() != null) {
+                clienteIds.add(req.clienteId());
+            }
+            if (req.itens() != null) {
+                req.itens().stream().filter(it -> it != null && it.produtoId() != null).forEach(it -> produtoIds.add(it.produtoId()));
+            }
+        }
+
+        Map<Long, Cliente> clientes = new HashMap<>();
+        clienteRepository.findAllById(clienteIds).forEach(c -> clientes.put(c.getId(), c));
+        Map<Long, Produto> produtos = carregarProdutos(produtoIds);
+
+        PedidoLoteItemResponse[] resultados = new PedidoLoteItemResponse[chunk.size()];
+        Pedido[] criados = new Pedido[chunk.size()];
+
+        for (int j = 0; j < chunk.size(); j++) {
+            PedidoRequest req = chunk.get(j);
+            try {
+                validarRequisicaoLote(req);
+                Cliente cliente = clientes.get(req.clienteId());
+                if (cliente == null) {
+                    throw new NotFoundException("Cliente não encontrado");
+                }
+                validarProdutos(req.itens(), produtos);
+                // precifica antes de reservar: o chunk é confirmado mesmo com linhas rejeitadas, e uma baixa feita
+                // antes de um erro de valor ficaria sem pedido
+                Pedido pedido = montarPedido(cliente, req.itens(), produtos);
+                reservarEstoque(req.itens(), produtos);
+                criados[j] = pedidoRepository.save(pedido);
+                pedidoResumoRepository.save(resumoDe(criados[j]));
+            } catch (NotFoundException | BusinessException e) {
+                resultados[j] = new PedidoLoteItemResponse(base + j, null, null, null, e.getMessage());
+            }
+        }
+
+        // INSERTs de pedidos/itens agrupados pelo hibernate.jdbc.batch_size
+        pedidoRepository.flush();
+
+        List<Pedido> pedidos = new ArrayList<>();
+        for (int j = 0; j < chunk.size(); j++) {
+            Pedido p = criados[j];
+            if (p != null) {
+                pedidos.add(p);
+                resultados[j] = new PedidoLoteItemResponse(base + j, p.getId(), p.getStatus(), p.getTotal(), null);
+            }
+        }
+        if (!pedidos.isEmpty()) {
+            publicar(pedidos.stream().map(Pedido::getId).toList(), PedidoStatus.CRIADO);
+            publicarItensVendidos(pedidos);
+        }
+        return Arrays.asList(resultados);
+    }
+
+    private void validarRequisicaoLote(PedidoRequest req) {
+        if (req == null || req.clienteId() == null) {
+            throw new BusinessException("clienteId é obrigatório");
+        }
+        if (req.itens() == null || req.itens().isEmpty()) {
+            throw new BusinessException("Pedido deve conter ao menos um item");
+        }
+        for (PedidoItemRequest it : req.itens()) {
+            if (it == null || it.produtoId() == null || it.quantidade() == null || it.quantidade() < 1) {
+                throw new BusinessException("Item inválido: produtoId e quantidade (mínimo 1) são obrigatórios");
+            }
+        }
+    }
+
+    private Pedido montarPedido(Cliente cliente, List<PedidoItemRequest> itens, Map<Long, Produto> produtos) {
+
+        Pedido pedido = new Pedido();
+        pedido.setCliente(cliente);
+        try {
+            precificar(pedido, itens, produtos);
+        } catch (ArithmeticException e) {
+            throw new BusinessException("Valor do pedido excede o limite suportado");
+        }
+        return pedido;
+    }
+
+    // Aritmética em centavos (long); BigDecimal só na entrada (preço/desconto) e nos campos da entidade
+    static void precificar(Pedido pedido, List<PedidoItemRequest> itens, Map<Long, Produto> produtos) {
+
+        Dinheiro subtotal = Dinheiro.ZERO;
+        Dinheiro descontos = Dinheiro.ZERO;
+
+        for (PedidoItemRequest it : itens) {
+
+            Produto prod = produtos.get(it.produtoId());
+
+            Dinheiro precoUnit = Dinheiro.de(prod.getPrecoBruto());
+            Dinheiro desconto = Dinheiro.de(it.desconto());
+            Dinheiro bruto = precoUnit.vezes(it.quantidade());
+
+            PedidoItem item = new PedidoItem();
+            item.setProduto(prod);
+            item.setQuantidade(it.quantidade());
+            item.setPrecoUnitario(precoUnit.paraBigDecimal());
+            item.setDesconto(desconto.paraBigDecimal());
+            item.setTotalLinha(bruto.menos(desconto).paraBigDecimal());
+
+            pedido.addItem(item);
+
+            subtotal = subtotal.mais(bruto);
+            descontos = descontos.mais(desconto);
+        }
+
+        pedido.setSubtotal(subtotal.paraBigDecimal());
+        pedido.setDescontos(descontos.paraBigDecimal());
+        pedido.setTotal(subtotal.menos(descontos).paraBigDecimal());
+    }
+
+    // quantidades somadas por produto, em ordem de id (UPDATEs concorrentes travam na mesma ordem)
+    private Map<Long, Integer> quantidadesPorProduto(List<PedidoItemRequest> itens) {
+        Map<Long, Integer> quantidades = new TreeMap<>();
+        itens.forEach(it -> quantidades.merge(it.produtoId(), it.quantidade(), Integer::sum));
+        return quantidades;
+    }
+
+    // cadastro pelo cache de segundo nível: com o catálogo aquecido, criar o pedido não lê produtos nem o cliente do banco
+    private Map<Long, Produto> carregarProdutos(Collection<Long> ids) {
+        Map<Long, Produto> produtos = new HashMap<>();
+        produtoRepository.buscarPorIds(ids).forEach(p -> produtos.put(p.getId(), p));
+        return produtos;
+    }
+
+    private void validarProdutos(List<PedidoItemRequest> itens, Map<Long, Produto> produtos) {
+        for (PedidoItemRequest it : itens) {
+            if (!produtos.containsKey(it.produtoId())) {
+                throw new NotFoundException("Produto " + it.produtoId() + " não encontrado");
+            }
+            // a precificação trabalha em centavos: desconto com fração de centavo mudaria o arredondamento
+            if (it.desconto() != null && it.desconto().stripTrailingZeros().scale() > 2) {
+                throw new BusinessException("Desconto deve ter no máximo 2 casas decimais");
+            }
+        }
+    }
+
+    // baixa atômica (ledger em memória para SKUs de alta demanda); em caso de falha devolve o que este pedido já reservou
+    private void reservarEstoque(List<PedidoItemRequest> itens, Map<Long, Produto> produtos) {
+        Map<Long, Integer> reservados = new TreeMap<>();
+        for (Map.Entry<Long, Integer> e : quantidadesPorProduto(itens).entrySet()) {
+            Produto prod = produtos.get(e.getKey());
+            boolean reservado = estoqueLedger.atende(prod)
+                    ? estoqueLedger.reservar(e.getKey(), e.getValue())
+                    : produtoRepository.baixarEstoque(e.getKey(), e.getValue()) > 0;
+            if (!reservado) {
+                reservados.forEach(this::devolverEstoque);
+                throw new BusinessException("Estoque insuficiente para SKU " + prod.getSku());
+            }
+            reservados.put(e.getKey(), e.getValue());
+        }
     }
 
+    private Map<Long, Integer> quantidadesPorProduto(Pedido p) {
+        Map<Long, Integer> quantidades = new TreeMap<>();
+        p.getItens().forEach(it -> quantidades.merge(it.getProduto().getId(), it.getQuantidade(), Integer::sum));
+        return quantidades;
+    }
+
+    // devolução de pedidos cancelados (individual ou em lote): SKUs do ledger voltam para a memória, os demais em um único
+    // UPDATE que soma os itens dos pedidos por produto; o número de comandos não depende de quantos SKUs o pedido tem
+    private void devolverEstoque(Collection<Long> pedidoIds, Map<Long, Integer> quantidadesPorProduto) {
+        List<Long> noBanco = new ArrayList<>();
+        quantidadesPorProduto.forEach((produtoId, quantidade) -> {
+            if (estoqueLedger.gerencia(produtoId)) {
+                estoqueLedger.devolver(produtoId, quantidade);
+            } else {
+                noBanco.add(produtoId);
+            }
+        });
+        if (!noBanco.isEmpty()) {
+            produtoRepository.devolverEstoqueDosPedidos(pedidoIds, noBanco);
+        }
+    }
+
+    private void devolverEstoque(Long produtoId, int quantidade) {
+        if (estoqueLedger.gerencia(produtoId)) {
+            estoqueLedger.devolver(produtoId, quantidade);
+        } else {
+            produtoRepository.devolverEstoque(produtoId, quantidade);
+        }
+    }
+
+    private PedidoResumo resumoDe(Pedido p) {
+        PedidoResumo r = new PedidoResumo();
+        r.setId(p.getId());
+        r.setClienteId(p.getCliente().getId());
+        r.setStatus(p.getStatus());
+        r.setSubtotal(p.getSubtotal());
+        r.setDescontos(p.getDescontos());
+        r.setTotal(p.getTotal());
+        r.setQuantidadeItens(p.getItens().size());
+        r.setQuantidadeUnidades(p.getItens().stream().mapToInt(PedidoItem::getQuantidade).sum());
+        r.setSkus(p.getItens().stream().map(it -> it.getProduto().getSku()).distinct().sorted().collect(Collectors.joining(",")));
+        r.setCriadoEm(p.getCriadoEm());
+        r.setPagoEm(p.getPagoEm());
+        r.setCanceladoEm(p.getCanceladoEm());
+        return r;
+    }
+
+    private PedidoResumoResponse toResumoResponse(PedidoResumo r) {
+        return new PedidoResumoResponse(
+                r.getId(),
+                r.getClienteId(),
+                r.getStatus(),
+                r.getSubtotal(),
+                r.getDescontos(),
+                r.getTotal(),
+                r.getQuantidadeItens(),
+                r.getQuantidadeUnidades(),
+                r.getSkus().isEmpty() ? List.of() : List.of(r.getSkus().split(",")),
+                r.getCriadoEm(),
+                r.getPagoEm(),
+                r.getCanceladoEm()
+        );
+    }
+
+    // Listagens: uma consulta para os itens de todos os pedidos da página, em vez de 1 + N×itens
+    private Map<Long, List<PedidoItemResponse>> itensPorPedido(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return pedidoRepository.buscarItensPorPedidos(ids).stream()
+                .collect(Collectors.groupingBy(PedidoItemProjecao::pedidoId,
+                        Collectors.mapping(it -> new PedidoItemResponse(
+                                it.produtoId(),
+                                it.sku(),
+                                it.nome(),
+                                it.quantidade(),
+                                it.precoUnitario(),
+                                it.desconto(),
+                                it.totalLinha()
+                        ), Collectors.toList())));
+    }
+
+    // Itens já carregados (entity graph ou pedido recém-criado)
     private PedidoResponse toResponse(Pedido p) {
         List<PedidoItemResponse> itens = p.getItens().stream().map(it ->
                 new PedidoItemResponse(
@@ -162,7 +733,11 @@ public class PedidoServiceImpl implements PedidoService {
                         it.getDesconto(),
                         it.getTotalLinha()
                 )).toList();
+        return toResponse(p, itens);
+    }
 
+    // p.getCliente().getId() não inicializa o proxy do cliente
+    private PedidoResponse toResponse(Pedido p, List<PedidoItemResponse> itens) {
         return new PedidoResponse(
                 p.getId(),
                 p.getCliente().getId(),
@@ -176,4 +751,23 @@ public class PedidoServiceImpl implements PedidoService {
                 itens
         );
     }
+
+    // itens == null: omitidos da resposta (histórico do cliente sem itens)
+    private PedidoResponse toResponse(PedidoResumo r, List<PedidoItemResponse> itens) {
+        return new PedidoResponse(
+                r.getId(),
+                r.getClienteId(),
+                r.getStatus(),
+                r.getSubtotal(),
+                r.getDescontos(),
+                r.getTotal(),
+                r.getCriadoEm(),
+                r.getPagoEm(),
+                r.getCanceladoEm(),
+                itens
+        );
+    }
+
+    private record LoteAtraso(int selecionados, int atualizados) {
+    }
 }
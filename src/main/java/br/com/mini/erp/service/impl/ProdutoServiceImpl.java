@@ -1,24 +1,42 @@
 package br.com.mini.erp.service.impl;
 
 import br.com.mini.erp.dto.request.ProdutoRequest;
+import br.com.mini.erp.dto.response.PaginaCursorResponse;
 import br.com.mini.erp.dto.response.ProdutoResponse;
 import br.com.mini.erp.exception.BusinessException;
 import br.com.mini.erp.exception.NotFoundException;
 import br.com.mini.erp.model.Produto;
+import br.com.mini.erp.model.ProdutoEstoque;
+import br.com.mini.erp.repository.ProdutoEstoqueRepository;
 import br.com.mini.erp.repository.ProdutoRepository;
+import br.com.mini.erp.repository.projection.ProdutoVersaoProjecao;
 import br.com.mini.erp.service.ProdutoService;
+import br.com.mini.erp.service.estoque.EstoqueLedger;
+import br.com.mini.erp.service.paginacao.Cursor;
+import br.com.mini.erp.service.paginacao.PaginaVersionada;
+import br.com.mini.erp.service.paginacao.VersaoPagina;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
 @Service
 public class ProdutoServiceImpl implements ProdutoService {
 
     private final ProdutoRepository repository;
+    private final ProdutoEstoqueRepository estoqueRepository;
+    private final EstoqueLedger estoqueLedger;
 
-    public ProdutoServiceImpl(ProdutoRepository repository) {
+    public ProdutoServiceImpl(ProdutoRepository repository, ProdutoEstoqueRepository estoqueRepository, EstoqueLedger estoqueLedger) {
         this.repository = repository;
+        this.estoqueRepository = estoqueRepository;
+        this.estoqueLedger = estoqueLedger;
     }
 
     @Override
@@ -29,7 +47,8 @@ public class ProdutoServiceImpl implements ProdutoService {
         }
         Produto p = toEntity(req, new Produto());
         repository.saveAndFlush(p);
-        return toResponse(p);
+        estoqueRepository.save(new ProdutoEstoque(p, req.estoque()));
+        return toResponse(p, req.estoque());
     }
 
     @Override
@@ -40,44 +59,85 @@ public class ProdutoServiceImpl implements ProdutoService {
             throw new BusinessException("SKU já cadastrado");
         }
         toEntity(req, p);
-        return toResponse(p);
+        ProdutoEstoque estoque = estoqueRepository.findById(id).orElseThrow(() -> new NotFoundException("Produto não encontrado"));
+        estoque.setQuantidade(req.estoque());
+        estoqueLedger.redefinir(p.getId(), req.estoque());
+        return toResponse(p, req.estoque());
     }
 
     @Override
     @Transactional
     public void delete(Long id) {
         Produto p = repository.findById(id).orElseThrow(() -> new NotFoundException("Produto não encontrado"));
+        estoqueRepository.deleteById(id);
         repository.delete(p);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ProdutoResponse get(Long id) {
+        // cadastro vem do cache de segundo nível; o saldo é sempre lido do banco
         Produto p = repository.findById(id).orElseThrow(() -> new NotFoundException("Produto não encontrado"));
-        return toResponse(p);
+        return toResponse(p, repository.findEstoqueById(id).orElse(0));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ProdutoResponse> list(Boolean ativo, Pageable pageable) {
-        if (ativo == null) {
-            return repository.findAll(pageable).map(this::toResponse);
-        }
-        return repository.findByAtivo(ativo, pageable).map(this::toResponse);
+    public PaginaVersionada<ProdutoResponse> list(Boolean ativo, Pageable pageable) {
+        Page<Produto> pagina = ativo == null ? repository.findAll(pageable) : repository.findByAtivo(ativo, pageable);
+        Map<Long, Integer> estoques = estoques(pagina.getContent());
+        String versao = VersaoPagina.de(pagina.map(p -> new ProdutoVersaoProjecao(p.getId(), p.getVersao(), estoques.get(p.getId()))));
+        return new PaginaVersionada<>(pagina.map(p -> toResponse(p, estoques.getOrDefault(p.getId(), 0))), versao);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginaCursorResponse<ProdutoResponse> listCursor(Boolean ativo, String cursor, int tamanho) {
+        tamanho = Cursor.tamanho(tamanho);
+        Long aposId = (cursor == null || cursor.isBlank()) ? 0L : Cursor.lerId(cursor);
+        List<Produto> produtos = ativo == null
+                ? repository.findByIdGreaterThanOrderByIdAsc(aposId, Limit.of(tamanho + 1))
+                : repository.findByAtivoAndIdGreaterThanOrderByIdAsc(ativo, aposId, Limit.of(tamanho + 1));
+        Map<Long, Integer> estoques = estoques(produtos);
+        return Cursor.pagina(produtos, tamanho, p -> toResponse(p, estoques.getOrDefault(p.getId(), 0)), p -> Cursor.deId(p.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> versao(Long id) {
+        return repository.buscarVersao(id).map(v -> v.versao() + "." + v.estoque());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public String versaoLista(Boolean ativo, Pageable pageable) {
+        Page<ProdutoVersaoProjecao> pagina = ativo == null
+                ? repository.buscarVersoes(pageable)
+                : repository.buscarVersoesPorAtivo(ativo, pageable);
+        return VersaoPagina.de(pagina);
     }
 
     private Produto toEntity(ProdutoRequest req, Produto p) {
         p.setSku(req.sku());
         p.setNome(req.nome());
         p.setPrecoBruto(req.precoBruto());
-        p.setEstoque(req.estoque());
         p.setEstoqueMinimo(req.estoqueMinimo());
         p.setAtivo(req.ativo());
+        p.setAltaDemanda(Boolean.TRUE.equals(req.altaDemanda()));
         return p;
     }
 
-    private ProdutoResponse toResponse(Produto p) {
-        return new ProdutoResponse(p.getId(), p.getSku(), p.getNome(), p.getPrecoBruto(), p.getEstoque(), p.getEstoqueMinimo(), p.getAtivo());
+    // saldos da página em uma consulta
+    private Map<Long, Integer> estoques(List<Produto> produtos) {
+        if (produtos.isEmpty()) {
+            return Map.of();
+        }
+        return estoqueRepository.findAllById(produtos.stream().map(Produto::getId).toList()).stream()
+                .collect(Collectors.toMap(ProdutoEstoque::getId, ProdutoEstoque::getQuantidade));
+    }
+
+    private ProdutoResponse toResponse(Produto p, Integer estoque) {
+        return new ProdutoResponse(p.getId(), p.getSku(), p.getNome(), p.getPrecoBruto(), estoque, p.getEstoqueMinimo(), p.getAtivo(), p.getAltaDemanda());
     }
 
 }
@@ -0,0 +1,303 @@
+package br.com.mini.erp.service.impl;
+
+import br.com.mini.erp.dto.response.VendaDiariaResponse;
+import br.com.mini.erp.dto.response.VendaSkuResponse;
+import br.com.mini.erp.dto.response.VendasReconstrucaoResponse;
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.exception.BusinessException;
+import br.com.mini.erp.model.VendaDiaria;
+import br.com.mini.erp.model.VendaDiariaSku;
+import br.com.mini.erp.model.VendaPedidoConsolidado;
+import br.com.mini.erp.model.VendaPendente;
+import br.com.mini.erp.repository.PedidoRepository;
+import br.com.mini.erp.repository.VendaDiariaRepository;
+import br.com.mini.erp.repository.VendaDiariaSkuRepository;
+import br.com.mini.erp.repository.VendaPedidoConsolidadoRepository;
+import br.com.mini.erp.repository.VendaPendenteRepository;
+import br.com.mini.erp.repository.projection.PedidoExportacaoLinha;
+import br.com.mini.erp.repository.projection.VendaSkuProjecao;
+import br.com.mini.erp.service.PedidoArquivamentoService;
+import br.com.mini.erp.service.VendasService;
+import br.com.mini.erp.service.evento.PedidosAlterados;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Rollups de vendas por dia/status (vendas_diarias) e por dia/SKU/status (vendas_diarias_sku).
+ * <p>
+ * Cada transação que cria ou altera pedidos grava um pendente por pedido (vendas_pendentes, só INSERT: sem disputa
+ * por linhas de rollup quentes). A consolidação lê os pendentes com FOR UPDATE, compara o status atual de cada pedido
+ * com o status em que ele já está contado (vendas_pedidos_consolidados) e aplica só a diferença: tira o pedido do
+ * status antigo e soma no novo. Nada é relido além dos pedidos alterados, e reaplicar um pendente não muda nada.
+ * <p>
+ * As leituras são eventualmente consistentes: refletem os pedidos até a última consolidação. Pedidos movidos para o
+ * arquivo frio continuam contados no status em que foram arquivados, inclusive após uma reconstrução.
+ */
+@Service
+public class VendasServiceImpl implements VendasService {
+
+    private static final Logger log = LoggerFactory.getLogger(VendasServiceImpl.class);
+
+    private static final OffsetDateTime INICIO = OffsetDateTime.parse("1970-01-01T00:00:00Z");
+    private static final OffsetDateTime FIM = OffsetDateTime.parse("9999-12-31T23:59:59Z");
+    private static final int DIAS_PADRAO = 30;
+
+    private final PedidoRepository pedidoRepository;
+    private final VendaPendenteRepository vendaPendenteRepository;
+    private final VendaPedidoConsolidadoRepository vendaPedidoConsolidadoRepository;
+    private final VendaDiariaRepository vendaDiariaRepository;
+    private final VendaDiariaSkuRepository vendaDiariaSkuRepository;
+    private final PedidoArquivamentoService pedidoArquivamentoService;
+    private final TransactionTemplate transactionTemplate;
+
+    // pendentes por transação de consolidação
+    @Value("${mini-erp.vendas.consolidacao.tamanho-lote:1000}")
+    private int tamanhoLote = 1000;
+
+    public VendasServiceImpl(PedidoRepository pedidoRepository, VendaPendenteRepository vendaPendenteRepository,
+                             VendaPedidoConsolidadoRepository vendaPedidoConsolidadoRepository, VendaDiariaRepository vendaDiariaRepository,
+                             VendaDiariaSkuRepository vendaDiariaSkuRepository, PedidoArquivamentoService pedidoArquivamentoService,
+                             TransactionTemplate transactionTemplate) {
+        this.pedidoRepository = pedidoRepository;
+        this.vendaPendenteRepository = vendaPendenteRepository;
+        this.vendaPedidoConsolidadoRepository = vendaPedidoConsolidadoRepository;
+        this.vendaDiariaRepository = vendaDiariaRepository;
+        this.vendaDiariaSkuRepository = vendaDiariaSkuRepository;
+        this.pedidoArquivamentoService = pedidoArquivamentoService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // síncrono: o INSERT dos pendentes entra na transação que alterou os pedidos
+    @EventListener
+    public void registrarPendentes(PedidosAlterados evento) {
+        vendaPendenteRepository.saveAll(evento.pedidoIds().stream().map(VendaPendente::new).toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<VendaDiariaResponse> porDia(LocalDate de, LocalDate ate, PedidoStatus status) {
+        LocalDate fim = ate == null ? LocalDate.now(ZoneOffset.UTC) : ate;
+        LocalDate inicio = inicio(de, fim);
+        List<VendaDiaria> linhas = status == null
+                ? vendaDiariaRepository.buscar(inicio, fim)
+                : vendaDiariaRepository.buscarPorStatus(inicio, fim, status);
+        return linhas.stream()
+                .map(v -> new VendaDiariaResponse(v.getId().dia(), v.getId().status(), v.getReceita(), v.getUnidades(), v.getPedidos()))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<VendaSkuResponse> porSku(LocalDate de, LocalDate ate, Long produtoId, PedidoStatus status) {
+        LocalDate fim = ate == null ? LocalDate.now(ZoneOffset.UTC) : ate;
+        LocalDate inicio = inicio(de, fim);
+        List<VendaSkuProjecao> linhas;
+        if (produtoId == null) {
+            linhas = status == null
+                    ? vendaDiariaSkuRepository.buscar(inicio, fim)
+                    : vendaDiariaSkuRepository.buscarPorStatus(inicio, fim, status);
+        } else {
+            linhas = status == null
+                    ? vendaDiariaSkuRepository.buscarPorProduto(produtoId, inicio, fim)
+                    : vendaDiariaSkuRepository.buscarPorProdutoEStatus(produtoId, inicio, fim, status);
+        }
+        return linhas.stream()
+                .map(v -> new VendaSkuResponse(v.dia(), v.produtoId(), v.sku(), v.status(), v.receita(), v.unidades(), v.pedidos()))
+                .toList();
+    }
+
+    @Override
+    public int consolidar() {
+        int total = 0;
+        int lote;
+        do {
+            lote = transactionTemplate.execute(status -> consolidarLote());
+            total += lote;
+        } while (lote == tamanhoLote);
+        return total;
+    }
+
+    // Snapshot único (REPEATABLE READ): pedidos, índice do arquivo frio, rollups e status consolidados saem consistentes
+    // entre si (um lote arquivado depois do snapshot ainda é lido das tabelas vivas). Pendentes de alterações posteriores
+    // ao snapshot continuam na fila e são aplicados pela próxima consolidação.
+    @Override
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public VendasReconstrucaoResponse reconstruir() {
+
+        long inicio = System.nanoTime();
+        vendaDiariaRepository.deleteAllInBatch();
+        vendaDiariaSkuRepository.deleteAllInBatch();
+        vendaPedidoConsolidadoRepository.deleteAllInBatch();
+        long pedidos = vendaPedidoConsolidadoRepository.consolidarTodos() + vendaPedidoConsolidadoRepository.consolidarArquivados();
+
+        Deltas deltas = new Deltas();
+        try (Stream<PedidoExportacaoLinha> linhas = pedidoRepository.exportar(INICIO, FIM)) {
+            // as linhas de um pedido chegam consecutivas (order by criado_em, id)
+            List<PedidoExportacaoLinha> pedido = new ArrayList<>();
+            Iterator<PedidoExportacaoLinha> it = linhas.iterator();
+            while (it.hasNext()) {
+                PedidoExportacaoLinha linha = it.next();
+                if (!pedido.isEmpty() && !pedido.get(0).pedidoId().equals(linha.pedidoId())) {
+                    deltas.somar(pedido, pedido.get(0).status(), 1);
+                    pedido.clear();
+                }
+                pedido.add(linha);
+            }
+            if (!pedido.isEmpty()) {
+                deltas.somar(pedido, pedido.get(0).status(), 1);
+            }
+        }
+        pedidoArquivamentoService.percorrer(p -> deltas.somar(PedidoExportacaoServiceImpl.paraLinhas(p), p.status(), 1));
+        aplicar(deltas);
+
+        long duracaoMs = (System.nanoTime() - inicio) / 1_000_000;
+        log.info("Rollups de vendas reconstruídos: {} pedidos, {} linhas diárias, {} linhas por SKU em {} ms",
+                pedidos, deltas.diarias.size(), deltas.skus.size(), duracaoMs);
+        return new VendasReconstrucaoResponse(pedidos, deltas.diarias.size(), deltas.skus.size(), duracaoMs);
+    }
+
+    private int consolidarLote() {
+
+        List<VendaPendente> pendentes = vendaPendenteRepository.buscarParaConsolidar(Limit.of(tamanhoLote));
+        if (pendentes.isEmpty()) {
+            return 0;
+        }
+        Set<Long> pedidoIds = pendentes.stream().map(VendaPendente::getPedidoId).collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, VendaPedidoConsolidado> consolidados = vendaPedidoConsolidadoRepository.findAllById(pedidoIds).stream()
+                .collect(Collectors.toMap(VendaPedidoConsolidado::getId, Function.identity()));
+
+        // pedidos já arquivados/removidos não aparecem: o pendente só é descartado
+        Map<Long, List<PedidoExportacaoLinha>> porPedido = new LinkedHashMap<>();
+        for (PedidoExportacaoLinha linha : pedidoRepository.buscarLinhasPorIds(pedidoIds)) {
+            porPedido.computeIfAbsent(linha.pedidoId(), k -> new ArrayList<>()).add(linha);
+        }
+
+        Deltas deltas = new Deltas();
+        List<VendaPedidoConsolidado> novos = new ArrayList<>();
+        for (List<PedidoExportacaoLinha> pedido : porPedido.values()) {
+            PedidoExportacaoLinha p = pedido.get(0);
+            VendaPedidoConsolidado consolidado = consolidados.get(p.pedidoId());
+            if (consolidado != null && consolidado.getStatus() == p.status()) {
+                continue;
+            }
+            if (consolidado == null) {
+                novos.add(new VendaPedidoConsolidado(p.pedidoId(), p.status()));
+            } else {
+                deltas.somar(pedido, consolidado.getStatus(), -1);
+                consolidado.setStatus(p.status());
+            }
+            deltas.somar(pedido, p.status(), 1);
+        }
+
+        aplicar(deltas);
+        vendaPedidoConsolidadoRepository.saveAll(novos);
+        vendaPendenteRepository.deleteAllByIdInBatch(pendentes.stream().map(VendaPendente::getId).toList());
+        return pendentes.size();
+    }
+
+    // uma leitura por rollup para as chaves afetadas; linhas existentes são atualizadas no flush, as novas inseridas em batch
+    private void aplicar(Deltas deltas) {
+
+        Map<VendaDiaria.Chave, VendaDiaria> diarias = new HashMap<>();
+        vendaDiariaRepository.findAllById(deltas.diarias.keySet()).forEach(v -> diarias.put(v.getId(), v));
+        List<VendaDiaria> novasDiarias = new ArrayList<>();
+        deltas.diarias.forEach((chave, d) -> {
+            VendaDiaria v = diarias.get(chave);
+            if (v == null) {
+                v = new VendaDiaria(chave);
+                novasDiarias.add(v);
+            }
+            v.somar(d.receita, d.unidades, d.pedidos);
+        });
+        vendaDiariaRepository.saveAll(novasDiarias);
+
+        Map<VendaDiariaSku.Chave, VendaDiariaSku> skus = new HashMap<>();
+        vendaDiariaSkuRepository.findAllById(deltas.skus.keySet()).forEach(v -> skus.put(v.getId(), v));
+        List<VendaDiariaSku> novasSkus = new ArrayList<>();
+        deltas.skus.forEach((chave, d) -> {
+            VendaDiariaSku v = skus.get(chave);
+            if (v == null) {
+                v = new VendaDiariaSku(chave);
+                novasSkus.add(v);
+            }
+            v.somar(d.receita, d.unidades, d.pedidos);
+        });
+        vendaDiariaSkuRepository.saveAll(novasSkus);
+    }
+
+    private static LocalDate inicio(LocalDate de, LocalDate fim) {
+        LocalDate inicio = de == null ? fim.minusDays(DIAS_PADRAO - 1) : de;
+        if (inicio.isAfter(fim)) {
+            throw new BusinessException("Intervalo inválido: 'de' deve ser anterior ou igual a 'ate'");
+        }
+        return inicio;
+    }
+
+    // Deltas acumulados por chave de rollup; sinal -1 tira um pedido de um status, +1 soma
+    private static final class Deltas {
+
+        private final Map<VendaDiaria.Chave, Delta> diarias = new HashMap<>();
+        private final Map<VendaDiariaSku.Chave, Delta> skus = new HashMap<>();
+
+        void somar(List<PedidoExportacaoLinha> pedido, PedidoStatus status, int sinal) {
+
+            PedidoExportacaoLinha p = pedido.get(0);
+            LocalDate dia = p.criadoEm().withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+            BigDecimal sinalDecimal = BigDecimal.valueOf(sinal);
+
+            Map<Long, Delta> porProduto = new HashMap<>();
+            long unidades = 0;
+            for (PedidoExportacaoLinha linha : pedido) {
+                if (linha.produtoId() == null) {
+                    continue;
+                }
+                unidades += linha.quantidade();
+                porProduto.computeIfAbsent(linha.produtoId(), k -> new Delta()).somar(linha.totalLinha(), linha.quantidade(), 0);
+            }
+
+            diarias.computeIfAbsent(new VendaDiaria.Chave(dia, status), k -> new Delta())
+                    .somar(p.total().multiply(sinalDecimal), sinal * unidades, sinal);
+            porProduto.forEach((produtoId, d) -> skus.computeIfAbsent(new VendaDiariaSku.Chave(dia, produtoId, status), k -> new Delta())
+                    .somar(d.receita.multiply(sinalDecimal), sinal * d.unidades, sinal));
+        }
+
+    }
+
+    private static final class Delta {
+
+        private BigDecimal receita = BigDecimal.ZERO;
+        private long unidades;
+        private long pedidos;
+
+        void somar(BigDecimal receita, long unidades, long pedidos) {
+            this.receita = this.receita.add(receita);
+            this.unidades += unidades;
+            this.pedidos += pedidos;
+        }
+
+    }
+
+}
@@ -0,0 +1,88 @@
+package br.com.mini.erp.service.paginacao;
+
+import br.com.mini.erp.dto.response.PaginaCursorResponse;
+import br.com.mini.erp.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Token opaco de continuação da paginação por cursor (keyset): guarda a chave de ordenação do último
+ * registro entregue, e a próxima página busca a partir dela em vez de pular linhas com OFFSET.
+ */
+public final class Cursor {
+
+    public static final int TAMANHO_MAX = 1000;
+    private static final String SEPARADOR = "|";
+
+    private Cursor() {
+    }
+
+    public record CriadoEmId(OffsetDateTime criadoEm, Long id) {
+    }
+
+    public static int tamanho(int solicitado) {
+        return Math.max(1, Math.min(solicitado, TAMANHO_MAX));
+    }
+
+    /**
+     * Monta a página a partir de uma consulta feita com limite tamanho + 1: o registro excedente só indica
+     * que há próxima página, dispensando o COUNT.
+     */
+    public static <E, R> PaginaCursorResponse<R> pagina(List<E> registros, int tamanho,
+                                                        Function<E, R> mapper, Function<E, String> cursorDe) {
+        boolean temMais = registros.size() > tamanho;
+        List<E> pagina = temMais ? registros.subList(0, tamanho) : registros;
+        String proximo = temMais ? cursorDe.apply(pagina.get(pagina.size() - 1)) : null;
+        return new PaginaCursorResponse<>(pagina.stream().map(mapper).toList(), proximo, temMais);
+    }
+
+    public static String deId(Long id) {
+        return codificar(String.valueOf(id));
+    }
+
+    public static Long lerId(String token) {
+        try {
+            return Long.valueOf(decodificar(token));
+        } catch (IllegalArgumentException e) {
+            throw invalido();
+        }
+    }
+
+    public static String deCriadoEmId(OffsetDateTime criadoEm, Long id) {
+        return codificar(criadoEm + SEPARADOR + id);
+    }
+
+    public static CriadoEmId lerCriadoEmId(String token) {
+        String valor = decodificar(token);
+        int i = valor.lastIndexOf(SEPARADOR);
+        if (i < 0) {
+            throw invalido();
+        }
+        try {
+            return new CriadoEmId(OffsetDateTime.parse(valor.substring(0, i)), Long.valueOf(valor.substring(i + 1)));
+        } catch (RuntimeException e) {
+            throw invalido();
+        }
+    }
+
+    private static String codificar(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodificar(String token) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw invalido();
+        }
+    }
+
+    private static BusinessException invalido() {
+        return new BusinessException("Cursor inválido");
+    }
+
+}
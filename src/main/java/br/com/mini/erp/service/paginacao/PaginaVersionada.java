@@ -0,0 +1,13 @@
+package br.com.mini.erp.service.paginacao;
+
+import org.springframework.data.domain.Page;
+
+/**
+ * Página de listagem com a versão (ETag) calculada a partir das próprias linhas carregadas, no mesmo formato de
+ * VersaoPagina: o 200 não precisa de uma segunda consulta de página + count só para o ETag.
+ */
+public record PaginaVersionada<T>(
+        Page<T> pagina,
+        String versao
+) {
+}
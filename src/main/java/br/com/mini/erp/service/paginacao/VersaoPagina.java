@@ -0,0 +1,43 @@
+package br.com.mini.erp.service.paginacao;
+
+import org.springframework.data.domain.Page;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Versão de uma página de listagem, para o ETag: resumo (SHA-256) do total de registros e da projeção de cada
+ * linha. Linha alterada, incluída ou removida muda o total ou alguma projeção, e com eles o resumo.
+ */
+public final class VersaoPagina {
+
+    private static final int BYTES = 16;
+
+    private VersaoPagina() {
+    }
+
+    /**
+     * As projeções são records com id e os campos que mudam (versão, status...): o toString traz todos eles.
+     */
+    public static String de(Page<? extends Record> pagina) {
+        MessageDigest sha = sha256();
+        sha.update(Long.toString(pagina.getTotalElements()).getBytes(StandardCharsets.UTF_8));
+        for (Record linha : pagina) {
+            sha.update((byte) '\n');
+            sha.update(linha.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(Arrays.copyOf(sha.digest(), BYTES));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
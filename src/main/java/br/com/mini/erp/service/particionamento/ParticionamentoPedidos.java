@@ -0,0 +1,176 @@
+package br.com.mini.erp.service.particionamento;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Particionamento mensal (RANGE em criado_em) de pedidos e pedido_itens no PostgreSQL, opt-in via
+ * mini-erp.pedidos.particionamento.enabled.
+ * <p>
+ * Na primeira subida com a opção ligada as tabelas comuns são convertidas: os dados são copiados para tabelas
+ * particionadas numa única transação, com as tabelas travadas (rodar em janela de manutenção). A chave primária
+ * passa a ser (id, criado_em), exigência do Postgres, e pedido_itens é particionada pelo criado_em do pedido, com a
+ * FK (pedido_id, criado_em). Os índices secundários são recriados nas tabelas-mãe e herdados pelas partições.
+ * <p>
+ * Com a PK (id, criado_em) o banco deixa de garantir que id é único: a unicidade passa a vir só da sequência
+ * pedidos_seq (nenhum caminho da aplicação grava id explícito). As buscas por id (GET, pagar, cancelar, ETag) não
+ * têm criado_em e não são podadas: fazem um probe no índice da PK de cada partição anexada, custo que cresce com o
+ * número de meses retidos (retencao-meses limita isso).
+ * <p>
+ * Consultas com filtro em criado_em (cursor, exportação, atrasados) leem só as partições do intervalo, e um mês
+ * antigo sai das tabelas com um DETACH, sem DELETE.
+ */
+@Component
+public class ParticionamentoPedidos {
+
+    private static final Logger log = LoggerFactory.getLogger(ParticionamentoPedidos.class);
+
+    // ordem de criação/cópia; no DETACH os itens saem antes por causa da FK
+    private static final List<String> TABELAS = List.of("pedidos", "pedido_itens");
+    private static final DateTimeFormatter SUFIXO = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final int mesesFuturos;
+
+    public ParticionamentoPedidos(JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${mini-erp.pedidos.particionamento.enabled:false}") boolean habilitado,
+                                  @Value("${mini-erp.pedidos.particionamento.meses-futuros:3}") int mesesFuturos) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.habilitado = habilitado;
+        this.mesesFuturos = mesesFuturos;
+    }
+
+    // depois do ddl-auto e do schema-postgresql.sql
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (!habilitado) {
+            return;
+        }
+        if (!particionada("pedidos")) {
+            converter();
+        }
+        criarParticoesFuturas();
+    }
+
+    public boolean habilitado() {
+        return habilitado;
+    }
+
+    // mês corrente + mesesFuturos; idempotente
+    public void criarParticoesFuturas() {
+        YearMonth atual = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= mesesFuturos; i++) {
+            criarParticao(atual.plusMonths(i));
+        }
+    }
+
+    // meses com partição anexada, do mais antigo ao mais recente
+    public List<YearMonth> meses() {
+        return jdbcTemplate.queryForList(
+                        "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid " +
+                                "where i.inhparent = 'pedidos'::regclass order by c.relname", String.class)
+                .stream()
+                .map(nome -> YearMonth.parse(nome.substring("pedidos".length()), SUFIXO))
+                .toList();
+    }
+
+    // DETACH só altera o catálogo: o mês vira um par de tabelas comuns (pedidos_pAAAA_MM, pedido_itens_pAAAA_MM),
+    // fora das consultas, que podem ser arquivadas ou removidas com DROP depois. As linhas do mês em pedido_resumo
+    // saem na mesma transação: listagem e histórico não mostram pedidos cujo GET por id já responderia 404.
+    public void desanexar(YearMonth mes) {
+        Integer resumos = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("alter table pedido_itens detach partition " + particao("pedido_itens", mes));
+            jdbcTemplate.execute("alter table pedidos detach partition " + particao("pedidos", mes));
+            return jdbcTemplate.update("delete from pedido_resumo where criado_em >= '" + limite(mes) +
+                    "' and criado_em < '" + limite(mes.plusMonths(1)) + "'");
+        });
+        log.info("Partições de {} desanexadas ({} linhas removidas de pedido_resumo)", mes, resumos);
+    }
+
+    private boolean particionada(String tabela) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists (select 1 from pg_partitioned_table where partrelid = to_regclass(?))", Boolean.class, tabela));
+    }
+
+    private void criarParticao(YearMonth mes) {
+        for (String tabela : TABELAS) {
+            jdbcTemplate.execute("create table if not exists " + particao(tabela, mes) + " partition of " + tabela +
+                    " for values from ('" + limite(mes) + "') to ('" + limite(mes.plusMonths(1)) + "')");
+        }
+    }
+
+    private void converter() {
+
+        long inicio = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+
+            jdbcTemplate.execute("lock table pedidos, pedido_itens in access exclusive mode");
+
+            List<String> indices = new ArrayList<>();
+            TABELAS.forEach(tabela -> indices.addAll(indicesSecundarios(tabela)));
+            OffsetDateTime primeiro = jdbcTemplate.queryForObject("select min(criado_em) from pedidos", OffsetDateTime.class);
+
+            jdbcTemplate.execute("update pedido_itens i set criado_em = p.criado_em from pedidos p " +
+                    "where p.id = i.pedido_id and i.criado_em is null");
+            for (String tabela : TABELAS) {
+                jdbcTemplate.execute("alter table " + tabela + " rename to " + tabela + "_legado");
+                jdbcTemplate.execute("create table " + tabela + " (like " + tabela + "_legado including defaults including constraints) " +
+                        "partition by range (criado_em)");
+            }
+
+            YearMonth atual = YearMonth.now(ZoneOffset.UTC);
+            YearMonth mes = primeiro == null ? atual : YearMonth.from(primeiro.withOffsetSameInstant(ZoneOffset.UTC));
+            for (; !mes.isAfter(atual); mes = mes.plusMonths(1)) {
+                criarParticao(mes);
+            }
+
+            jdbcTemplate.execute("insert into pedidos select * from pedidos_legado");
+            jdbcTemplate.execute("insert into pedido_itens select * from pedido_itens_legado");
+            jdbcTemplate.execute("drop table pedido_itens_legado");
+            jdbcTemplate.execute("drop table pedidos_legado");
+
+            jdbcTemplate.execute("alter table pedidos add primary key (id, criado_em)");
+            jdbcTemplate.execute("alter table pedido_itens add primary key (id, criado_em)");
+            jdbcTemplate.execute("alter table pedido_itens add constraint fk_pedido_itens_pedido " +
+                    "foreign key (pedido_id, criado_em) references pedidos (id, criado_em)");
+            // mesmos nomes e definições de antes (os da tabela antiga foram removidos com ela)
+            indices.forEach(jdbcTemplate::execute);
+        });
+
+        log.info("pedidos e pedido_itens convertidas em tabelas particionadas por mês em {} ms", (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    // CREATE INDEX dos índices que não sustentam PK/UNIQUE
+    private List<String> indicesSecundarios(String tabela) {
+        return jdbcTemplate.queryForList(
+                "select i.indexdef from pg_indexes i where i.schemaname = current_schema() and i.tablename = ? " +
+                        "and not exists (select 1 from pg_constraint c where c.conrelid = to_regclass(i.tablename) and c.conname = i.indexname)",
+                String.class, tabela);
+    }
+
+    private static String particao(String tabela, YearMonth mes) {
+        return tabela + mes.format(SUFIXO);
+    }
+
+    private static String limite(YearMonth mes) {
+        return mes.atDay(1) + " 00:00:00+00";
+    }
+
+}
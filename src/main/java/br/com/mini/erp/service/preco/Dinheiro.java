@@ -0,0 +1,43 @@
+package br.com.mini.erp.service.preco;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Valor monetário em centavos sobre um {@code long}, usado na precificação de pedidos.
+ * <p>
+ * A conversão de/para {@link BigDecimal} fica nas bordas (entidades e JSON): a entrada é arredondada
+ * HALF_UP para 2 casas, como a precificação fazia com {@code setScale(2, HALF_UP)}, e a aritmética
+ * no meio é exata. Estouro de {@code long} lança {@link ArithmeticException} em vez de dar a volta.
+ */
+public record Dinheiro(long centavos) {
+
+    public static final Dinheiro ZERO = new Dinheiro(0);
+
+    private static final int ESCALA = 2;
+
+    public static Dinheiro de(BigDecimal valor) {
+        if (valor == null) {
+            return ZERO;
+        }
+        // movePointRight mantém o valor compacto (sem BigInteger) quando cabe em long
+        return new Dinheiro(valor.setScale(ESCALA, RoundingMode.HALF_UP).movePointRight(ESCALA).longValueExact());
+    }
+
+    public Dinheiro mais(Dinheiro outro) {
+        return new Dinheiro(Math.addExact(centavos, outro.centavos));
+    }
+
+    public Dinheiro menos(Dinheiro outro) {
+        return new Dinheiro(Math.subtractExact(centavos, outro.centavos));
+    }
+
+    public Dinheiro vezes(int quantidade) {
+        return new Dinheiro(Math.multiplyExact(centavos, quantidade));
+    }
+
+    public BigDecimal paraBigDecimal() {
+        return BigDecimal.valueOf(centavos, ESCALA);
+    }
+
+}
@@ -0,0 +1,57 @@
+package br.com.mini.erp.service.tendencia;
+
+import java.util.Arrays;
+
+// Count-Min sketch de tamanho fixo (profundidade x largura contadores): estimativa nunca abaixo do valor real,
+// acima dele em no máximo ~e/largura do total com alta probabilidade. Não é thread-safe.
+final class CountMinSketch {
+
+    private static final long SEMENTE = 0x9E3779B97F4A7C15L;
+
+    private final int profundidade;
+    private final int mascara;
+    private final long[] contadores;
+
+    // largura potência de 2: o índice da coluna sai de uma máscara
+    CountMinSketch(int profundidade, int largura) {
+        if (Integer.bitCount(largura) != 1) {
+            throw new IllegalArgumentException("largura do Count-Min deve ser potência de 2: " + largura);
+        }
+        this.profundidade = profundidade;
+        this.mascara = largura - 1;
+        this.contadores = new long[profundidade * largura];
+    }
+
+    void incrementar(long chave, long n) {
+        for (int i = 0; i < profundidade; i++) {
+            contadores[indice(i, chave)] += n;
+        }
+    }
+
+    long estimar(long chave) {
+        long minimo = Long.MAX_VALUE;
+        for (int i = 0; i < profundidade; i++) {
+            minimo = Math.min(minimo, contadores[indice(i, chave)]);
+        }
+        return minimo;
+    }
+
+    void limpar() {
+        Arrays.fill(contadores, 0L);
+    }
+
+    private int indice(int linha, long chave) {
+        return linha * (mascara + 1) + (int) (misturar(chave + (linha + 1) * SEMENTE) & mascara);
+    }
+
+    // finalizador do MurmurHash3 (fmix64)
+    private static long misturar(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
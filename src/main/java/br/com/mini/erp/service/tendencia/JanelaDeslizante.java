@@ -0,0 +1,80 @@
+package br.com.mini.erp.service.tendencia;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Janela deslizante de heavy hitters em buckets de tempo: cada bucket tem seu Count-Min (contagens) e seu
+// Space-Saving (candidatos). Buckets vencidos são zerados ao serem reaproveitados; a memória é fixa.
+final class JanelaDeslizante {
+
+    record Estimativa(long produtoId, String sku, long unidades) {
+    }
+
+    private static final class Bucket {
+
+        private final CountMinSketch contagens;
+        private final SpaceSaving candidatos;
+        // índice do intervalo de tempo (instante / largura) que o bucket guarda; -1 = vazio
+        private long intervalo = -1;
+
+        private Bucket(int profundidade, int largura, int capacidade) {
+            this.contagens = new CountMinSketch(profundidade, largura);
+            this.candidatos = new SpaceSaving(capacidade);
+        }
+
+    }
+
+    private final long larguraBucketMs;
+    private final Bucket[] buckets;
+
+    JanelaDeslizante(Duration duracao, int quantidadeBuckets, int profundidade, int largura, int capacidade) {
+        this.larguraBucketMs = duracao.toMillis() / quantidadeBuckets;
+        this.buckets = new Bucket[quantidadeBuckets];
+        for (int i = 0; i < quantidadeBuckets; i++) {
+            buckets[i] = new Bucket(profundidade, largura, capacidade);
+        }
+    }
+
+    synchronized void registrar(long produtoId, String sku, long unidades, long instanteMs) {
+        long intervalo = instanteMs / larguraBucketMs;
+        Bucket bucket = buckets[(int) (intervalo % buckets.length)];
+        if (bucket.intervalo != intervalo) {
+            bucket.contagens.limpar();
+            bucket.candidatos.limpar();
+            bucket.intervalo = intervalo;
+        }
+        bucket.contagens.incrementar(produtoId, unidades);
+        bucket.candidatos.registrar(produtoId, sku, unidades);
+    }
+
+    // candidatos = monitorados de algum bucket da janela; unidades = soma das estimativas dos buckets
+    synchronized List<Estimativa> top(int k, long instanteMs) {
+
+        long atual = instanteMs / larguraBucketMs;
+        List<Bucket> validos = new ArrayList<>(buckets.length);
+        for (Bucket b : buckets) {
+            if (b.intervalo >= 0 && b.intervalo > atual - buckets.length && b.intervalo <= atual) {
+                validos.add(b);
+            }
+        }
+
+        Map<Long, String> candidatos = new HashMap<>();
+        validos.forEach(b -> b.candidatos.monitorados().forEach(c -> candidatos.putIfAbsent(c.chave(), c.sku())));
+
+        List<Estimativa> estimativas = new ArrayList<>(candidatos.size());
+        candidatos.forEach((produtoId, sku) -> {
+            long unidades = 0;
+            for (Bucket b : validos) {
+                unidades += b.contagens.estimar(produtoId);
+            }
+            estimativas.add(new Estimativa(produtoId, sku, unidades));
+        });
+        estimativas.sort(Comparator.comparingLong(Estimativa::unidades).reversed().thenComparingLong(Estimativa::produtoId));
+        return estimativas.subList(0, Math.min(k, estimativas.size()));
+    }
+
+}
@@ -0,0 +1,73 @@
+package br.com.mini.erp.service.tendencia;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// Space-Saving (Metwally et al.) com capacidade fixa: todo SKU com frequência acima de total/capacidade está entre os
+// monitorados. Ao monitorar um SKU novo com a estrutura cheia, ele herda o contador do menor. Não é thread-safe.
+final class SpaceSaving {
+
+    static final class Contador {
+
+        private long chave;
+        private String sku;
+        private long contagem;
+
+        private Contador(long chave, String sku, long contagem) {
+            this.chave = chave;
+            this.sku = sku;
+            this.contagem = contagem;
+        }
+
+        long chave() {
+            return chave;
+        }
+
+        String sku() {
+            return sku;
+        }
+
+    }
+
+    private final int capacidade;
+    private final Map<Long, Contador> contadores;
+
+    SpaceSaving(int capacidade) {
+        this.capacidade = capacidade;
+        this.contadores = HashMap.newHashMap(capacidade);
+    }
+
+    void registrar(long chave, String sku, long n) {
+        Contador contador = contadores.get(chave);
+        if (contador != null) {
+            contador.contagem += n;
+            return;
+        }
+        if (contadores.size() < capacidade) {
+            contadores.put(chave, new Contador(chave, sku, n));
+            return;
+        }
+        // capacidade pequena (dezenas): varredura linear pelo menor, reaproveitando o contador despejado
+        Contador menor = null;
+        for (Contador c : contadores.values()) {
+            if (menor == null || c.contagem < menor.contagem) {
+                menor = c;
+            }
+        }
+        contadores.remove(menor.chave);
+        menor.chave = chave;
+        menor.sku = sku;
+        menor.contagem += n;
+        contadores.put(chave, menor);
+    }
+
+    Collection<Contador> monitorados() {
+        return contadores.values();
+    }
+
+    void limpar() {
+        contadores.clear();
+    }
+
+}
@@ -0,0 +1,60 @@
+package br.com.mini.erp.service.tendencia;
+
+import br.com.mini.erp.dto.response.TendenciaSkuResponse;
+import br.com.mini.erp.enuns.JanelaTendencia;
+import br.com.mini.erp.service.evento.ItensVendidos;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SKUs mais vendidos (unidades) nas janelas de {@link JanelaTendencia}, calculados em memória a partir das linhas dos
+ * pedidos criados, sem consultar pedido_itens.
+ * <p>
+ * Memória fixa, independente do catálogo: por bucket, um Count-Min de profundidade x largura contadores e um
+ * Space-Saving de capacidade SKUs. As contagens são estimativas (nunca abaixo do real) e locais à instância;
+ * cancelamentos não são descontados e o estado recomeça vazio a cada subida.
+ */
+@Component
+public class TendenciaSkus {
+
+    private final Map<JanelaTendencia, JanelaDeslizante> janelas = new EnumMap<>(JanelaTendencia.class);
+    private final int capacidade;
+
+    public TendenciaSkus(@Value("${mini-erp.tendencia.count-min.profundidade:4}") int profundidade,
+                         @Value("${mini-erp.tendencia.count-min.largura:2048}") int largura,
+                         @Value("${mini-erp.tendencia.capacidade:64}") int capacidade) {
+        this.capacidade = capacidade;
+        for (JanelaTendencia janela : JanelaTendencia.values()) {
+            janelas.put(janela, new JanelaDeslizante(janela.duracao(), janela.buckets(), profundidade, largura, capacidade));
+        }
+    }
+
+    // depois do commit: pedidos revertidos não entram na tendência
+    @TransactionalEventListener
+    public void aoVenderItens(ItensVendidos evento) {
+        long agora = System.currentTimeMillis();
+        for (ItensVendidos.Item item : evento.itens()) {
+            registrar(item.produtoId(), item.sku(), item.quantidade(), agora);
+        }
+    }
+
+    public void registrar(long produtoId, String sku, int quantidade, long instanteMs) {
+        for (JanelaDeslizante janela : janelas.values()) {
+            janela.registrar(produtoId, sku, quantidade, instanteMs);
+        }
+    }
+
+    // k limitado à capacidade do Space-Saving (acima dela o top-K deixa de ser garantido)
+    public List<TendenciaSkuResponse> top(JanelaTendencia janela, int k) {
+        int limite = Math.max(1, Math.min(k, capacidade));
+        return janelas.get(janela).top(limite, System.currentTimeMillis()).stream()
+                .map(e -> new TendenciaSkuResponse(e.produtoId(), e.sku(), e.unidades()))
+                .toList();
+    }
+
+}
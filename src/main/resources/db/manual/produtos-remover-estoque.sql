@@ -0,0 +1,21 @@
+-- Remove a coluna produtos.estoque, substituída por produto_estoque. NÃO roda na subida: o DROP é irreversível.
+-- Rodar à parte, depois que a aplicação já subiu com produto_estoque (migração produto_estoque_copia) e os saldos
+-- foram conferidos, por exemplo:
+--   psql "$DATABASE_URL" -f src/main/resources/db/manual/produtos-remover-estoque.sql
+
+BEGIN;
+
+-- aborta se algum produto ficou sem saldo em produto_estoque
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM migracoes WHERE nome = ''produto_estoque_copia'') THEN
+        RAISE EXCEPTION ''migração produto_estoque_copia ainda não executada: suba a aplicação antes'';
+    END IF;
+    IF EXISTS (SELECT 1 FROM produtos p WHERE NOT EXISTS (SELECT 1 FROM produto_estoque e WHERE e.produto_id = p.id)) THEN
+        RAISE EXCEPTION ''há produtos sem linha em produto_estoque'';
+    END IF;
+END';
+
+ALTER TABLE produtos DROP COLUMN IF EXISTS estoque;
+
+COMMIT;
@@ -0,0 +1,65 @@
+-- Executado a cada subida, depois do ddl-auto (spring.jpa.defer-datasource-initialization).
+-- Todos os comandos devem ser idempotentes.
+
+-- Ids por sequence (pooled-lo): avança as sequences quando a tabela já tem ids gerados por IDENTITY.
+-- O tamanho do bloco é o INCREMENT BY da sequence; para ajustar: ALTER SEQUENCE pedido_itens_seq INCREMENT BY 200;
+SELECT setval('clientes_seq', (SELECT MAX(id) FROM clientes)) WHERE (SELECT MAX(id) FROM clientes) >= (SELECT last_value FROM clientes_seq);
+SELECT setval('produtos_seq', (SELECT MAX(id) FROM produtos)) WHERE (SELECT MAX(id) FROM produtos) >= (SELECT last_value FROM produtos_seq);
+SELECT setval('pedidos_seq', (SELECT MAX(id) FROM pedidos)) WHERE (SELECT MAX(id) FROM pedidos) >= (SELECT last_value FROM pedidos_seq);
+SELECT setval('pedido_itens_seq', (SELECT MAX(id) FROM pedido_itens)) WHERE (SELECT MAX(id) FROM pedido_itens) >= (SELECT last_value FROM pedido_itens_seq);
+
+-- Migrações de dados que rodam uma única vez: a subida só consulta a PK desta tabela para pulá-las.
+-- Para reexecutar uma: DELETE FROM migracoes WHERE nome = '<nome>';
+CREATE TABLE IF NOT EXISTS migracoes (
+    nome         VARCHAR(100) PRIMARY KEY,
+    executada_em TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Read model pedido_resumo: preenche pedidos anteriores à tabela (a aplicação mantém os novos na mesma transação).
+-- Uma vez só: depois disso todo pedido ganha o resumo na transação que o cria, e a anti-join seria uma varredura
+-- completa de pedidos a cada subida. O bloco DO é atômico: o registro em migracoes entra junto com o preenchimento.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM migracoes WHERE nome = ''pedido_resumo_preenchimento'') THEN
+        INSERT INTO pedido_resumo (id, cliente_id, status, subtotal, descontos, total, quantidade_itens, quantidade_unidades, skus, criado_em, pago_em, cancelado_em)
+        SELECT p.id, p.cliente_id, p.status, p.subtotal, p.descontos, p.total,
+               COUNT(i.id), COALESCE(SUM(i.quantidade), 0),
+               COALESCE(STRING_AGG(DISTINCT pr.sku, '','' ORDER BY pr.sku), ''''),
+               p.criado_em, p.pago_em, p.cancelado_em
+        FROM pedidos p
+        LEFT JOIN pedido_itens i ON i.pedido_id = p.id
+        LEFT JOIN produtos pr ON pr.id = i.produto_id
+        WHERE NOT EXISTS (SELECT 1 FROM pedido_resumo r WHERE r.id = p.id)
+        GROUP BY p.id;
+        INSERT INTO migracoes (nome) VALUES (''pedido_resumo_preenchimento'');
+    END IF;
+END';
+
+-- markLateOrders: só os pedidos CRIADO entram no índice, que fica pequeno mesmo com histórico grande
+CREATE INDEX IF NOT EXISTS ix_pedidos_criado_em_criado ON pedidos (criado_em) WHERE status = 'CRIADO';
+
+-- Versão otimista (@Version): linhas anteriores à coluna começam em 0
+UPDATE pedidos SET versao = 0 WHERE versao IS NULL;
+UPDATE produtos SET versao = 0 WHERE versao IS NULL;
+UPDATE clientes SET versao = 0 WHERE versao IS NULL;
+
+-- Histórico do cliente: ix_pedido_resumo_cliente_criado_em_id (cliente_id, criado_em desc, id desc) substitui o índice só de cliente_id
+DROP INDEX IF EXISTS ix_pedido_resumo_cliente_id;
+
+-- Estoque em produto_estoque (fora do cache de segundo nível de produtos): copia, uma vez, o saldo dos produtos
+-- anteriores à tabela e libera o NOT NULL da coluna antiga, que a aplicação não grava mais. A coluna não é removida
+-- aqui: o DROP é irreversível e fica em db/manual/produtos-remover-estoque.sql, rodado à parte depois de conferir
+-- produto_estoque. Corpo entre aspas simples, e não $$, porque o script é dividido nos ';'.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM migracoes WHERE nome = ''produto_estoque_copia'') THEN
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = ''produtos'' AND column_name = ''estoque'') THEN
+            INSERT INTO produto_estoque (produto_id, quantidade)
+            SELECT p.id, p.estoque FROM produtos p
+            WHERE NOT EXISTS (SELECT 1 FROM produto_estoque e WHERE e.produto_id = p.id);
+            ALTER TABLE produtos ALTER COLUMN estoque DROP NOT NULL;
+        END IF;
+        INSERT INTO migracoes (nome) VALUES (''produto_estoque_copia'');
+    END IF;
+END';
@@ -6,6 +6,7 @@ import br.com.mini.erp.dto.response.ClienteResponse;
 import br.com.mini.erp.dto.response.EnderecoResponse;
 import br.com.mini.erp.exception.NotFoundException;
 import br.com.mini.erp.service.ClienteService;
+import br.com.mini.erp.service.paginacao.PaginaVersionada;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,14 +15,17 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.never;
@@ -32,6 +36,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -185,7 +190,7 @@ class ClienteControllerTest {
 
         Page<ClienteResponse> page = new PageImpl<>(List.of(item), PageRequest.of(0, 2), 1);
 
-        when(service.search(eq("jo"), any(Pageable.class))).thenReturn(page);
+        when(service.search(eq("jo"), any(Pageable.class))).thenReturn(new PaginaVersionada<>(page, "9f86d081884c7d65"));
 
         mvc.perform(get("/api/v1/customers")
                         .param("q", "jo")
@@ -202,4 +207,37 @@ class ClienteControllerTest {
         verify(service).search(eq("jo"), any(Pageable.class));
     }
 
+    @Test
+    void getDeveRetornar304SemCarregarClienteQuandoETagConfere() throws Exception {
+
+        when(service.versao(42L)).thenReturn(Optional.of("4"));
+
+        mvc.perform(get("/api/v1/customers/{id}", 42)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"4\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+
+        verify(service, never()).get(anyLong());
+    }
+
+    @Test
+    void searchDeveRetornarETagDaPagina() throws Exception {
+
+        var item = new ClienteResponse(
+                1L, "João", "joao@example.com", "12345678900",
+                new EnderecoResponse("Rua X", "10", null, "Centro", "SP", "SP", "01001-000")
+        );
+        Page<ClienteResponse> page = new PageImpl<>(List.of(item), PageRequest.of(0, 20), 1);
+
+        when(service.search(eq("jo"), any(Pageable.class))).thenReturn(new PaginaVersionada<>(page, "9f86d081884c7d65"));
+
+        mvc.perform(get("/api/v1/customers").param("q", "jo"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"9f86d081884c7d65\""))
+                .andExpect(jsonPath("$.content", hasSize(1)));
+
+        // sem If-None-Match o ETag sai da página carregada: nenhuma consulta extra de versões
+        verify(service, never()).versaoSearch(any(), any(Pageable.class));
+    }
+
 }
@@ -0,0 +1,96 @@
+package br.com.mini.erp.controller;
+
+import br.com.mini.erp.dto.response.PaginaCursorResponse;
+import br.com.mini.erp.dto.response.PedidoItemResponse;
+import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.exception.NotFoundException;
+import br.com.mini.erp.service.PedidoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = ClientePedidoController.class)
+class ClientePedidoControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private PedidoService service;
+
+    @Test
+    void listSemItensDeveOmitirItensDosPedidos() throws Exception {
+
+        var resp = new PedidoResponse(
+                10L, 1L, PedidoStatus.PAGO,
+                new BigDecimal("100.00"), BigDecimal.ZERO, new BigDecimal("100.00"),
+                OffsetDateTime.parse("2025-08-31T12:00:00Z"), OffsetDateTime.parse("2025-08-31T13:00:00Z"), null, null
+        );
+
+        when(service.listByCliente(1L, null, 20, false))
+                .thenReturn(new PaginaCursorResponse<>(List.of(resp), "def", true));
+
+        mvc.perform(get("/api/v1/customers/1/orders"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(1)))
+                .andExpect(jsonPath("$.itens[0].id").value(10))
+                .andExpect(jsonPath("$.itens[0].status").value("PAGO"))
+                .andExpect(jsonPath("$.itens[0].itens").doesNotExist())
+                .andExpect(jsonPath("$.proximoCursor").value("def"))
+                .andExpect(jsonPath("$.temMais").value(true));
+    }
+
+    @Test
+    void listComItensDevePassarCursorETamanho() throws Exception {
+
+        var item = new PedidoItemResponse(
+                5L, "SKU-005", "Caneca",
+                1, new BigDecimal("30.00"), BigDecimal.ZERO, new BigDecimal("30.00")
+        );
+        var resp = new PedidoResponse(
+                9L, 1L, PedidoStatus.CRIADO,
+                new BigDecimal("30.00"), BigDecimal.ZERO, new BigDecimal("30.00"),
+                OffsetDateTime.parse("2025-08-30T12:00:00Z"), null, null, List.of(item)
+        );
+
+        when(service.listByCliente(1L, "abc", 50, true))
+                .thenReturn(new PaginaCursorResponse<>(List.of(resp), null, false));
+
+        mvc.perform(get("/api/v1/customers/1/orders")
+                        .param("cursor", "abc")
+                        .param("size", "50")
+                        .param("itens", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens[0].itens", hasSize(1)))
+                .andExpect(jsonPath("$.itens[0].itens[0].sku").value("SKU-005"))
+                .andExpect(jsonPath("$.temMais").value(false));
+    }
+
+    @Test
+    void listDeClienteInexistenteDeveRetornar404() throws Exception {
+
+        when(service.listByCliente(eq(99L), isNull(), anyInt(), anyBoolean()))
+                .thenThrow(new NotFoundException("Cliente não encontrado"));
+
+        mvc.perform(get("/api/v1/customers/99/orders"))
+                .andExpect(status().isNotFound());
+    }
+
+}
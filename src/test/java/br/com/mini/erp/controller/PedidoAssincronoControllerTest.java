@@ -0,0 +1,81 @@
+package br.com.mini.erp.controller;
+
+import br.com.mini.erp.dto.request.PedidoItemRequest;
+import br.com.mini.erp.dto.request.PedidoRequest;
+import br.com.mini.erp.dto.response.PedidoAssincronoResponse;
+import br.com.mini.erp.enuns.PedidoAssincronoStatus;
+import br.com.mini.erp.exception.NotFoundException;
+import br.com.mini.erp.exception.SobrecargaException;
+import br.com.mini.erp.service.PedidoAssincronoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = PedidoAssincronoController.class)
+class PedidoAssincronoControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private PedidoAssincronoService service;
+
+    @Test
+    void aceitarDeveRetornar202ComLocation() throws Exception {
+
+        var req = new PedidoRequest(1L, List.of(new PedidoItemRequest(10L, 2, null)));
+        var resp = new PedidoAssincronoResponse("sol-1", PedidoAssincronoStatus.PENDENTE,
+                OffsetDateTime.parse("2025-08-31T12:30:00Z"), null, null, null, null);
+
+        when(service.aceitar(any(PedidoRequest.class))).thenReturn(resp);
+
+        mvc.perform(post("/api/v1/orders/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/v1/orders/async/sol-1"))
+                .andExpect(jsonPath("$.id").value("sol-1"))
+                .andExpect(jsonPath("$.status").value("PENDENTE"));
+    }
+
+    @Test
+    void aceitarComFilaCheiaDeveRetornar503ComRetryAfter() throws Exception {
+
+        var req = new PedidoRequest(1L, List.of(new PedidoItemRequest(10L, 2, null)));
+
+        when(service.aceitar(any(PedidoRequest.class))).thenThrow(new SobrecargaException("Fila de pedidos assíncronos cheia, tente novamente", 1));
+
+        mvc.perform(post("/api/v1/orders/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void getDeveRetornar404QuandoNaoEncontrada() throws Exception {
+
+        when(service.get("x")).thenThrow(new NotFoundException("Solicitação não encontrada"));
+
+        mvc.perform(get("/api/v1/orders/async/{id}", "x"))
+                .andExpect(status().isNotFound());
+    }
+
+}
@@ -1,19 +1,30 @@
 package br.com.mini.erp.controller;
 
 import br.com.mini.erp.dto.request.PedidoItemRequest;
+import br.com.mini.erp.dto.request.PedidoLoteRequest;
 import br.com.mini.erp.dto.request.PedidoRequest;
+import br.com.mini.erp.dto.response.PaginaCursorResponse;
 import br.com.mini.erp.dto.response.PedidoItemResponse;
+import br.com.mini.erp.dto.response.PedidoLoteItemResponse;
+import br.com.mini.erp.dto.response.PedidoLoteResponse;
 import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.dto.response.PedidoResumoResponse;
+import br.com.mini.erp.dto.response.PedidoTransicaoLoteItemResponse;
+import br.com.mini.erp.dto.response.PedidoTransicaoLoteResponse;
 import br.com.mini.erp.enuns.PedidoStatus;
 import br.com.mini.erp.exception.NotFoundException;
 import br.com.mini.erp.service.PedidoService;
+import br.com.mini.erp.service.idempotencia.IdempotenciaExecutor;
+import br.com.mini.erp.service.paginacao.PaginaVersionada;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -21,15 +32,21 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -43,6 +60,8 @@ class PedidoControllerTest {
 
     @MockitoBean
     private PedidoService service;
+    @MockitoBean
+    private IdempotenciaExecutor idempotencia;
 
     @Test
     void createDeveRetornar200ComPedidoCriado() throws Exception {
@@ -94,6 +113,45 @@ class PedidoControllerTest {
         verify(service, never()).create(any());
     }
 
+    @Test
+    void createBatchDeveRetornar200ComResultadoPorPedido() throws Exception {
+
+        var req = new PedidoLoteRequest(List.of(
+                new PedidoRequest(1L, List.of(new PedidoItemRequest(10L, 2, null))),
+                new PedidoRequest(1L, List.of(new PedidoItemRequest(999L, 1, null)))
+        ));
+
+        var resp = new PedidoLoteResponse(2, 1, 1, 12L, 166.6, List.of(
+                new PedidoLoteItemResponse(0, 1001L, PedidoStatus.CRIADO, new BigDecimal("119.80"), null),
+                new PedidoLoteItemResponse(1, null, null, null, "Produto 999 não encontrado")
+        ));
+
+        when(service.createBatch(any())).thenReturn(resp);
+
+        mvc.perform(post("/api/v1/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.criados").value(1))
+                .andExpect(jsonPath("$.rejeitados").value(1))
+                .andExpect(jsonPath("$.resultados", hasSize(2)))
+                .andExpect(jsonPath("$.resultados[0].pedidoId").value(1001))
+                .andExpect(jsonPath("$.resultados[1].erro").value("Produto 999 não encontrado"));
+
+        verify(service).createBatch(any());
+    }
+
+    @Test
+    void createBatchDeveRetornar400QuandoLoteVazio() throws Exception {
+
+        mvc.perform(post("/api/v1/orders/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"pedidos\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).createBatch(any());
+    }
+
     @Test
     void getDeveRetornar200ComPedido() throws Exception {
 
@@ -129,17 +187,17 @@ class PedidoControllerTest {
     void listDeveRetornarPaginaFiltradaPorStatus() throws Exception {
 
         var pageResp = new PageImpl<>(
-                List.of(new PedidoResponse(
+                List.of(new PedidoResumoResponse(
                         1L, 1L, PedidoStatus.CRIADO,
                         new BigDecimal("100.00"), BigDecimal.ZERO, new BigDecimal("100.00"),
-                        OffsetDateTime.parse("2025-08-31T12:00:00Z"), null, null,
-                        List.of()
+                        2, 3, List.of("SKU-001", "SKU-002"),
+                        OffsetDateTime.parse("2025-08-31T12:00:00Z"), null, null
                 )),
                 PageRequest.of(0, 2),
                 1
         );
 
-        when(service.list(eq(PedidoStatus.CRIADO), any(Pageable.class))).thenReturn(pageResp);
+        when(service.list(eq(PedidoStatus.CRIADO), any(Pageable.class))).thenReturn(new PaginaVersionada<>(pageResp, "9f86d081884c7d65"));
 
         mvc.perform(get("/api/v1/orders")
                         .param("status", "CRIADO")
@@ -148,6 +206,8 @@ class PedidoControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content", hasSize(1)))
                 .andExpect(jsonPath("$.content[0].status").value("CRIADO"))
+                .andExpect(jsonPath("$.content[0].quantidadeItens").value(2))
+                .andExpect(jsonPath("$.content[0].skus", hasSize(2)))
                 .andExpect(jsonPath("$.size").value(2))
                 .andExpect(jsonPath("$.number").value(0))
                 .andExpect(jsonPath("$.totalElements").value(1));
@@ -200,4 +260,143 @@ class PedidoControllerTest {
 
     }
 
+    @Test
+    void payBatchDeveRetornar200ComResultadoPorId() throws Exception {
+
+        var resp = new PedidoTransicaoLoteResponse(2, 1, 1, 15L, List.of(
+                new PedidoTransicaoLoteItemResponse(1001L, PedidoStatus.PAGO, null),
+                new PedidoTransicaoLoteItemResponse(1002L, PedidoStatus.CANCELADO, "Pedido cancelado")));
+
+        when(service.payBatch(List.of(1001L, 1002L))).thenReturn(resp);
+
+        mvc.perform(post("/api/v1/orders/batch/pay")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1001,1002]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.concluidos").value(1))
+                .andExpect(jsonPath("$.resultados", hasSize(2)))
+                .andExpect(jsonPath("$.resultados[0].status").value("PAGO"))
+                .andExpect(jsonPath("$.resultados[1].erro").value("Pedido cancelado"));
+
+        verify(service).payBatch(List.of(1001L, 1002L));
+    }
+
+    @Test
+    void cancelBatchDeveRetornar400QuandoLoteVazio() throws Exception {
+
+        mvc.perform(post("/api/v1/orders/batch/cancel")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[]}"))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).cancelBatch(any());
+    }
+
+    @Test
+    void listCursorDeveRetornarPaginaComProximoCursor() throws Exception {
+
+        var resp = new PedidoResponse(
+                10L, 1L, PedidoStatus.CRIADO,
+                new BigDecimal("100.00"), BigDecimal.ZERO, new BigDecimal("100.00"),
+                OffsetDateTime.parse("2025-08-31T12:00:00Z"), null, null, List.of()
+        );
+
+        when(service.listCursor(PedidoStatus.CRIADO, "abc", 50))
+                .thenReturn(new PaginaCursorResponse<>(List.of(resp), "def", true));
+
+        mvc.perform(get("/api/v1/orders/cursor")
+                        .param("status", "CRIADO")
+                        .param("cursor", "abc")
+                        .param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens", hasSize(1)))
+                .andExpect(jsonPath("$.proximoCursor").value("def"))
+                .andExpect(jsonPath("$.temMais").value(true));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void payComIdempotencyKeyDeveDelegarAoExecutor() throws Exception {
+
+        var resp = new PedidoResponse(
+                10L, 1L, PedidoStatus.PAGO,
+                new BigDecimal("100.00"), BigDecimal.ZERO, new BigDecimal("100.00"),
+                OffsetDateTime.parse("2025-08-31T12:00:00Z"),
+                OffsetDateTime.parse("2025-09-01T10:00:00Z"),
+                null,
+                List.of()
+        );
+
+        when(service.pay(10L)).thenReturn(resp);
+        when(idempotencia.executar(eq("chave-1"), eq("pay:10"), isNull(), any()))
+                .thenAnswer(inv -> ((Supplier<PedidoResponse>) inv.getArgument(3)).get());
+
+        mvc.perform(post("/api/v1/orders/{id}/pay", 10)
+                        .header("Idempotency-Key", "chave-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("PAGO"));
+
+        verify(idempotencia).executar(eq("chave-1"), eq("pay:10"), isNull(), any());
+        verify(service).pay(10L);
+    }
+
+    @Test
+    void getDeveRetornar304SemCarregarPedidoQuandoETagConfere() throws Exception {
+
+        when(service.versao(7L)).thenReturn(Optional.of("12"));
+
+        mvc.perform(get("/api/v1/orders/{id}", 7)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"12\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(service, never()).get(anyLong());
+    }
+
+    @Test
+    void getSemVersaoDeveResponderSemETag() throws Exception {
+
+        var resp = new PedidoResponse(
+                8L, 1L, PedidoStatus.PAGO,
+                new BigDecimal("10.00"), BigDecimal.ZERO, new BigDecimal("10.00"),
+                OffsetDateTime.parse("2024-01-10T12:30:00Z"), OffsetDateTime.parse("2024-01-10T13:00:00Z"), null,
+                List.of()
+        );
+
+        when(service.versao(8L)).thenReturn(Optional.empty());
+        when(service.get(8L)).thenReturn(resp);
+
+        mvc.perform(get("/api/v1/orders/{id}", 8)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"12\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.status").value("PAGO"));
+    }
+
+    @Test
+    void listDeveRetornar304SemListarQuandoETagDaPaginaConfere() throws Exception {
+
+        when(service.versaoLista(eq(PedidoStatus.CRIADO), any(Pageable.class))).thenReturn("9f86d081884c7d65");
+
+        mvc.perform(get("/api/v1/orders")
+                        .param("status", "CRIADO")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"9f86d081884c7d65\""))
+                .andExpect(status().isNotModified());
+
+        verify(service, never()).list(any(), any(Pageable.class));
+    }
+
+    @Test
+    void listComETagDesatualizadoDeveResponderComETagDaPaginaCarregada() throws Exception {
+
+        Page<PedidoResumoResponse> pagina = new PageImpl<>(List.of(), PageRequest.of(0, 20), 0);
+        when(service.versaoLista(isNull(), any(Pageable.class))).thenReturn("9f86d081884c7d65");
+        when(service.list(isNull(), any(Pageable.class))).thenReturn(new PaginaVersionada<>(pagina, "9f86d081884c7d65"));
+
+        mvc.perform(get("/api/v1/orders")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"antigo\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"9f86d081884c7d65\""));
+    }
+
 }
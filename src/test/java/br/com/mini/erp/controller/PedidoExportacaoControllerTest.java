@@ -0,0 +1,89 @@
+package br.com.mini.erp.controller;
+
+import br.com.mini.erp.enuns.FormatoExportacao;
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.service.PedidoExportacaoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = PedidoExportacaoController.class)
+class PedidoExportacaoControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private PedidoExportacaoService service;
+
+    @Test
+    void exportarDeveEscreverCsvEmStreaming() throws Exception {
+
+        OffsetDateTime de = OffsetDateTime.parse("2025-09-01T00:00:00Z");
+        OffsetDateTime ate = OffsetDateTime.parse("2025-10-01T00:00:00Z");
+        when(service.exportar(eq(FormatoExportacao.CSV), eq(PedidoStatus.PAGO), eq(de), eq(ate), any())).thenAnswer(inv -> {
+            OutputStream out = inv.getArgument(4);
+            out.write("pedido_id\n1001\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mvc.perform(get("/api/v1/orders/export")
+                        .param("status", "PAGO")
+                        .param("de", "2025-09-01T00:00:00Z")
+                        .param("ate", "2025-10-01T00:00:00Z"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"pedidos.csv\""))
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("pedido_id\n1001\n"));
+    }
+
+    @Test
+    void exportarDeveAceitarNdjsonSemFiltros() throws Exception {
+
+        MvcResult result = mvc.perform(get("/api/v1/orders/export").param("formato", "NDJSON"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"));
+
+        verify(service).exportar(eq(FormatoExportacao.NDJSON), isNull(), isNull(), isNull(), any());
+    }
+
+    @Test
+    void exportarDeveRetornar422QuandoIntervaloInvalido() throws Exception {
+
+        mvc.perform(get("/api/v1/orders/export")
+                        .param("de", "2025-10-01T00:00:00Z")
+                        .param("ate", "2025-09-01T00:00:00Z"))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(service, never()).exportar(any(), any(), any(), any(), any());
+    }
+
+}
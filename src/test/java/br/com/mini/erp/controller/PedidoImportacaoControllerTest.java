@@ -0,0 +1,95 @@
+package br.com.mini.erp.controller;
+
+import br.com.mini.erp.dto.response.PedidoImportacaoResponse;
+import br.com.mini.erp.enuns.ImportacaoStatus;
+import br.com.mini.erp.exception.NotFoundException;
+import br.com.mini.erp.service.PedidoImportacaoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = PedidoImportacaoController.class)
+class PedidoImportacaoControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private PedidoImportacaoService service;
+
+    @Test
+    void importarDeveRetornar200ComResumo() throws Exception {
+
+        var resp = new PedidoImportacaoResponse("imp-1", ImportacaoStatus.CONCLUIDA, 2L, 2L, 0L, 15L, 133.3, List.of());
+
+        when(service.importar(eq("imp-1"), any())).thenReturn(resp);
+
+        mvc.perform(post("/api/v1/orders/import")
+                        .param("id", "imp-1")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("""
+                                {"clienteId":1,"itens":[{"produtoId":10,"quantidade":2}]}
+                                {"clienteId":1,"itens":[{"produtoId":11,"quantidade":1}]}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("imp-1"))
+                .andExpect(jsonPath("$.status").value("CONCLUIDA"))
+                .andExpect(jsonPath("$.criados").value(2));
+
+        verify(service).importar(eq("imp-1"), any());
+    }
+
+    @Test
+    void importarArquivoDeveLerAParteArquivo() throws Exception {
+
+        var resp = new PedidoImportacaoResponse("imp-2", ImportacaoStatus.CONCLUIDA, 1L, 1L, 0L, 5L, 200.0, List.of());
+        var arquivo = new MockMultipartFile("arquivo", "pedidos.ndjson", MediaType.APPLICATION_NDJSON_VALUE,
+                "{\"clienteId\":1,\"itens\":[{\"produtoId\":10,\"quantidade\":2}]}\n".getBytes());
+
+        when(service.importar(eq("imp-2"), any())).thenReturn(resp);
+
+        mvc.perform(multipart("/api/v1/orders/import").file(arquivo).param("id", "imp-2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("imp-2"))
+                .andExpect(jsonPath("$.criados").value(1));
+    }
+
+    @Test
+    void getDeveRetornar200ComProgresso() throws Exception {
+
+        var resp = new PedidoImportacaoResponse("imp-1", ImportacaoStatus.EM_ANDAMENTO, 5000L, 4990L, 10L, 4000L, 1250.0, List.of());
+
+        when(service.get("imp-1")).thenReturn(resp);
+
+        mvc.perform(get("/api/v1/orders/import/{id}", "imp-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("EM_ANDAMENTO"))
+                .andExpect(jsonPath("$.lidos").value(5000));
+    }
+
+    @Test
+    void getDeveRetornar404QuandoNaoExiste() throws Exception {
+
+        when(service.get("x")).thenThrow(new NotFoundException("Importação não encontrada"));
+
+        mvc.perform(get("/api/v1/orders/import/{id}", "x"))
+                .andExpect(status().isNotFound());
+    }
+
+}
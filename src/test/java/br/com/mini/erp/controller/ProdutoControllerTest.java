@@ -4,6 +4,7 @@ import br.com.mini.erp.dto.request.ProdutoRequest;
 import br.com.mini.erp.dto.response.ProdutoResponse;
 import br.com.mini.erp.exception.NotFoundException;
 import br.com.mini.erp.service.ProdutoService;
+import br.com.mini.erp.service.paginacao.PaginaVersionada;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,15 +13,18 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
@@ -32,6 +36,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -51,12 +56,12 @@ class ProdutoControllerTest {
 
         var req = new ProdutoRequest(
                 "SKU-001", "Camiseta Azul",
-                new BigDecimal("59.90"), 50, 10, true
+                new BigDecimal("59.90"), 50, 10, true, false
         );
 
         var resp = new ProdutoResponse(
                 1L, "SKU-001", "Camiseta Azul",
-                new BigDecimal("59.90"), 50, 10, true
+                new BigDecimal("59.90"), 50, 10, true, false
         );
 
         when(service.create(any(ProdutoRequest.class))).thenReturn(resp);
@@ -92,12 +97,12 @@ class ProdutoControllerTest {
 
         var req = new ProdutoRequest(
                 "SKU-001", "Camiseta Premium",
-                new BigDecimal("79.90"), 40, 5, true
+                new BigDecimal("79.90"), 40, 5, true, false
         );
 
         var resp = new ProdutoResponse(
                 1L, "SKU-001", "Camiseta Premium",
-                new BigDecimal("79.90"), 40, 5, true
+                new BigDecimal("79.90"), 40, 5, true, false
         );
 
         when(service.update(eq(1L), any(ProdutoRequest.class))).thenReturn(resp);
@@ -118,7 +123,7 @@ class ProdutoControllerTest {
 
         var req = new ProdutoRequest(
                 "SKU-XYZ", "Qualquer",
-                new BigDecimal("10.00"), 1, 0, true
+                new BigDecimal("10.00"), 1, 0, true, false
         );
 
         when(service.update(eq(99L), any(ProdutoRequest.class)))
@@ -137,7 +142,7 @@ class ProdutoControllerTest {
 
         var resp = new ProdutoResponse(
                 7L, "SKU-007", "Produto 7",
-                new BigDecimal("10.00"), 5, 0, true
+                new BigDecimal("10.00"), 5, 0, true, false
         );
 
         when(service.get(7L)).thenReturn(resp);
@@ -188,14 +193,14 @@ class ProdutoControllerTest {
 
         var item = new ProdutoResponse(
                 1L, "SKU-001", "Camiseta",
-                new BigDecimal("59.90"), 50, 10, true
+                new BigDecimal("59.90"), 50, 10, true, false
         );
 
         Page<ProdutoResponse> page = new PageImpl<>(
                 List.of(item), PageRequest.of(0, 2), 1
         );
 
-        when(service.list(isNull(), any(Pageable.class))).thenReturn(page);
+        when(service.list(isNull(), any(Pageable.class))).thenReturn(new PaginaVersionada<>(page, "9f86d081884c7d65"));
 
         mvc.perform(get("/api/v1/products")
                         .param("page", "0")
@@ -215,14 +220,14 @@ class ProdutoControllerTest {
 
         var ativo = new ProdutoResponse(
                 2L, "SKU-002", "Ativo",
-                new BigDecimal("10.00"), 1, 0, true
+                new BigDecimal("10.00"), 1, 0, true, false
         );
 
         Page<ProdutoResponse> page = new PageImpl<>(
                 List.of(ativo), PageRequest.of(0, 10), 1
         );
 
-        when(service.list(eq(true), any(Pageable.class))).thenReturn(page);
+        when(service.list(eq(true), any(Pageable.class))).thenReturn(new PaginaVersionada<>(page, "9f86d081884c7d65"));
 
         mvc.perform(get("/api/v1/products")
                         .param("ativo", "true")
@@ -236,4 +241,49 @@ class ProdutoControllerTest {
         verify(service).list(eq(true), any(Pageable.class));
     }
 
+    @Test
+    void getDeveRetornarETagDaVersao() throws Exception {
+
+        var resp = new ProdutoResponse(
+                7L, "SKU-007", "Produto 7",
+                new BigDecimal("10.00"), 5, 0, true, false
+        );
+
+        when(service.versao(7L)).thenReturn(Optional.of("3.5"));
+        when(service.get(7L)).thenReturn(resp);
+
+        mvc.perform(get("/api/v1/products/{id}", 7)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2.5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3.5\""))
+                .andExpect(jsonPath("$.id").value(7));
+
+        verify(service).get(7L);
+    }
+
+    @Test
+    void getDeveRetornar304SemCarregarProdutoQuandoETagConfere() throws Exception {
+
+        when(service.versao(7L)).thenReturn(Optional.of("3.5"));
+
+        mvc.perform(get("/api/v1/products/{id}", 7)
+                        .header(HttpHeaders.IF_NONE_MATCH, "W/\"3.5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3.5\""));
+
+        verify(service, never()).get(anyLong());
+    }
+
+    @Test
+    void listDeveRetornar304SemListarQuandoETagDaPaginaConfere() throws Exception {
+
+        when(service.versaoLista(isNull(), any(Pageable.class))).thenReturn("9f86d081884c7d65");
+
+        mvc.perform(get("/api/v1/products")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"outro\", \"9f86d081884c7d65\""))
+                .andExpect(status().isNotModified());
+
+        verify(service, never()).list(any(), any(Pageable.class));
+    }
+
 }
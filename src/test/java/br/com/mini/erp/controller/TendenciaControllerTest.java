@@ -0,0 +1,51 @@
+package br.com.mini.erp.controller;
+
+import br.com.mini.erp.dto.response.TendenciaSkuResponse;
+import br.com.mini.erp.enuns.JanelaTendencia;
+import br.com.mini.erp.service.tendencia.TendenciaSkus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = TendenciaController.class)
+class TendenciaControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private TendenciaSkus tendencia;
+
+    @Test
+    void topDeveUsarJanelaEk() throws Exception {
+
+        when(tendencia.top(JanelaTendencia.CINCO_MINUTOS, 2)).thenReturn(List.of(
+                new TendenciaSkuResponse(10L, "SKU-001", 42L),
+                new TendenciaSkuResponse(11L, "SKU-002", 17L)));
+
+        mvc.perform(get("/api/v1/sales/trending").param("janela", "CINCO_MINUTOS").param("k", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sku").value("SKU-001"))
+                .andExpect(jsonPath("$[1].unidades").value(17));
+    }
+
+    @Test
+    void topSemParametrosUsaUmaHoraETop10() throws Exception {
+
+        when(tendencia.top(JanelaTendencia.UMA_HORA, 10)).thenReturn(List.of());
+
+        mvc.perform(get("/api/v1/sales/trending"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+}
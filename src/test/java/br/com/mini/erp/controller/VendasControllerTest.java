@@ -0,0 +1,88 @@
+package br.com.mini.erp.controller;
+
+import br.com.mini.erp.dto.response.VendaDiariaResponse;
+import br.com.mini.erp.dto.response.VendaSkuResponse;
+import br.com.mini.erp.dto.response.VendasReconstrucaoResponse;
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.exception.BusinessException;
+import br.com.mini.erp.service.VendasService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = VendasController.class)
+class VendasControllerTest {
+
+    private static final LocalDate DIA = LocalDate.parse("2025-09-01");
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoBean
+    private VendasService service;
+
+    @Test
+    void porDiaDeveRetornarRollup() throws Exception {
+
+        when(service.porDia(DIA, DIA.plusDays(29), PedidoStatus.PAGO)).thenReturn(List.of(
+                new VendaDiariaResponse(DIA, PedidoStatus.PAGO, new BigDecimal("1520.50"), 41L, 9L)));
+
+        mvc.perform(get("/api/v1/sales/daily")
+                        .param("de", "2025-09-01")
+                        .param("ate", "2025-09-30")
+                        .param("status", "PAGO"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].dia").value("2025-09-01"))
+                .andExpect(jsonPath("$[0].receita").value(1520.50))
+                .andExpect(jsonPath("$[0].pedidos").value(9));
+    }
+
+    @Test
+    void porSkuDeveFiltrarPorProduto() throws Exception {
+
+        when(service.porSku(isNull(), isNull(), eq(10L), isNull())).thenReturn(List.of(
+                new VendaSkuResponse(DIA, 10L, "SKU-001", PedidoStatus.CRIADO, new BigDecimal("119.80"), 2L, 1L)));
+
+        mvc.perform(get("/api/v1/sales/skus").param("produtoId", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sku").value("SKU-001"))
+                .andExpect(jsonPath("$[0].unidades").value(2));
+    }
+
+    @Test
+    void porDiaComIntervaloInvalidoDeveRetornar422() throws Exception {
+
+        when(service.porDia(DIA, DIA.minusDays(1), null)).thenThrow(new BusinessException("Intervalo inválido"));
+
+        mvc.perform(get("/api/v1/sales/daily")
+                        .param("de", "2025-09-01")
+                        .param("ate", "2025-08-31"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void reconstruirDeveRetornarResumo() throws Exception {
+
+        when(service.reconstruir()).thenReturn(new VendasReconstrucaoResponse(5, 2, 6, 12));
+
+        mvc.perform(post("/api/v1/sales/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pedidos").value(5))
+                .andExpect(jsonPath("$.linhasSku").value(6));
+    }
+
+}
@@ -0,0 +1,96 @@
+package br.com.mini.erp.service.admissao;
+
+import br.com.mini.erp.enuns.PrioridadeAdmissao;
+import br.com.mini.erp.exception.SobrecargaException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissaoAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Servico alvo = new Servico();
+    private Servico servico;
+
+    @LimiteConcorrencia
+    public static class Servico {
+
+        final CountDownLatch entrou = new CountDownLatch(1);
+        final CountDownLatch liberar = new CountDownLatch(1);
+
+        @LimiteConcorrencia(PrioridadeAdmissao.ESCRITA)
+        public String escrever() throws InterruptedException {
+            entrou.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return "escrito";
+        }
+
+        public String ler() {
+            return "lido";
+        }
+
+        @LimiteConcorrencia(value = PrioridadeAdmissao.ESCRITA, grupo = "importacao", limiteFixo = 1)
+        public String importar() {
+            return "importado";
+        }
+
+    }
+
+    @BeforeEach
+    void setup() {
+        AdmissaoAspect aspect = new AdmissaoAspect(meterRegistry);
+        // limite 2: escritas usam metade (1 vaga), leituras o limite todo
+        ReflectionTestUtils.setField(aspect, "limiteInicial", 2);
+        ReflectionTestUtils.setField(aspect, "limiteMinimo", 1);
+        ReflectionTestUtils.setField(aspect, "fracaoEscrita", 0.5);
+
+        AspectJProxyFactory fabrica = new AspectJProxyFactory(alvo);
+        fabrica.setProxyTargetClass(true);
+        fabrica.addAspect(aspect);
+        servico = fabrica.getProxy();
+    }
+
+    @Test
+    void deveRecusarEscritaAcimaDoLimiteComRetryAfterEAindaAtenderLeitura() throws Exception {
+
+        CompletableFuture<String> primeira = CompletableFuture.supplyAsync(() -> {
+            try {
+                return servico.escrever();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(alvo.entrou.await(5, TimeUnit.SECONDS));
+
+        SobrecargaException ex = assertThrows(SobrecargaException.class, servico::escrever);
+        assertEquals(1, ex.getRetryAfterSegundos());
+        assertEquals("lido", servico.ler());
+        assertEquals(1, meterRegistry.get("admissao.em_voo").tag("grupo", "banco").gauge().value());
+
+        alvo.liberar.countDown();
+        assertEquals("escrito", primeira.get(5, TimeUnit.SECONDS));
+        assertEquals(0, meterRegistry.get("admissao.em_voo").tag("grupo", "banco").gauge().value());
+        assertEquals(1, meterRegistry.get("admissao.rejeicoes").tag("prioridade", "ESCRITA").counter().count());
+        assertTrue(meterRegistry.get("admissao.limite").tag("grupo", "banco").gauge().value() >= 2);
+    }
+
+    @Test
+    void limiteFixoDeveFicarEmGrupoProprioSemPassarPeloBanco() {
+
+        assertEquals("importado", servico.importar());
+
+        assertEquals(1, meterRegistry.get("admissao.limite").tag("grupo", "importacao").gauge().value());
+        assertTrue(meterRegistry.find("admissao.limite").tag("grupo", "banco").gauges().isEmpty());
+    }
+
+}
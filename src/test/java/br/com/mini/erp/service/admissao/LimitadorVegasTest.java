@@ -0,0 +1,111 @@
+package br.com.mini.erp.service.admissao;
+
+import br.com.mini.erp.enuns.PrioridadeAdmissao;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LimitadorVegasTest {
+
+    private static final long UM_MS = 1_000_000;
+
+    @Test
+    void escritaDeveSerRecusadaAntesDaLeitura() {
+
+        LimitadorVegas limitador = new LimitadorVegas(10, 2, 100, 0.8, 1000);
+
+        for (int i = 1; i <= 8; i++) {
+            assertEquals(i, limitador.adquirir(PrioridadeAdmissao.ESCRITA));
+        }
+        // escritas ocupam no máximo 80% do limite; as 2 vagas restantes são das leituras
+        assertEquals(-1, limitador.adquirir(PrioridadeAdmissao.ESCRITA));
+        assertEquals(9, limitador.adquirir(PrioridadeAdmissao.LEITURA));
+        assertEquals(10, limitador.adquirir(PrioridadeAdmissao.LEITURA));
+        assertEquals(-1, limitador.adquirir(PrioridadeAdmissao.LEITURA));
+
+        limitador.liberar("ler", UM_MS, 10, false);
+        assertEquals(9, limitador.emVoo());
+        assertEquals(10, limitador.adquirir(PrioridadeAdmissao.LEITURA));
+    }
+
+    @Test
+    void limiteDeveSubirEnquantoALatenciaNaoCresceEOLimiteEstaEmUso() {
+
+        LimitadorVegas limitador = new LimitadorVegas(10, 2, 100, 0.8, 1000);
+
+        for (int i = 0; i < 20; i++) {
+            limitador.ajustar("ler", UM_MS, 100, false);
+        }
+
+        assertEquals(30, limitador.limite());
+    }
+
+    @Test
+    void limiteNaoDeveSubirComFolga() {
+
+        LimitadorVegas limitador = new LimitadorVegas(10, 2, 100, 0.8, 1000);
+
+        for (int i = 0; i < 20; i++) {
+            limitador.ajustar("ler", UM_MS, 1, false);
+        }
+
+        assertEquals(10, limitador.limite());
+    }
+
+    @Test
+    void limiteDeveCairAteAFilaEstimadaFicarEntreAlfaEBeta() {
+
+        LimitadorVegas limitador = new LimitadorVegas(10, 2, 100, 0.8, 1000);
+        limitador.ajustar("ler", UM_MS, 10, false);
+
+        // latência 10x a mínima: fila estimada = limite x 0,9; desce enquanto passar de 6
+        for (int i = 0; i < 10; i++) {
+            limitador.ajustar("ler", 10 * UM_MS, 10, false);
+        }
+
+        assertEquals(6, limitador.limite());
+    }
+
+    @Test
+    void operacaoLentaNaoDeveContarComoFilaDaRapida() {
+
+        LimitadorVegas limitador = new LimitadorVegas(10, 2, 100, 0.8, 1000);
+
+        // relatório de 50 ms intercalado com leituras de 1 ms: cada um comparado com a própria latência mínima
+        for (int i = 0; i < 10; i++) {
+            limitador.ajustar("ler", UM_MS, 100, false);
+            limitador.ajustar("relatorio", 50 * UM_MS, 100, false);
+        }
+
+        assertEquals(30, limitador.limite());
+    }
+
+    @Test
+    void limiteFixoNaoDeveMudarComALatencia() {
+
+        LimitadorVegas limitador = LimitadorVegas.fixo(2);
+        limitador.ajustar("importar", UM_MS, 2, false);
+        limitador.ajustar("importar", 600_000 * UM_MS, 2, false);
+        limitador.ajustar("importar", UM_MS, 2, true);
+
+        assertEquals(2, limitador.limite());
+        assertEquals(1, limitador.adquirir(PrioridadeAdmissao.ESCRITA));
+        assertEquals(2, limitador.adquirir(PrioridadeAdmissao.ESCRITA));
+        assertEquals(-1, limitador.adquirir(PrioridadeAdmissao.ESCRITA));
+    }
+
+    @Test
+    void sobrecargaDoBancoDeveCortarOLimiteRespeitandoOMinimo() {
+
+        LimitadorVegas limitador = new LimitadorVegas(20, 4, 100, 0.8, 1000);
+
+        limitador.ajustar("ler", UM_MS, 20, true);
+        assertEquals(18, limitador.limite());
+
+        for (int i = 0; i < 50; i++) {
+            limitador.ajustar("ler", UM_MS, 20, true);
+        }
+        assertEquals(4, limitador.limite());
+    }
+
+}
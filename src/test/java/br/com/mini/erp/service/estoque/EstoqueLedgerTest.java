@@ -0,0 +1,188 @@
+package br.com.mini.erp.service.estoque;
+
+import br.com.mini.erp.repository.ProdutoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EstoqueLedgerTest {
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+    @Mock
+    private EstoqueLedgerPersistencia persistencia;
+
+    @TempDir
+    Path dir;
+
+    private Path arquivo;
+    private EstoqueLedger ledger;
+
+    @BeforeEach
+    void setup() {
+        arquivo = dir.resolve("estoque.journal");
+        ledger = new EstoqueLedger(produtoRepository, new EstoqueLedgerJournal(arquivo.toString(), false), persistencia, true, 8);
+    }
+
+    @AfterEach
+    void limparTransacao() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reservarDeveRejeitarQuandoSaldoInsuficiente() {
+        when(persistencia.ultimaSequencia()).thenReturn(0L);
+        when(produtoRepository.findEstoqueById(10L)).thenReturn(Optional.of(5));
+        ledger.iniciar();
+
+        assertTrue(ledger.reservar(10L, 3));
+        assertFalse(ledger.reservar(10L, 3));
+        assertTrue(ledger.gerencia(10L));
+    }
+
+    @Test
+    void descarregarDeveAplicarDeltaLiquidoETruncarJournal() throws IOException {
+        when(persistencia.ultimaSequencia()).thenReturn(0L);
+        when(produtoRepository.findEstoqueById(10L)).thenReturn(Optional.of(5));
+        ledger.iniciar();
+
+        ledger.reservar(10L, 3);
+        ledger.devolver(10L, 1);
+
+        assertEquals(1, ledger.descarregar());
+        verify(persistencia).aplicar(Map.of(10L, -2), 2L);
+        assertEquals(List.of(dir.resolve("estoque.journal.3")), segmentos());
+        assertTrue(lancamentos().isEmpty());
+        assertEquals(0, ledger.descarregar());
+
+        ledger.reservar(10L, 1);
+        assertEquals(List.of("3;10;-1"), lancamentos());
+    }
+
+    @Test
+    void reservaSoVaiParaOJournalDepoisDoCommit() throws IOException {
+        when(persistencia.ultimaSequencia()).thenReturn(0L);
+        when(produtoRepository.findEstoqueById(10L)).thenReturn(Optional.of(5));
+        ledger.iniciar();
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(ledger.reservar(10L, 3));
+        assertTrue(lancamentos().isEmpty());
+        assertEquals(0, ledger.descarregar());
+
+        concluir(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(List.of("1;10;-3"), lancamentos());
+        assertFalse(ledger.reservar(10L, 3));
+    }
+
+    @Test
+    void reservaDesfeitaDevolveSaldoSemLancamento() throws IOException {
+        when(persistencia.ultimaSequencia()).thenReturn(0L);
+        when(produtoRepository.findEstoqueById(10L)).thenReturn(Optional.of(5));
+        ledger.iniciar();
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(ledger.reservar(10L, 3));
+        assertFalse(ledger.reservar(10L, 3));
+
+        concluir(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertTrue(lancamentos().isEmpty());
+        assertEquals(0, ledger.descarregar());
+        assertTrue(ledger.reservar(10L, 5));
+    }
+
+    @Test
+    void redefinirDeveDescartarDeltaPendenteERecarregarDoBanco() throws IOException {
+        when(persistencia.ultimaSequencia()).thenReturn(0L);
+        when(produtoRepository.findEstoqueById(10L)).thenReturn(Optional.of(5)).thenReturn(Optional.of(20));
+        ledger.iniciar();
+        ledger.reservar(10L, 3);
+
+        ledger.redefinir(10L, 20);
+
+        verify(persistencia).definir(10L, 20);
+        assertEquals(List.of("1;10;-3", "2;10;3"), lancamentos());
+        assertEquals(0, ledger.descarregar());
+        assertTrue(ledger.reservar(10L, 20));
+        assertFalse(ledger.reservar(10L, 1));
+    }
+
+    @Test
+    void iniciarDeveReaplicarLancamentosPosterioresAoCheckpoint() throws IOException {
+        Files.write(arquivo, List.of("1;10;-2", "2;10;-1", "3;10"));
+        when(persistencia.ultimaSequencia()).thenReturn(1L);
+        when(produtoRepository.findEstoqueById(10L)).thenReturn(Optional.of(5));
+
+        ledger.iniciar();
+
+        assertTrue(ledger.reservar(10L, 4));
+        assertFalse(ledger.reservar(10L, 1));
+    }
+
+    @Test
+    void redefinirDepoisDoReplayDeveDescartarDeltaSemSaldoCarregado() throws IOException {
+        Files.write(arquivo, List.of("1;10;-2", "2;10;-1"));
+        when(persistencia.ultimaSequencia()).thenReturn(0L);
+        ledger.iniciar();
+
+        ledger.redefinir(10L, 20);
+
+        verify(persistencia).definir(10L, 20);
+        assertEquals(List.of("3;10;3"), lancamentos());
+        assertEquals(0, ledger.descarregar());
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(dir)) {
+            return arquivos.filter(p -> p.getFileName().toString().startsWith("estoque.journal."))
+                    .sorted(Comparator.comparingLong(p -> Long.parseLong(p.getFileName().toString().substring("estoque.journal.".length()))))
+                    .toList();
+        }
+    }
+
+    private List<String> lancamentos() throws IOException {
+        List<String> linhas = new ArrayList<>();
+        for (Path segmento : segmentos()) {
+            linhas.addAll(Files.readAllLines(segmento));
+        }
+        return linhas;
+    }
+
+    // fim da transação como o TransactionManager faz: afterCommit (se confirmada) e depois afterCompletion
+    private void concluir(int status) {
+        List<TransactionSynchronization> sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            sincronizacoes.forEach(TransactionSynchronization::afterCommit);
+        }
+        sincronizacoes.forEach(s -> s.afterCompletion(status));
+    }
+
+}
@@ -0,0 +1,216 @@
+package br.com.mini.erp.service.idempotencia;
+
+import br.com.mini.erp.dto.request.PedidoItemRequest;
+import br.com.mini.erp.dto.request.PedidoRequest;
+import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.exception.BusinessException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotenciaExecutorTest {
+
+    private IdempotenciaExecutor executor;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setup() {
+        transactionTemplate = new TransactionTemplate(new TransacaoSemRecurso());
+        executor = new IdempotenciaExecutor(new MemoriaIdempotenciaStore(Duration.ofMinutes(5), 100), transactionTemplate, new ObjectMapper());
+    }
+
+    @Test
+    void chaveRepetidaDeveDevolverRespostaArmazenadaSemExecutarDeNovo() {
+        var execucoes = new AtomicInteger();
+        var resp = pedido(1L);
+
+        var primeira = executor.executar("k1", "create", null, () -> {
+            execucoes.incrementAndGet();
+            return resp;
+        });
+        var segunda = executor.executar("k1", "create", null, () -> {
+            execucoes.incrementAndGet();
+            return pedido(2L);
+        });
+
+        assertSame(primeira, segunda);
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void mesmaChaveEmOperacoesDiferentesNaoColide() {
+        executor.executar("k1", "pay:1", null, () -> pedido(1L));
+        var resp = executor.executar("k1", "pay:2", null, () -> pedido(2L));
+
+        assertEquals(2L, resp.id());
+    }
+
+    @Test
+    void falhaNaoDeveSerMemorizada() {
+        assertThrows(BusinessException.class, () -> executor.executar("k1", "create", null, () -> {
+            throw new BusinessException("Estoque insuficiente");
+        }));
+
+        var resp = executor.executar("k1", "create", null, () -> pedido(1L));
+
+        assertEquals(1L, resp.id());
+    }
+
+    @Test
+    void mesmaChaveComOutraRequisicaoDeveSerRejeitada() {
+        executor.executar("k1", "create", new PedidoRequest(1L, List.of(new PedidoItemRequest(10L, 1, null))), () -> pedido(1L));
+
+        var repetida = executor.executar("k1", "create", new PedidoRequest(1L, List.of(new PedidoItemRequest(10L, 1, null))), () -> pedido(2L));
+        assertEquals(1L, repetida.id());
+
+        var ex = assertThrows(BusinessException.class, () -> executor.executar("k1", "create",
+                new PedidoRequest(1L, List.of(new PedidoItemRequest(10L, 5, null))), () -> pedido(3L)));
+        assertEquals("Idempotency-Key já utilizada com outra requisição", ex.getMessage());
+    }
+
+    @Test
+    void transacaoMarcadaParaRollbackDentroDaAcaoDeveSerRefeita() {
+        var tentativas = new AtomicInteger();
+
+        var resp = executor.executar("k1", "pay:1", null, () -> {
+            if (tentativas.incrementAndGet() == 1) {
+                // falha em uma transação participante (conflito já repetido pelo @Retryable do service)
+                assertThrows(IllegalStateException.class, () -> transactionTemplate.execute(s -> {
+                    throw new IllegalStateException("conflito");
+                }));
+            }
+            return pedido(1L);
+        });
+
+        assertEquals(1L, resp.id());
+        assertEquals(2, tentativas.get());
+        assertSame(resp, executor.executar("k1", "pay:1", null, () -> pedido(2L)));
+    }
+
+    @Test
+    void duplicataConcorrenteDeveAguardarExecucaoEmAndamento() throws Exception {
+        var execucoes = new AtomicInteger();
+        var iniciou = new CountDownLatch(1);
+        var liberar = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<PedidoResponse> primeira = pool.submit(() -> executor.executar("k1", "create", null, () -> {
+                execucoes.incrementAndGet();
+                iniciou.countDown();
+                aguardar(liberar);
+                return pedido(1L);
+            }));
+            assertTrue(iniciou.await(5, TimeUnit.SECONDS));
+
+            Future<PedidoResponse> segunda = pool.submit(() -> executor.executar("k1", "create", null, () -> {
+                execucoes.incrementAndGet();
+                return pedido(2L);
+            }));
+            liberar.countDown();
+
+            assertEquals(1L, primeira.get(5, TimeUnit.SECONDS).id());
+            assertEquals(1L, segunda.get(5, TimeUnit.SECONDS).id());
+            assertEquals(1, execucoes.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // só o ciclo de commit/rollback e as sincronizações de uma transação, sem recurso por trás
+    private static class TransacaoSemRecurso extends AbstractPlatformTransactionManager {
+
+        private final ThreadLocal<Estado> atual = new ThreadLocal<>();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Transacao(atual.get());
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return ((Transacao) transaction).estado != null;
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            ((Transacao) transaction).estado = new Estado();
+            atual.set(((Transacao) transaction).estado);
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+            ((Transacao) status.getTransaction()).estado.rollbackOnly = true;
+        }
+
+        @Override
+        protected void doCleanupAfterCompletion(Object transaction) {
+            atual.remove();
+        }
+
+        private static class Estado {
+            boolean rollbackOnly;
+        }
+
+        private static class Transacao implements SmartTransactionObject {
+            Estado estado;
+
+            Transacao(Estado estado) {
+                this.estado = estado;
+            }
+
+            @Override
+            public boolean isRollbackOnly() {
+                return estado != null && estado.rollbackOnly;
+            }
+
+            @Override
+            public void flush() {
+            }
+        }
+    }
+
+    private static PedidoResponse pedido(Long id) {
+        return new PedidoResponse(id, 1L, PedidoStatus.CRIADO,
+                new BigDecimal("10.00"), BigDecimal.ZERO, new BigDecimal("10.00"),
+                OffsetDateTime.parse("2025-08-31T12:00:00Z"), null, null, List.of());
+    }
+
+}
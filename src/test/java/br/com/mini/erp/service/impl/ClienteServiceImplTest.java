@@ -10,6 +10,8 @@ import br.com.mini.erp.exception.NotFoundException;
 import br.com.mini.erp.model.Cliente;
 import br.com.mini.erp.model.Endereco;
 import br.com.mini.erp.repository.ClienteRepository;
+import br.com.mini.erp.repository.projection.VersaoProjecao;
+import br.com.mini.erp.service.paginacao.Cursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,6 +19,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -229,10 +232,31 @@ class ClienteServiceImplTest {
         var page = new PageImpl<>(List.of(clienteExistente));
         when(repository.findByNomeContainingIgnoreCaseOrEmailContainingIgnoreCase(eq("jo"), eq("jo"), eq(pageable))).thenReturn(page);
 
-        var result = service.search("jo", pageable);
+        var result = service.search("jo", pageable).pagina();
 
         assertEquals(1, result.getTotalElements());
         assertEquals("João", result.getContent().get(0).nome());
     }
 
+    @Test
+    void searchCursor_deveBuscarAposUltimoIdSemContagem() {
+        when(repository.buscarAposCursor("jo", 5L, Limit.of(11))).thenReturn(List.of(clienteExistente));
+
+        var result = service.searchCursor("jo", Cursor.deId(5L), 10);
+
+        assertEquals(1, result.itens().size());
+        assertEquals(false, result.temMais());
+        verify(repository, never()).count();
+    }
+
+    @Test
+    void versaoSearchDeveProjetarAMesmaConsultaDaPesquisa() {
+        var pageable = PageRequest.of(0, 20);
+        when(repository.findByNomeContainingIgnoreCaseOrEmailContainingIgnoreCase("", "", pageable, VersaoProjecao.class))
+                .thenReturn(new PageImpl<>(List.of(new VersaoProjecao(1L, 2L)), pageable, 1));
+
+        assertNotNull(service.versaoSearch(null, pageable));
+        verify(repository, never()).findByNomeContainingIgnoreCaseOrEmailContainingIgnoreCase(anyString(), anyString(), any());
+    }
+
 }
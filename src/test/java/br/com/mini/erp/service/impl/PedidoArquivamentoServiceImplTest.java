@@ -0,0 +1,137 @@
+package br.com.mini.erp.service.impl;
+
+import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.model.PedidoArquivado;
+import br.com.mini.erp.repository.PedidoArquivadoRepository;
+import br.com.mini.erp.repository.PedidoRepository;
+import br.com.mini.erp.repository.PedidoResumoRepository;
+import br.com.mini.erp.repository.projection.PedidoExportacaoLinha;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PedidoArquivamentoServiceImplTest {
+
+    private static final OffsetDateTime CRIADO_EM = OffsetDateTime.parse("2025-01-10T12:00:00Z");
+    private static final OffsetDateTime PAGO_EM = OffsetDateTime.parse("2025-01-11T08:30:00Z");
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+    @Mock
+    private PedidoResumoRepository pedidoResumoRepository;
+    @Mock
+    private PedidoArquivadoRepository pedidoArquivadoRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @TempDir
+    Path diretorio;
+
+    private PedidoArquivamentoServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        service = new PedidoArquivamentoServiceImpl(pedidoRepository, pedidoResumoRepository, pedidoArquivadoRepository,
+                transactionTemplate, objectMapper);
+        ReflectionTestUtils.setField(service, "diretorio", diretorio.toString());
+    }
+
+    @Test
+    void arquivarDeveGravarSegmentoIndexarERemoverDasTabelasVivas() throws Exception {
+
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(pedidoRepository.findIdsArquivaveis(any(), eq(PedidoStatus.PAGO), eq(PedidoStatus.CANCELADO), any(Limit.class)))
+                .thenReturn(List.of(5L, 6L));
+        when(pedidoRepository.buscarLinhasPorIds(List.of(5L, 6L))).thenReturn(List.of(
+                linha(5L, PedidoStatus.PAGO, 10L, 2),
+                linha(5L, PedidoStatus.PAGO, 11L, 1),
+                linha(6L, PedidoStatus.CANCELADO, 10L, 3)));
+        when(pedidoRepository.remover(List.of(5L, 6L))).thenReturn(2);
+
+        int arquivados = service.arquivar();
+
+        assertEquals(2, arquivados);
+        assertTrue(Files.exists(diretorio.resolve("pedidos-5-6.ndjson.gz")));
+        ArgumentCaptor<List<PedidoArquivado>> indice = ArgumentCaptor.captor();
+        verify(pedidoArquivadoRepository).saveAll(indice.capture());
+        assertEquals(List.of(5L, 6L), indice.getValue().stream().map(PedidoArquivado::getId).toList());
+        assertEquals(List.of(0, 1), indice.getValue().stream().map(PedidoArquivado::getLinha).toList());
+        verify(pedidoRepository).removerItens(List.of(5L, 6L));
+        verify(pedidoResumoRepository).deleteAllByIdInBatch(List.of(5L, 6L));
+
+        // GET de volta a partir do segmento
+        when(pedidoArquivadoRepository.findById(6L)).thenReturn(Optional.of(indice.getValue().get(1)));
+        PedidoResponse pedido = service.buscar(6L).orElseThrow();
+        assertEquals(6L, pedido.id());
+        assertEquals(PedidoStatus.CANCELADO, pedido.status());
+        assertEquals(CRIADO_EM, pedido.criadoEm());
+        assertEquals(1, pedido.itens().size());
+        assertEquals(3, pedido.itens().get(0).quantidade());
+
+        // reconstrução dos rollups percorre o segmento inteiro
+        when(pedidoArquivadoRepository.listarSegmentos()).thenReturn(List.of("pedidos-5-6.ndjson.gz"));
+        List<PedidoResponse> percorridos = new ArrayList<>();
+        service.percorrer(percorridos::add);
+        assertEquals(List.of(5L, 6L), percorridos.stream().map(PedidoResponse::id).toList());
+        assertEquals(2, percorridos.get(0).itens().size());
+    }
+
+    @Test
+    void arquivarSemPedidosFechadosNaoGravaSegmento() throws Exception {
+
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(pedidoRepository.findIdsArquivaveis(any(), any(), any(), any())).thenReturn(List.of());
+
+        assertEquals(0, service.arquivar());
+
+        verify(pedidoRepository, never()).remover(anyList());
+        try (var arquivos = Files.list(diretorio)) {
+            assertEquals(0, arquivos.count());
+        }
+    }
+
+    @Test
+    void buscarPedidoNaoArquivadoRetornaVazio() {
+        when(pedidoArquivadoRepository.findById(9L)).thenReturn(Optional.empty());
+        assertTrue(service.buscar(9L).isEmpty());
+    }
+
+    private static PedidoExportacaoLinha linha(Long pedidoId, PedidoStatus status, Long produtoId, int quantidade) {
+        BigDecimal totalLinha = new BigDecimal("10.00").multiply(BigDecimal.valueOf(quantidade));
+        return new PedidoExportacaoLinha(pedidoId, 1L, status, new BigDecimal("100.00"), new BigDecimal("0.00"), new BigDecimal("100.00"),
+                CRIADO_EM, status == PedidoStatus.PAGO ? PAGO_EM : null, status == PedidoStatus.CANCELADO ? PAGO_EM : null,
+                produtoId, "SKU-" + produtoId, "Produto " + produtoId, quantidade, new BigDecimal("10.00"), new BigDecimal("0.00"), totalLinha);
+    }
+
+}
@@ -0,0 +1,162 @@
+package br.com.mini.erp.service.impl;
+
+import br.com.mini.erp.dto.request.PedidoItemRequest;
+import br.com.mini.erp.dto.request.PedidoRequest;
+import br.com.mini.erp.dto.response.PedidoAssincronoResponse;
+import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.enuns.PedidoAssincronoStatus;
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.exception.BusinessException;
+import br.com.mini.erp.exception.SobrecargaException;
+import br.com.mini.erp.service.PedidoService;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PedidoAssincronoServiceImplTest {
+
+    @Mock
+    private PedidoService pedidoService;
+
+    @TempDir
+    Path dir;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PedidoAssincronoServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = novoServico();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    @Test
+    void aceitarDeveEnfileirarEWorkerDeveCriarPedido() throws InterruptedException {
+        service.iniciar();
+        var pedido = new PedidoResponse(1001L, 1L, PedidoStatus.CRIADO,
+                new BigDecimal("10.00"), BigDecimal.ZERO, new BigDecimal("10.00"),
+                OffsetDateTime.parse("2025-08-31T12:00:00Z"), null, null, List.of());
+        when(pedidoService.create(any(PedidoRequest.class))).thenReturn(pedido);
+
+        var aceito = service.aceitar(requisicao());
+        assertNotNull(aceito.id());
+
+        var resp = aguardarConclusao(aceito.id());
+        assertEquals(PedidoAssincronoStatus.CONCLUIDO, resp.status());
+        assertEquals(1001L, resp.pedido().id());
+        assertNotNull(resp.esperaMs());
+        assertEquals(1, meterRegistry.get("pedidos.assincronos.processamento").timer().count());
+    }
+
+    @Test
+    void erroDeNegocioDeveMarcarSolicitacaoComoRejeitada() throws InterruptedException {
+        service.iniciar();
+        when(pedidoService.create(any(PedidoRequest.class))).thenThrow(new BusinessException("Estoque insuficiente para SKU SKU-001"));
+
+        var resp = aguardarConclusao(service.aceitar(requisicao()).id());
+
+        assertEquals(PedidoAssincronoStatus.REJEITADO, resp.status());
+        assertEquals("Estoque insuficiente para SKU SKU-001", resp.erro());
+    }
+
+    @Test
+    void aceitarComFilaCheiaDeveLancarSobrecarga() {
+        ReflectionTestUtils.setField(service, "workers", 0);
+        ReflectionTestUtils.setField(service, "capacidadeFila", 1);
+        service.iniciar();
+
+        var pendente = service.aceitar(requisicao());
+
+        assertEquals(PedidoAssincronoStatus.PENDENTE, pendente.status());
+        assertThrows(SobrecargaException.class, () -> service.aceitar(requisicao()));
+        assertEquals(1.0, meterRegistry.get("pedidos.assincronos.fila").gauge().value());
+    }
+
+    @Test
+    void encerrarDeveGravarPendentesQueAProximaSubidaReenfileira() {
+        ReflectionTestUtils.setField(service, "workers", 0);
+        service.iniciar();
+        var aceito = service.aceitar(requisicao());
+
+        service.encerrar();
+
+        assertThrows(SobrecargaException.class, () -> service.aceitar(requisicao()));
+        assertTrue(Files.exists(dir.resolve("pendentes.ndjson")));
+
+        service = novoServico();
+        ReflectionTestUtils.setField(service, "workers", 0);
+        service.iniciar();
+
+        var recuperado = service.get(aceito.id());
+        assertEquals(PedidoAssincronoStatus.PENDENTE, recuperado.status());
+        assertEquals(aceito.recebidoEm(), recuperado.recebidoEm());
+        assertEquals(1.0, meterRegistry.get("pedidos.assincronos.fila").gauge().value());
+        assertFalse(Files.exists(dir.resolve("pendentes.ndjson")));
+    }
+
+    @Test
+    void encerrarDeveDrenarAFilaAntesDeParar() {
+        service.iniciar();
+        when(pedidoService.create(any(PedidoRequest.class))).thenReturn(null);
+        for (int i = 0; i < 20; i++) {
+            service.aceitar(requisicao());
+        }
+
+        service.encerrar();
+
+        verify(pedidoService, times(20)).create(any(PedidoRequest.class));
+        assertFalse(Files.exists(dir.resolve("pendentes.ndjson")));
+    }
+
+    private PedidoAssincronoServiceImpl novoServico() {
+        meterRegistry = new SimpleMeterRegistry();
+        var s = new PedidoAssincronoServiceImpl(pedidoService, meterRegistry, JsonMapper.builder().findAndAddModules().build());
+        ReflectionTestUtils.setField(s, "arquivoPendentes", dir.resolve("pendentes.ndjson").toString());
+        return s;
+    }
+
+    private PedidoAssincronoResponse aguardarConclusao(String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            var resp = service.get(id);
+            if (resp.status() != PedidoAssincronoStatus.PENDENTE && resp.status() != PedidoAssincronoStatus.PROCESSANDO) {
+                return resp;
+            }
+            Thread.sleep(50);
+        }
+        return service.get(id);
+    }
+
+    private static PedidoRequest requisicao() {
+        return new PedidoRequest(1L, List.of(new PedidoItemRequest(10L, 1, null)));
+    }
+
+}
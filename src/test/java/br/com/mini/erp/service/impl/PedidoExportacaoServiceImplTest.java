@@ -0,0 +1,105 @@
+package br.com.mini.erp.service.impl;
+
+import br.com.mini.erp.enuns.FormatoExportacao;
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.repository.PedidoRepository;
+import br.com.mini.erp.repository.projection.PedidoExportacaoLinha;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PedidoExportacaoServiceImplTest {
+
+    private static final OffsetDateTime CRIADO_EM = OffsetDateTime.parse("2025-09-10T12:00:00Z");
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private PedidoExportacaoServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        service = new PedidoExportacaoServiceImpl(pedidoRepository, objectMapper);
+    }
+
+    @Test
+    void csvDeveTerUmaLinhaPorItemEEscaparCelulas() throws Exception {
+
+        when(pedidoRepository.exportar(any(), any())).thenReturn(Stream.of(
+                linha(1L, 10L, "SKU-001", "Camiseta, azul", 2),
+                linha(1L, 11L, "SKU-002", "Boné \"aba reta\"", 1),
+                linha(2L, 10L, "SKU-001", "Camiseta, azul", 1)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long pedidos = service.exportar(FormatoExportacao.CSV, null, null, null, out);
+
+        String[] linhas = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, pedidos);
+        assertEquals(4, linhas.length);
+        assertEquals("pedido_id,cliente_id,status,criado_em,pago_em,cancelado_em,subtotal,descontos,total," +
+                "produto_id,sku,nome,quantidade,preco_unitario,desconto,total_linha", linhas[0]);
+        assertEquals("1,1,CRIADO,2025-09-10T12:00:00Z,,,100.00,0.00,100.00,10,SKU-001,\"Camiseta, azul\",2,10.00,0.00,20.00", linhas[1]);
+        assertEquals("1,1,CRIADO,2025-09-10T12:00:00Z,,,100.00,0.00,100.00,11,SKU-002,\"Boné \"\"aba reta\"\"\",1,10.00,0.00,10.00", linhas[2]);
+    }
+
+    @Test
+    void ndjsonDeveAgruparItensPorPedido() throws Exception {
+
+        when(pedidoRepository.exportarPorStatus(any(), any(), any())).thenReturn(Stream.of(
+                linha(1L, 10L, "SKU-001", "Camiseta", 2),
+                linha(1L, 11L, "SKU-002", "Boné", 1),
+                linha(2L, 10L, "SKU-001", "Camiseta", 1)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long pedidos = service.exportar(FormatoExportacao.NDJSON, PedidoStatus.CRIADO, null, null, out);
+
+        String[] linhas = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, pedidos);
+        assertEquals(2, linhas.length);
+        JsonNode primeiro = objectMapper.readTree(linhas[0]);
+        assertEquals(1, primeiro.get("id").asLong());
+        assertEquals(2, primeiro.get("itens").size());
+        assertEquals("SKU-002", primeiro.get("itens").get(1).get("sku").asText());
+        assertEquals(1, objectMapper.readTree(linhas[1]).get("itens").size());
+    }
+
+    @Test
+    void intervaloAbertoDeveUsarLimitesPadrao() throws Exception {
+
+        OffsetDateTime de = OffsetDateTime.parse("2025-09-01T00:00:00Z");
+        when(pedidoRepository.exportar(any(), any())).thenReturn(Stream.empty());
+
+        long pedidos = service.exportar(FormatoExportacao.NDJSON, null, de, null, new ByteArrayOutputStream());
+
+        assertEquals(0, pedidos);
+        verify(pedidoRepository).exportar(de, OffsetDateTime.parse("9999-12-31T23:59:59Z"));
+    }
+
+    private static PedidoExportacaoLinha linha(Long pedidoId, Long produtoId, String sku, String nome, int quantidade) {
+        BigDecimal preco = new BigDecimal("10.00");
+        return new PedidoExportacaoLinha(pedidoId, 1L, PedidoStatus.CRIADO,
+                new BigDecimal("100.00"), new BigDecimal("0.00"), new BigDecimal("100.00"), CRIADO_EM, null, null,
+                produtoId, sku, nome, quantidade, preco, new BigDecimal("0.00"), preco.multiply(BigDecimal.valueOf(quantidade)));
+    }
+
+}
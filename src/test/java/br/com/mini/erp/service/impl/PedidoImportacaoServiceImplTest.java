@@ -0,0 +1,87 @@
+package br.com.mini.erp.service.impl;
+
+import br.com.mini.erp.dto.request.PedidoRequest;
+import br.com.mini.erp.dto.response.PedidoImportacaoResponse;
+import br.com.mini.erp.dto.response.PedidoLoteItemResponse;
+import br.com.mini.erp.dto.response.PedidoLoteResponse;
+import br.com.mini.erp.enuns.ImportacaoStatus;
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.exception.BusinessException;
+import br.com.mini.erp.exception.NotFoundException;
+import br.com.mini.erp.service.PedidoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PedidoImportacaoServiceImplTest {
+
+    @Mock
+    private PedidoService pedidoService;
+
+    private PedidoImportacaoServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        service = new PedidoImportacaoServiceImpl(pedidoService, new ObjectMapper());
+    }
+
+    @Test
+    void importarDeveCriarPedidosValidosEContarRejeitados() {
+
+        String ndjson = """
+                {"clienteId":1,"itens":[{"produtoId":10,"quantidade":2}]}
+                {"clienteId":1,"itens":[{"produtoId":10,"quantidade":
+                
+                {"clienteId":2,"itens":[{"produtoId":999,"quantidade":1}]}
+                """;
+
+        when(pedidoService.createBatch(any())).thenAnswer(inv -> {
+            List<PedidoRequest> chunk = inv.getArgument(0);
+            List<PedidoLoteItemResponse> resultados = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                resultados.add(chunk.get(i).clienteId() == 1L
+                        ? new PedidoLoteItemResponse(i, 100L + i, PedidoStatus.CRIADO, new BigDecimal("10.00"), null)
+                        : new PedidoLoteItemResponse(i, null, null, null, "Produto 999 não encontrado"));
+            }
+            return new PedidoLoteResponse(chunk.size(), 1, chunk.size() - 1, 1L, 1.0, resultados);
+        });
+
+        PedidoImportacaoResponse resp = service.importar("imp-1", new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(ImportacaoStatus.CONCLUIDA, resp.status());
+        assertEquals(3, resp.lidos());
+        assertEquals(1, resp.criados());
+        assertEquals(2, resp.rejeitados());
+        assertTrue(resp.erros().contains("linha 4: Produto 999 não encontrado"));
+        assertTrue(resp.erros().stream().anyMatch(e -> e.startsWith("linha 2: JSON inválido")));
+        assertEquals(resp.criados(), service.get("imp-1").criados());
+    }
+
+    @Test
+    void importarDeveLancarQuandoIdJaExiste() {
+        service.importar("imp-2", new ByteArrayInputStream(new byte[0]));
+        assertThrows(BusinessException.class, () -> service.importar("imp-2", new ByteArrayInputStream(new byte[0])));
+    }
+
+    @Test
+    void getDeveLancarQuandoNaoEncontrada() {
+        assertThrows(NotFoundException.class, () -> service.get("nao-existe"));
+    }
+
+}
@@ -0,0 +1,110 @@
+package br.com.mini.erp.service.impl;
+
+import br.com.mini.erp.config.CacheSegundoNivelMetricas;
+import br.com.mini.erp.dto.request.PedidoItemRequest;
+import br.com.mini.erp.dto.request.PedidoRequest;
+import br.com.mini.erp.model.Cliente;
+import br.com.mini.erp.model.Produto;
+import br.com.mini.erp.model.ProdutoEstoque;
+import br.com.mini.erp.repository.ClienteRepository;
+import br.com.mini.erp.repository.ProdutoEstoqueRepository;
+import br.com.mini.erp.repository.ProdutoRepository;
+import br.com.mini.erp.service.PedidoArquivamentoService;
+import br.com.mini.erp.service.estoque.EstoqueLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cache de segundo nível na criação de pedidos. Sem a transação de teste (rollback): o cache só entrega o que foi
+ * gravado ou lido em transações anteriores já concluídas.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.sql.init.mode=never"
+})
+@Import(PedidoServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PedidoServiceImplCacheTest {
+
+    @Autowired
+    private PedidoServiceImpl service;
+    @Autowired
+    private ClienteRepository clienteRepository;
+    @Autowired
+    private ProdutoRepository produtoRepository;
+    @Autowired
+    private ProdutoEstoqueRepository produtoEstoqueRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @MockitoBean
+    private EstoqueLedger estoqueLedger;
+    @MockitoBean
+    private PedidoArquivamentoService pedidoArquivamentoService;
+
+    @Test
+    void createComCadastroEmCacheNaoLeClienteNemProdutosDoBanco() {
+
+        List<Long> produtoIds = new ArrayList<>();
+        Long clienteId = transactionTemplate.execute(status -> {
+            Cliente cliente = new Cliente();
+            cliente.setNome("Maria");
+            cliente.setEmail("maria@ex.com");
+            cliente.setCpf("98765432100");
+            clienteRepository.save(cliente);
+            for (int i = 1; i <= 2; i++) {
+                Produto pr = new Produto();
+                pr.setSku("CACHE-00" + i);
+                pr.setNome("Produto " + i);
+                pr.setPrecoBruto(new BigDecimal("10.00"));
+                pr.setEstoqueMinimo(1);
+                produtoRepository.save(pr);
+                produtoEstoqueRepository.save(new ProdutoEstoque(pr, 100));
+                produtoIds.add(pr.getId());
+            }
+            return cliente.getId();
+        });
+        List<PedidoItemRequest> itens = produtoIds.stream().map(id -> new PedidoItemRequest(id, 1, null)).toList();
+
+        // a baixa de estoque do primeiro pedido é um UPDATE em massa em produto_estoque: não esvazia a região de produtos
+        service.create(new PedidoRequest(clienteId, itens));
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        service.create(new PedidoRequest(clienteId, itens));
+
+        // 1 cliente + 2 produtos
+        assertEquals(3, stats.getSecondLevelCacheHitCount());
+        assertEquals(0, stats.getSecondLevelCacheMissCount());
+        for (Long produtoId : produtoIds) {
+            assertEquals(98, produtoRepository.findEstoqueById(produtoId).orElseThrow());
+        }
+
+        // as mesmas leituras nas métricas por região, a partir das estatísticas JCache (sem generate_statistics)
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new CacheSegundoNivelMetricas(emf).bindTo(registry);
+        assertTrue(registry.get("cache.gets").tag("cache", "produtos").tag("result", "hit").functionCounter().count() >= 2);
+        assertTrue(registry.get("cache.gets").tag("cache", "clientes").tag("result", "hit").functionCounter().count() >= 1);
+    }
+
+}
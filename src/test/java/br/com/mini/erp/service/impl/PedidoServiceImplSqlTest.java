@@ -0,0 +1,238 @@
+package br.com.mini.erp.service.impl;
+
+import br.com.mini.erp.dto.request.PedidoItemRequest;
+import br.com.mini.erp.dto.request.PedidoRequest;
+import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.dto.response.PedidoResumoResponse;
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.exception.BusinessException;
+import br.com.mini.erp.model.Cliente;
+import br.com.mini.erp.model.Pedido;
+import br.com.mini.erp.model.Produto;
+import br.com.mini.erp.model.ProdutoEstoque;
+import br.com.mini.erp.service.PedidoArquivamentoService;
+import br.com.mini.erp.service.estoque.EstoqueLedger;
+import br.com.mini.erp.service.paginacao.PaginaVersionada;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Conta os comandos SQL emitidos pelos caminhos de leitura e pelas transições: o número deve ser constante,
+ * independente de quantos pedidos/itens a resposta traz.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never"
+})
+@Import(PedidoServiceImpl.class)
+class PedidoServiceImplSqlTest {
+
+    @Autowired
+    private PedidoServiceImpl service;
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @MockitoBean
+    private EstoqueLedger estoqueLedger;
+    @MockitoBean
+    private PedidoArquivamentoService pedidoArquivamentoService;
+
+    private Statistics stats;
+    private final List<Long> pedidoIds = new ArrayList<>();
+    private final List<Long> produtoIds = new ArrayList<>();
+    private Long clienteId;
+
+    @BeforeEach
+    void setup() {
+
+        Cliente cliente = new Cliente();
+        cliente.setNome("João");
+        cliente.setEmail("joao@ex.com");
+        cliente.setCpf("12345678900");
+        em.persist(cliente);
+        clienteId = cliente.getId();
+
+        List<PedidoItemRequest> itens = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Produto pr = new Produto();
+            pr.setSku("SKU-00" + i);
+            pr.setNome("Produto " + i);
+            pr.setPrecoBruto(new BigDecimal("10.00"));
+            pr.setEstoqueMinimo(1);
+            em.persist(pr);
+            em.persist(new ProdutoEstoque(pr, 100));
+            produtoIds.add(pr.getId());
+            itens.add(new PedidoItemRequest(pr.getId(), 1, null));
+        }
+
+        for (int i = 0; i < 5; i++) {
+            pedidoIds.add(service.create(new PedidoRequest(cliente.getId(), itens)).id());
+        }
+
+        em.flush();
+        em.clear();
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+    }
+
+    @Test
+    void getDeveUsarUmUnicoSelect() {
+
+        PedidoResponse resp = service.get(pedidoIds.get(0));
+
+        assertEquals(3, resp.itens().size());
+        assertEquals("SKU-001", resp.itens().get(0).sku());
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void listDeveLerSomenteDoResumo() {
+
+        PaginaVersionada<PedidoResumoResponse> lista = service.list(null, PageRequest.of(0, 4));
+        Page<PedidoResumoResponse> page = lista.pagina();
+
+        assertEquals(4, page.getContent().size());
+        page.getContent().forEach(p -> assertEquals(List.of("SKU-001", "SKU-002", "SKU-003"), p.skus()));
+        // select da página + count, ambos em pedido_resumo; o ETag sai da própria página
+        assertEquals(2, stats.getPrepareStatementCount());
+        // o mesmo ETag que a projeção usada no If-None-Match
+        assertEquals(service.versaoLista(null, PageRequest.of(0, 4)), lista.versao());
+    }
+
+    @Test
+    void listCursorDeveUsarDoisSelectsSemCount() {
+
+        var pagina = service.listCursor(PedidoStatus.CRIADO, null, 10);
+
+        assertEquals(5, pagina.itens().size());
+        pagina.itens().forEach(p -> assertEquals(3, p.itens().size()));
+        assertEquals(2, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void listByClienteSemItensDeveUsarUmSelect() {
+
+        var pagina = service.listByCliente(clienteId, null, 3, false);
+
+        assertEquals(List.of(pedidoIds.get(4), pedidoIds.get(3), pedidoIds.get(2)),
+                pagina.itens().stream().map(PedidoResponse::id).toList());
+        pagina.itens().forEach(p -> assertNull(p.itens()));
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void listByClienteComItensDeveContinuarDoCursorComDoisSelects() {
+
+        String cursor = service.listByCliente(clienteId, null, 3, false).proximoCursor();
+        stats.clear();
+
+        var pagina = service.listByCliente(clienteId, cursor, 3, true);
+
+        assertEquals(List.of(pedidoIds.get(1), pedidoIds.get(0)), pagina.itens().stream().map(PedidoResponse::id).toList());
+        pagina.itens().forEach(p -> assertEquals(3, p.itens().size()));
+        assertEquals(false, pagina.temMais());
+        assertEquals(2, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void payDeveUsarUpdateCondicionalSelectEUpdateDoResumo() {
+
+        PedidoResponse resp = service.pay(pedidoIds.get(0));
+        em.flush();
+
+        assertEquals(PedidoStatus.PAGO, resp.status());
+        assertEquals(3, resp.itens().size());
+        // update condicional do pedido + select da resposta + update do resumo; o flush não tem o que escrever
+        assertEquals(3, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void payBatchDeveUsarTresComandosPorChunk() {
+
+        var resp = service.payBatch(pedidoIds);
+        em.flush();
+
+        assertEquals(5, resp.concluidos());
+        // status atuais + update condicional dos pedidos + update do resumo
+        assertEquals(3, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void cancelBatchDeveDevolverEstoqueComUmUnicoUpdate() {
+
+        var resp = service.cancelBatch(pedidoIds);
+        em.flush();
+
+        assertEquals(5, resp.concluidos());
+        // status atuais + update dos pedidos + soma por produto + 1 devolução (todos os SKUs) + update do resumo
+        assertEquals(5, stats.getPrepareStatementCount());
+        em.clear();
+        for (Long produtoId : produtoIds) {
+            assertEquals(100, em.find(ProdutoEstoque.class, produtoId).getQuantidade());
+        }
+    }
+
+    @Test
+    void pagarPedidoCanceladoNaoAlteraLinha() {
+
+        service.cancel(pedidoIds.get(0));
+        em.flush();
+        em.clear();
+
+        assertThrows(BusinessException.class, () -> service.pay(pedidoIds.get(0)));
+        em.clear();
+        assertEquals(PedidoStatus.CANCELADO, service.get(pedidoIds.get(0)).status());
+    }
+
+    @Test
+    void transicaoIncrementaVersao() {
+
+        Long id = pedidoIds.get(0);
+        Long antes = em.find(Pedido.class, id).getVersao();
+        em.clear();
+
+        service.pay(id);
+        em.flush();
+        em.clear();
+
+        assertEquals(antes + 1, em.find(Pedido.class, id).getVersao());
+    }
+
+    @Test
+    void cancelDeveUsarUpdateCondicionalSelectEUmaDevolucao() {
+
+        PedidoResponse resp = service.cancel(pedidoIds.get(0));
+        em.flush();
+
+        assertEquals(PedidoStatus.CANCELADO, resp.status());
+        assertEquals(3, resp.itens().size());
+        // update condicional do pedido + 1 select (pedido + itens + produtos) + 1 devolução (todos os SKUs) + update do resumo
+        assertEquals(4, stats.getPrepareStatementCount());
+        em.clear();
+        // 5 pedidos de 1 unidade criados no setup, 1 cancelado
+        for (Long produtoId : produtoIds) {
+            assertEquals(96, em.find(ProdutoEstoque.class, produtoId).getQuantidade());
+        }
+    }
+
+}
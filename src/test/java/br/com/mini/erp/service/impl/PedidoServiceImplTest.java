@@ -2,17 +2,30 @@ package br.com.mini.erp.service.impl;
 
 import br.com.mini.erp.dto.request.PedidoItemRequest;
 import br.com.mini.erp.dto.request.PedidoRequest;
+import br.com.mini.erp.dto.response.PedidoLoteResponse;
 import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.dto.response.PedidoResumoResponse;
+import br.com.mini.erp.dto.response.PedidoTransicaoLoteResponse;
 import br.com.mini.erp.enuns.PedidoStatus;
 import br.com.mini.erp.exception.BusinessException;
 import br.com.mini.erp.exception.NotFoundException;
 import br.com.mini.erp.model.Cliente;
 import br.com.mini.erp.model.Pedido;
 import br.com.mini.erp.model.PedidoItem;
+import br.com.mini.erp.model.PedidoResumo;
 import br.com.mini.erp.model.Produto;
 import br.com.mini.erp.repository.ClienteRepository;
 import br.com.mini.erp.repository.PedidoRepository;
+import br.com.mini.erp.repository.PedidoResumoRepository;
 import br.com.mini.erp.repository.ProdutoRepository;
+import br.com.mini.erp.repository.projection.PedidoItemProjecao;
+import br.com.mini.erp.repository.projection.PedidoStatusProjecao;
+import br.com.mini.erp.repository.projection.ProdutoQuantidadeProjecao;
+import br.com.mini.erp.service.PedidoArquivamentoService;
+import br.com.mini.erp.service.estoque.EstoqueLedger;
+import br.com.mini.erp.service.evento.ItensVendidos;
+import br.com.mini.erp.service.evento.PedidosAlterados;
+import br.com.mini.erp.service.paginacao.Cursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,23 +33,35 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static java.util.Collections.singletonList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -49,6 +74,16 @@ class PedidoServiceImplTest {
     private ProdutoRepository produtoRepository;
     @Mock
     private PedidoRepository pedidoRepository;
+    @Mock
+    private PedidoResumoRepository pedidoResumoRepository;
+    @Mock
+    private EstoqueLedger estoqueLedger;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private PedidoArquivamentoService pedidoArquivamentoService;
+    @Mock
+    private ApplicationEventPublisher publicadorEventos;
 
     @InjectMocks
     private PedidoServiceImpl service;
@@ -70,7 +105,6 @@ class PedidoServiceImplTest {
         produto.setSku("SKU-001");
         produto.setNome("Camiseta");
         produto.setPrecoBruto(new BigDecimal("59.90"));
-        produto.setEstoque(50);
         produto.setEstoqueMinimo(10);
         produto.setAtivo(true);
 
@@ -82,10 +116,11 @@ class PedidoServiceImplTest {
         PedidoRequest req = new PedidoRequest(1L, List.of(new PedidoItemRequest(10L, 2, new BigDecimal("5.00"))));
 
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
-        when(produtoRepository.findById(10L)).thenReturn(Optional.of(produto));
+        when(produtoRepository.buscarPorIds(any())).thenReturn(List.of(produto));
+        when(produtoRepository.baixarEstoque(10L, 2)).thenReturn(1);
 
         ArgumentCaptor<Pedido> pedidoCaptor = ArgumentCaptor.forClass(Pedido.class);
-        when(pedidoRepository.saveAndFlush(pedidoCaptor.capture())).thenAnswer(inv -> inv.getArgument(0));
+        when(pedidoRepository.saveAndFlush(pedidoCaptor.capture())).thenAnswer(inv -> comId(inv.getArgument(0), 100L));
 
         PedidoResponse resp = service.create(req);
 
@@ -93,7 +128,7 @@ class PedidoServiceImplTest {
         assertEquals(new BigDecimal("5.00"), resp.descontos());
         assertEquals(new BigDecimal("114.80"), resp.total());
 
-        assertEquals(48, produto.getEstoque());
+        verify(produtoRepository).baixarEstoque(10L, 2);
 
         Pedido salvo = pedidoCaptor.getValue();
         assertEquals(1, salvo.getItens().size());
@@ -104,6 +139,33 @@ class PedidoServiceImplTest {
         assertEquals(PedidoStatus.CRIADO, salvo.getStatus());
         verify(pedidoRepository).saveAndFlush(any(Pedido.class));
 
+        ArgumentCaptor<PedidoResumo> resumoCaptor = ArgumentCaptor.forClass(PedidoResumo.class);
+        verify(pedidoResumoRepository).save(resumoCaptor.capture());
+        assertEquals(1, resumoCaptor.getValue().getQuantidadeItens());
+        assertEquals(2, resumoCaptor.getValue().getQuantidadeUnidades());
+        assertEquals(produto.getSku(), resumoCaptor.getValue().getSkus());
+        assertEquals(new BigDecimal("114.80"), resumoCaptor.getValue().getTotal());
+
+        verify(publicadorEventos).publishEvent(new PedidosAlterados(List.of(100L), PedidoStatus.CRIADO));
+        verify(publicadorEventos).publishEvent(new ItensVendidos(List.of(new ItensVendidos.Item(10L, "SKU-001", 2))));
+
+    }
+
+    @Test
+    void createDeveReservarNoLedgerQuandoProdutoDeAltaDemanda() {
+
+        PedidoRequest req = new PedidoRequest(1L, List.of(new PedidoItemRequest(10L, 2, BigDecimal.ZERO)));
+
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(produtoRepository.buscarPorIds(any())).thenReturn(List.of(produto));
+        when(estoqueLedger.atende(produto)).thenReturn(true);
+        when(estoqueLedger.reservar(10L, 2)).thenReturn(true);
+        when(pedidoRepository.saveAndFlush(any(Pedido.class))).thenAnswer(inv -> comId(inv.getArgument(0), 100L));
+
+        service.create(req);
+
+        verify(estoqueLedger).reservar(10L, 2);
+        verify(produtoRepository, never()).baixarEstoque(any(), anyInt());
     }
 
     @Test
@@ -118,19 +180,31 @@ class PedidoServiceImplTest {
     void createDeveLancarQuandoProdutoNaoExiste() {
         PedidoRequest req = new PedidoRequest(1L, singletonList(new PedidoItemRequest(999L, 1, BigDecimal.ZERO)));
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
-        when(produtoRepository.findById(999L)).thenReturn(Optional.empty());
+        when(produtoRepository.buscarPorIds(any())).thenReturn(List.of());
         assertThrows(NotFoundException.class, () -> service.create(req));
     }
 
     @Test
     void createDeveLancarQuandoEstoqueInsuficiente() {
-        produto.setEstoque(1);
         PedidoRequest req = new PedidoRequest(1L, singletonList(new PedidoItemRequest(10L, 2, BigDecimal.ZERO)));
         when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
-        when(produtoRepository.findById(10L)).thenReturn(Optional.of(produto));
+        when(produtoRepository.buscarPorIds(any())).thenReturn(List.of(produto));
+        when(produtoRepository.baixarEstoque(10L, 2)).thenReturn(0);
         assertThrows(BusinessException.class, () -> service.create(req));
     }
 
+    @Test
+    void createDeveSomarLinhasDoMesmoProdutoAoValidarEstoque() {
+        PedidoRequest req = new PedidoRequest(1L, List.of(
+                new PedidoItemRequest(10L, 2, BigDecimal.ZERO),
+                new PedidoItemRequest(10L, 2, BigDecimal.ZERO)));
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(produtoRepository.buscarPorIds(any())).thenReturn(List.of(produto));
+        when(produtoRepository.baixarEstoque(10L, 4)).thenReturn(0);
+        assertThrows(BusinessException.class, () -> service.create(req));
+        verify(pedidoRepository, never()).saveAndFlush(any());
+    }
+
     @Test
     void createDeveLancarQuandoSemItens() {
         PedidoRequest req = new PedidoRequest(1L, List.of());
@@ -138,12 +212,66 @@ class PedidoServiceImplTest {
         assertThrows(BusinessException.class, () -> service.create(req));
     }
 
+    @Test
+    void createBatchDeveRejeitarPedidoInvalidoSemAfetarOsDemais() {
+
+        PedidoRequest valido = new PedidoRequest(1L, List.of(new PedidoItemRequest(10L, 1, BigDecimal.ZERO)));
+        PedidoRequest clienteInexistente = new PedidoRequest(99L, List.of(new PedidoItemRequest(10L, 1, BigDecimal.ZERO)));
+
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(clienteRepository.findAllById(any())).thenReturn(List.of(cliente));
+        when(produtoRepository.buscarPorIds(any())).thenReturn(List.of(produto));
+        when(produtoRepository.baixarEstoque(10L, 1)).thenReturn(1);
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        PedidoLoteResponse resp = service.createBatch(List.of(valido, clienteInexistente));
+
+        assertEquals(2, resp.total());
+        assertEquals(1, resp.criados());
+        assertEquals(1, resp.rejeitados());
+        assertEquals(PedidoStatus.CRIADO, resp.resultados().get(0).status());
+        assertEquals(new BigDecimal("59.90"), resp.resultados().get(0).total());
+        assertEquals("Cliente não encontrado", resp.resultados().get(1).erro());
+        verify(pedidoRepository).flush();
+        verify(produtoRepository).baixarEstoque(10L, 1);
+    }
+
+    @Test
+    void createBatchNaoDeveBaixarEstoqueDePedidoComValorEstourado() {
+
+        Produto caro = new Produto();
+        caro.setId(11L);
+        caro.setSku("SKU-002");
+        caro.setNome("Jóia");
+        caro.setPrecoBruto(new BigDecimal("100000000000000.00"));
+        caro.setAtivo(true);
+
+        PedidoRequest valido = new PedidoRequest(1L, List.of(new PedidoItemRequest(10L, 1, BigDecimal.ZERO)));
+        PedidoRequest estourado = new PedidoRequest(1L, List.of(
+                new PedidoItemRequest(10L, 1, BigDecimal.ZERO),
+                new PedidoItemRequest(11L, 1000, BigDecimal.ZERO)));
+
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(clienteRepository.findAllById(any())).thenReturn(List.of(cliente));
+        when(produtoRepository.buscarPorIds(any())).thenReturn(List.of(produto, caro));
+        when(produtoRepository.baixarEstoque(10L, 1)).thenReturn(1);
+        when(pedidoRepository.save(any(Pedido.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        PedidoLoteResponse resp = service.createBatch(List.of(valido, estourado));
+
+        assertEquals(1, resp.criados());
+        assertEquals("Valor do pedido excede o limite suportado", resp.resultados().get(1).erro());
+        verify(produtoRepository, times(1)).baixarEstoque(10L, 1);
+        verify(produtoRepository, never()).baixarEstoque(eq(11L), anyInt());
+        verify(estoqueLedger, never()).reservar(any(), anyInt());
+    }
+
     @Test
     void getDeveRetornarPedido() {
 
         Pedido p = novoPedidoCriadoComItem(cliente, produto, 2, new BigDecimal("5.00"));
         p.setId(123L);
-        when(pedidoRepository.findById(123L)).thenReturn(Optional.of(p));
+        when(pedidoRepository.findComItensById(123L)).thenReturn(Optional.of(p));
 
         PedidoResponse resp = service.get(123L);
 
@@ -156,49 +284,178 @@ class PedidoServiceImplTest {
 
     @Test
     void getDeveLancarQuandoNaoEncontrado() {
-        when(pedidoRepository.findById(999L)).thenReturn(Optional.empty());
+        when(pedidoRepository.findComItensById(999L)).thenReturn(Optional.empty());
         assertThrows(NotFoundException.class, () -> service.get(999L));
     }
 
     @Test
-    void listPorStatusDeveDelegarParaRepositorio() {
+    void getDeveBuscarNoArquivoQuandoForaDasTabelasVivas() {
+        PedidoResponse arquivado = new PedidoResponse(77L, 1L, PedidoStatus.PAGO, new BigDecimal("10.00"), BigDecimal.ZERO,
+                new BigDecimal("10.00"), OffsetDateTime.parse("2024-01-10T10:00:00Z"), OffsetDateTime.parse("2024-01-11T10:00:00Z"),
+                null, List.of());
+        when(pedidoRepository.findComItensById(77L)).thenReturn(Optional.empty());
+        when(pedidoArquivamentoService.buscar(77L)).thenReturn(Optional.of(arquivado));
+
+        assertEquals(arquivado, service.get(77L));
+    }
 
-        Pedido p = novoPedidoCriadoComItem(cliente, produto, 1, BigDecimal.ZERO);
-        Page<Pedido> page = new PageImpl<>(List.of(p));
-        when(pedidoRepository.findByStatus(eq(PedidoStatus.CRIADO), any())).thenReturn(page);
+    @Test
+    void listPorStatusDeveLerDoResumo() {
+
+        PedidoResumo r = novoResumo(PedidoStatus.CRIADO, "SKU-001,SKU-002");
+        Page<PedidoResumo> page = new PageImpl<>(List.of(r));
+        when(pedidoResumoRepository.findByStatus(eq(PedidoStatus.CRIADO), any())).thenReturn(page);
 
-        Page<PedidoResponse> resp = service.list(PedidoStatus.CRIADO, PageRequest.of(0, 20));
+        Page<PedidoResumoResponse> resp = service.list(PedidoStatus.CRIADO, PageRequest.of(0, 20)).pagina();
 
         assertEquals(1, resp.getTotalElements());
         assertEquals(PedidoStatus.CRIADO, resp.getContent().get(0).status());
+        assertEquals(List.of("SKU-001", "SKU-002"), resp.getContent().get(0).skus());
+        verify(pedidoRepository, never()).findByStatus(any(), any());
 
     }
 
     @Test
     void listSemStatusDeveListarTodos() {
 
-        Pedido p = novoPedidoCriadoComItem(cliente, produto, 1, BigDecimal.ZERO);
-        Page<Pedido> page = new PageImpl<>(List.of(p));
-        when(pedidoRepository.findAll(any(Pageable.class))).thenReturn(page);
+        PedidoResumo r = novoResumo(PedidoStatus.PAGO, "SKU-001");
+        Page<PedidoResumo> page = new PageImpl<>(List.of(r));
+        when(pedidoResumoRepository.findAll(any(Pageable.class))).thenReturn(page);
 
-        Page<PedidoResponse> resp = service.list(null, PageRequest.of(0, 20));
+        Page<PedidoResumoResponse> resp = service.list(null, PageRequest.of(0, 20)).pagina();
 
         assertEquals(1, resp.getTotalElements());
-        verify(pedidoRepository).findAll(any(Pageable.class));
-        verify(pedidoRepository, never()).findByStatus(any(), any());
+        verify(pedidoResumoRepository).findAll(any(Pageable.class));
+        verify(pedidoResumoRepository, never()).findByStatus(any(), any());
+    }
+
+    @Test
+    void listCursorDeveDevolverCursorDoUltimoPedidoSemContagem() {
+
+        OffsetDateTime t0 = OffsetDateTime.parse("2025-08-31T12:00:00Z");
+        Pedido p1 = novoPedidoCriadoComItem(cliente, produto, 1, BigDecimal.ZERO);
+        p1.setId(1L);
+        p1.setCriadoEm(t0);
+        Pedido p2 = novoPedidoCriadoComItem(cliente, produto, 1, BigDecimal.ZERO);
+        p2.setId(2L);
+        p2.setCriadoEm(t0.plusMinutes(1));
+        when(pedidoRepository.findAllByOrderByCriadoEmAscIdAsc(Limit.of(2))).thenReturn(List.of(p1, p2));
+
+        var pagina = service.listCursor(null, null, 1);
+
+        assertEquals(1, pagina.itens().size());
+        assertTrue(pagina.temMais());
+        assertEquals(new Cursor.CriadoEmId(t0, 1L), Cursor.lerCriadoEmId(pagina.proximoCursor()));
+        verify(pedidoRepository, never()).count();
+    }
+
+    @Test
+    void listCursorComCursorDeveBuscarAposUltimaChave() {
+
+        OffsetDateTime t0 = OffsetDateTime.parse("2025-08-31T12:00:00Z");
+        Pedido p = novoPedidoCriadoComItem(cliente, produto, 1, BigDecimal.ZERO);
+        p.setId(2L);
+        when(pedidoRepository.buscarAposCursorPorStatus(PedidoStatus.CRIADO, t0, 1L, Limit.of(21))).thenReturn(List.of(p));
+
+        var pagina = service.listCursor(PedidoStatus.CRIADO, Cursor.deCriadoEmId(t0, 1L), 20);
+
+        assertEquals(1, pagina.itens().size());
+        assertEquals(false, pagina.temMais());
+        assertNull(pagina.proximoCursor());
+    }
+
+    @Test
+    void listCursorDeveRejeitarCursorInvalido() {
+        assertThrows(BusinessException.class, () -> service.listCursor(null, "###", 20));
+    }
+
+    @Test
+    void listByClienteDeveLerDoResumoSemCarregarItens() {
+
+        OffsetDateTime t0 = OffsetDateTime.parse("2025-08-31T12:00:00Z");
+        PedidoResumo r2 = novoResumo(PedidoStatus.PAGO, "SKU-001");
+        r2.setId(2L);
+        r2.setCriadoEm(t0.plusMinutes(1));
+        PedidoResumo r1 = novoResumo(PedidoStatus.CRIADO, "SKU-001");
+        r1.setCriadoEm(t0);
+        when(pedidoResumoRepository.findByClienteIdOrderByCriadoEmDescIdDesc(1L, Limit.of(2))).thenReturn(List.of(r2, r1));
+
+        var pagina = service.listByCliente(1L, null, 1, false);
+
+        assertEquals(1, pagina.itens().size());
+        assertEquals(2L, pagina.itens().get(0).id());
+        assertEquals(PedidoStatus.PAGO, pagina.itens().get(0).status());
+        assertNull(pagina.itens().get(0).itens());
+        assertTrue(pagina.temMais());
+        assertEquals(new Cursor.CriadoEmId(t0.plusMinutes(1), 2L), Cursor.lerCriadoEmId(pagina.proximoCursor()));
+        verify(pedidoRepository, never()).buscarItensPorPedidos(any());
+        verify(clienteRepository, never()).existsById(any());
+    }
+
+    @Test
+    void listByClienteComItensDeveBuscarItensDaPaginaEmUmaConsulta() {
+
+        OffsetDateTime t0 = OffsetDateTime.parse("2025-08-31T12:00:00Z");
+        PedidoResumo r = novoResumo(PedidoStatus.CRIADO, "SKU-001");
+        when(pedidoResumoRepository.buscarDoClienteAntesDoCursor(1L, t0, 5L, Limit.of(21))).thenReturn(List.of(r));
+        when(pedidoRepository.buscarItensPorPedidos(List.of(1L))).thenReturn(List.of(new PedidoItemProjecao(
+                1L, 10L, "SKU-001", "Camiseta", 3, new BigDecimal("33.34"), BigDecimal.ZERO, new BigDecimal("100.02"))));
+
+        var pagina = service.listByCliente(1L, Cursor.deCriadoEmId(t0, 5L), 20, true);
+
+        assertEquals(1, pagina.itens().get(0).itens().size());
+        assertEquals("SKU-001", pagina.itens().get(0).itens().get(0).sku());
+        assertEquals(false, pagina.temMais());
+        assertNull(pagina.proximoCursor());
+    }
+
+    @Test
+    void listByClienteDeveFalharQuandoClienteNaoExiste() {
+
+        when(pedidoResumoRepository.findByClienteIdOrderByCriadoEmDescIdDesc(99L, Limit.of(21))).thenReturn(List.of());
+        when(clienteRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> service.listByCliente(99L, null, 20, false));
+    }
+
+    @Test
+    void listByClienteSemPedidosDeveDevolverPaginaVazia() {
+
+        when(pedidoResumoRepository.findByClienteIdOrderByCriadoEmDescIdDesc(1L, Limit.of(21))).thenReturn(List.of());
+        when(clienteRepository.existsById(1L)).thenReturn(true);
+
+        var pagina = service.listByCliente(1L, null, 20, false);
+
+        assertTrue(pagina.itens().isEmpty());
+        assertEquals(false, pagina.temMais());
+    }
+
+    @Test
+    void createDeveRejeitarDescontoComFracaoDeCentavo() {
+
+        PedidoRequest req = new PedidoRequest(1L, List.of(new PedidoItemRequest(10L, 2, new BigDecimal("5.005"))));
+
+        when(clienteRepository.findById(1L)).thenReturn(Optional.of(cliente));
+        when(produtoRepository.buscarPorIds(any())).thenReturn(List.of(produto));
+
+        assertThrows(BusinessException.class, () -> service.create(req));
+        verify(produtoRepository, never()).baixarEstoque(any(), anyInt());
     }
 
     @Test
-    void payDeveAlterarParaPago() {
+    void payDeveAlterarParaPagoComUpdateCondicional() {
         Pedido p = novoPedidoCriadoSemItens(cliente);
         p.setId(10L);
-        p.setStatus(PedidoStatus.CRIADO);
-        when(pedidoRepository.findById(10L)).thenReturn(Optional.of(p));
+        p.setStatus(PedidoStatus.PAGO);
+        p.setPagoEm(OffsetDateTime.now());
+        when(pedidoRepository.marcarPago(eq(10L), eq(PedidoStatus.PAGO), any(), eq(Set.of(PedidoStatus.CRIADO, PedidoStatus.ATRASADO)))).thenReturn(1);
+        when(pedidoRepository.findComItensById(10L)).thenReturn(Optional.of(p));
 
         PedidoResponse resp = service.pay(10L);
 
         assertEquals(PedidoStatus.PAGO, resp.status());
         assertNotNull(resp.pagoEm());
+        verify(pedidoResumoRepository).marcarPago(eq(10L), eq(PedidoStatus.PAGO), any());
     }
 
     @Test
@@ -207,6 +464,7 @@ class PedidoServiceImplTest {
         p.setStatus(PedidoStatus.CANCELADO);
         when(pedidoRepository.findById(10L)).thenReturn(Optional.of(p));
         assertThrows(BusinessException.class, () -> service.pay(10L));
+        verify(pedidoResumoRepository, never()).marcarPago(any(), any(), any());
     }
 
     @Test
@@ -217,19 +475,37 @@ class PedidoServiceImplTest {
         assertThrows(BusinessException.class, () -> service.pay(10L));
     }
 
+    @Test
+    void payDeveFalharQuandoNaoEncontrado() {
+        when(pedidoRepository.findById(10L)).thenReturn(Optional.empty());
+        assertThrows(NotFoundException.class, () -> service.pay(10L));
+    }
+
+    @Test
+    void payDeveSinalizarConflitoQuandoUpdateNaoAlteraPedidoAindaPendente() {
+        Pedido p = novoPedidoCriadoSemItens(cliente);
+        p.setStatus(PedidoStatus.CRIADO);
+        when(pedidoRepository.findById(10L)).thenReturn(Optional.of(p));
+        assertThrows(OptimisticLockingFailureException.class, () -> service.pay(10L));
+    }
+
     @Test
     void cancelDeveDevolverEstoqueMarcarCancelado() {
         Produto pr = cloneProduto(produto);
-        pr.setEstoque(3);
 
         Pedido p = novoPedidoCriadoComItem(cliente, pr, 2, BigDecimal.ZERO);
-        p.setStatus(PedidoStatus.CRIADO);
-        when(pedidoRepository.findById(10L)).thenReturn(Optional.of(p));
+        p.setStatus(PedidoStatus.CANCELADO);
+        p.setCanceladoEm(OffsetDateTime.now());
+        when(pedidoRepository.marcarCancelado(eq(10L), eq(PedidoStatus.CANCELADO), any(), any())).thenReturn(1);
+        when(pedidoRepository.findComItensById(10L)).thenReturn(Optional.of(p));
 
         PedidoResponse resp = service.cancel(10L);
 
         assertEquals(PedidoStatus.CANCELADO, resp.status());
-        assertEquals(5, pr.getEstoque());
+        verify(produtoRepository).devolverEstoqueDosPedidos(List.of(10L), List.of(10L));
+        verify(produtoRepository, never()).devolverEstoque(any(), anyInt());
+        verify(pedidoResumoRepository).marcarCancelado(eq(10L), eq(PedidoStatus.CANCELADO), any());
+        verify(publicadorEventos).publishEvent(new PedidosAlterados(List.of(10L), PedidoStatus.CANCELADO));
         assertNotNull(resp.canceladoEm());
     }
 
@@ -237,44 +513,171 @@ class PedidoServiceImplTest {
     void cancelDeveFalharQuandoPago() {
         Pedido p = novoPedidoCriadoSemItens(cliente);
         p.setStatus(PedidoStatus.PAGO);
-        when(pedidoRepository.findById(10L)).thenReturn(Optional.of(p));
+        when(pedidoRepository.findComItensById(10L)).thenReturn(Optional.of(p));
         assertThrows(BusinessException.class, () -> service.cancel(10L));
+        verify(produtoRepository, never()).devolverEstoqueDosPedidos(any(), any());
     }
 
     @Test
     void cancelDeveSerIdempotenteQuandoJaCancelado() {
         Produto pr = cloneProduto(produto);
-        pr.setEstoque(3);
 
         Pedido p = novoPedidoCriadoComItem(cliente, pr, 2, BigDecimal.ZERO);
         p.setStatus(PedidoStatus.CANCELADO);
-        when(pedidoRepository.findById(10L)).thenReturn(Optional.of(p));
+        when(pedidoRepository.findComItensById(10L)).thenReturn(Optional.of(p));
 
         PedidoResponse resp = service.cancel(10L);
 
         assertEquals(PedidoStatus.CANCELADO, resp.status());
-        assertEquals(3, pr.getEstoque());
+        verify(produtoRepository, never()).devolverEstoqueDosPedidos(any(), any());
+        verify(pedidoResumoRepository, never()).marcarCancelado(any(), any(), any());
     }
 
     @Test
     void markLateOrdersDeveMarcarCriadosComoAtrasadosERetornarQuantidade() {
 
-        Pedido p1 = novoPedidoCriadoSemItens(cliente);
-        p1.setStatus(PedidoStatus.CRIADO);
-        p1.setCriadoEm(OffsetDateTime.now().minusHours(60));
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(pedidoRepository.findIdsByStatusAndCriadoEmBefore(eq(PedidoStatus.CRIADO), any(), any())).thenReturn(List.of(1L, 2L));
+        when(pedidoRepository.atualizarStatus(List.of(1L, 2L), PedidoStatus.CRIADO, PedidoStatus.ATRASADO)).thenReturn(2);
+
+        int count = service.markLateOrders();
+
+        assertEquals(2, count);
+        verify(pedidoResumoRepository).atualizarStatus(List.of(1L, 2L), PedidoStatus.CRIADO, PedidoStatus.ATRASADO);
+
+    }
+
+    @Test
+    void markLateOrdersDeveProcessarEmLotesAteEsgotar() {
+
+        ReflectionTestUtils.setField(service, "tamanhoLoteAtraso", 2);
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(pedidoRepository.findIdsByStatusAndCriadoEmBefore(eq(PedidoStatus.CRIADO), any(), any()))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(pedidoRepository.atualizarStatus(any(), eq(PedidoStatus.CRIADO), eq(PedidoStatus.ATRASADO))).thenReturn(2, 1);
+        List<Integer> lotes = new ArrayList<>();
 
-        Pedido p2 = novoPedidoCriadoSemItens(cliente);
-        p2.setStatus(PedidoStatus.CRIADO);
-        p2.setCriadoEm(OffsetDateTime.now().minusHours(49));
+        int count = service.markLateOrders((linhas, duracao) -> lotes.add(linhas));
 
-        when(pedidoRepository.findByStatusAndCriadoEmBefore(eq(PedidoStatus.CRIADO), any())).thenReturn(List.of(p1, p2));
+        assertEquals(3, count);
+        assertEquals(List.of(2, 1), lotes);
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    void markLateOrdersDeveContinuarQuandoParteDoLoteFoiPagaEntreSelectEUpdate() {
+
+        ReflectionTestUtils.setField(service, "tamanhoLoteAtraso", 2);
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(pedidoRepository.findIdsByStatusAndCriadoEmBefore(eq(PedidoStatus.CRIADO), any(), any()))
+                .thenReturn(List.of(1L, 2L), List.of(3L));
+        // pedido 2 pago entre o SELECT e o UPDATE do primeiro lote
+        when(pedidoRepository.atualizarStatus(any(), eq(PedidoStatus.CRIADO), eq(PedidoStatus.ATRASADO))).thenReturn(1, 1);
 
         int count = service.markLateOrders();
 
         assertEquals(2, count);
-        assertEquals(PedidoStatus.ATRASADO, p1.getStatus());
-        assertEquals(PedidoStatus.ATRASADO, p2.getStatus());
+        verify(transactionTemplate, times(2)).execute(any());
+    }
 
+    @Test
+    void payBatchDeveMarcarPagosComUmUpdateEReportarCadaId() {
+
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(pedidoRepository.buscarStatus(any())).thenReturn(List.of(
+                new PedidoStatusProjecao(1L, PedidoStatus.CRIADO),
+                new PedidoStatusProjecao(2L, PedidoStatus.CANCELADO),
+                new PedidoStatusProjecao(4L, PedidoStatus.ATRASADO)));
+        when(pedidoRepository.marcarPagos(eq(List.of(1L, 4L)), eq(PedidoStatus.PAGO), any(), any())).thenReturn(2);
+
+        PedidoTransicaoLoteResponse resp = service.payBatch(List.of(1L, 2L, 3L, 4L, 1L));
+
+        assertEquals(5, resp.total());
+        assertEquals(3, resp.concluidos());
+        assertEquals(2, resp.rejeitados());
+        assertEquals(PedidoStatus.PAGO, resp.resultados().get(0).status());
+        assertEquals("Pedido cancelado", resp.resultados().get(1).erro());
+        assertEquals("Pedido não encontrado", resp.resultados().get(2).erro());
+        assertEquals(PedidoStatus.PAGO, resp.resultados().get(3).status());
+        assertNull(resp.resultados().get(4).erro());
+        verify(pedidoResumoRepository).marcarPagos(eq(Set.of(1L, 4L)), eq(PedidoStatus.PAGO), any());
+        verify(pedidoRepository, never()).findIdsPagosEm(any(), any(), any());
+    }
+
+    @Test
+    void cancelBatchDeveDevolverEstoqueComUmUpdateSomadoPorProduto() {
+
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(pedidoRepository.buscarStatus(any())).thenReturn(List.of(
+                new PedidoStatusProjecao(1L, PedidoStatus.CRIADO),
+                new PedidoStatusProjecao(2L, PedidoStatus.ATRASADO),
+                new PedidoStatusProjecao(3L, PedidoStatus.CANCELADO)));
+        when(pedidoRepository.marcarCancelados(eq(List.of(1L, 2L)), eq(PedidoStatus.CANCELADO), any(), any())).thenReturn(2);
+        when(pedidoRepository.somarQuantidadesPorProduto(Set.of(1L, 2L))).thenReturn(List.of(
+                new ProdutoQuantidadeProjecao(10L, 5L),
+                new ProdutoQuantidadeProjecao(11L, 1L)));
+
+        PedidoTransicaoLoteResponse resp = service.cancelBatch(List.of(1L, 2L, 3L));
+
+        assertEquals(3, resp.concluidos());
+        assertEquals(0, resp.rejeitados());
+        resp.resultados().forEach(r -> assertEquals(PedidoStatus.CANCELADO, r.status()));
+        verify(produtoRepository).devolverEstoqueDosPedidos(Set.of(1L, 2L), List.of(10L, 11L));
+        verify(produtoRepository, never()).devolverEstoque(any(), anyInt());
+        verify(pedidoResumoRepository).marcarCancelados(eq(Set.of(1L, 2L)), eq(PedidoStatus.CANCELADO), any());
+    }
+
+    @Test
+    void cancelBatchDeveDevolverEstoqueSomenteDosPedidosAlteradosPeloLote() {
+
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(pedidoRepository.buscarStatus(any())).thenReturn(
+                List.of(new PedidoStatusProjecao(1L, PedidoStatus.CRIADO), new PedidoStatusProjecao(2L, PedidoStatus.CRIADO)),
+                List.of(new PedidoStatusProjecao(2L, PedidoStatus.PAGO)));
+        when(pedidoRepository.marcarCancelados(eq(List.of(1L, 2L)), eq(PedidoStatus.CANCELADO), any(), any())).thenReturn(1);
+        when(pedidoRepository.findIdsCanceladosEm(eq(List.of(1L, 2L)), eq(PedidoStatus.CANCELADO), any())).thenReturn(List.of(1L));
+        when(pedidoRepository.somarQuantidadesPorProduto(Set.of(1L))).thenReturn(List.of(new ProdutoQuantidadeProjecao(10L, 2L)));
+
+        PedidoTransicaoLoteResponse resp = service.cancelBatch(List.of(1L, 2L));
+
+        assertEquals(PedidoStatus.CANCELADO, resp.resultados().get(0).status());
+        assertEquals(PedidoStatus.PAGO, resp.resultados().get(1).status());
+        assertEquals("Pedido já pago; não pode cancelar", resp.resultados().get(1).erro());
+        verify(produtoRepository).devolverEstoqueDosPedidos(Set.of(1L), List.of(10L));
+        verify(pedidoResumoRepository).marcarCancelados(eq(Set.of(1L)), eq(PedidoStatus.CANCELADO), any());
+    }
+
+    @Test
+    void cancelBatchDeveDevolverSkuDoLedgerEmMemoriaEOsDemaisNoUpdate() {
+
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(pedidoRepository.buscarStatus(any())).thenReturn(List.of(new PedidoStatusProjecao(1L, PedidoStatus.CRIADO)));
+        when(pedidoRepository.marcarCancelados(eq(List.of(1L)), eq(PedidoStatus.CANCELADO), any(), any())).thenReturn(1);
+        when(pedidoRepository.somarQuantidadesPorProduto(Set.of(1L))).thenReturn(List.of(
+                new ProdutoQuantidadeProjecao(10L, 2L),
+                new ProdutoQuantidadeProjecao(11L, 3L)));
+        when(estoqueLedger.gerencia(10L)).thenReturn(false);
+        when(estoqueLedger.gerencia(11L)).thenReturn(true);
+
+        service.cancelBatch(List.of(1L));
+
+        verify(estoqueLedger).devolver(11L, 3);
+        verify(produtoRepository).devolverEstoqueDosPedidos(Set.of(1L), List.of(10L));
+    }
+
+    private PedidoResumo novoResumo(PedidoStatus status, String skus) {
+        PedidoResumo r = new PedidoResumo();
+        r.setId(1L);
+        r.setClienteId(cliente.getId());
+        r.setStatus(status);
+        r.setSubtotal(new BigDecimal("100.00"));
+        r.setDescontos(BigDecimal.ZERO);
+        r.setTotal(new BigDecimal("100.00"));
+        r.setQuantidadeItens(2);
+        r.setQuantidadeUnidades(3);
+        r.setSkus(skus);
+        r.setCriadoEm(OffsetDateTime.now());
+        return r;
     }
 
     private Pedido novoPedidoCriadoSemItens(Cliente c) {
@@ -305,13 +708,18 @@ class PedidoServiceImplTest {
         return p;
     }
 
+    // o id é atribuído pelo saveAndFlush; o mock devolve o mesmo pedido já com id
+    private Pedido comId(Pedido p, Long id) {
+        p.setId(id);
+        return p;
+    }
+
     private Produto cloneProduto(Produto original) {
         Produto p = new Produto();
         p.setId(original.getId());
         p.setSku(original.getSku());
         p.setNome(original.getNome());
         p.setPrecoBruto(original.getPrecoBruto());
-        p.setEstoque(original.getEstoque());
         p.setEstoqueMinimo(original.getEstoqueMinimo());
         p.setAtivo(original.getAtivo());
         return p;
@@ -0,0 +1,127 @@
+package br.com.mini.erp.service.impl;
+
+import br.com.mini.erp.dto.request.PedidoItemRequest;
+import br.com.mini.erp.model.Pedido;
+import br.com.mini.erp.model.PedidoItem;
+import br.com.mini.erp.model.Produto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Precificação de carrinhos com 1, 50 e 1000 linhas: cálculo em centavos ({@code Dinheiro}) x o cálculo
+ * anterior em {@link BigDecimal}. Ambos montam os itens da entidade, como no create.
+ * <p>
+ * Rodar com {@code mvn -Pbenchmark test-compile exec:exec}; o profiler {@code gc} reporta
+ * {@code gc.alloc.rate.norm} (bytes alocados por operação).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrecificacaoBenchmark {
+
+    @Param({"1", "50", "1000"})
+    private int linhas;
+
+    private List<PedidoItemRequest> itens;
+    private Map<Long, Produto> produtos;
+
+    @Setup
+    public void preparar() {
+
+        Random random = new Random(42);
+        itens = new ArrayList<>(linhas);
+        produtos = new HashMap<>();
+        for (long id = 1; id <= linhas; id++) {
+            Produto produto = new Produto();
+            produto.setId(id);
+            produto.setPrecoBruto(BigDecimal.valueOf(100 + random.nextInt(100_000), 2));
+            produtos.put(id, produto);
+            BigDecimal desconto = random.nextBoolean() ? null : BigDecimal.valueOf(random.nextInt(500), 2);
+            itens.add(new PedidoItemRequest(id, 1 + random.nextInt(10), desconto));
+        }
+
+        // as duas implementações precisam chegar aos mesmos valores, inclusive na escala
+        Pedido referencia = bigDecimal();
+        Pedido centavos = dinheiro();
+        if (!referencia.getSubtotal().equals(centavos.getSubtotal())
+                || !referencia.getDescontos().equals(centavos.getDescontos())
+                || !referencia.getTotal().equals(centavos.getTotal())) {
+            throw new IllegalStateException("Precificação em centavos diverge da referência em BigDecimal");
+        }
+        for (int i = 0; i < linhas; i++) {
+            if (!referencia.getItens().get(i).getTotalLinha().equals(centavos.getItens().get(i).getTotalLinha())) {
+                throw new IllegalStateException("Total da linha " + i + " diverge da referência em BigDecimal");
+            }
+        }
+    }
+
+    @Benchmark
+    public Pedido bigDecimal() {
+        Pedido pedido = new Pedido();
+        precificarBigDecimal(pedido, itens, produtos);
+        return pedido;
+    }
+
+    @Benchmark
+    public Pedido dinheiro() {
+        Pedido pedido = new Pedido();
+        PedidoServiceImpl.precificar(pedido, itens, produtos);
+        return pedido;
+    }
+
+    // precificação anterior a Dinheiro, mantida aqui como referência
+    private static void precificarBigDecimal(Pedido pedido, List<PedidoItemRequest> itens, Map<Long, Produto> produtos) {
+
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal descontos = BigDecimal.ZERO;
+
+        for (PedidoItemRequest it : itens) {
+
+            Produto prod = produtos.get(it.produtoId());
+
+            BigDecimal precoUnit = prod.getPrecoBruto();
+            BigDecimal desconto = it.desconto() == null ? BigDecimal.ZERO : it.desconto();
+            BigDecimal totalLinha = precoUnit.multiply(BigDecimal.valueOf(it.quantidade())).subtract(desconto);
+
+            totalLinha = totalLinha.setScale(2, RoundingMode.HALF_UP);
+
+            PedidoItem item = new PedidoItem();
+            item.setProduto(prod);
+            item.setQuantidade(it.quantidade());
+            item.setPrecoUnitario(precoUnit.setScale(2, RoundingMode.HALF_UP));
+            item.setDesconto(desconto.setScale(2, RoundingMode.HALF_UP));
+            item.setTotalLinha(totalLinha);
+
+            pedido.addItem(item);
+
+            subtotal = subtotal.add(precoUnit.multiply(BigDecimal.valueOf(it.quantidade())));
+            descontos = descontos.add(desconto);
+        }
+
+        pedido.setSubtotal(subtotal.setScale(2, RoundingMode.HALF_UP));
+        pedido.setDescontos(descontos.setScale(2, RoundingMode.HALF_UP));
+        pedido.setTotal(pedido.getSubtotal().subtract(pedido.getDescontos()).setScale(2, RoundingMode.HALF_UP));
+    }
+
+}
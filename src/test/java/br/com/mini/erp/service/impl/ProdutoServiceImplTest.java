@@ -5,7 +5,12 @@ import br.com.mini.erp.dto.response.ProdutoResponse;
 import br.com.mini.erp.exception.BusinessException;
 import br.com.mini.erp.exception.NotFoundException;
 import br.com.mini.erp.model.Produto;
+import br.com.mini.erp.model.ProdutoEstoque;
+import br.com.mini.erp.repository.ProdutoEstoqueRepository;
 import br.com.mini.erp.repository.ProdutoRepository;
+import br.com.mini.erp.repository.projection.ProdutoVersaoProjecao;
+import br.com.mini.erp.service.estoque.EstoqueLedger;
+import br.com.mini.erp.service.paginacao.Cursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,10 +18,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -24,6 +31,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
@@ -38,6 +46,10 @@ class ProdutoServiceImplTest {
 
     @Mock
     private ProdutoRepository repository;
+    @Mock
+    private ProdutoEstoqueRepository estoqueRepository;
+    @Mock
+    private EstoqueLedger estoqueLedger;
 
     @InjectMocks
     private ProdutoServiceImpl service;
@@ -54,7 +66,7 @@ class ProdutoServiceImplTest {
                 new BigDecimal("59.90"),
                 50,
                 10,
-                true
+                true, false
         );
 
         produtoDb = new Produto();
@@ -62,7 +74,6 @@ class ProdutoServiceImplTest {
         produtoDb.setSku("SKU-001");
         produtoDb.setNome("Camiseta Azul");
         produtoDb.setPrecoBruto(new BigDecimal("59.90"));
-        produtoDb.setEstoque(50);
         produtoDb.setEstoqueMinimo(10);
         produtoDb.setAtivo(true);
     }
@@ -84,12 +95,17 @@ class ProdutoServiceImplTest {
         assertEquals("SKU-001", salvo.getSku());
         assertEquals("Camiseta Azul", salvo.getNome());
         assertEquals(new BigDecimal("59.90"), salvo.getPrecoBruto());
-        assertEquals(50, salvo.getEstoque());
         assertEquals(10, salvo.getEstoqueMinimo());
         assertTrue(salvo.getAtivo());
 
+        ArgumentCaptor<ProdutoEstoque> estoque = ArgumentCaptor.forClass(ProdutoEstoque.class);
+        verify(estoqueRepository).save(estoque.capture());
+        assertEquals(salvo, estoque.getValue().getProduto());
+        assertEquals(50, estoque.getValue().getQuantidade());
+
         assertEquals(99L, resp.id());
         assertEquals("SKU-001", resp.sku());
+        assertEquals(50, resp.estoque());
         verify(repository).saveAndFlush(any(Produto.class));
     }
 
@@ -103,7 +119,9 @@ class ProdutoServiceImplTest {
     @Test
     void updateDeveAtualizarQuandoSkuNaoTrocaOuNaoConflita() {
 
+        ProdutoEstoque estoque = estoque(produtoDb, 50);
         when(repository.findById(1L)).thenReturn(Optional.of(produtoDb));
+        when(estoqueRepository.findById(1L)).thenReturn(Optional.of(estoque));
 
         ProdutoRequest req = new ProdutoRequest(
                 "SKU-001",
@@ -111,7 +129,7 @@ class ProdutoServiceImplTest {
                 new BigDecimal("79.90"),
                 40,
                 5,
-                true
+                true, false
         );
 
         ProdutoResponse resp = service.update(1L, req);
@@ -119,8 +137,10 @@ class ProdutoServiceImplTest {
         assertEquals("Camiseta Premium", resp.nome());
         assertEquals(new BigDecimal("79.90"), resp.precoBruto());
         assertEquals(40, resp.estoque());
+        assertEquals(40, estoque.getQuantidade());
         assertEquals(5, resp.estoqueMinimo());
         verify(repository, never()).existsBySku(anyString());
+        verify(estoqueLedger).redefinir(1L, 40);
     }
 
     @Test
@@ -134,7 +154,7 @@ class ProdutoServiceImplTest {
                 new BigDecimal("10.00"),
                 1,
                 0,
-                true
+                true, false
         );
         when(repository.existsBySku("SKU-002")).thenReturn(true);
 
@@ -152,7 +172,7 @@ class ProdutoServiceImplTest {
                 new BigDecimal("10.00"),
                 1,
                 0,
-                true
+                true, false
         );
 
         assertThrows(NotFoundException.class, () -> service.update(99L, req));
@@ -162,6 +182,7 @@ class ProdutoServiceImplTest {
     void deleteDeveRemoverQuandoExiste() {
         when(repository.findById(1L)).thenReturn(Optional.of(produtoDb));
         service.delete(1L);
+        verify(estoqueRepository).deleteById(1L);
         verify(repository).delete(produtoDb);
     }
 
@@ -175,9 +196,11 @@ class ProdutoServiceImplTest {
     @Test
     void getDeveRetornarQuandoExiste() {
         when(repository.findById(1L)).thenReturn(Optional.of(produtoDb));
+        when(repository.findEstoqueById(1L)).thenReturn(Optional.of(47));
         ProdutoResponse resp = service.get(1L);
         assertEquals(1L, resp.id());
         assertEquals("SKU-001", resp.sku());
+        assertEquals(47, resp.estoque());
     }
 
     @Test
@@ -192,7 +215,7 @@ class ProdutoServiceImplTest {
         Page<Produto> page = new PageImpl<>(List.of(produtoDb));
         when(repository.findAll(any(Pageable.class))).thenReturn(page);
 
-        Page<ProdutoResponse> resp = service.list(null, PageRequest.of(0, 20));
+        Page<ProdutoResponse> resp = service.list(null, PageRequest.of(0, 20)).pagina();
 
         assertEquals(1, resp.getTotalElements());
         verify(repository).findAll(any(Pageable.class));
@@ -204,11 +227,13 @@ class ProdutoServiceImplTest {
 
         Page<Produto> page = new PageImpl<>(List.of(produtoDb));
         when(repository.findByAtivo(true, PageRequest.of(0, 10))).thenReturn(page);
+        when(estoqueRepository.findAllById(List.of(1L))).thenReturn(List.of(estoque(produtoDb, 50)));
 
-        Page<ProdutoResponse> resp = service.list(true, PageRequest.of(0, 10));
+        Page<ProdutoResponse> resp = service.list(true, PageRequest.of(0, 10)).pagina();
 
         assertEquals(1, resp.getTotalElements());
         assertEquals("SKU-001", resp.getContent().get(0).sku());
+        assertEquals(50, resp.getContent().get(0).estoque());
         verify(repository).findByAtivo(true, PageRequest.of(0, 10));
     }
 
@@ -218,11 +243,72 @@ class ProdutoServiceImplTest {
         Page<Produto> page = new PageImpl<>(List.of(produtoDb));
         when(repository.findByAtivo(false, PageRequest.of(1, 5))).thenReturn(page);
 
-        Page<ProdutoResponse> resp = service.list(false, PageRequest.of(1, 5));
+        Page<ProdutoResponse> resp = service.list(false, PageRequest.of(1, 5)).pagina();
 
         assertEquals(1, resp.getTotalElements());
         assertFalse(resp.getContent().get(0).ativo());
         verify(repository).findByAtivo(false, PageRequest.of(1, 5));
     }
 
+    @Test
+    void listCursorDeveBuscarAposUltimoId() {
+        Produto seguinte = new Produto();
+        seguinte.setId(2L);
+        seguinte.setSku("SKU-002");
+        when(repository.findByAtivoAndIdGreaterThanOrderByIdAsc(true, 1L, Limit.of(2))).thenReturn(List.of(produtoDb, seguinte));
+
+        var pagina = service.listCursor(true, Cursor.deId(1L), 1);
+
+        assertEquals(1, pagina.itens().size());
+        assertTrue(pagina.temMais());
+        assertEquals(1L, Cursor.lerId(pagina.proximoCursor()));
+    }
+
+    @Test
+    void versaoDeveCombinarVersaoDoCadastroEEstoque() {
+        when(repository.buscarVersao(1L)).thenReturn(Optional.of(new ProdutoVersaoProjecao(1L, 3L, 47)));
+
+        assertEquals(Optional.of("3.47"), service.versao(1L));
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void versaoListaDeveMudarQuandoUmaLinhaDaPaginaMuda() {
+        Pageable pageable = PageRequest.of(0, 2);
+        Page<ProdutoVersaoProjecao> antes = new PageImpl<>(List.of(
+                new ProdutoVersaoProjecao(1L, 0L, 50), new ProdutoVersaoProjecao(2L, 0L, 8)), pageable, 2);
+        Page<ProdutoVersaoProjecao> mesma = new PageImpl<>(List.of(
+                new ProdutoVersaoProjecao(1L, 0L, 50), new ProdutoVersaoProjecao(2L, 0L, 8)), pageable, 2);
+        Page<ProdutoVersaoProjecao> depoisDaBaixa = new PageImpl<>(List.of(
+                new ProdutoVersaoProjecao(1L, 0L, 50), new ProdutoVersaoProjecao(2L, 0L, 7)), pageable, 2);
+        when(repository.buscarVersoesPorAtivo(true, pageable)).thenReturn(antes, mesma, depoisDaBaixa);
+
+        String v1 = service.versaoLista(true, pageable);
+        String v2 = service.versaoLista(true, pageable);
+        String v3 = service.versaoLista(true, pageable);
+
+        assertEquals(v1, v2);
+        assertNotEquals(v1, v3);
+        verify(repository, never()).findByAtivo(anyBoolean(), any(Pageable.class));
+    }
+
+    @Test
+    void listDeveCalcularOMesmoETagDaProjecaoDeVersoes() {
+        Pageable pageable = PageRequest.of(0, 10);
+        ReflectionTestUtils.setField(produtoDb, "versao", 3L);
+        when(repository.findByAtivo(true, pageable)).thenReturn(new PageImpl<>(List.of(produtoDb), pageable, 1));
+        when(estoqueRepository.findAllById(List.of(1L))).thenReturn(List.of(estoque(produtoDb, 50)));
+        when(repository.buscarVersoesPorAtivo(true, pageable))
+                .thenReturn(new PageImpl<>(List.of(new ProdutoVersaoProjecao(1L, 3L, 50)), pageable, 1));
+
+        assertEquals(service.versaoLista(true, pageable), service.list(true, pageable).versao());
+    }
+
+    // o id vem do produto (@MapsId) só ao persistir
+    private ProdutoEstoque estoque(Produto produto, int quantidade) {
+        ProdutoEstoque e = new ProdutoEstoque(produto, quantidade);
+        ReflectionTestUtils.setField(e, "id", produto.getId());
+        return e;
+    }
+
 }
@@ -0,0 +1,228 @@
+package br.com.mini.erp.service.impl;
+
+import br.com.mini.erp.dto.response.PedidoResponse;
+import br.com.mini.erp.dto.response.VendaDiariaResponse;
+import br.com.mini.erp.dto.response.VendasReconstrucaoResponse;
+import br.com.mini.erp.enuns.PedidoStatus;
+import br.com.mini.erp.exception.BusinessException;
+import br.com.mini.erp.model.VendaDiaria;
+import br.com.mini.erp.model.VendaDiariaSku;
+import br.com.mini.erp.model.VendaPedidoConsolidado;
+import br.com.mini.erp.model.VendaPendente;
+import br.com.mini.erp.repository.PedidoRepository;
+import br.com.mini.erp.repository.VendaDiariaRepository;
+import br.com.mini.erp.repository.VendaDiariaSkuRepository;
+import br.com.mini.erp.repository.VendaPedidoConsolidadoRepository;
+import br.com.mini.erp.repository.VendaPendenteRepository;
+import br.com.mini.erp.repository.projection.PedidoExportacaoLinha;
+import br.com.mini.erp.service.PedidoArquivamentoService;
+import br.com.mini.erp.service.evento.PedidosAlterados;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VendasServiceImplTest {
+
+    // 23:30 em São Paulo = dia seguinte em UTC
+    private static final OffsetDateTime CRIADO_EM = OffsetDateTime.parse("2025-09-10T23:30:00-03:00");
+    private static final LocalDate DIA = LocalDate.parse("2025-09-11");
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+    @Mock
+    private VendaPendenteRepository vendaPendenteRepository;
+    @Mock
+    private VendaPedidoConsolidadoRepository vendaPedidoConsolidadoRepository;
+    @Mock
+    private VendaDiariaRepository vendaDiariaRepository;
+    @Mock
+    private VendaDiariaSkuRepository vendaDiariaSkuRepository;
+    @Mock
+    private PedidoArquivamentoService pedidoArquivamentoService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private VendasServiceImpl service;
+
+    @BeforeEach
+    void setup() {
+        service = new VendasServiceImpl(pedidoRepository, vendaPendenteRepository, vendaPedidoConsolidadoRepository,
+                vendaDiariaRepository, vendaDiariaSkuRepository, pedidoArquivamentoService, transactionTemplate);
+    }
+
+    @Test
+    void registrarPendentesDeveGravarUmPorPedido() {
+
+        service.registrarPendentes(new PedidosAlterados(List.of(1L, 2L), PedidoStatus.PAGO));
+
+        ArgumentCaptor<List<VendaPendente>> pendentes = ArgumentCaptor.captor();
+        verify(vendaPendenteRepository).saveAll(pendentes.capture());
+        assertEquals(List.of(1L, 2L), pendentes.getValue().stream().map(VendaPendente::getPedidoId).toList());
+    }
+
+    @Test
+    void consolidarPedidoNovoDeveSomarNoStatusAtual() {
+
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(vendaPendenteRepository.buscarParaConsolidar(any(Limit.class))).thenReturn(List.of(pendente(100L, 7L)));
+        when(vendaPedidoConsolidadoRepository.findAllById(anyCollection())).thenReturn(List.of());
+        when(pedidoRepository.buscarLinhasPorIds(anyCollection())).thenReturn(List.of(
+                linha(7L, PedidoStatus.CRIADO, 10L, 2, "20.00"),
+                linha(7L, PedidoStatus.CRIADO, 11L, 1, "15.00")));
+
+        assertEquals(1, service.consolidar());
+
+        ArgumentCaptor<List<VendaDiaria>> diarias = ArgumentCaptor.captor();
+        verify(vendaDiariaRepository).saveAll(diarias.capture());
+        VendaDiaria diaria = diarias.getValue().get(0);
+        assertEquals(new VendaDiaria.Chave(DIA, PedidoStatus.CRIADO), diaria.getId());
+        assertEquals(new BigDecimal("35.00"), diaria.getReceita());
+        assertEquals(3L, diaria.getUnidades());
+        assertEquals(1L, diaria.getPedidos());
+
+        ArgumentCaptor<List<VendaDiariaSku>> skus = ArgumentCaptor.captor();
+        verify(vendaDiariaSkuRepository).saveAll(skus.capture());
+        Map<Long, VendaDiariaSku> porProduto = skus.getValue().stream()
+                .collect(Collectors.toMap(v -> v.getId().produtoId(), Function.identity()));
+        assertEquals(new BigDecimal("20.00"), porProduto.get(10L).getReceita());
+        assertEquals(2L, porProduto.get(10L).getUnidades());
+        assertEquals(1L, porProduto.get(11L).getPedidos());
+
+        verify(vendaPendenteRepository).deleteAllByIdInBatch(List.of(100L));
+    }
+
+    @Test
+    void consolidarTransicaoDeveMoverDoStatusContadoParaOAtual() {
+
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(vendaPendenteRepository.buscarParaConsolidar(any(Limit.class))).thenReturn(List.of(pendente(100L, 7L)));
+        VendaPedidoConsolidado consolidado = new VendaPedidoConsolidado(7L, PedidoStatus.CRIADO);
+        when(vendaPedidoConsolidadoRepository.findAllById(anyCollection())).thenReturn(List.of(consolidado));
+        when(pedidoRepository.buscarLinhasPorIds(anyCollection())).thenReturn(List.of(linha(7L, PedidoStatus.PAGO, 10L, 2, "20.00")));
+        VendaDiaria criado = new VendaDiaria(new VendaDiaria.Chave(DIA, PedidoStatus.CRIADO));
+        criado.somar(new BigDecimal("50.00"), 5, 2);
+        when(vendaDiariaRepository.findAllById(anyCollection())).thenReturn(List.of(criado));
+
+        service.consolidar();
+
+        assertEquals(new BigDecimal("15.00"), criado.getReceita());
+        assertEquals(3L, criado.getUnidades());
+        assertEquals(1L, criado.getPedidos());
+        ArgumentCaptor<List<VendaDiaria>> novas = ArgumentCaptor.captor();
+        verify(vendaDiariaRepository).saveAll(novas.capture());
+        assertEquals(List.of(new VendaDiaria.Chave(DIA, PedidoStatus.PAGO)), novas.getValue().stream().map(VendaDiaria::getId).toList());
+        assertEquals(PedidoStatus.PAGO, consolidado.getStatus());
+    }
+
+    @Test
+    void consolidarPedidoJaContadoNoStatusAtualNaoGeraDelta() {
+
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(vendaPendenteRepository.buscarParaConsolidar(any(Limit.class))).thenReturn(List.of(pendente(100L, 7L), pendente(101L, 7L)));
+        when(vendaPedidoConsolidadoRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(new VendaPedidoConsolidado(7L, PedidoStatus.PAGO)));
+        when(pedidoRepository.buscarLinhasPorIds(anyCollection())).thenReturn(List.of(linha(7L, PedidoStatus.PAGO, 10L, 2, "20.00")));
+
+        assertEquals(2, service.consolidar());
+
+        ArgumentCaptor<List<VendaDiaria>> novas = ArgumentCaptor.captor();
+        verify(vendaDiariaRepository).saveAll(novas.capture());
+        assertTrue(novas.getValue().isEmpty());
+        verify(vendaPendenteRepository).deleteAllByIdInBatch(List.of(100L, 101L));
+    }
+
+    @Test
+    void consolidarSemPendentesNaoLePedidos() {
+
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(vendaPendenteRepository.buscarParaConsolidar(any(Limit.class))).thenReturn(List.of());
+
+        assertEquals(0, service.consolidar());
+        verify(pedidoRepository, never()).buscarLinhasPorIds(anyCollection());
+    }
+
+    @Test
+    void reconstruirDeveContarPedidosVivosEArquivados() {
+
+        when(vendaPedidoConsolidadoRepository.consolidarTodos()).thenReturn(1);
+        when(vendaPedidoConsolidadoRepository.consolidarArquivados()).thenReturn(1);
+        when(pedidoRepository.exportar(any(), any())).thenReturn(Stream.of(linha(7L, PedidoStatus.PAGO, 10L, 2, "20.00")));
+        PedidoResponse arquivado = PedidoExportacaoServiceImpl.paraResponse(List.of(linha(8L, PedidoStatus.PAGO, 11L, 1, "15.00")));
+        doAnswer(inv -> {
+            inv.<Consumer<PedidoResponse>>getArgument(0).accept(arquivado);
+            return null;
+        }).when(pedidoArquivamentoService).percorrer(any());
+
+        VendasReconstrucaoResponse resp = service.reconstruir();
+
+        assertEquals(2L, resp.pedidos());
+        ArgumentCaptor<List<VendaDiaria>> diarias = ArgumentCaptor.captor();
+        verify(vendaDiariaRepository).saveAll(diarias.capture());
+        VendaDiaria pago = diarias.getValue().get(0);
+        assertEquals(new VendaDiaria.Chave(DIA, PedidoStatus.PAGO), pago.getId());
+        assertEquals(new BigDecimal("70.00"), pago.getReceita());
+        assertEquals(3L, pago.getUnidades());
+        assertEquals(2L, pago.getPedidos());
+        ArgumentCaptor<List<VendaDiariaSku>> skus = ArgumentCaptor.captor();
+        verify(vendaDiariaSkuRepository).saveAll(skus.capture());
+        assertEquals(2, skus.getValue().size());
+    }
+
+    @Test
+    void porDiaDeveMapearRollup() {
+
+        VendaDiaria v = new VendaDiaria(new VendaDiaria.Chave(DIA, PedidoStatus.PAGO));
+        v.somar(new BigDecimal("99.90"), 3, 1);
+        when(vendaDiariaRepository.buscarPorStatus(DIA, DIA, PedidoStatus.PAGO)).thenReturn(List.of(v));
+
+        List<VendaDiariaResponse> resp = service.porDia(DIA, DIA, PedidoStatus.PAGO);
+
+        assertEquals(List.of(new VendaDiariaResponse(DIA, PedidoStatus.PAGO, new BigDecimal("99.90"), 3L, 1L)), resp);
+    }
+
+    @Test
+    void porDiaDeveRejeitarIntervaloInvertido() {
+        assertThrows(BusinessException.class, () -> service.porDia(DIA, DIA.minusDays(1), null));
+    }
+
+    private static VendaPendente pendente(Long id, Long pedidoId) {
+        VendaPendente p = new VendaPendente(pedidoId);
+        ReflectionTestUtils.setField(p, "id", id);
+        return p;
+    }
+
+    private static PedidoExportacaoLinha linha(Long pedidoId, PedidoStatus status, Long produtoId, int quantidade, String totalLinha) {
+        return new PedidoExportacaoLinha(pedidoId, 1L, status, new BigDecimal("35.00"), BigDecimal.ZERO, new BigDecimal("35.00"),
+                CRIADO_EM, null, null, produtoId, "SKU-" + produtoId, "Produto " + produtoId, quantidade, new BigDecimal("10.00"),
+                BigDecimal.ZERO, new BigDecimal(totalLinha));
+    }
+
+}
@@ -0,0 +1,48 @@
+package br.com.mini.erp.service.preco;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DinheiroTest {
+
+    @Test
+    void deveArredondarHalfUpComoBigDecimal() {
+
+        for (String valor : new String[]{"10.005", "10.004", "-0.005", "0.015", "59.9", "7"}) {
+            BigDecimal esperado = new BigDecimal(valor).setScale(2, RoundingMode.HALF_UP);
+            assertEquals(esperado, Dinheiro.de(new BigDecimal(valor)).paraBigDecimal());
+        }
+    }
+
+    @Test
+    void nuloDeveSerZero() {
+        assertEquals(Dinheiro.ZERO, Dinheiro.de(null));
+        assertEquals(new BigDecimal("0.00"), Dinheiro.ZERO.paraBigDecimal());
+    }
+
+    @Test
+    void deveCalcularEmCentavos() {
+
+        Dinheiro linha = Dinheiro.de(new BigDecimal("59.90")).vezes(2).menos(Dinheiro.de(new BigDecimal("5.00")));
+
+        assertEquals(11480, linha.centavos());
+        assertEquals(new BigDecimal("114.80"), linha.paraBigDecimal());
+    }
+
+    @Test
+    void deveFalharNoEstouro() {
+
+        Dinheiro maximo = new Dinheiro(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> maximo.mais(new Dinheiro(1)));
+        assertThrows(ArithmeticException.class, () -> maximo.vezes(2));
+        assertThrows(ArithmeticException.class, () -> new Dinheiro(Long.MIN_VALUE).menos(new Dinheiro(1)));
+        assertThrows(ArithmeticException.class, () -> Dinheiro.de(new BigDecimal("92233720368547758.08")));
+    }
+
+}
@@ -0,0 +1,69 @@
+package br.com.mini.erp.service.tendencia;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JanelaDeslizanteTest {
+
+    // 5 minutos em 10 buckets de 30 s
+    private static final long BUCKET_MS = 30_000;
+
+    private final JanelaDeslizante janela = new JanelaDeslizante(Duration.ofMinutes(5), 10, 4, 1024, 16);
+
+    @Test
+    void topDeveTrazerOsMaisVendidosMesmoComCaudaMaiorQueACapacidade() {
+
+        long agora = 1_000 * BUCKET_MS;
+        Random random = new Random(7);
+        // 3 SKUs quentes no meio de 5000 SKUs com 1 unidade cada (cauda muito maior que a capacidade de 16)
+        for (int i = 0; i < 5000; i++) {
+            janela.registrar(1000 + i, "CAUDA-" + i, 1, agora);
+            if (i % 10 == 0) {
+                janela.registrar(1, "SKU-1", 5, agora);
+                janela.registrar(2, "SKU-2", 3, agora);
+                janela.registrar(3, "SKU-3", 1 + random.nextInt(2), agora);
+            }
+        }
+
+        List<JanelaDeslizante.Estimativa> top = janela.top(3, agora);
+
+        assertEquals(List.of(1L, 2L, 3L), top.stream().map(JanelaDeslizante.Estimativa::produtoId).toList());
+        assertEquals("SKU-1", top.get(0).sku());
+        // Count-Min nunca subestima
+        assertTrue(top.get(0).unidades() >= 2500);
+        assertTrue(top.get(1).unidades() >= 1500);
+    }
+
+    @Test
+    void bucketsForaDaJanelaNaoContam() {
+
+        long inicio = 1_000 * BUCKET_MS;
+        janela.registrar(1, "SKU-1", 100, inicio);
+        janela.registrar(2, "SKU-2", 10, inicio + 9 * BUCKET_MS);
+
+        assertEquals(List.of(1L, 2L), janela.top(5, inicio + 9 * BUCKET_MS).stream().map(JanelaDeslizante.Estimativa::produtoId).toList());
+        // 10 buckets depois o primeiro saiu da janela
+        List<JanelaDeslizante.Estimativa> depois = janela.top(5, inicio + 10 * BUCKET_MS);
+        assertEquals(1, depois.size());
+        assertEquals(2L, depois.get(0).produtoId());
+        assertEquals(10L, depois.get(0).unidades());
+    }
+
+    @Test
+    void bucketReaproveitadoEZerado() {
+
+        long inicio = 1_000 * BUCKET_MS;
+        janela.registrar(1, "SKU-1", 100, inicio);
+        // mesmo slot do anel, um ciclo depois
+        janela.registrar(1, "SKU-1", 1, inicio + 10 * BUCKET_MS);
+
+        assertEquals(1L, janela.top(1, inicio + 10 * BUCKET_MS).get(0).unidades());
+    }
+
+}
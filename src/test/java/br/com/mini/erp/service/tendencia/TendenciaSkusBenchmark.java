@@ -0,0 +1,71 @@
+package br.com.mini.erp.service.tendencia;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de registrar uma linha de pedido na tendência de SKUs (caminho do create): três janelas, cada uma com um
+ * Count-Min e um Space-Saving por bucket. SKUs sorteados com distribuição enviesada (poucos SKUs quentes, cauda longa)
+ * sobre catálogos de 1 mil e 1 milhão de produtos: o custo e a memória não devem depender do catálogo.
+ * <p>
+ * Rodar com {@code mvn -Pbenchmark test-compile exec:exec -Dbenchmark=TendenciaSkusBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TendenciaSkusBenchmark {
+
+    private static final int AMOSTRAS = 1 << 16;
+
+    @Param({"1000", "1000000"})
+    private int catalogo;
+
+    private TendenciaSkus tendencia;
+    private long[] produtos;
+    private String[] skus;
+
+    @Setup
+    public void preparar() {
+        tendencia = new TendenciaSkus(4, 2048, 64);
+        Random random = new Random(42);
+        produtos = new long[AMOSTRAS];
+        skus = new String[AMOSTRAS];
+        for (int i = 0; i < AMOSTRAS; i++) {
+            // quadrado de um uniforme: concentra as vendas nos ids baixos
+            double u = random.nextDouble();
+            produtos[i] = 1 + (long) (u * u * (catalogo - 1));
+            skus[i] = "SKU-" + produtos[i];
+        }
+    }
+
+    @Benchmark
+    public void registrarItem() {
+        int i = ThreadLocalRandom.current().nextInt(AMOSTRAS);
+        tendencia.registrar(produtos[i], skus[i], 1, System.currentTimeMillis());
+    }
+
+    // requisições de create concorrentes disputando os locks das janelas
+    @Benchmark
+    @Threads(4)
+    public void registrarItemConcorrente() {
+        registrarItem();
+    }
+
+}